@@ -0,0 +1,165 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import com.tagtraum.perf.gcviewer.GcLogGenerator;
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of the {@link DataReader}s created by {@link DataReaderFactory}: each sample log
+ * of src/test/resources is replicated in memory to about <code>sizeMb</code> (or written by the
+ * {@link GcLogGenerator} for "generated:&lt;format&gt;") and parsed completely per operation
+ * (including format detection).
+ *
+ * <p>Besides operations per second, "megabytes" and "lines" are reported as MB/s and lines/s.
+ * Run with the gc profiler (<code>-prof gc</code>, default of the "benchmark" maven profile) to
+ * get the allocation per operation ("gc.alloc.rate.norm"); divided by the lines per operation
+ * printed during setup, this is the allocation per line.</p>
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Dbenchmark.sizeMb=64</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DataReaderBenchmark {
+
+    private static final double MEGABYTE = 1024 * 1024;
+
+    /** prefix of samples written by {@link GcLogGenerator} in the given format */
+    private static final String GENERATED = "generated:";
+
+    @Param({"openjdk/SampleSun1_6_0CMS.txt",
+            "openjdk/SampleSun1_8_0ParallelPrintHeapAtGC.txt",
+            "openjdk/SampleSun1_7_0-01_G1_young.txt",
+            "openjdk/SampleSun1_8_0G1_ConcurrentCycle.txt",
+            "openjdk/unified-jvm-logging/sample-ujl-g1-gc-defaults.txt",
+            "openjdk/unified-jvm-logging/sample-ujl-cms-gc-defaults.txt",
+            "ibm/SampleIBM1_4_2.txt",
+            "ibm/SampleIBMJ9_5_0af-global-200811_07.txt",
+            "ibm/SampleIBMJ9_R28_af_global.txt",
+            "jrockit/SampleJRockit1_6_verbose_gc_mode_gencon.txt",
+            "hp/SampleHP-UX1_3.txt",
+            "hp/SampleHP-UX1_4_1.txt",
+            GENERATED + "UJL_G1",
+            GENERATED + "UJL_SHENANDOAH",
+            GENERATED + "SUN1_6_CMS",
+            GENERATED + "SUN1_7_G1",
+            GENERATED + "IBM_J9_R28",
+            GENERATED + "JROCKIT1_6"})
+    public String sample;
+
+    /** size of the log parsed per operation in MB */
+    @Param("16")
+    public int sizeMb;
+
+    private byte[] content;
+    private int lineCount;
+
+    /**
+     * Throughput counters reported by JMH as rate per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public double megabytes;
+        public long lines;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        if (sample.startsWith(GENERATED)) {
+            GcLogGenerator generator = new GcLogGenerator(GcLogGenerator.Format.valueOf(sample.substring(GENERATED.length())));
+            content = generator.generate(sizeMb * (int) MEGABYTE);
+        }
+        else {
+            try (InputStream in = UnittestHelper.getResourceAsStream(sample)) {
+                content = replicate(readFully(in), sizeMb * (int) MEGABYTE);
+            }
+        }
+        for (byte b : content) {
+            if (b == '\n') {
+                ++lineCount;
+            }
+        }
+
+        System.out.println("# " + sample + ": " + content.length + " bytes, " + lineCount + " lines per operation");
+    }
+
+    @Benchmark
+    public GCModel read(Counters counters) throws IOException {
+        GCResource gcResource = new GcResourceFile(sample);
+        // logging of the reader is not part of the measurement
+        gcResource.getLogger().setLevel(Level.OFF);
+        GCModel model = new DataReaderFactory().getDataReader(gcResource, new ByteArrayInputStream(content)).read();
+
+        counters.megabytes += content.length / MEGABYTE;
+        counters.lines += lineCount;
+        return model;
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[DataReaderFactory.FOUR_KB];
+        int length;
+        while ((length = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, length);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Repeats the events of <code>sample</code> until <code>targetSize</code> is reached. Xml
+     * logs (IBM J9) keep a single root element: only its content is repeated.
+     */
+    static byte[] replicate(byte[] sample, int targetSize) {
+        String text = new String(sample, StandardCharsets.ISO_8859_1);
+        if (!text.endsWith("\n")) {
+            text += "\n";
+        }
+
+        String header = "";
+        String footer = "";
+        int rootStart = text.indexOf("<verbosegc");
+        if (rootStart >= 0) {
+            int bodyStart = text.indexOf('>', rootStart) + 1;
+            int rootEnd = text.lastIndexOf("</verbosegc>");
+            header = text.substring(0, bodyStart) + "\n";
+            footer = rootEnd >= 0 ? text.substring(rootEnd) : "";
+            text = text.substring(bodyStart, rootEnd >= 0 ? rootEnd : text.length()) + "\n";
+        }
+
+        StringBuilder result = new StringBuilder(targetSize + text.length());
+        result.append(header);
+        do {
+            result.append(text);
+        } while (result.length() < targetSize);
+        result.append(footer);
+
+        return result.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,284 @@
+package com.tagtraum.perf.gcviewer.view;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.Polygon;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import com.tagtraum.perf.gcviewer.GcLogGenerator;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFactory;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.view.model.GCPreferences;
+import com.tagtraum.perf.gcviewer.view.renderer.GCRectanglesRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.GCTimesRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.InitialMarkLevelRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.PolygonChartRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.TotalHeapRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.TotalTenuredRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.TotalYoungRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.UsedHeapRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.UsedTenuredRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.UsedYoungRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of the chart: models of <code>events</code> events are parsed from logs written
+ * by the {@link GcLogGenerator} (in <code>format</code>) during setup. Measured are
+ * <ul>
+ *     <li>{@link #computePolygon(PolygonState)}: {@link PolygonChartRenderer#computePolygon} of
+ *     every <code>renderer</code></li>
+ *     <li>{@link #paintChart(PaintState)}: painting the whole {@link ModelChartImpl} into an
+ *     off-screen {@link BufferedImage} of the size of the viewport; the chart is <code>zoom</code>
+ *     times as wide as the viewport and the viewport shows its <code>clip</code> (start, middle
+ *     or end). With <code>cached</code> = false, the polygons are recomputed for every paint (as
+ *     after zooming or loading), otherwise only painting the cached polygons is measured (as when
+ *     scrolling).</li>
+ *     <li>{@link #paintGcRectangles(PaintState)}: the same for the {@link GCRectanglesRenderer} only,
+ *     which has no cache.</li>
+ * </ul>
+ *
+ * <p>Results are reported per renderer / zoom / clip. The models with 10 million events need a
+ * large heap (the forked jvm is started with 6 GB).</p>
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Dbenchmark.includes=RenderingBenchmark -Dbenchmark.events=10000,1000000</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g", "-Djava.awt.headless=true"})
+public class RenderingBenchmark {
+
+    private static final int VIEWPORT_WIDTH = 1280;
+    private static final int VIEWPORT_HEIGHT = 720;
+
+    /**
+     * Model shared by all benchmarks of a trial.
+     */
+    @State(Scope.Benchmark)
+    public static class ModelState {
+        @Param({"10000", "1000000", "10000000"})
+        public int events;
+
+        @Param("SUN1_6_CMS")
+        public String format;
+
+        GCModel model;
+
+        @Setup
+        public void setUp() throws Exception {
+            model = createModel(GcLogGenerator.Format.valueOf(format), events);
+            System.out.println("# " + format + ": " + model.size() + " events, "
+                    + model.getStopTheWorldEventCount() + " stop the world events");
+        }
+    }
+
+    /**
+     * Renderer of which {@link PolygonChartRenderer#computePolygon} is measured.
+     */
+    @State(Scope.Benchmark)
+    public static class PolygonState {
+        @Param({"TotalHeap", "TotalTenured", "TotalYoung", "UsedHeap", "UsedTenured", "UsedYoung",
+                "GCTimes", "InitialMarkLevel"})
+        public String renderer;
+
+        HeadlessModelChart chart;
+        PolygonChartRenderer polygonRenderer;
+        GCModel model;
+
+        @Setup
+        public void setUp(ModelState modelState) {
+            model = modelState.model;
+            chart = new HeadlessModelChart();
+            chart.setModel(model, new GCPreferences());
+            chart.setScaleFactor(VIEWPORT_WIDTH / model.getRunningTime());
+            polygonRenderer = createPolygonRenderer(renderer, chart);
+            polygonRenderer.setSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+        }
+    }
+
+    /**
+     * Swing chart painted into an off-screen image.
+     */
+    @State(Scope.Benchmark)
+    public static class PaintState {
+        @Param({"1", "16", "256"})
+        public int zoom;
+
+        @Param({"start", "middle", "end"})
+        public String clip;
+
+        @Param({"true", "false"})
+        public boolean cached;
+
+        ModelChartImpl modelChart;
+        Container chart;
+        GCRectanglesRenderer gcRectanglesRenderer;
+        BufferedImage image;
+        Graphics2D graphics;
+        int clipX;
+
+        @Setup
+        public void setUp(ModelState modelState) {
+            modelChart = new ModelChartImpl();
+            modelChart.setModel(modelState.model, new GCPreferences());
+            showAll(modelChart);
+            modelChart.setSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+            modelChart.doLayout();
+            modelChart.getViewport().setSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+            modelChart.setScaleFactor(zoom * VIEWPORT_WIDTH / modelState.model.getRunningTime());
+
+            chart = (Container) modelChart.getViewport().getView();
+            chart.doLayout();
+            for (Component component : chart.getComponents()) {
+                if (component instanceof GCRectanglesRenderer) {
+                    gcRectanglesRenderer = (GCRectanglesRenderer) component;
+                }
+            }
+
+            int chartWidth = chart.getWidth();
+            clipX = "start".equals(clip) ? 0
+                    : "middle".equals(clip) ? Math.max(0, (chartWidth - VIEWPORT_WIDTH) / 2)
+                    : Math.max(0, chartWidth - VIEWPORT_WIDTH);
+
+            image = new BufferedImage(VIEWPORT_WIDTH, VIEWPORT_HEIGHT, BufferedImage.TYPE_INT_RGB);
+            graphics = image.createGraphics();
+            System.out.println("# chart " + chartWidth + " x " + chart.getHeight() + ", clip at " + clipX);
+        }
+
+        /**
+         * @return graphics of the image showing the clip window of the chart
+         */
+        Graphics2D createGraphics() {
+            Graphics2D g = (Graphics2D) graphics.create();
+            g.translate(-clipX, 0);
+            g.clipRect(clipX, 0, VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+            return g;
+        }
+
+        @TearDown
+        public void tearDown() {
+            graphics.dispose();
+        }
+
+        private void showAll(ModelChart modelChart) {
+            modelChart.setShowGCTimesLine(true);
+            modelChart.setShowGCTimesRectangles(true);
+            modelChart.setShowFullGCLines(true);
+            modelChart.setShowIncGCLines(true);
+            modelChart.setShowTotalMemoryLine(true);
+            modelChart.setShowUsedMemoryLine(true);
+            modelChart.setShowUsedYoungMemoryLine(true);
+            modelChart.setShowUsedTenuredMemoryLine(true);
+            modelChart.setShowTenured(true);
+            modelChart.setShowYoung(true);
+            modelChart.setShowInitialMarkLevel(true);
+            modelChart.setShowConcurrentCollectionBeginEnd(true);
+        }
+    }
+
+    @Benchmark
+    public Polygon computePolygon(PolygonState state) {
+        return state.polygonRenderer.computePolygon(state.chart, state.model);
+    }
+
+    @Benchmark
+    public BufferedImage paintChart(PaintState state) {
+        if (!state.cached) {
+            state.modelChart.resetPolygonCache();
+        }
+        Graphics2D g = state.createGraphics();
+        try {
+            state.chart.paint(g);
+        }
+        finally {
+            g.dispose();
+        }
+
+        return state.image;
+    }
+
+    @Benchmark
+    public BufferedImage paintGcRectangles(PaintState state) {
+        Graphics2D g = state.createGraphics();
+        try {
+            g.translate(state.gcRectanglesRenderer.getX(), state.gcRectanglesRenderer.getY());
+            state.gcRectanglesRenderer.paint(g);
+        }
+        finally {
+            g.dispose();
+        }
+
+        return state.image;
+    }
+
+    private static PolygonChartRenderer createPolygonRenderer(String name, ModelChart chart) {
+        switch (name) {
+            case "TotalHeap": return new TotalHeapRenderer(chart);
+            case "TotalTenured": return new TotalTenuredRenderer(chart);
+            case "TotalYoung": return new TotalYoungRenderer(chart);
+            case "UsedHeap": return new UsedHeapRenderer(chart);
+            case "UsedTenured": return new UsedTenuredRenderer(chart);
+            case "UsedYoung": return new UsedYoungRenderer(chart);
+            case "GCTimes": return new GCTimesRenderer(chart);
+            case "InitialMarkLevel": return new InitialMarkLevelRenderer(chart);
+            default: throw new IllegalArgumentException("unknown renderer " + name);
+        }
+    }
+
+    /**
+     * Parses a log of about <code>events</code> events written by the {@link GcLogGenerator}. The
+     * log is streamed from the generator to the reader, so it is never kept in memory as a whole.
+     */
+    static GCModel createModel(GcLogGenerator.Format format, int events) throws Exception {
+        // size of the log per event estimated from a small sample
+        int sampleSize = 1024 * 1024;
+        GCModel sample = read(format, new ByteArrayInputStream(new GcLogGenerator(format).generate(sampleSize)));
+        long size = (long) events * sampleSize / Math.max(sample.size(), 1);
+
+        PipedInputStream in = new PipedInputStream(64 * 1024);
+        PipedOutputStream out = new PipedOutputStream(in);
+        Thread writer = new Thread(() -> {
+            try (PipedOutputStream pipe = out) {
+                new GcLogGenerator(format).write(pipe, size);
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("failed to write log", e);
+            }
+        }, "GcLogGenerator");
+        writer.start();
+        try {
+            return read(format, in);
+        }
+        finally {
+            writer.join();
+        }
+    }
+
+    private static GCModel read(GcLogGenerator.Format format, InputStream in) throws IOException {
+        GCResource gcResource = new GcResourceFile(format.name());
+        gcResource.getLogger().setLevel(Level.OFF);
+        return new DataReaderFactory().getDataReader(gcResource, in).read();
+    }
+}
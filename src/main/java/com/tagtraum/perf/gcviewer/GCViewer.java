@@ -1,38 +1,26 @@
 package com.tagtraum.perf.gcviewer;
 
 import com.tagtraum.perf.gcviewer.ctrl.impl.GCViewerGuiController;
-import com.tagtraum.perf.gcviewer.exp.DataWriter;
-import com.tagtraum.perf.gcviewer.exp.DataWriterType;
-import com.tagtraum.perf.gcviewer.exp.impl.DataWriterFactory;
-import com.tagtraum.perf.gcviewer.imp.DataReaderException;
-import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
-import com.tagtraum.perf.gcviewer.model.GCModel;
-import com.tagtraum.perf.gcviewer.model.GCResource;
-import com.tagtraum.perf.gcviewer.view.SimpleChartRenderer;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Main class of GCViewer. Parses command line parameters if there are any and either remains
- * in command line mode or starts the gui (depending on parameters). 
+ * in command line mode or starts the gui (depending on parameters). Command line modes are
+ * delegated to {@link GCViewerCli}; the gui controller is only created, if the gui is started.
  */
 public class GCViewer {
     private static final Logger LOGGER = Logger.getLogger(GCViewer.class.getName());
-    private static final int EXIT_OK = 0;
-    private static final int EXIT_EXPORT_FAILED = -1;
-    private static final int EXIT_ARGS_PARSE_FAILED = -2;
-    private static final int EXIT_TOO_MANY_ARGS = -3;
+    private static final int EXIT_OK = GCViewerCli.EXIT_OK;
+    private static final int EXIT_ARGS_PARSE_FAILED = GCViewerCli.EXIT_ARGS_PARSE_FAILED;
 
-    private final GCViewerGuiController gcViewerGuiController;
+    private GCViewerGuiController gcViewerGuiController;
     private final GCViewerArgsParser gcViewerArgsParser;
 
     public GCViewer() {
-        this(new GCViewerGuiController(), new GCViewerArgsParser());
+        this(null, new GCViewerArgsParser());
     }
 
     public GCViewer(GCViewerGuiController gcViewerGuiController, GCViewerArgsParser gcViewerArgsParser) {
@@ -52,70 +40,26 @@ public class GCViewer {
             gcViewerArgsParser.parseArguments(args);
         }
         catch (GCViewerArgsParserException e) {
-            usage();
+            GCViewerCli.usage();
             LOGGER.log(Level.SEVERE, e.getMessage(), e);
             return EXIT_ARGS_PARSE_FAILED;
         }
 
-        if (gcViewerArgsParser.getArgumentCount() > 3) {
-            usage();
-            return EXIT_TOO_MANY_ARGS;
-        }
-        else if (gcViewerArgsParser.getArgumentCount() >= 2) {
-            LOGGER.info("GCViewer command line mode");
-            GCResource gcResource = gcViewerArgsParser.getGcResource();
-            String summaryFilePath = gcViewerArgsParser.getSummaryFilePath();
-            String chartFilePath = gcViewerArgsParser.getChartFilePath();
-            DataWriterType type = gcViewerArgsParser.getType();
-
-            //export summary:
-            try {
-                export(gcResource, summaryFilePath, chartFilePath, type);
-                LOGGER.info("export completed successfully");
-                return EXIT_OK;
-            }
-            catch(Exception e) {
-                LOGGER.log(Level.SEVERE, "Error during report generation", e);
-                return EXIT_EXPORT_FAILED;
-            }
+        if (GCViewerCli.isCommandLineMode(gcViewerArgsParser)) {
+            return new GCViewerCli(gcViewerArgsParser).run();
         }
         else {
-            gcViewerGuiController.startGui(gcViewerArgsParser.getArgumentCount() == 1 ? gcViewerArgsParser.getGcResource() : null);
+            getGuiController().startGui(gcViewerArgsParser.getArgumentCount() == 1 ? gcViewerArgsParser.getGcResource() : null);
             return EXIT_OK;
         }
     }
 
-    private void export(GCResource gcResource, String summaryFilePath, String chartFilePath, DataWriterType type)
-            throws IOException, DataReaderException {
-        
-        DataReaderFacade dataReaderFacade = new DataReaderFacade();
-        GCModel model = dataReaderFacade.loadModel(gcResource);
-
-        exportType(model, summaryFilePath, type);
-        if (chartFilePath != null)
-            renderChart(model, chartFilePath);
-    }
-
-    private void exportType(GCModel model, String summaryFilePath, DataWriterType type) throws IOException {
-        try (DataWriter summaryWriter = DataWriterFactory.getDataWriter(new File(summaryFilePath), type)) {
-            summaryWriter.write(model);
+    private GCViewerGuiController getGuiController() {
+        if (gcViewerGuiController == null) {
+            gcViewerGuiController = new GCViewerGuiController();
         }
-    }
-
-    private void renderChart(GCModel model, String chartFilePath) throws IOException {
-        new SimpleChartRenderer().render(model, new FileOutputStream(new File(chartFilePath)));
-    }
 
-    private static void usage() {
-        System.out.println("Welcome to GCViewer with cmdline");
-        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>] -> opens gui and loads given file");
-        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] -> opens gui and loads given files as series of rotated logfiles");
-        System.out.println("java -jar gcviewer.jar [<gc-log-file>] [<export.csv>] -> cmdline: writes report to <export.csv>");
-        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] [<export.csv>] -> cmdline: loads given files as series of rotated logfiles and writes report to <export.csv>");
-        System.out.println("java -jar gcviewer.jar [<gc-log-file>] [<export.csv>] [<chart.png>] -> cmdline: writes report to <export.csv> and renders gc chart to <chart.png>");
-        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] [<export.csv>] [<chart.png>] -> cmdline: loads given files as series of rotated logfiles and writes report to <export.csv> and renders gc chart to <chart.png>");
-        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>] [<export.csv>] [<chart.png>] [-t <SUMMARY, CSV, CSV_TS, PLAIN, SIMPLE>]");
-        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] [<export.csv>] [<chart.png>] [-t <SUMMARY, CSV, CSV_TS, PLAIN, SIMPLE>]");
+        return gcViewerGuiController;
     }
 
 }
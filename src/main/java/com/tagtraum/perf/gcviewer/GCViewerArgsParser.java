@@ -4,9 +4,11 @@ import com.tagtraum.perf.gcviewer.exp.DataWriterType;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
 import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
+import com.tagtraum.perf.gcviewer.model.TimeRange;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +27,13 @@ public class GCViewerArgsParser {
     private String gcFile;
     private String summaryFilePath;
     private DataWriterType type = DataWriterType.SUMMARY;
+    private boolean batchMode;
+    private int serverPort = -1;
+    private boolean followMode;
+    private int interval = GCViewerFollow.DEFAULT_INTERVAL;
+    private TimeRange timeRange;
+    private String loadStatisticsFilePath;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
     
     public int getArgumentCount() {
         return argumentCount;
@@ -34,9 +43,19 @@ public class GCViewerArgsParser {
         return chartFilePath;
     }
 
+    /**
+     * Returns the first argument as given on the command line (gc log file, series or - in batch
+     * mode - directory / glob pattern).
+     *
+     * @return first argument
+     */
+    public String getGcFile() {
+        return gcFile;
+    }
+
     public GCResource getGcResource() {
         List<String> files = Arrays.asList(gcFile.split(";"));
-        List<GCResource> resources = files.stream().map(GcResourceFile::new).collect(Collectors.toList());
+        List<GCResource> resources = files.stream().map(this::createGcResourceFile).collect(Collectors.toList());
         if (resources.isEmpty())
             throw new IllegalStateException("Found no valid resource!");
 
@@ -48,6 +67,27 @@ public class GCViewerArgsParser {
         }
     }
     
+    private GcResourceFile createGcResourceFile(String file) {
+        GcResourceFile gcResourceFile = new GcResourceFile(file);
+        gcResourceFile.setTimeRange(timeRange);
+        return gcResourceFile;
+    }
+
+    /**
+     * @return range given by "--from" / "--to" or <code>null</code>, if neither was given
+     */
+    public TimeRange getTimeRange() {
+        return timeRange;
+    }
+
+    /**
+     * @return file given by "--load-stats" to write the statistics of the load to or
+     * <code>null</code>, if it wasn't given
+     */
+    public String getLoadStatisticsFilePath() {
+        return loadStatisticsFilePath;
+    }
+
     public String getSummaryFilePath() {
         return summaryFilePath;
     }
@@ -56,6 +96,50 @@ public class GCViewerArgsParser {
         return type; 
     }
 
+    /**
+     * @return <code>true</code>, if "--batch" was given: first argument is a directory or glob pattern,
+     * second argument the output directory
+     */
+    public boolean isBatchMode() {
+        return batchMode;
+    }
+
+    /**
+     * @return <code>true</code>, if "--server &lt;port&gt;" was given
+     */
+    public boolean isServerMode() {
+        return serverPort >= 0;
+    }
+
+    /**
+     * @return port of the server mode ("--server &lt;port&gt;")
+     */
+    public int getServerPort() {
+        return serverPort;
+    }
+
+    /**
+     * @return <code>true</code>, if "--follow" was given: the gc log file given as first argument
+     * is followed while it grows
+     */
+    public boolean isFollowMode() {
+        return followMode;
+    }
+
+    /**
+     * @return seconds between two updates in follow mode ("--interval"; default: {@value GCViewerFollow#DEFAULT_INTERVAL})
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return number of threads used in batch / server mode ("--threads"; default: number of cores)
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
     /**
      * Parse arguments given in parameter. If an illegal argument is given, an exception is thrown.
      * 
@@ -78,12 +162,78 @@ public class GCViewerArgsParser {
             argsList.remove(typeIdx);
         }
 
+        batchMode = removeOption(argsList, "--batch", "-batch");
+
+        followMode = removeOption(argsList, "--follow");
+
+        String intervalValue = removeOptionWithValue(argsList, "--interval", "-interval");
+        if (intervalValue != null) {
+            interval = parsePositiveInt("--interval", intervalValue);
+        }
+
+        String from = removeOptionWithValue(argsList, "--from");
+        String to = removeOptionWithValue(argsList, "--to");
+        try {
+            timeRange = TimeRange.parse(from, to);
+        }
+        catch (IllegalArgumentException e) {
+            throw new GCViewerArgsParserException("--from / --to", from + " / " + to);
+        }
+
+        loadStatisticsFilePath = removeOptionWithValue(argsList, "--load-stats");
+
+        String serverValue = removeOptionWithValue(argsList, "--server", "-server");
+        if (serverValue != null) {
+            serverPort = parsePort("--server", serverValue);
+        }
+
+        String threadsValue = removeOptionWithValue(argsList, "--threads", "-threads");
+        if (threadsValue != null) {
+            threadCount = parsePositiveInt("--threads", threadsValue);
+        }
+
         argumentCount = argsList.size();
         gcFile = safeGetArgument(argsList, ARG_POS_GCFILE);
         summaryFilePath = safeGetArgument(argsList, ARG_POS_SUMMARY_FILE);
         chartFilePath = safeGetArgument(argsList, ARG_POS_CHART_FILE);
     }
 
+    /**
+     * Removes all occurrences of <code>option</code> and its <code>aliases</code> from <code>argsList</code>.
+     *
+     * @return <code>true</code>, if the option or one of its aliases was present
+     */
+    private boolean removeOption(List<String> argsList, String option, String... aliases) {
+        boolean found = argsList.removeAll(Collections.singleton(option));
+        for (String alias : aliases) {
+            found |= argsList.removeAll(Collections.singleton(alias));
+        }
+
+        return found;
+    }
+
+    /**
+     * Removes <code>option</code> (or the first of its <code>aliases</code> present) and its value
+     * from <code>argsList</code>.
+     *
+     * @return value of the option or <code>null</code>, if it is not present
+     */
+    private String removeOptionWithValue(List<String> argsList, String option, String... aliases) throws GCViewerArgsParserException {
+        int index = argsList.indexOf(option);
+        for (int i = 0; index == -1 && i < aliases.length; ++i) {
+            index = argsList.indexOf(aliases[i]);
+        }
+        if (index == -1) {
+            return null;
+        }
+        if (index + 1 >= argsList.size()) {
+            throw new GCViewerArgsParserException(option, "");
+        }
+
+        argsList.remove(index);
+        return argsList.remove(index);
+    }
+
     private DataWriterType parseType(String type) throws GCViewerArgsParserException {
         try {
             return DataWriterType.valueOf(type);
@@ -93,6 +243,32 @@ public class GCViewerArgsParser {
         }
     }
     
+    private int parsePositiveInt(String option, String value) throws GCViewerArgsParserException {
+        try {
+            int result = Integer.parseInt(value);
+            if (result < 1) {
+                throw new GCViewerArgsParserException(option, value);
+            }
+            return result;
+        }
+        catch (NumberFormatException e) {
+            throw new GCViewerArgsParserException(option, value);
+        }
+    }
+
+    private int parsePort(String option, String port) throws GCViewerArgsParserException {
+        try {
+            int result = Integer.parseInt(port);
+            if (result < 0 || result > 65535) {
+                throw new GCViewerArgsParserException(option, port);
+            }
+            return result;
+        }
+        catch (NumberFormatException e) {
+            throw new GCViewerArgsParserException(option, port);
+        }
+    }
+
     private String safeGetArgument(List<String> arguments, int index) {
         if (arguments.size() > index) {
             return arguments.get(index);
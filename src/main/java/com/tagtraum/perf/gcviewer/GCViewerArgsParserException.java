@@ -13,6 +13,10 @@ public class GCViewerArgsParserException extends Exception {
     public GCViewerArgsParserException(String type) {
         super("Illegal type '" + type + "'; must be one of " + formatLegalDataWriterTypes());
     }
+
+    public GCViewerArgsParserException(String option, String value) {
+        super("Illegal value '" + value + "' for option " + option);
+    }
     
     private static String formatLegalDataWriterTypes() {
         StringBuilder sb = new StringBuilder();
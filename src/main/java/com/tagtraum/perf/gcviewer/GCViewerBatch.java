@@ -0,0 +1,338 @@
+package com.tagtraum.perf.gcviewer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.tagtraum.perf.gcviewer.exp.DataWriter;
+import com.tagtraum.perf.gcviewer.exp.DataWriterType;
+import com.tagtraum.perf.gcviewer.exp.impl.DataWriterFactory;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+
+/**
+ * Command line batch mode: parses all files of a directory (or matching a glob pattern) in
+ * parallel and writes one export per file plus one summary table with one row per file into an
+ * output directory. A file, that can't be parsed or exported, is listed as failed in the summary
+ * table, but doesn't stop the other files from being processed.
+ */
+public class GCViewerBatch {
+    private static final Logger LOGGER = Logger.getLogger(GCViewerBatch.class.getName());
+
+    /** name of the summary table written into the output directory */
+    public static final String SUMMARY_FILE_NAME = "gcviewer-batch-summary.csv";
+
+    private static final String SEPARATOR = ";";
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final DataWriterType type;
+    private final int threadCount;
+
+    /**
+     * @param type type of the export written for every file
+     * @param threadCount number of files parsed in parallel
+     */
+    public GCViewerBatch(DataWriterType type, int threadCount) {
+        this.type = type;
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Parses all files found for <code>input</code> and writes the exports and the summary table
+     * into <code>outputDirectory</code>.
+     *
+     * @param input directory (all files in it are parsed) or glob pattern like "logs/*.log"
+     * @param outputDirectory directory the exports are written to (created if it doesn't exist)
+     * @return results of all files in the order of their paths
+     * @throws IOException problem finding the input files or writing the summary table
+     * @throws InterruptedException interrupted while waiting for the files to be parsed
+     */
+    public List<BatchResult> run(String input, File outputDirectory) throws IOException, InterruptedException {
+        List<Path> files = findFiles(input);
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("could not create output directory " + outputDirectory);
+        }
+        LOGGER.info("batch mode: parsing " + files.size() + " files using " + threadCount + " threads");
+
+        Path base = getBaseDirectory(input);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, new BatchThreadFactory());
+        try {
+            List<Future<BatchResult>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                File outputFile = new File(outputDirectory, getOutputFileName(base, file));
+                futures.add(executor.submit(() -> analyse(file, outputFile)));
+            }
+
+            List<BatchResult> results = new ArrayList<>(files.size());
+            for (Future<BatchResult> future : futures) {
+                try {
+                    results.add(future.get());
+                }
+                catch (ExecutionException e) {
+                    // analyse() handles all exceptions; this must be some error
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+
+            writeSummary(results, new File(outputDirectory, SUMMARY_FILE_NAME));
+            return results;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private BatchResult analyse(Path file, File outputFile) {
+        BatchResult result = new BatchResult(file);
+        long start = System.nanoTime();
+        try {
+            GCModel model = new DataReaderFacade().loadModel(new GcResourceFile(file.toFile()));
+            try (DataWriter writer = DataWriterFactory.getDataWriter(outputFile, type)) {
+                writer.write(model);
+            }
+            result.setModel(model);
+        }
+        catch (Exception | LinkageError e) {
+            // a single file failing must not stop the others
+            if (LOGGER.isLoggable(Level.WARNING)) LOGGER.log(Level.WARNING, "failed to process " + file + " (" + e.toString() + ")", e);
+            result.setError(e);
+        }
+        result.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+
+        return result;
+    }
+
+    /**
+     * Returns all regular files for <code>input</code> ordered by their paths.
+     *
+     * @param input directory, single file or glob pattern
+     * @return files found
+     * @throws IOException problem reading a directory
+     */
+    static List<Path> findFiles(String input) throws IOException {
+        Path base = getBaseDirectory(input);
+        int maxDepth = 1;
+        PathMatcher matcher = path -> true;
+        if (isGlob(input)) {
+            String pattern = input.substring(getGlobStart(input)).replace(File.separatorChar, '/');
+            matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+            maxDepth = pattern.contains("**") ? Integer.MAX_VALUE : pattern.split("/").length;
+        }
+        else if (!Files.isDirectory(base)) {
+            throw new IOException("no directory or glob pattern: " + input);
+        }
+
+        PathMatcher relativeMatcher = matcher;
+        try (Stream<Path> paths = Files.walk(base, maxDepth)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> relativeMatcher.matches(toGlobPath(base.relativize(path))))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static Path toGlobPath(Path relativePath) {
+        // glob patterns are always written with "/"
+        return Paths.get(relativePath.toString().replace(File.separatorChar, '/'));
+    }
+
+    private static boolean isGlob(String input) {
+        for (char c : GLOB_CHARACTERS.toCharArray()) {
+            if (input.indexOf(c) >= 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the index in <code>input</code>, where the part containing glob characters starts
+     * (the start of the file or directory name containing the first glob character).
+     */
+    private static int getGlobStart(String input) {
+        int firstGlobCharacter = input.length();
+        for (char c : GLOB_CHARACTERS.toCharArray()) {
+            int index = input.indexOf(c);
+            if (index >= 0) {
+                firstGlobCharacter = Math.min(firstGlobCharacter, index);
+            }
+        }
+
+        return Math.max(input.lastIndexOf('/', firstGlobCharacter), input.lastIndexOf(File.separatorChar, firstGlobCharacter)) + 1;
+    }
+
+    /**
+     * Returns the directory part of <code>input</code> not containing any glob characters.
+     */
+    private static Path getBaseDirectory(String input) {
+        if (!isGlob(input)) {
+            return Paths.get(input);
+        }
+
+        int globStart = getGlobStart(input);
+        return globStart > 0 ? Paths.get(input.substring(0, globStart)) : Paths.get("");
+    }
+
+    private String getOutputFileName(Path base, Path file) {
+        String relativePath = base.relativize(file).toString().replace(File.separatorChar, '_');
+        return relativePath + "." + type.getFileExtension();
+    }
+
+    private void writeSummary(List<BatchResult> results, File summaryFile) throws IOException {
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(summaryFile), StandardCharsets.UTF_8))) {
+            out.println(String.join(SEPARATOR,
+                    "file", "status", "events", "pauses", "totalPause(s)", "maxPause(s)", "avgPause(s)",
+                    "throughput(%)", "footprint(K)", "runningTime(s)", "duration(ms)", "error"));
+
+            for (BatchResult result : results) {
+                List<String> row = new ArrayList<>();
+                row.add(result.getFile().toString());
+                row.add(result.isFailed() ? "FAILED" : "OK");
+                if (result.isFailed()) {
+                    for (int i = 0; i < 8; ++i) {
+                        row.add("");
+                    }
+                }
+                else {
+                    row.add(Integer.toString(result.getEventCount()));
+                    row.add(Integer.toString(result.getPauseCount()));
+                    row.add(Double.toString(result.getTotalPause()));
+                    row.add(Double.toString(result.getMaxPause()));
+                    row.add(Double.toString(result.getAvgPause()));
+                    row.add(Double.toString(result.getThroughput()));
+                    row.add(Long.toString(result.getFootprint()));
+                    row.add(Double.toString(result.getRunningTime()));
+                }
+                row.add(Long.toString(result.getDurationMillis()));
+                row.add(result.isFailed() ? result.getError().toString().replace(SEPARATOR, ",").replace('\n', ' ') : "");
+
+                out.println(String.join(SEPARATOR, row));
+            }
+        }
+    }
+
+    /**
+     * Result of one file of the batch. Only key figures of the model are kept, so the memory
+     * needed doesn't depend on the size of the files.
+     */
+    public static class BatchResult {
+        private final Path file;
+        private Exception error;
+        private long durationMillis;
+        private int eventCount;
+        private int pauseCount;
+        private double totalPause;
+        private double maxPause;
+        private double avgPause;
+        private double throughput;
+        private long footprint;
+        private double runningTime;
+
+        public BatchResult(Path file) {
+            this.file = file;
+        }
+
+        private void setModel(GCModel model) {
+            eventCount = model.size();
+            pauseCount = model.getPause().getN();
+            totalPause = model.getPause().getSum();
+            maxPause = pauseCount > 0 ? model.getPause().getMax() : 0;
+            avgPause = pauseCount > 0 ? model.getPause().average() : 0;
+            throughput = model.getThroughput();
+            footprint = model.getFootprint();
+            runningTime = model.getRunningTime();
+        }
+
+        private void setError(Throwable t) {
+            this.error = t instanceof Exception ? (Exception) t : new Exception(t);
+        }
+
+        private void setDurationMillis(long durationMillis) {
+            this.durationMillis = durationMillis;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public boolean isFailed() {
+            return error != null;
+        }
+
+        public Exception getError() {
+            return error;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public int getEventCount() {
+            return eventCount;
+        }
+
+        public int getPauseCount() {
+            return pauseCount;
+        }
+
+        public double getTotalPause() {
+            return totalPause;
+        }
+
+        public double getMaxPause() {
+            return maxPause;
+        }
+
+        public double getAvgPause() {
+            return avgPause;
+        }
+
+        public double getThroughput() {
+            return throughput;
+        }
+
+        public long getFootprint() {
+            return footprint;
+        }
+
+        public double getRunningTime() {
+            return runningTime;
+        }
+    }
+
+    /**
+     * Creates daemon threads with recognisable names.
+     */
+    private static class BatchThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "gcviewer-batch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
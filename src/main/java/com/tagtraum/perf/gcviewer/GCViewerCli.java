@@ -0,0 +1,255 @@
+package com.tagtraum.perf.gcviewer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.tagtraum.perf.gcviewer.exp.DataWriter;
+import com.tagtraum.perf.gcviewer.exp.DataWriterType;
+import com.tagtraum.perf.gcviewer.exp.impl.DataWriterFactory;
+import com.tagtraum.perf.gcviewer.imp.DataReaderException;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.server.GCViewerServer;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics.Phase;
+import com.tagtraum.perf.gcviewer.view.SimpleChartRenderer;
+
+/**
+ * Command line entry point of GCViewer (export, batch, follow and server mode). In contrast to
+ * {@link GCViewer} it never starts the gui; neither Swing nor AWT are loaded unless a chart (PNG)
+ * is rendered, which keeps the startup time short for scripts calling it for many files.
+ */
+public class GCViewerCli {
+    private static final Logger LOGGER = Logger.getLogger(GCViewerCli.class.getName());
+    static final int EXIT_OK = 0;
+    static final int EXIT_EXPORT_FAILED = -1;
+    static final int EXIT_ARGS_PARSE_FAILED = -2;
+    static final int EXIT_TOO_MANY_ARGS = -3;
+
+    private final GCViewerArgsParser gcViewerArgsParser;
+
+    public GCViewerCli() {
+        this(new GCViewerArgsParser());
+    }
+
+    public GCViewerCli(GCViewerArgsParser gcViewerArgsParser) {
+        this.gcViewerArgsParser = gcViewerArgsParser;
+    }
+
+    public static void main(String[] args) {
+        int exitValue = new GCViewerCli().doMain(args);
+        if (exitValue != EXIT_OK) {
+            System.exit(exitValue);
+        }
+    }
+
+    public int doMain(String[] args) {
+        try {
+            gcViewerArgsParser.parseArguments(args);
+        }
+        catch (GCViewerArgsParserException e) {
+            usage();
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            return EXIT_ARGS_PARSE_FAILED;
+        }
+
+        if (!isCommandLineMode(gcViewerArgsParser)) {
+            usage();
+            return EXIT_ARGS_PARSE_FAILED;
+        }
+
+        return run();
+    }
+
+    /**
+     * @param gcViewerArgsParser parser containing parsed arguments
+     * @return <code>true</code>, if the arguments request any mode but the gui
+     */
+    static boolean isCommandLineMode(GCViewerArgsParser gcViewerArgsParser) {
+        return gcViewerArgsParser.isServerMode()
+                || gcViewerArgsParser.isFollowMode()
+                || gcViewerArgsParser.isBatchMode()
+                || gcViewerArgsParser.getArgumentCount() >= 2;
+    }
+
+    /**
+     * Runs the mode requested by the arguments already parsed by the {@link GCViewerArgsParser}
+     * given in the constructor.
+     *
+     * @return exit value
+     */
+    int run() {
+        if (gcViewerArgsParser.isServerMode()) {
+            if (gcViewerArgsParser.getArgumentCount() > 0) {
+                usage();
+                return EXIT_TOO_MANY_ARGS;
+            }
+            return startServer(gcViewerArgsParser.getServerPort(), gcViewerArgsParser.getThreadCount());
+        }
+        else if (gcViewerArgsParser.isFollowMode()) {
+            if (gcViewerArgsParser.getArgumentCount() != 1) {
+                usage();
+                return EXIT_ARGS_PARSE_FAILED;
+            }
+            return follow(new File(gcViewerArgsParser.getGcFile()), gcViewerArgsParser.getInterval());
+        }
+        else if (gcViewerArgsParser.isBatchMode()) {
+            if (gcViewerArgsParser.getArgumentCount() != 2) {
+                usage();
+                return EXIT_ARGS_PARSE_FAILED;
+            }
+            return doBatch(gcViewerArgsParser.getGcFile(),
+                    new File(gcViewerArgsParser.getSummaryFilePath()),
+                    gcViewerArgsParser.getType(),
+                    gcViewerArgsParser.getThreadCount());
+        }
+        else if (gcViewerArgsParser.getArgumentCount() > 3) {
+            usage();
+            return EXIT_TOO_MANY_ARGS;
+        }
+        else {
+            LOGGER.info("GCViewer command line mode");
+            GCResource gcResource = gcViewerArgsParser.getGcResource();
+            String summaryFilePath = gcViewerArgsParser.getSummaryFilePath();
+            String chartFilePath = gcViewerArgsParser.getChartFilePath();
+            DataWriterType type = gcViewerArgsParser.getType();
+            String loadStatisticsFilePath = gcViewerArgsParser.getLoadStatisticsFilePath();
+
+            //export summary:
+            try {
+                export(gcResource, summaryFilePath, chartFilePath, type, loadStatisticsFilePath);
+                LOGGER.info("export completed successfully");
+                return EXIT_OK;
+            }
+            catch(Exception e) {
+                LOGGER.log(Level.SEVERE, "Error during report generation", e);
+                return EXIT_EXPORT_FAILED;
+            }
+        }
+    }
+
+    private int doBatch(String input, File outputDirectory, DataWriterType type, int threadCount) {
+        LOGGER.info("GCViewer batch mode");
+        try {
+            List<GCViewerBatch.BatchResult> results = new GCViewerBatch(type, threadCount).run(input, outputDirectory);
+            long failedCount = results.stream().filter(GCViewerBatch.BatchResult::isFailed).count();
+            LOGGER.info("batch completed: " + (results.size() - failedCount) + " files exported, " + failedCount + " failed");
+            return failedCount == 0 ? EXIT_OK : EXIT_EXPORT_FAILED;
+        }
+        catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error during batch export", e);
+            return EXIT_EXPORT_FAILED;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(Level.SEVERE, "Batch export interrupted", e);
+            return EXIT_EXPORT_FAILED;
+        }
+    }
+
+    private int follow(File file, int interval) {
+        LOGGER.info("GCViewer follow mode");
+        try {
+            new GCViewerFollow(file, System.out).run(interval);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return EXIT_OK;
+    }
+
+    private int startServer(int port, int threadCount) {
+        LOGGER.info("GCViewer server mode");
+        try {
+            // only local clients are accepted
+            GCViewerServer server = new GCViewerServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                    threadCount,
+                    GCViewerServer.DEFAULT_QUEUE_CAPACITY,
+                    GCViewerServer.DEFAULT_CACHE_SIZE);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            server.start();
+            // server keeps running in its own (non daemon) thread
+            return EXIT_OK;
+        }
+        catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error starting server", e);
+            return EXIT_EXPORT_FAILED;
+        }
+    }
+
+    private void export(GCResource gcResource, String summaryFilePath, String chartFilePath, DataWriterType type,
+                        String loadStatisticsFilePath)
+            throws IOException, DataReaderException {
+
+        DataReaderFacade dataReaderFacade = new DataReaderFacade();
+        GCModel model = dataReaderFacade.loadModel(gcResource);
+        LoadStatistics loadStatistics = dataReaderFacade.getLoadStatistics();
+
+        exportType(model, summaryFilePath, type);
+        if (chartFilePath != null) {
+            Phase previousPhase = loadStatistics.enter(Phase.RENDER);
+            try {
+                renderChart(model, chartFilePath);
+            }
+            finally {
+                loadStatistics.exit(previousPhase);
+            }
+        }
+        if (loadStatisticsFilePath != null) {
+            writeLoadStatistics(loadStatistics, loadStatisticsFilePath);
+        }
+    }
+
+    private void writeLoadStatistics(LoadStatistics loadStatistics, String loadStatisticsFilePath) throws IOException {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(new File(loadStatisticsFilePath)), StandardCharsets.UTF_8)) {
+            out.write(loadStatistics.toJson());
+            out.write('\n');
+        }
+    }
+
+    private void exportType(GCModel model, String summaryFilePath, DataWriterType type) throws IOException {
+        try (DataWriter summaryWriter = DataWriterFactory.getDataWriter(new File(summaryFilePath), type)) {
+            summaryWriter.write(model);
+        }
+    }
+
+    /**
+     * Only place loading AWT / Swing (through {@link SimpleChartRenderer}).
+     */
+    private void renderChart(GCModel model, String chartFilePath) throws IOException {
+        try (OutputStream out = new FileOutputStream(new File(chartFilePath))) {
+            new SimpleChartRenderer().render(model, out);
+        }
+    }
+
+    static void usage() {
+        System.out.println("Welcome to GCViewer with cmdline");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>] -> opens gui and loads given file");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] -> opens gui and loads given files as series of rotated logfiles");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file>] [<export.csv>] -> cmdline: writes report to <export.csv>");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] [<export.csv>] -> cmdline: loads given files as series of rotated logfiles and writes report to <export.csv>");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file>] [<export.csv>] [<chart.png>] -> cmdline: writes report to <export.csv> and renders gc chart to <chart.png>");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] [<export.csv>] [<chart.png>] -> cmdline: loads given files as series of rotated logfiles and writes report to <export.csv> and renders gc chart to <chart.png>");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>] [<export.csv>] [<chart.png>] [-t <SUMMARY, CSV, CSV_TS, PLAIN, SIMPLE>]");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] [<export.csv>] [<chart.png>] [-t <SUMMARY, CSV, CSV_TS, PLAIN, SIMPLE>]");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file>] [<export.csv>] [<chart.png>] [--from <time>] [--to <time>] -> cmdline: only events between <time>s (seconds or yyyy-MM-ddTHH:mm:ss[+hh:mm]); large files are indexed on first read, so later reads skip to the range");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>] [<export.csv>] [<chart.png>] [--load-stats <stats.json>] -> cmdline: writes time, cpu time and bytes allocated per phase of the load (download, decompress, format detection, reading lines, parsing, adding events, rendering) to <stats.json>");
+        System.out.println("java -jar gcviewer.jar --batch [<directory>|<glob-pattern>] [<output-directory>] [-t <SUMMARY, CSV, CSV_TS, PLAIN, SIMPLE, PNG, JSON>] [--threads <n>] -> cmdline: writes one export per file and " + GCViewerBatch.SUMMARY_FILE_NAME + " to <output-directory>");
+        System.out.println("java -jar gcviewer.jar --follow <gc-log-file> [--interval <seconds>] -> cmdline: follows the growing <gc-log-file> and prints pause p99, throughput and allocation rate of the last 1 / 5 / 15 minutes every <seconds> (default " + GCViewerFollow.DEFAULT_INTERVAL + ")");
+        System.out.println("java -jar gcviewer.jar --server <port> [--threads <n>] -> server mode: POST gc logs to http://localhost:<port>" + GCViewerServer.CONTEXT_ANALYSE + "?type=<SUMMARY, CSV, CSV_TS, PLAIN, SIMPLE, PNG, JSON>");
+        System.out.println("(-batch, -interval, -server and -threads are still accepted as aliases of the long options)");
+        System.out.println("java -cp gcviewer.jar " + GCViewerCli.class.getName() + " <arguments> -> same command line modes as above without loading the gui (faster startup)");
+    }
+
+}
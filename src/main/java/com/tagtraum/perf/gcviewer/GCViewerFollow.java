@@ -0,0 +1,150 @@
+package com.tagtraum.perf.gcviewer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.tagtraum.perf.gcviewer.imp.GcLogFollower;
+import com.tagtraum.perf.gcviewer.math.RollingWindowStatistics;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
+import com.tagtraum.perf.gcviewer.model.GCEvent;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+
+/**
+ * Follow mode of the command line: reads the lines appended to a growing gc log file every
+ * <code>interval</code> seconds and prints p99 pause, throughput and allocation rate of the last
+ * 1 / 5 / 15 minutes. Only aggregates of these windows are kept in memory, so memory usage
+ * doesn't grow with the size of the log.
+ *
+ * <p>Windows are measured on the timestamps of the log (jvm uptime), extrapolated by the wall
+ * clock time passed since the newest event was read, so quiet periods without gc events are
+ * reflected as well.</p>
+ */
+public class GCViewerFollow {
+    private static final Logger LOGGER = Logger.getLogger(GCViewerFollow.class.getName());
+
+    public static final int DEFAULT_INTERVAL = 10;
+    static final int[] WINDOW_SECONDS = {60, 5 * 60, 15 * 60};
+
+    private final GcLogFollower follower;
+    private final PrintStream out;
+    private final RollingWindowStatistics statistics = new RollingWindowStatistics();
+    private long lastPostUsed = -1;
+    private long eventCount;
+    private long lastEventMillis;
+
+    /**
+     * @param file gc log file to be followed
+     * @param out stream where the statistics are printed to
+     */
+    public GCViewerFollow(File file, PrintStream out) {
+        this.follower = new GcLogFollower(file);
+        this.out = out;
+    }
+
+    /**
+     * Calls {@link #update()} every <code>interval</code> seconds until the current thread is
+     * interrupted. Problems reading the file are logged; following continues.
+     *
+     * @param interval seconds between two updates
+     * @throws InterruptedException current thread was interrupted
+     */
+    public void run(int interval) throws InterruptedException {
+        if (LOGGER.isLoggable(Level.INFO)) LOGGER.info("following " + follower.getFile() + " (interval: " + interval + "s)");
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                update();
+            }
+            catch (IOException e) {
+                if (LOGGER.isLoggable(Level.WARNING)) LOGGER.log(Level.WARNING, "failed to read " + follower.getFile() + " (" + e.toString() + ")", e);
+            }
+            Thread.sleep(interval * 1000L);
+        }
+    }
+
+    /**
+     * Parses the events appended to the file since the last call and prints the statistics.
+     *
+     * @throws IOException problem reading the file
+     */
+    public void update() throws IOException {
+        update(System.currentTimeMillis());
+    }
+
+    void update(long currentTimeMillis) throws IOException {
+        GCModel model = follower.readNewEvents();
+        if (follower.isRestarted()) {
+            statistics.reset();
+            lastPostUsed = -1;
+            if (LOGGER.isLoggable(Level.INFO)) LOGGER.info(follower.getFile() + " was truncated; reading from start");
+        }
+
+        if (model.size() > 0) {
+            add(model);
+            lastEventMillis = currentTimeMillis;
+        }
+
+        out.println(format(currentTimeMillis));
+        out.flush();
+    }
+
+    private void add(GCModel model) {
+        Iterator<AbstractGCEvent<?>> events = model.getEvents();
+        while (events.hasNext()) {
+            AbstractGCEvent<?> event = events.next();
+            eventCount++;
+            if (event.isStopTheWorld()) {
+                statistics.addPause(event.getTimestamp(), event.getPause());
+            }
+            if (event instanceof GCEvent && event.getTotal() > 0) {
+                // allocated between the end of the previous and the start of this collection
+                if (lastPostUsed >= 0 && event.getPreUsed() > lastPostUsed) {
+                    statistics.addAllocation(event.getTimestamp(), event.getPreUsed() - lastPostUsed);
+                }
+                lastPostUsed = event.getPostUsed();
+            }
+        }
+    }
+
+    /**
+     * @return current timestamp of the log: newest timestamp + time passed since it was read
+     */
+    double getNow(long currentTimeMillis) {
+        return statistics.getLastTimestamp() + Math.max(0, currentTimeMillis - lastEventMillis) / 1000.0;
+    }
+
+    RollingWindowStatistics getStatistics() {
+        return statistics;
+    }
+
+    String format(long currentTimeMillis) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        sb.append(" events: ").append(eventCount);
+        if (Double.isNaN(statistics.getLastTimestamp())) {
+            return sb.append(" (no events yet)").toString();
+        }
+
+        double now = getNow(currentTimeMillis);
+        for (int windowSeconds : WINDOW_SECONDS) {
+            sb.append(" | ").append(windowSeconds / 60).append("m:");
+            sb.append(" pauses ").append(statistics.getPauseCount(now, windowSeconds));
+            sb.append(", p99 pause ").append(format(statistics.getPauseQuantile(now, windowSeconds, 0.99) * 1000, "%.1f ms"));
+            sb.append(", throughput ").append(format(statistics.getThroughput(now, windowSeconds), "%.2f %%"));
+            sb.append(", alloc ").append(format(statistics.getAllocationRate(now, windowSeconds) / 1024, "%.1f M/s"));
+        }
+
+        return sb.toString();
+    }
+
+    private String format(double value, String format) {
+        return Double.isNaN(value) ? "n/a" : String.format(Locale.ENGLISH, format, value);
+    }
+}
@@ -4,11 +4,17 @@ import java.awt.FileDialog;
 import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import javax.swing.AbstractAction;
 import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
 
 import com.tagtraum.perf.gcviewer.ctrl.GCModelLoaderController;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.TimeRange;
 import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
 import com.tagtraum.perf.gcviewer.view.ActionCommands;
 import com.tagtraum.perf.gcviewer.view.GCViewerGui;
@@ -49,7 +55,7 @@ public class OpenFile extends AbstractAction {
             dialog.setMultipleMode(true);
             dialog.setVisible(true);
             // dialog.setFilenameFilter doesn't do much on OSX
-            openFiles(dialog.getFiles(), false);
+            openFiles(dialog.getFiles(), false, null);
             dialog.dispose();
             return;
         }
@@ -59,16 +65,41 @@ public class OpenFile extends AbstractAction {
         // TODO SWINGWORKER: open at last openposition (directory)
         final int val = openFileView.showOpenDialog(gcViewer);
         if (val == JFileChooser.APPROVE_OPTION) {
-            openFiles(openFileView.getSelectedFiles(), openFileView.isAddCheckBoxSelected());
+            TimeRange timeRange;
+            try {
+                timeRange = openFileView.getTimeRange();
+            }
+            catch (IllegalArgumentException e1) {
+                JOptionPane.showMessageDialog(gcViewer,
+                        LocalisationHelper.getString("fileopen_dialog_time_range_invalid", e1.getMessage()),
+                        LocalisationHelper.getString("fileopen_dialog_title"),
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            openFiles(openFileView.getSelectedFiles(), openFileView.isAddCheckBoxSelected(), timeRange);
         }
     }
 
-    private void openFiles(File[] files, boolean shouldAdd) {
+    private void openFiles(File[] files, boolean shouldAdd, TimeRange timeRange) {
         if (files == null || files.length == 0) {
             return;
         }
         lastSelectedFiles = files;
-        if (shouldAdd) {
+        if (timeRange != null) {
+            List<GCResource> gcResourceList = new ArrayList<>();
+            for (File file : files) {
+                GcResourceFile gcResource = new GcResourceFile(file.getAbsolutePath());
+                gcResource.setTimeRange(timeRange);
+                gcResourceList.add(gcResource);
+            }
+            if (shouldAdd) {
+                controller.add(gcResourceList);
+            }
+            else {
+                controller.open(gcResourceList);
+            }
+        }
+        else if (shouldAdd) {
             controller.add(lastSelectedFiles);
         }
         else {
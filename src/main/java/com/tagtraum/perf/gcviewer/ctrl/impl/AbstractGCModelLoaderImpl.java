@@ -7,6 +7,7 @@ import com.tagtraum.perf.gcviewer.model.GCModel;
 
 import javax.swing.*;
 import java.beans.PropertyChangeEvent;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -22,6 +23,11 @@ public abstract class AbstractGCModelLoaderImpl extends SwingWorker<GCModel, Obj
         if (evt.getPropertyName() == MonitoredBufferedInputStream.PROGRESS) {
             setProgress((int) evt.getNewValue());
         }
+        else if (MonitoredBufferedInputStream.BYTES_PER_SECOND.equals(evt.getPropertyName())
+                || MonitoredBufferedInputStream.REMAINING_MILLIS.equals(evt.getPropertyName())) {
+            // delivered to the listeners on the event dispatch thread
+            firePropertyChange(evt.getPropertyName(), evt.getOldValue(), evt.getNewValue());
+        }
     }
 
     protected void done() {
@@ -35,6 +41,10 @@ public abstract class AbstractGCModelLoaderImpl extends SwingWorker<GCModel, Obj
         catch (InterruptedException e) {
             logger.log(Level.FINE, "model get() interrupted", e);
         }
+        catch (CancellationException e) {
+            if (logger.isLoggable(Level.INFO))
+                logger.info("Loading of " + getGcResource().getResourceName() + " cancelled");
+        }
         catch (ExecutionException | RuntimeException e) {
             if (logger.isLoggable(Level.WARNING))
                 logger.log(Level.WARNING, "Failed to create GCModel from " + getGcResource().getResourceName(), e);
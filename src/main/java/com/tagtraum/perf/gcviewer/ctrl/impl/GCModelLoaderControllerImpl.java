@@ -4,12 +4,14 @@ import com.tagtraum.perf.gcviewer.ctrl.GCModelLoader;
 import com.tagtraum.perf.gcviewer.ctrl.GCModelLoaderController;
 import com.tagtraum.perf.gcviewer.ctrl.GCModelLoaderGroupTracker;
 import com.tagtraum.perf.gcviewer.ctrl.impl.FileDropTargetListener.DropFlavor;
+import com.tagtraum.perf.gcviewer.ctrl.impl.GCModelLoaderExecutor.Priority;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
 import com.tagtraum.perf.gcviewer.view.GCDocument;
 import com.tagtraum.perf.gcviewer.view.GCViewerGui;
 import com.tagtraum.perf.gcviewer.view.GCViewerGuiMenuBar;
+import com.tagtraum.perf.gcviewer.view.model.GCPreferences;
 import com.tagtraum.perf.gcviewer.view.model.RecentGCResourcesModel;
 
 import javax.swing.*;
@@ -28,6 +30,7 @@ import java.util.*;
  */
 public class GCModelLoaderControllerImpl implements GCModelLoaderController {
     private GCViewerGui gcViewerGui;
+    private GCModelLoaderExecutor loaderExecutor;
     
     /**
      * Constructor is package protected, because this controller should only be instantiated in 
@@ -72,7 +75,7 @@ public class GCModelLoaderControllerImpl implements GCModelLoaderController {
         GCDocumentController docController = getDocumentController(gcViewerGui.getSelectedGCDocument());
         docController.addGCResource(loader, getViewMenuController());
         
-        loader.execute();
+        getLoaderExecutor().execute(loader, Priority.VISIBLE_DOCUMENT);
     }
     
     private GCDocumentController getDocumentController(GCDocument document) {
@@ -88,6 +91,20 @@ public class GCModelLoaderControllerImpl implements GCModelLoaderController {
         return controller;
     }
     
+    /**
+     * Loads are run on an executor of their own (not on the pool shared by all SwingWorkers); it is
+     * created on first use, because the preferences are applied after this controller is created.
+     */
+    private GCModelLoaderExecutor getLoaderExecutor() {
+        if (loaderExecutor == null) {
+            GCPreferences preferences = gcViewerGui.getPreferences();
+            loaderExecutor = new GCModelLoaderExecutor(preferences.getLoaderThreads(),
+                    Runtime.getRuntime().maxMemory() / 100 * preferences.getLoaderMemoryPercent());
+        }
+
+        return loaderExecutor;
+    }
+
     protected GCViewerGui getGCViewerGui() {
         return this.gcViewerGui;
     }
@@ -127,7 +144,8 @@ public class GCModelLoaderControllerImpl implements GCModelLoaderController {
         GCDocumentController docController = new GCDocumentController(document);
         docController.addGCResource(loader, getViewMenuController());
 
-        loader.execute();
+        getLoaderExecutor().demoteVisibleDocument();
+        getLoaderExecutor().execute(loader, Priority.VISIBLE_DOCUMENT);
     }
 
     @Override
@@ -173,7 +191,7 @@ public class GCModelLoaderControllerImpl implements GCModelLoaderController {
 
     @Override
     public GCModelLoaderGroupTracker reload(GCDocument gcDocument) {
-        GCModelLoaderGroupTracker tracker = new GCModelLoaderGroupTrackerImpl();
+        GCModelLoaderGroupTracker tracker = new GCModelLoaderGroupTrackerImpl(getLoaderExecutor(), Priority.RELOAD);
         for (GCResource gcResource : gcDocument.getGCResources()) {
             if (gcResource.hasUnderlyingResourceChanged()) {
                 gcResource.reset();
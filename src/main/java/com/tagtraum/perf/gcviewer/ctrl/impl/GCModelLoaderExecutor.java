@@ -0,0 +1,287 @@
+package com.tagtraum.perf.gcviewer.ctrl.impl;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.tagtraum.perf.gcviewer.ctrl.GCModelLoader;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
+
+/**
+ * Runs {@link GCModelLoader}s on a dedicated pool of daemon threads instead of the pool shared by
+ * all {@link javax.swing.SwingWorker}s.
+ *
+ * <ul>
+ *     <li>Loads are started in order of their {@link Priority} (in order of submission within the
+ *     same priority).</li>
+ *     <li>A load is only started, if the memory its model is estimated to need (based on the size
+ *     of the log) fits into the budget not taken by running loads. A load exceeding the whole budget
+ *     is started as soon as no other load is running.</li>
+ *     <li>{@link GCResource#setIsReadCancelled(boolean)} cancels the load of the resource: a queued
+ *     load is never started, the thread of a running one is interrupted (the model read so far is
+ *     discarded).</li>
+ * </ul>
+ */
+class GCModelLoaderExecutor {
+
+    /**
+     * Rough number of bytes a {@link com.tagtraum.perf.gcviewer.model.GCModel} takes per byte of log
+     * (events, parser buffers while reading).
+     */
+    static final int MODEL_BYTES_PER_LOG_BYTE = 3;
+
+    /** Rough compression ratio of gzipped gc logs. */
+    private static final int GZIP_RATIO = 10;
+
+    private static final Logger LOGGER = Logger.getLogger(GCModelLoaderExecutor.class.getName());
+
+    /**
+     * Order in which queued loads are started.
+     */
+    enum Priority {
+        /** loads of the document being shown */
+        VISIBLE_DOCUMENT,
+        /** loads of documents opened earlier */
+        BACKGROUND_DOCUMENT,
+        /** reloads of changed resources */
+        RELOAD
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final long memoryBudget;
+    private final AtomicLong sequence = new AtomicLong();
+    private long memoryInUse;
+    private int runningCount;
+
+    /**
+     * @param threadCount maximum number of loads running in parallel
+     * @param memoryBudget bytes all running loads together may take (estimated)
+     */
+    GCModelLoaderExecutor(int threadCount, long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount,
+                0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                new LoaderThreadFactory());
+    }
+
+    /**
+     * Queues <code>loader</code>; loaders, which are no {@link RunnableFuture} (no
+     * {@link javax.swing.SwingWorker}), are started using {@link GCModelLoader#execute()}.
+     *
+     * @param loader loader to be run
+     * @param priority priority of the load
+     */
+    public void execute(GCModelLoader loader, Priority priority) {
+        if (!(loader instanceof RunnableFuture)) {
+            loader.execute();
+            return;
+        }
+
+        executor.execute(new PrioritisedLoad(loader, priority, sequence.getAndIncrement()));
+    }
+
+    /**
+     * Lowers the priority of all queued loads of the document shown until now to
+     * {@link Priority#BACKGROUND_DOCUMENT} (another document is about to be shown).
+     */
+    public void demoteVisibleDocument() {
+        List<PrioritisedLoad> demoted = new ArrayList<>();
+        for (Runnable runnable : executor.getQueue().toArray(new Runnable[0])) {
+            PrioritisedLoad load = (PrioritisedLoad) runnable;
+            if (load.priority == Priority.VISIBLE_DOCUMENT && executor.remove(load)) {
+                demoted.add(load);
+            }
+        }
+
+        // the priority must not change while the load is queued
+        for (PrioritisedLoad load : demoted) {
+            load.priority = Priority.BACKGROUND_DOCUMENT;
+            executor.execute(load);
+        }
+    }
+
+    /**
+     * @return number of loads not yet started
+     */
+    int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Estimates the memory the model of <code>gcResource</code> will take from the size of its log.
+     *
+     * @param gcResource resource to be loaded
+     * @return estimated number of bytes or <code>0</code>, if the size of the log is unknown
+     */
+    static long estimateMemory(GCResource gcResource) {
+        return getLogSize(gcResource) * MODEL_BYTES_PER_LOG_BYTE;
+    }
+
+    private static long getLogSize(GCResource gcResource) {
+        if (gcResource instanceof GcResourceSeries) {
+            long size = 0;
+            for (GCResource resource : ((GcResourceSeries) gcResource).getResourcesInOrder()) {
+                size += getLogSize(resource);
+            }
+
+            return size;
+        }
+        if (!(gcResource instanceof GcResourceFile)) {
+            return 0;
+        }
+
+        try {
+            URL url = ((GcResourceFile) gcResource).getResourceNameAsUrl();
+            if (!"file".equals(url.getProtocol())) {
+                // remote logs and zip entries are read as they arrive; their size isn't known
+                return 0;
+            }
+
+            long length = new File(url.toURI()).length();
+            return gcResource.getResourceName().endsWith(".gz") ? length * GZIP_RATIO : length;
+        }
+        catch (MalformedURLException | URISyntaxException | IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Waits until <code>memory</code> fits into the budget (or no other load is running) and takes it.
+     *
+     * @return <code>false</code>, if the load was cancelled while waiting
+     */
+    private synchronized boolean acquire(long memory, PrioritisedLoad load) throws InterruptedException {
+        while (runningCount > 0 && memoryInUse + memory > memoryBudget) {
+            if (load.isCancelled()) {
+                return false;
+            }
+
+            wait();
+        }
+
+        memoryInUse += memory;
+        ++runningCount;
+        return true;
+    }
+
+    private synchronized void release(long memory) {
+        memoryInUse -= memory;
+        --runningCount;
+        notifyAll();
+    }
+
+    private synchronized void cancelled() {
+        notifyAll();
+    }
+
+    /**
+     * Queue entry of a load; cancels the load, when its resource is cancelled.
+     */
+    private class PrioritisedLoad implements Runnable, Comparable<PrioritisedLoad>, PropertyChangeListener {
+        private final GCModelLoader loader;
+        private final long sequenceNumber;
+        private Priority priority;
+
+        public PrioritisedLoad(GCModelLoader loader, Priority priority, long sequenceNumber) {
+            this.loader = loader;
+            this.priority = priority;
+            this.sequenceNumber = sequenceNumber;
+            loader.getGcResource().addPropertyChangeListener(this);
+        }
+
+        private RunnableFuture<?> getFuture() {
+            return (RunnableFuture<?>) loader;
+        }
+
+        boolean isCancelled() {
+            return getFuture().isCancelled() || loader.getGcResource().isReadCancelled();
+        }
+
+        @Override
+        public void run() {
+            GCResource gcResource = loader.getGcResource();
+            long memory = estimateMemory(gcResource);
+            try {
+                if (acquire(memory, this)) {
+                    try {
+                        load(gcResource, memory);
+                    }
+                    finally {
+                        release(memory);
+                    }
+                }
+                else {
+                    getFuture().cancel(false);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                gcResource.removePropertyChangeListener(this);
+            }
+        }
+
+        private void load(GCResource gcResource, long memory) {
+            if (gcResource.isReadCancelled()) {
+                getFuture().cancel(false);
+                return;
+            }
+
+            if (LOGGER.isLoggable(Level.FINE)) LOGGER.fine("loading " + gcResource.getResourceName()
+                    + " (" + priority + ", estimated memory " + memory + " bytes)");
+            getFuture().run();
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            if (GcResourceFile.PROPERTY_READ_CANCELLED.equals(evt.getPropertyName())
+                    && Boolean.TRUE.equals(evt.getNewValue())) {
+
+                // a queued load is removed from the queue (the future isn't run any more)
+                if (executor.remove(this)) {
+                    loader.getGcResource().removePropertyChangeListener(this);
+                }
+                getFuture().cancel(true);
+                cancelled();
+            }
+        }
+
+        @Override
+        public int compareTo(PrioritisedLoad other) {
+            int result = priority.compareTo(other.priority);
+            return result != 0 ? result : Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+
+    /**
+     * Creates daemon threads with recognisable names.
+     */
+    private static class LoaderThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "gcviewer-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
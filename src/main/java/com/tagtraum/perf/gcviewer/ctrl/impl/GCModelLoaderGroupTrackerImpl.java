@@ -2,6 +2,7 @@ package com.tagtraum.perf.gcviewer.ctrl.impl;
 
 import com.tagtraum.perf.gcviewer.ctrl.GCModelLoader;
 import com.tagtraum.perf.gcviewer.ctrl.GCModelLoaderGroupTracker;
+import com.tagtraum.perf.gcviewer.ctrl.impl.GCModelLoaderExecutor.Priority;
 
 import javax.swing.*;
 import java.beans.PropertyChangeEvent;
@@ -22,12 +23,27 @@ public class GCModelLoaderGroupTrackerImpl implements GCModelLoaderGroupTracker
     private PropertyChangeSupport propertyChangeSupport;
     private List<GCModelLoader> loaderList = new ArrayList<GCModelLoader>();
     private int finishedCount;
+    private GCModelLoaderExecutor loaderExecutor;
+    private Priority priority;
     
     public GCModelLoaderGroupTrackerImpl() {
         super();
         
         propertyChangeSupport = new PropertyChangeSupport(this);
     }
+
+    /**
+     * Constructor for a tracker running its loaders on <code>loaderExecutor</code>.
+     *
+     * @param loaderExecutor executor to run the loaders on
+     * @param priority priority of the loaders
+     */
+    GCModelLoaderGroupTrackerImpl(GCModelLoaderExecutor loaderExecutor, Priority priority) {
+        this();
+
+        this.loaderExecutor = loaderExecutor;
+        this.priority = priority;
+    }
     
     @Override
     public void addPropertyChangeListener(PropertyChangeListener listener) {
@@ -47,7 +63,12 @@ public class GCModelLoaderGroupTrackerImpl implements GCModelLoaderGroupTracker
         }
         else {
             loaderList.forEach((GCModelLoader loader) -> {
+                if (loaderExecutor != null) {
+                    loaderExecutor.execute(loader, priority);
+                }
+                else {
                     loader.execute();
+                }
             });
         }
     }
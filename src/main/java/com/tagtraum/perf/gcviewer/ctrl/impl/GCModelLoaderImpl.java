@@ -3,6 +3,7 @@ package com.tagtraum.perf.gcviewer.ctrl.impl;
 import com.tagtraum.perf.gcviewer.imp.DataReaderException;
 import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
 import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCModelCache;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 
 /**
@@ -22,6 +23,7 @@ public class GCModelLoaderImpl extends AbstractGCModelLoaderImpl {
         this.gcResource = gcResource;
         this.dataReaderFacade = new DataReaderFacade();
         this.dataReaderFacade.addPropertyChangeListener(this); // receive progress updates from loading
+        this.dataReaderFacade.setModelCache(GCModelCache.getShared()); // documents share unchanged models
     }
 
     @Override
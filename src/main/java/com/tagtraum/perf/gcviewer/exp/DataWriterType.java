@@ -7,10 +7,24 @@ package com.tagtraum.perf.gcviewer.exp;
  * <p>created on: 07.10.2012</p>
  */
 public enum DataWriterType {
-    PLAIN,
-    CSV,
-    CSV_TS,
-    SIMPLE,
-    SUMMARY,
-    PNG;
+    PLAIN("txt"),
+    CSV("csv"),
+    CSV_TS("csv"),
+    SIMPLE("txt"),
+    SUMMARY("csv"),
+    PNG("png"),
+    JSON("json");
+
+    private final String fileExtension;
+
+    DataWriterType(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * @return usual extension (without ".") of files written by this type of data writer
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
 }
@@ -3,6 +3,7 @@ package com.tagtraum.perf.gcviewer.exp.impl;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 import com.tagtraum.perf.gcviewer.exp.DataWriter;
@@ -46,7 +47,20 @@ public class DataWriterFactory {
      * @throws IOException unknown DataWriter or problem creating file
      */
     public static DataWriter getDataWriter(File file, DataWriterType type, Map<String, Object> configuration) throws IOException {
-        FileOutputStream outputStream = new FileOutputStream(file);
+        return getDataWriter(new FileOutputStream(file), type, configuration);
+    }
+
+    /**
+     * Same as {@link #getDataWriter(File, DataWriterType, Map)}, but writes to
+     * <code>outputStream</code>, which is closed, when the DataWriter is closed.
+     *
+     * @param outputStream where to write output to
+     * @param type type of DataWriter
+     * @param configuration Map containing additional configuration objects (may be <code>null</code>)
+     * @return instance of DataWriter according to <code>type</code> parameter
+     * @throws IOException unknown DataWriter
+     */
+    public static DataWriter getDataWriter(OutputStream outputStream, DataWriterType type, Map<String, Object> configuration) throws IOException {
         switch (type) {
             case PLAIN   : return new PlainDataWriter(outputStream);
             case CSV     : return new CSVDataWriter(outputStream);
@@ -54,7 +68,8 @@ public class DataWriterFactory {
             case SIMPLE  : return new SimpleGcWriter(outputStream);
             case SUMMARY : return new SummaryDataWriter(outputStream, configuration);
             case PNG     : return new PNGDataWriter(outputStream);
-            default : throw new IOException(LocalisationHelper.getString("datawriterfactory_instantiation_failed") + " " + file);
+            case JSON    : return new JsonSummaryDataWriter(outputStream);
+            default : throw new IOException(LocalisationHelper.getString("datawriterfactory_instantiation_failed") + " " + type);
         }
     }
 
@@ -0,0 +1,66 @@
+package com.tagtraum.perf.gcviewer.exp.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.tagtraum.perf.gcviewer.exp.AbstractDataWriter;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+
+/**
+ * Writes the same values as {@link SummaryDataWriter} as one JSON object:
+ * <code>{"tag": {"value": "...", "units": "..."}, ...}</code>. All non ascii characters are
+ * escaped, so the output is valid independent of the charset used.
+ */
+public class JsonSummaryDataWriter extends AbstractDataWriter {
+
+    public JsonSummaryDataWriter(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(GCModel model) throws IOException {
+        List<String[]> values = new ArrayList<>();
+        Map<String, Object> configuration = new TreeMap<>();
+        configuration.put(ISummaryExportFormatter.NAME, (ISummaryExportFormatter) (tag, value, units) -> {
+            values.add(new String[] {tag, value, units});
+            return "";
+        });
+        try (SummaryDataWriter summaryDataWriter = new SummaryDataWriter(new ByteArrayOutputStream(), configuration)) {
+            summaryDataWriter.write(model);
+        }
+
+        out.println("{");
+        for (int i = 0; i < values.size(); ++i) {
+            String[] value = values.get(i);
+            out.print("  " + quote(value[0]) + ": {\"value\": " + quote(value[1]) + ", \"units\": " + quote(value[2]) + "}");
+            out.println(i < values.size() - 1 ? "," : "");
+        }
+        out.println("}");
+        out.flush();
+    }
+
+    private String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            }
+            else if (c < 0x20 || c > 0x7e) {
+                sb.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+
+        return sb.toString();
+    }
+}
@@ -1,6 +1,5 @@
 package com.tagtraum.perf.gcviewer.exp.impl;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -15,11 +14,11 @@ import com.tagtraum.perf.gcviewer.model.GCModel;
  *
  */
 public class PNGDataWriter extends AbstractDataWriter {
-	private FileOutputStream out;
+	private OutputStream out;
 
 	public PNGDataWriter(OutputStream outputStream) {
 		super(outputStream);
-		out = (FileOutputStream)outputStream;
+		out = outputStream;
 	}
 
 	@Override
@@ -5,11 +5,14 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.io.UnsupportedEncodingException;
+import java.time.ZonedDateTime;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics.Phase;
 
 /**
  * Baseclass for every {@link DataReader} implementation.
@@ -24,12 +27,17 @@ public abstract class AbstractDataReader implements DataReader {
     protected GCResource gcResource;
     /** the reader accessing the log file */
     protected LineNumberReader in;
+    /** datestamp of timestamp 0 in the log, if only a part of it is read (see {@link GCModel#setReferenceDateStamp(ZonedDateTime)}) */
+    protected ZonedDateTime referenceDateStamp;
 
     protected AbstractDataReader(GCResource gcResource, InputStream in) throws UnsupportedEncodingException {
         super();
 
-        this.in = new LineNumberReader(new InputStreamReader(in, "ASCII"), 64 * 1024);
+        this.in = new LineNumberReader(
+                LoadStatistics.instrument(new InputStreamReader(in, "ASCII"), Phase.READ_LINES),
+                64 * 1024);
         this.gcResource = gcResource;
+        LoadStatistics.setLineSource(this.in::getLineNumber);
     }
 
     /**
@@ -53,6 +61,48 @@ public abstract class AbstractDataReader implements DataReader {
         return dataReaderTools;
     }
 
+    private DataReaderDiagnostics diagnostics;
+
+    /**
+     * Returns the instance to report problems found while parsing. Prefer it over
+     * {@link #getLogger()} for problems, that may occur on many lines.
+     *
+     * @return diagnostics of this reader
+     */
+    protected DataReaderDiagnostics getDiagnostics() {
+        if (diagnostics == null) {
+            diagnostics = new DataReaderDiagnostics(getLogger(),
+                    getClass().getName(),
+                    in::getLineNumber,
+                    DataReaderDiagnostics.DEFAULT_SAMPLE_LIMIT);
+        }
+
+        return diagnostics;
+    }
+
+    /**
+     * Creates a new model associating every event added with the current line number of
+     * {@link #in}.
+     *
+     * @return new model for the events read by this reader
+     */
+    protected GCModel createModel() {
+        GCModel model = new GCModel();
+        model.setLineNumberSource(in::getLineNumber);
+        model.setReferenceDateStamp(referenceDateStamp);
+        return model;
+    }
+
+    /**
+     * Sets the datestamp, from which the timestamps of events without timestamp are calculated;
+     * required, if the part of the log read doesn't start at the beginning of the log.
+     *
+     * @param referenceDateStamp datestamp of the first event of the log or <code>null</code>
+     */
+    void setReferenceDateStamp(ZonedDateTime referenceDateStamp) {
+        this.referenceDateStamp = referenceDateStamp;
+    }
+
     @Override
     public abstract GCModel read() throws IOException;
 
@@ -17,9 +17,13 @@ import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.GcPattern;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.util.DateHelper;
+import com.tagtraum.perf.gcviewer.util.LineClassifier;
 import com.tagtraum.perf.gcviewer.util.NumberParser;
 import com.tagtraum.perf.gcviewer.util.ParseInformation;
 
+import static com.tagtraum.perf.gcviewer.util.CharSequenceHelper.indexOf;
+import static com.tagtraum.perf.gcviewer.util.CharSequenceHelper.lastIndexOf;
+
 /**
  * The AbstractDataReaderSun is the base class of most Sun / Oracle parser implementations.
  * <p>
@@ -51,6 +55,18 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
         LOG_INFORMATION_STRINGS.add(LOG_INFORMATION_COMMANDLINE_FLAGS);
     }
 
+    /**
+     * Categories of the prefixes of lines used in the {@link LineClassifier}s of the readers.
+     */
+    protected enum LineType {
+        /** line doesn't need to be parsed */
+        EXCLUDE,
+        /** information about the jvm (logged) */
+        LOG_INFORMATION,
+        /** part of a block of lines (like -XX:+PrintHeapAtGC), which is skipped */
+        SKIP
+    }
+
     /** the log type allowing for small differences between different versions of the gc logs */
     protected GcLogType gcLogType;
 
@@ -75,7 +91,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @param line line that is parsed
      * @return amount of memory in kilobyte
      */
-    private int getMemoryInKiloByte(double memoryValue, char memUnit, String line) {
+    private int getMemoryInKiloByte(double memoryValue, char memUnit, CharSequence line) {
         return getDataReaderTools().getMemoryInKiloByte(memoryValue, memUnit, line);
     }
 
@@ -85,9 +101,9 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @param event event where the result should be written to
      * @param line line to be parsed (from the beginning)
      * @throws ParseException is thrown to report any problems the parser runs into
-     * @see #setMemoryAndPauses(GCEvent, String, ParseInformation)
+     * @see #setMemoryAndPauses(GCEvent, CharSequence, ParseInformation)
      */
-    protected void setMemoryAndPauses(GCEvent event, String line) throws ParseException {
+    protected void setMemoryAndPauses(GCEvent event, CharSequence line) throws ParseException {
         setMemoryAndPauses(event, line, new ParseInformation(0));
     }
 
@@ -99,7 +115,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @param pos position where parsing should start
      * @throws ParseException is thrown to report any problems the parser runs into
      */
-    protected void setMemoryAndPauses(GCEvent event, String line, ParseInformation pos) throws ParseException {
+    protected void setMemoryAndPauses(GCEvent event, CharSequence line, ParseInformation pos) throws ParseException {
         setMemory(event, line, pos);
         event.setPause(parsePause(line, pos));
     }
@@ -114,7 +130,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * will be skipped
      * @throws ParseException parsing was not possible
      */
-    protected void setMemoryExtended(GCEvent event, String line, ParseInformation pos) throws ParseException {
+    protected void setMemoryExtended(GCEvent event, CharSequence line, ParseInformation pos) throws ParseException {
         int startPos = pos.getIndex();
         boolean lineHasMoreChars = true;
         int currentPos = startPos;
@@ -128,8 +144,8 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
             throw new ParseException("unexpected memory format found", line, pos);
         }
 
-        int endOfNextNumber = line.indexOf("(", currentPos);
-        int separatorPos = line.indexOf("->", currentPos);
+        int endOfNextNumber = indexOf(line, '(', currentPos);
+        int separatorPos = indexOf(line, "->", currentPos);
         if (endOfNextNumber > separatorPos) {
             // if format is "before"->"after"("total"), the next parentesis is the one of the "total"
             endOfNextNumber = separatorPos;
@@ -139,11 +155,11 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
                 line));
 
         // skip until after "->"
-        currentPos = line.indexOf("->", endOfNextNumber) + 2;
+        currentPos = indexOf(line, "->", endOfNextNumber) + 2;
 
 
         boolean hasTotalHeap = true;
-        endOfNextNumber = line.indexOf("(", currentPos);
+        endOfNextNumber = indexOf(line, '(', currentPos);
         if (endOfNextNumber == -1 || endOfNextNumber-currentPos > 10) {
             // there is no total heap information, only after (like in "Survivors" of G1)
             hasTotalHeap = false;
@@ -164,7 +180,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
         if (hasTotalHeap) {
             // skip "(" and read heap size
             ++currentPos;
-            endOfNextNumber = line.indexOf(")", currentPos);
+            endOfNextNumber = indexOf(line, ')', currentPos);
             event.setTotal(getMemoryInKiloByte(NumberParser.parseDouble(line, currentPos, endOfNextNumber-currentPos-1),
                     line.charAt(endOfNextNumber-1),
                     line));
@@ -180,14 +196,14 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
                || character == ','; // some localised log files contain "," instead of "." in numbers
     }
 
-    protected void setMemory(GCEvent event, String line, ParseInformation pos) throws ParseException {
+    protected void setMemory(GCEvent event, CharSequence line, ParseInformation pos) throws ParseException {
         int start = skipUntilNextDigit(line, pos);
-        int end = line.indexOf("->", pos.getIndex()) - 1;
+        int end = indexOf(line, "->", pos.getIndex()) - 1;
         if (end != -2) for (start = end-1; start >= 0 && Character.isDigit(line.charAt(start)); start--) {}
-        int parenthesis = line.indexOf('(', start);
+        int parenthesis = indexOf(line, '(', start);
         boolean foundPreUsed = end != -2 && parenthesis > end;
         if (foundPreUsed) {
-            start = line.lastIndexOf(' ', end) + 1;
+            start = lastIndexOf(line, ' ', end) + 1;
             event.setPreUsed(getMemoryInKiloByte(NumberParser.parseInt(line, start, end-start),
                     line.charAt(end),
                     line));
@@ -202,7 +218,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
         }
 
         start = end + 2;
-        end = line.indexOf(')', start) - 1;
+        end = indexOf(line, ')', start) - 1;
         event.setTotal(getMemoryInKiloByte(NumberParser.parseInt(line, start, end-start),
                 line.charAt(end),
                 line));
@@ -210,51 +226,50 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
         else pos.setIndex(end+1);
     }
 
-    protected double parsePause(String line, ParseInformation pos) throws ParseException {
+    protected double parsePause(CharSequence line, ParseInformation pos) throws ParseException {
     	// usual pattern expected: "..., 0.002032 secs]"
     	// but may be as well (G1): "..., 0.003032]"
 
         // if the next token is "icms_dc" skip until after the comma
         // ...] icms_dc=0 , 8.0600619 secs]
-        if (line.indexOf("icms_dc", pos.getIndex()) >= 0) {
-            pos.setIndex(line.indexOf(",", pos.getIndex()));
+        if (indexOf(line, "icms_dc", pos.getIndex()) >= 0) {
+            pos.setIndex(indexOf(line, ',', pos.getIndex()));
         }
 
         int begin = skipUntilNextDigit(line, pos);
 
-        int end = line.indexOf(' ', begin);
+        int end = indexOf(line, ' ', begin);
         if (end < 0) {
-        	end = line.indexOf(']', begin);
+        	end = indexOf(line, ']', begin);
         }
-        final double pause = NumberParser.parseDouble(line.substring(begin, end));
+        final double pause = NumberParser.parseDouble(line, begin, end - begin);
 
         // skip "secs]"
-        pos.setIndex(line.indexOf(']', end) + 1);
+        pos.setIndex(indexOf(line, ']', end) + 1);
 
         return pause;
     }
 
-    protected boolean hasNextDetail(String line, ParseInformation pos) throws ParseException {
+    protected boolean hasNextDetail(CharSequence line, ParseInformation pos) throws ParseException {
         skipBlanksAndCommas(line, pos);
         return nextIsTimestamp(line, pos)
                 || nextIsDatestamp(line, pos)
                 || nextCharIsBracket(line, pos);
     }
 
-    protected boolean nextCharIsBracket(String line, ParseInformation pos) throws ParseException {
+    protected boolean nextCharIsBracket(CharSequence line, ParseInformation pos) throws ParseException {
         skipBlanksAndCommas(line, pos);
         return line.charAt(pos.getIndex()) == '[';
     }
 
 
-    protected String parseTypeString(String line, ParseInformation pos) throws ParseException {
+    protected String parseTypeString(CharSequence line, ParseInformation pos) throws ParseException {
         int i = pos.getIndex();
         try {
             // consume all leading spaces and [
             final int lineLength = line.length();
-            final char[] lineChars = line.toCharArray();
-            char c = lineChars[i];
-            for (; i<lineLength; c = lineChars[++i]) {
+            char c = line.charAt(i);
+            for (; i<lineLength; c = line.charAt(++i)) {
                 if (c != ' ' && c != '[') break;
             }
             if (i>=lineLength) throw new ParseException("Unexpected end of line.", line);
@@ -263,12 +278,12 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
             // e.g. 0.406: [GC [1 CMS-initial-mark: 7664K(12288K)] 7666K(16320K), 0.0006855 secs]
             //final int startNumbers = i;
             // -> skip number
-            for (; Character.isDigit(c) && i<lineLength; c = lineChars[++i]);
+            for (; Character.isDigit(c) && i<lineLength; c = line.charAt(++i));
             //if (startNumbers != i) sb.append(lineChars, startNumbers, i);
             // append all chars, but no numbers, colons, [ or ]
             final int startType = i;
             boolean isInParantesis = false;
-            for (; i<lineLength; c = lineChars[++i]) {
+            for (; i<lineLength; c = line.charAt(++i)) {
                 if (c == '(' || isInParantesis || c == ')') {
                     // option "-XX:+PrintPromotionFailure" inserts text in parentheses between "ParNew" and "(promotion failed)"
                     // [ParNew (0: promotion failure size = 4098)  (1: promotion failure size = 4098)  (2: promotion failure size = 4098) (promotion failed):
@@ -278,7 +293,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
                 }
                 if (c == ':' || c == '[' || c == ']' || c== ',' || Character.isDigit(c)) break;
             }
-            sb.append(lineChars, startType, i-startType);
+            sb.append(line, startType, i);
             if (sb.indexOf(CMS_PRINT_PROMOTION_FAILURE) > 0) {
                 // ... now remove the "promotion failure size" parts inside parentheses
                 while (sb.indexOf(CMS_PRINT_PROMOTION_FAILURE) > 0) {
@@ -286,7 +301,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
                     sb.delete(firstParenthesis, sb.indexOf(")", firstParenthesis) + 3);
                 }
             }
-            for (; i<lineLength; c = lineChars[++i]) {
+            for (; i<lineLength; c = line.charAt(++i)) {
                 if (c == '[' || c == ']' || Character.isDigit(c)) break;
             }
             return sb.toString().trim();
@@ -296,7 +311,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
         }
     }
 
-    protected ExtendedType parseType(String line, ParseInformation pos) throws ParseException {
+    protected ExtendedType parseType(CharSequence line, ParseInformation pos) throws ParseException {
         String typeString = parseTypeString(line, pos);
         return getDataReaderTools().parseType(typeString);
     }
@@ -313,11 +328,11 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @param pos current position in line
      * @return <code>true</code> if next is timestamp, <code>false</code> otherwise
      */
-    protected boolean nextIsTimestamp(String line, ParseInformation pos) {
+    protected boolean nextIsTimestamp(CharSequence line, ParseInformation pos) {
         // format of a timestamp is the following: "0.013:"
         // make sure that after the next blanks a timestamp follows
 
-        if (line.indexOf(':', pos.getIndex()) < 0) {
+        if (indexOf(line, ':', pos.getIndex()) < 0) {
             return false;
         }
 
@@ -365,11 +380,11 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @return the parsed timestamp
      * @throws ParseException
      */
-    private double parseTimestamp(String line, ParseInformation pos) throws ParseException {
+    private double parseTimestamp(CharSequence line, ParseInformation pos) throws ParseException {
         // look for end of timestamp, which is a colon ':'
-        int endOfTimestamp = line.indexOf(':', pos.getIndex());
+        int endOfTimestamp = indexOf(line, ':', pos.getIndex());
         if (endOfTimestamp == -1) throw new ParseException("Error parsing entry.", line, pos);
-        final double timestamp = NumberParser.parseDouble(line.substring(pos.getIndex(), endOfTimestamp));
+        final double timestamp = NumberParser.parseDouble(line, pos.getIndex(), endOfTimestamp - pos.getIndex());
         pos.setIndex(endOfTimestamp+1);
         return timestamp;
     }
@@ -384,7 +399,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @return timestamp (either parsed or derived from datestamp)
      * @throws ParseException it seemed to be a timestamp but still couldn't be parsed
      */
-    protected double getTimestamp(final String line, final ParseInformation pos, final ZonedDateTime datestamp)
+    protected double getTimestamp(final CharSequence line, final ParseInformation pos, final ZonedDateTime datestamp)
             throws ParseException {
 
         double timestamp = 0;
@@ -398,28 +413,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
         return timestamp;
     }
 
-    protected abstract AbstractGCEvent<?> parseLine(String line, ParseInformation pos) throws ParseException;
-
-    /**
-     * Tests if <code>line</code> starts with one of the strings in <code>lineStartStrings</code>.
-     * If <code>trimLine</code> is <code>true</code>, then <code>line</code> is trimmed first.
-     *
-     * @param line line to be checked against
-     * @param lineStartStrings list of strings to check
-     * @param trimLine if <code>true</code> then trim <code>line</code>
-     * @return <code>true</code>, if <code>line</code> starts with one of the strings in
-     * <code>lineStartStrings</code>
-     */
-    protected boolean startsWith(String line, List<String> lineStartStrings, boolean trimLine) {
-        String lineToTest = trimLine ? line.trim() : line;
-        for (String lineStartString : lineStartStrings) {
-            if (lineToTest.startsWith(lineStartString)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
+    protected abstract AbstractGCEvent<?> parseLine(CharSequence line, ParseInformation pos) throws ParseException;
 
     /**
      * Parses a datestamp in <code>line</code> at <code>pos</code>.
@@ -429,11 +423,11 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @return returns parsed datestamp if found one, <code>null</code> otherwise.
      * @throws ParseException if line could not be parsed.
      */
-    protected ZonedDateTime parseDatestamp(String line, ParseInformation pos) throws ParseException {
+    protected ZonedDateTime parseDatestamp(CharSequence line, ParseInformation pos) throws ParseException {
         ZonedDateTime zonedDateTime = null;
         if (nextIsDatestamp(line, pos)) {
             try {
-                zonedDateTime = ZonedDateTime.parse(line.substring(pos.getIndex(), pos.getIndex() + LENGTH_OF_DATESTAMP - 1),
+                zonedDateTime = ZonedDateTime.parse(line.subSequence(pos.getIndex(), pos.getIndex() + LENGTH_OF_DATESTAMP - 1),
                         DateHelper.DATE_TIME_FORMATTER);
                 pos.setIndex(pos.getIndex() + LENGTH_OF_DATESTAMP);
                 if (pos.getFirstDateStamp() == null) {
@@ -454,12 +448,12 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @param pos current parse position
      * @return <code>true</code> if in current line at current parse position we have a datestamp
      */
-    protected boolean nextIsDatestamp(String line, ParseInformation pos) {
+    protected boolean nextIsDatestamp(CharSequence line, ParseInformation pos) {
         if (line == null || line.length() < 10) {
             return false;
         }
 
-        return line.indexOf("-", pos.getIndex()) == pos.getIndex()+4 && line.indexOf("-", pos.getIndex() + 5) == pos.getIndex()+7;
+        return indexOf(line, '-', pos.getIndex()) == pos.getIndex()+4 && indexOf(line, '-', pos.getIndex() + 5) == pos.getIndex()+7;
     }
 
     /**
@@ -470,7 +464,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @param event enclosing event
      * @throws ParseException some problem when parsing the detail event
      */
-    protected void parseDetailEventsIfExist(final String line, final ParseInformation pos,
+    protected void parseDetailEventsIfExist(final CharSequence line, final ParseInformation pos,
             final GCEvent event) throws ParseException {
 
         int currentIndex = pos.getIndex();
@@ -497,7 +491,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
                 else if (detailEvent.getExtendedType().getPattern() == GcPattern.GC_MEMORY) {
                     setMemory(detailEvent, line, pos);
                     skipBlanksAndCommas(line, pos);
-                    if (line.indexOf("]", pos.getIndex()) == pos.getIndex()) {
+                    if (indexOf(line, ']', pos.getIndex()) == pos.getIndex()) {
                         pos.setIndex(pos.getIndex() + 1);
                     }
                 }
@@ -527,18 +521,13 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
 
     }
 
-    private boolean nextIsPromotionFailed(String line, ParseInformation pos) {
-        StringBuffer nextString = new StringBuffer();
+    private boolean nextIsPromotionFailed(CharSequence line, ParseInformation pos) {
         int index = pos.getIndex();
         while (line.charAt(index) == ' ') {
             ++index;
         }
 
-        if (index < line.length()-3) {
-            nextString.append(line.charAt(index)).append(line.charAt(index + 1));
-        }
-
-        return nextString.toString().equals("--");
+        return index < line.length()-3 && line.charAt(index) == '-' && line.charAt(index + 1) == '-';
     }
 
     /**
@@ -547,10 +536,10 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      *
      * @param in inputStream of the current log to be read
      * @param pos current parse position
-     * @param lineStartStrings lines starting with these strings should be ignored
+     * @param lineStartStrings lines starting with one of its prefixes (trimmed) should be ignored
      * @throws IOException problem with reading from the file
      */
-    protected void skipLines(LineNumberReader in, ParseInformation pos, List<String> lineStartStrings) throws IOException {
+    protected void skipLines(LineNumberReader in, ParseInformation pos, LineClassifier<LineType> lineStartStrings) throws IOException {
         String line = "";
 
         if (!in.markSupported()) {
@@ -564,7 +553,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
         while (startsWithString && (line = in.readLine()) != null) {
             pos.setLineNumber(in.getLineNumber());
             // for now just skip those lines
-            startsWithString = startsWith(line, lineStartStrings, true);
+            startsWithString = lineStartStrings.getPrefixCategory(line, true) != null;
             if (startsWithString) {
                 // don't mark any more if line didn't match -> it is the first line that
                 // is of interest after the skipped block
@@ -592,7 +581,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @param pos current parse position
      * @param e exception that made skipping necessary
      */
-    private void skipUntilEndOfDetail(final String line, final ParseInformation pos, Exception e) {
+    private void skipUntilEndOfDetail(final CharSequence line, final ParseInformation pos, Exception e) {
         skipUntilEndOfDetail(line, pos, 1);
 
         if (getLogger().isLoggable(Level.FINE)) getLogger().fine("Skipping detail event because of " + e);
@@ -606,11 +595,11 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
      * @param pos current parse position
      * @param levelOfDetailEvent level of nesting within detail event
      */
-    private void skipUntilEndOfDetail(final String line, final ParseInformation pos, int levelOfDetailEvent) {
+    private void skipUntilEndOfDetail(final CharSequence line, final ParseInformation pos, int levelOfDetailEvent) {
         // moving position to the end of this detail event -> skip it
         // if it contains other detail events, skip those as well (recursion)
-        int indexOfNextOpeningBracket = line.indexOf("[", pos.getIndex());
-        int indexOfNextClosingBracket = line.indexOf("]", pos.getIndex());
+        int indexOfNextOpeningBracket = indexOf(line, '[', pos.getIndex());
+        int indexOfNextClosingBracket = indexOf(line, ']', pos.getIndex());
         if (indexOfNextOpeningBracket > 0 && indexOfNextOpeningBracket < indexOfNextClosingBracket) {
             ++levelOfDetailEvent;
             pos.setIndex(indexOfNextOpeningBracket + 1);
@@ -629,7 +618,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
         }
     }
 
-    private int skipUntilNextDigit(String line, ParseInformation pos) throws ParseException {
+    private int skipUntilNextDigit(CharSequence line, ParseInformation pos) throws ParseException {
         int begin = pos.getIndex();
         while (!Character.isDigit(line.charAt(begin)) && begin < line.length()) {
             ++begin;
@@ -644,7 +633,7 @@ public abstract class AbstractDataReaderSun extends AbstractDataReader {
         return begin;
     }
 
-    private void skipBlanksAndCommas(String line, ParseInformation parseInfo) throws ParseException {
+    private void skipBlanksAndCommas(CharSequence line, ParseInformation parseInfo) throws ParseException {
         int begin = parseInfo.getIndex();
         while ((line.charAt(begin) == ' ' || line.charAt(begin) == ',') && begin+1 < line.length()) {
             ++begin;
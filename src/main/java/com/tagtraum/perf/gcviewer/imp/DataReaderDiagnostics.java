@@ -0,0 +1,163 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Collects the problems a {@link DataReader} finds while parsing. A problem is reported as
+ * {@link Template} plus the current line number and (optionally) some arguments; no strings are
+ * built while reporting. The problem is published as {@link LogRecord} with parameters, so the
+ * message is only formatted, if a handler displays or exports it.
+ *
+ * <p>Only the first {@link #getSampleLimit()} problems of every template are published; all
+ * further ones are only counted and summarised by {@link #logSummary()}.</p>
+ */
+public class DataReaderDiagnostics {
+
+    /** default number of problems per template that are published to the logger */
+    public static final int DEFAULT_SAMPLE_LIMIT = 1000;
+
+    private static final Template SUMMARY = new Template(Level.INFO,
+            "{1,number,#} more problems like \"{2}\" were not logged (first at line {0,number,#})");
+
+    private final Logger logger;
+    private final String sourceClassName;
+    private final IntSupplier lineNumberSource;
+    private final int sampleLimit;
+    private final Map<Template, Counter> counters = new IdentityHashMap<>();
+
+    /**
+     * @param logger logger the problems are published to
+     * @param sourceClassName name of the class reporting the problems
+     * @param lineNumberSource supplier of the number of the line currently parsed
+     * @param sampleLimit number of problems per template that are published to <code>logger</code>
+     */
+    public DataReaderDiagnostics(Logger logger, String sourceClassName, IntSupplier lineNumberSource, int sampleLimit) {
+        this.logger = logger;
+        this.sourceClassName = sourceClassName;
+        this.lineNumberSource = lineNumberSource;
+        this.sampleLimit = sampleLimit;
+    }
+
+    public int getSampleLimit() {
+        return sampleLimit;
+    }
+
+    /**
+     * Reports a problem on the current line. The arguments are only converted to strings, if the
+     * message is formatted.
+     *
+     * @param template template of the problem; <code>{0}</code> is the line number, the arguments
+     * are available as <code>{1}</code>, <code>{2}</code>...
+     * @param arguments arguments of the template
+     */
+    public void report(Template template, Object... arguments) {
+        Counter counter = counters.get(template);
+        if (counter == null) {
+            counter = new Counter(lineNumberSource.getAsInt());
+            counters.put(template, counter);
+        }
+        if (++counter.count <= sampleLimit && logger.isLoggable(template.getLevel())) {
+            Object[] parameters = new Object[arguments.length + 1];
+            parameters[0] = lineNumberSource.getAsInt();
+            System.arraycopy(arguments, 0, parameters, 1, arguments.length);
+            log(template, parameters);
+        }
+    }
+
+    private void log(Template template, Object[] parameters) {
+        LogRecord record = new LogRecord(template.getLevel(), template.getPattern());
+        record.setParameters(parameters);
+        record.setLoggerName(logger.getName());
+        // set explicitly, because otherwise it would be inferred from the stack when it is first needed
+        record.setSourceClassName(sourceClassName);
+        record.setSourceMethodName("read");
+        logger.log(record);
+    }
+
+    /**
+     * Returns the number of problems reported for <code>template</code>.
+     *
+     * @param template template of the problem
+     * @return number of problems reported
+     */
+    public int getCount(Template template) {
+        Counter counter = counters.get(template);
+        return counter != null ? counter.count : 0;
+    }
+
+    /**
+     * Returns the number of problems reported for all templates.
+     *
+     * @return number of problems reported
+     */
+    public int getTotalCount() {
+        int total = 0;
+        for (Counter counter : counters.values()) {
+            total += counter.count;
+        }
+
+        return total;
+    }
+
+    /**
+     * Logs the number of problems that were not published for every template, that exceeded
+     * the sample limit.
+     */
+    public void logSummary() {
+        if (!logger.isLoggable(SUMMARY.getLevel())) {
+            return;
+        }
+        for (Map.Entry<Template, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            if (counter.count > sampleLimit) {
+                log(SUMMARY, new Object[] {counter.firstLineNumber, counter.count - sampleLimit, entry.getKey().getPattern()});
+            }
+        }
+    }
+
+    /**
+     * Template of a problem message in {@link java.text.MessageFormat} syntax. Instances should be
+     * constants, because they are identified by identity.
+     */
+    public static class Template {
+        private final Level level;
+        private final String pattern;
+
+        /**
+         * @param level level of the problem
+         * @param pattern message in {@link java.text.MessageFormat} syntax; <code>{0}</code> is
+         * the line number
+         */
+        public Template(Level level, String pattern) {
+            this.level = level;
+            this.pattern = pattern;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        @Override
+        public String toString() {
+            return level + " " + pattern;
+        }
+    }
+
+    private static class Counter {
+        private final int firstLineNumber;
+        private int count;
+
+        public Counter(int firstLineNumber) {
+            this.firstLineNumber = firstLineNumber;
+        }
+    }
+}
@@ -2,23 +2,39 @@ package com.tagtraum.perf.gcviewer.imp;
 
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.tagtraum.perf.gcviewer.ctrl.impl.GcSeriesLoader;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCModelCache;
+import com.tagtraum.perf.gcviewer.model.GCModelCacheKey;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
 import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
+import com.tagtraum.perf.gcviewer.model.HttpResumePoint;
+import com.tagtraum.perf.gcviewer.model.LineOffsetIndex;
+import com.tagtraum.perf.gcviewer.model.TimeRange;
+import com.tagtraum.perf.gcviewer.model.TimestampOffsetIndex;
 import com.tagtraum.perf.gcviewer.util.BuildInfoReader;
 import com.tagtraum.perf.gcviewer.util.HttpUrlConnectionHelper;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics.Phase;
 import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
 
 /**
@@ -30,6 +46,15 @@ import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
 public class DataReaderFacade {
 
     private List<PropertyChangeListener> propertyChangeListeners = new ArrayList<PropertyChangeListener>();
+    private TimestampOffsetIndexStore timestampOffsetIndexStore = new TimestampOffsetIndexStore();
+    private long indexBytesPerEntry = TimestampOffsetIndex.DEFAULT_BYTES_PER_ENTRY;
+    private LoadStatistics loadStatistics;
+    /** zip archive being loaded as series or <code>null</code> */
+    private ZipArchive zipArchive;
+    /** cache of models loaded before or <code>null</code> */
+    private GCModelCache<GCModelCacheKey> modelCache;
+    /** <code>true</code> while the files of a series are loaded (their models are merged) */
+    private boolean loadingSeries;
 
     /**
      * Add propertyChangeListener for underlying MonitoredBufferedInputStreams property "progress".
@@ -52,12 +77,100 @@ public class DataReaderFacade {
         if (gcResource == null) {
             throw new NullPointerException("gcResource must never be null");
         }
+
+        // a series collects the statistics of all its files
+        LoadStatistics statistics = LoadStatistics.begin(gcResource.getResourceName());
+        try {
+            return loadModelInternal(gcResource);
+        }
+        finally {
+            if (statistics != null) {
+                statistics.end();
+                loadStatistics = statistics;
+                LoadStatisticsRegistry.getInstance().add(statistics);
+                if (gcResource.getLogger().isLoggable(Level.INFO)) gcResource.getLogger().info(statistics.toString());
+            }
+        }
+    }
+
+    /**
+     * Looks the model of <code>gcResource</code> up in the model cache (if there is one) and
+     * stores it there after loading. If the same files are being loaded by another thread, its
+     * model is used instead of parsing them again.
+     */
+    private GCModel loadModelInternal(GCResource gcResource) throws DataReaderException {
+        // the model of the first file of a series is modified when the series is merged
+        GCModelCacheKey cacheKey = modelCache != null && !loadingSeries ? GCModelCacheKey.of(gcResource) : null;
+        if (cacheKey == null) {
+            return loadModelUncached(gcResource);
+        }
+
+        GCModel model = modelCache.get(cacheKey);
+        if (model != null) {
+            if (gcResource.getLogger().isLoggable(Level.INFO)) gcResource.getLogger().info("using model of "
+                    + gcResource.getResourceName() + " loaded before (unchanged since)");
+            return model;
+        }
+
+        CompletableFuture<GCModel> load = new CompletableFuture<>();
+        CompletableFuture<GCModel> runningLoad = modelCache.startLoad(cacheKey, load);
+        if (runningLoad != null) {
+            model = awaitLoad(runningLoad);
+            if (model != null) {
+                if (gcResource.getLogger().isLoggable(Level.INFO)) gcResource.getLogger().info("using model of "
+                        + gcResource.getResourceName() + " loaded at the same time by another thread");
+                return model;
+            }
+
+            // the other load failed or was cancelled
+            return loadModelUncached(gcResource);
+        }
+
+        try {
+            model = loadModelUncached(gcResource);
+            return model;
+        }
+        finally {
+            boolean isComplete = model != null && !gcResource.isReadCancelled();
+            if (isComplete) {
+                // models of files changed since aren't needed any more
+                modelCache.removeIf(cacheKey::isSameResource);
+            }
+            modelCache.endLoad(cacheKey, load, isComplete ? model : null);
+        }
+    }
+
+    /**
+     * Waits for the model being loaded by another thread.
+     *
+     * @return model or <code>null</code>, if the other thread couldn't load it completely
+     */
+    private GCModel awaitLoad(CompletableFuture<GCModel> load) throws DataReaderException {
+        try {
+            return load.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataReaderException("interrupted while waiting for the model loaded by another thread", e);
+        }
+        catch (ExecutionException e) {
+            // loads are always completed normally
+            return null;
+        }
+    }
+
+    private GCModel loadModelUncached(GCResource gcResource) throws DataReaderException {
         if (gcResource instanceof  GcResourceSeries) {
             return loadModelFromSeries((GcResourceSeries) gcResource);
         }
         if (!(gcResource instanceof GcResourceFile))
             throw new UnsupportedOperationException("Only supported for files!");
 
+        File zipArchiveFile = getZipArchiveFile((GcResourceFile) gcResource);
+        if (zipArchiveFile != null) {
+            return loadModelFromZipArchive(gcResource, zipArchiveFile);
+        }
+
         DataReaderException dataReaderException = new DataReaderException();
         GCModel model = null;
         Logger logger = gcResource.getLogger();
@@ -89,33 +202,248 @@ public class DataReaderFacade {
      */
     protected GCModel loadModelFromSeries(GcResourceSeries gcResource) throws DataReaderException {
         GcSeriesLoader seriesLoader = new GcSeriesLoader(this);
-        return seriesLoader.load(gcResource);
+        boolean wasLoadingSeries = loadingSeries;
+        loadingSeries = true;
+        try {
+            return seriesLoader.load(gcResource);
+        }
+        finally {
+            loadingSeries = wasLoadingSeries;
+        }
+    }
+
+    /**
+     * @return the file designated by <code>gcResource</code>, if it is a local zip archive;
+     * <code>null</code> otherwise
+     */
+    private File getZipArchiveFile(GcResourceFile gcResource) {
+        if (zipArchive != null || gcResource.getTimeRange() != null) {
+            return null;
+        }
+
+        try {
+            URL url = gcResource.getResourceNameAsUrl();
+            if (url.getProtocol().startsWith("file")) {
+                File file = new File(url.getFile());
+                return ZipArchive.isZipArchive(file) ? file : null;
+            }
+        }
+        catch (MalformedURLException e) {
+            // not a file
+        }
+
+        return null;
+    }
+
+    /**
+     * Loads the files of a zip archive as a rotated series of logfiles; the entries are inflated
+     * in parallel ahead of the one being parsed.
+     *
+     * @param gcResource resource of the archive
+     * @param file the archive
+     * @return a {@link GCModel} containing all events found in the files of the archive
+     * @throws DataReaderException problem reading the archive or parser failure
+     */
+    private GCModel loadModelFromZipArchive(GCResource gcResource, File file) throws DataReaderException {
+        try (ZipArchive archive = new ZipArchive(file)) {
+            if (gcResource.getLogger().isLoggable(Level.INFO)) gcResource.getLogger().info("zip archive detected; loading its files as series");
+            zipArchive = archive;
+            return loadModelFromSeries(archive.createSeries(gcResource.getLogger()));
+        }
+        catch (IOException e) {
+            gcResource.getLogger().warning(LocalisationHelper.getString("fileopen_dialog_read_file_failed")
+                    + "\n" + e.toString() + " " + e.getLocalizedMessage());
+            throw new DataReaderException(e.toString(), e);
+        }
+        finally {
+            zipArchive = null;
+        }
     }
 
     /**
-     * Open and parse data designated by <code>gcResource</code>.
+     * Returns the statistics of the last load of this instance (time, bytes allocated, lines and
+     * events per phase of the load).
+     *
+     * @return statistics or <code>null</code>, if nothing was loaded yet
+     */
+    public LoadStatistics getLoadStatistics() {
+        return loadStatistics;
+    }
+
+    /**
+     * Sets the cache models are looked up in before they are loaded and stored in after. Models
+     * taken from the cache are shared and must not be modified.
+     *
+     * @param modelCache cache (e.g. {@link GCModelCache#getShared()}) or <code>null</code> to
+     * always load the models
+     */
+    public void setModelCache(GCModelCache<GCModelCacheKey> modelCache) {
+        this.modelCache = modelCache;
+    }
+
+    void setTimestampOffsetIndexStore(TimestampOffsetIndexStore timestampOffsetIndexStore) {
+        this.timestampOffsetIndexStore = timestampOffsetIndexStore;
+    }
+
+    /**
+     * Sets the distance between two entries of the {@link TimestampOffsetIndex}es built; files
+     * shorter than two entries are not indexed.
+     *
+     * @param indexBytesPerEntry distance in bytes
+     */
+    void setIndexBytesPerEntry(long indexBytesPerEntry) {
+        this.indexBytesPerEntry = indexBytesPerEntry;
+    }
+
+    /**
+     * Open and parse data designated by <code>gcResource</code>. If it has a {@link TimeRange},
+     * only the events within are returned; if there is an index of the file, only the part of
+     * the file containing the range is read.
      *
      * @param gcResource where to find data to be parsed
      * @return GCModel containing events parsed from <code>gcResource</code>
      * @throws IOException problem reading the data
      */
     private GCModel readModel(GcResourceFile gcResource) throws IOException {
+        TimeRange timeRange = gcResource.getTimeRange();
+        if (timeRange == null) {
+            GCModel model = readAppendedModel(gcResource);
+            return model != null ? model : readCompleteModel(gcResource);
+        }
+
+        URL url = gcResource.getResourceNameAsUrl();
+        GCModel model = null;
+        if (url.getProtocol().startsWith("file")) {
+            model = readTimeRange(gcResource, new File(url.getFile()), timeRange);
+        }
+        if (model == null) {
+            model = readCompleteModel(gcResource);
+        }
+
+        return filter(model, timeRange);
+    }
+
+    /**
+     * On reload of a remote log, reads only the lines appended since the current model of
+     * <code>gcResource</code> was read (see {@link HttpAppendedLinesReader}).
+     *
+     * @return model containing all events or <code>null</code>, if the log must be read completely
+     */
+    private GCModel readAppendedModel(GcResourceFile gcResource) throws IOException {
+        GCModel previousModel = gcResource.getModel();
+        URL url = gcResource.getResourceNameAsUrl();
+        if (!gcResource.isReload()
+                || previousModel == null
+                || previousModel.getHttpResumePoint() == null
+                || !url.getProtocol().startsWith("http")) {
+
+            return null;
+        }
+
+        return new HttpAppendedLinesReader(gcResource, url).read(previousModel);
+    }
+
+    /**
+     * Reads only the part of <code>file</code> containing <code>timeRange</code> as found in its
+     * {@link TimestampOffsetIndex}.
+     *
+     * @return model containing at least all events of the range or <code>null</code>, if the
+     * complete file must be read
+     */
+    private GCModel readTimeRange(GcResourceFile gcResource, File file, TimeRange timeRange) throws IOException {
+        TimestampOffsetIndex index = timestampOffsetIndexStore.load(file);
+        if (index == null) {
+            return null;
+        }
+
+        long length = file.length();
+        long start = index.getStartOffset(timeRange);
+        long end = index.getEndOffset(timeRange, length);
+        if (start == 0 && end == length) {
+            return null;
+        }
+
+        DataReaderFactory factory = new DataReaderFactory();
+        String formatSample = factory.readFormatSample(gcResource, file);
+        if (formatSample == null) {
+            return null;
+        }
+
+        if (gcResource.getLogger().isLoggable(Level.INFO)) gcResource.getLogger().info("reading bytes " + start + " - " + end + " of " + length + " for " + timeRange);
+        InputStream in = LoadStatistics.instrument(new RangeInputStream(file, start, end), Phase.FILE_READ);
+        try {
+            if (end - start > 100L) {
+                in = new MonitoredBufferedInputStream(in, DataReaderFactory.FOUR_KB, end - start);
+                for (PropertyChangeListener listener : propertyChangeListeners) {
+                    ((MonitoredBufferedInputStream) in).addPropertyChangeListener(listener);
+                }
+            }
+
+            GCModel model = read(factory.getDataReaderBySample(formatSample, gcResource, in, index.getFirstDatestamp()));
+            model.setURL(gcResource.getResourceNameAsUrl());
+            model.setLineNumberSource(null);
+            return model;
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Returns a new model containing only the events of <code>model</code> within <code>timeRange</code>.
+     */
+    private GCModel filter(GCModel model, TimeRange timeRange) {
+        GCModel filteredModel = new GCModel();
+        Iterator<AbstractGCEvent<?>> iterator = model.getEvents();
+        while (iterator.hasNext()) {
+            AbstractGCEvent<?> event = iterator.next();
+            if (timeRange.contains(event)) {
+                filteredModel.add(event);
+            }
+        }
+        filteredModel.setURL(model.getURL());
+
+        return filteredModel;
+    }
+
+    /**
+     * Open and parse all data designated by <code>gcResource</code>. Builds and stores a
+     * {@link TimestampOffsetIndex} for files large enough.
+     *
+     * @param gcResource where to find data to be parsed
+     * @return GCModel containing events parsed from <code>gcResource</code>
+     * @throws IOException problem reading the data
+     */
+    private GCModel readCompleteModel(GcResourceFile gcResource) throws IOException {
         URL url = gcResource.getResourceNameAsUrl();
         DataReaderFactory factory = new DataReaderFactory();
         long contentLength = 0L;
         InputStream in = null;
+        LineOffsetIndex lineOffsetIndex = null;
+        LineOffsetIndex httpLineOffsetIndex = null;
+        URLConnection conn = null;
         try {
             if (url.getProtocol().startsWith("http")) {
                 AtomicLong atomicContentLength = new AtomicLong();
-                URLConnection conn = url.openConnection();
-                in = HttpUrlConnectionHelper.openInputStream((HttpURLConnection) conn,
-                        HttpUrlConnectionHelper.GZIP,
-                        atomicContentLength);
+                conn = url.openConnection();
+                in = LoadStatistics.instrument(HttpUrlConnectionHelper.openInputStream((HttpURLConnection) conn,
+                                HttpUrlConnectionHelper.GZIP,
+                                atomicContentLength),
+                        Phase.DOWNLOAD);
                 contentLength = atomicContentLength.get();
+                // offset of the last complete line to continue at on reload
+                httpLineOffsetIndex = new LineOffsetIndex();
+                in = new LineIndexingInputStream(in, httpLineOffsetIndex);
+            }
+            else if (zipArchive != null && zipArchive.getSize(url) >= 0) {
+                in = LoadStatistics.instrument(zipArchive.getInputStream(url), Phase.FILE_READ);
+                contentLength = zipArchive.getSize(url);
             }
             else {
-                in = url.openStream();
+                in = LoadStatistics.instrument(url.openStream(), Phase.FILE_READ);
                 if (url.getProtocol().startsWith("file")) {
+                    lineOffsetIndex = new LineOffsetIndex();
+                    in = new LineIndexingInputStream(in, lineOffsetIndex);
                     File file = new File(url.getFile());
                     if (file.exists()) {
                         contentLength = file.length();
@@ -130,8 +458,21 @@ public class DataReaderFacade {
             }
 
             DataReader reader = factory.getDataReader(gcResource, in);
-            GCModel model = reader.read();
+            GCModel model = read(reader);
             model.setURL(url);
+            model.setLineNumberSource(null);
+            if (httpLineOffsetIndex != null && !httpLineOffsetIndex.isCompressed() && !isXmlReader(reader)) {
+                model.setHttpResumePoint(new HttpResumePoint(httpLineOffsetIndex.getLastLineStart(),
+                        conn.getHeaderField(HttpUrlConnectionHelper.ETAG),
+                        conn.getLastModified(),
+                        null));
+            }
+            if (lineOffsetIndex != null && !lineOffsetIndex.isCompressed()) {
+                model.setLineOffsetIndex(lineOffsetIndex);
+                if (lineOffsetIndex.getLength() >= 2 * indexBytesPerEntry) {
+                    storeTimestampOffsetIndex(new File(url.getFile()), model, lineOffsetIndex);
+                }
+            }
 
             return model;
         } finally {
@@ -145,4 +486,98 @@ public class DataReaderFacade {
         }
     }
 
+    /**
+     * Builds and stores the {@link TimestampOffsetIndex} of <code>file</code>, unless the index
+     * already stored is valid and covers all of the file read.
+     */
+    private void storeTimestampOffsetIndex(File file, GCModel model, LineOffsetIndex lineOffsetIndex) {
+        Phase previousPhase = LoadStatistics.enterPhase(Phase.INDEX);
+        try {
+            TimestampOffsetIndex storedIndex = timestampOffsetIndexStore.load(file);
+            if (storedIndex != null && storedIndex.getLength() >= lineOffsetIndex.getLength()) {
+                return;
+            }
+
+            TimestampOffsetIndex index = TimestampOffsetIndex.build(model, lineOffsetIndex, indexBytesPerEntry);
+            if (index.getEntryCount() > 1) {
+                timestampOffsetIndexStore.store(file, index);
+            }
+        }
+        finally {
+            LoadStatistics.exitPhase(previousPhase);
+        }
+    }
+
+    /**
+     * @return <code>true</code>, if <code>reader</code> parses an xml document, which can't be
+     * continued with the lines appended later
+     */
+    private boolean isXmlReader(DataReader reader) {
+        return reader instanceof DataReaderIBM_J9_R28 || reader instanceof DataReaderIBM_J9_5_0;
+    }
+
+    private GCModel read(DataReader reader) throws IOException {
+        Phase previousPhase = LoadStatistics.enterPhase(Phase.PARSE);
+        try {
+            return reader.read();
+        }
+        finally {
+            LoadStatistics.exitPhase(previousPhase);
+        }
+    }
+
+    /**
+     * Stream of the bytes between <code>start</code> and <code>end</code> of a file.
+     */
+    private static class RangeInputStream extends FilterInputStream {
+        private long remaining;
+
+        public RangeInputStream(File file, long start, long end) throws IOException {
+            super(new FileInputStream(file));
+            ((FileInputStream) in).getChannel().position(start);
+            this.remaining = end - start;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int result = in.read();
+            if (result >= 0) {
+                --remaining;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int result = in.read(b, off, (int) Math.min(len, remaining));
+            if (result > 0) {
+                remaining -= result;
+            }
+            return result;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long result = in.skip(Math.min(n, remaining));
+            remaining -= result;
+            return result;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
 }
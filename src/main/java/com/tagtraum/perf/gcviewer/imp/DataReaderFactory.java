@@ -1,15 +1,22 @@
 package com.tagtraum.perf.gcviewer.imp;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.StringTokenizer;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.GZIPInputStream;
 
 import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.util.FieldTokenizer;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics.Phase;
 import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
 
 /**
@@ -23,6 +30,8 @@ public class DataReaderFactory {
     private static final int ONE_KB = 1024;
     static final int FOUR_KB = ONE_KB * 4;
     private static final int MAX_ATTEMPT_COUNT = 100;
+    /** size of the start of a file used by {@link #readFormatSample(GCResource, File)} */
+    static final int FORMAT_SAMPLE_SIZE = ONE_KB * 16;
     
     private GCResource gcResource;
 
@@ -37,13 +46,23 @@ public class DataReaderFactory {
      */
     public DataReader getDataReader(GCResource gcResource, InputStream inStream) throws IOException {
         this.gcResource = gcResource;
+        Phase previousPhase = LoadStatistics.enterPhase(Phase.FORMAT_DETECTION);
+        try {
+            return getDataReaderInternal(gcResource, inStream);
+        }
+        finally {
+            LoadStatistics.exitPhase(previousPhase);
+        }
+    }
+
+    private DataReader getDataReaderInternal(GCResource gcResource, InputStream inStream) throws IOException {
         InputStream in = new BufferedInputStream(inStream, FOUR_KB);
         // isGZipped relies on streams to support "mark" -> BufferdInputStream does
         if (isGZipped(in)) {
             getLogger().info("GZip stream detected");
-            in = new BufferedInputStream(new GZIPInputStream(in, FOUR_KB), FOUR_KB);
+            in = new BufferedInputStream(LoadStatistics.instrument(new ParallelGZIPInputStream(in), Phase.DECOMPRESS), FOUR_KB);
         }
-        
+
         DataReader dataReader = null;
         long nextPos = 0;
         String chunkOfLastLine = null;
@@ -94,6 +113,38 @@ public class DataReaderFactory {
         return dataReader;
     }
 
+    /**
+     * Reads the complete lines at the start of <code>file</code> as sample determining its format
+     * for {@link #getDataReaderBySample(String, GCResource, InputStream)}. Used to read parts of
+     * a file (e.g. appended lines or a time range), which can't be identified on their own.
+     *
+     * @param gcResource resource information for <code>file</code>
+     * @param file uncompressed log file
+     * @return sample or <code>null</code>, if the file is too short to determine its format yet
+     * @throws IOException problem reading the file or format can't be determined
+     */
+    public String readFormatSample(GCResource gcResource, File file) throws IOException {
+        byte[] start;
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            start = new byte[(int) Math.min(in.length(), FORMAT_SAMPLE_SIZE)];
+            in.readFully(start);
+        }
+
+        int end = start.length;
+        while (end > 0 && start[end - 1] != '\n') {
+            --end;
+        }
+        String sample = new String(start, 0, end, StandardCharsets.US_ASCII);
+        if (getDataReaderBySample(sample, gcResource, new ByteArrayInputStream(new byte[0])) != null) {
+            return sample;
+        }
+        else if (start.length == FORMAT_SAMPLE_SIZE) {
+            throw new IOException(LocalisationHelper.getString("datareaderfactory_instantiation_failed"));
+        }
+
+        return null;
+    }
+
     private String getChunkOfLastLine(String currentTextBlock) {
         String chunkOfLastLine;
         int index = currentTextBlock.lastIndexOf('\n');
@@ -106,7 +157,41 @@ public class DataReaderFactory {
         return chunkOfLastLine;
     }
 
-    private DataReader getDataReaderBySample(String s, GCResource gcResource, InputStream in) throws IOException {
+    /**
+     * Like {@link #getDataReaderBySample(String, GCResource, InputStream)} for a part of a log
+     * not starting at its beginning: the timestamps of events having a datestamp only are
+     * calculated from <code>referenceDateStamp</code> as if the complete log was read.
+     *
+     * @param s sample of the gc log (complete lines) determining the format
+     * @param gcResource resource information for <code>in</code>
+     * @param in input stream to be read by the datareader
+     * @param referenceDateStamp datestamp of the first event of the log or <code>null</code>
+     * @return appropriate datareader or <code>null</code>, if the format can't be determined from <code>s</code>
+     * @throws IOException problem instantiating the datareader
+     */
+    public DataReader getDataReaderBySample(String s, GCResource gcResource, InputStream in, ZonedDateTime referenceDateStamp) throws IOException {
+        DataReader dataReader = getDataReaderBySample(s, gcResource, in);
+        if (dataReader instanceof AbstractDataReader) {
+            ((AbstractDataReader) dataReader).setReferenceDateStamp(referenceDateStamp);
+        }
+
+        return dataReader;
+    }
+
+    /**
+     * Returns the {@link DataReader} for the format found in <code>s</code> reading <code>in</code>.
+     * In contrast to {@link #getDataReader(GCResource, InputStream)} the format can be determined
+     * from a different part of the log than the one read (e.g. the start of a file, when only the
+     * lines appended later are to be read).
+     *
+     * @param s sample of the gc log (complete lines) determining the format
+     * @param gcResource resource information for <code>in</code>
+     * @param in input stream to be read by the datareader
+     * @return appropriate datareader or <code>null</code>, if the format can't be determined from <code>s</code>
+     * @throws IOException problem instantiating the datareader
+     */
+    public DataReader getDataReaderBySample(String s, GCResource gcResource, InputStream in) throws IOException {
+        this.gcResource = gcResource;
         // if there is a [memory ] somewhere in the first chunk of the logs, it is JRockit
         if (s.contains("[memory ]")) {
             int startOfRealLog = s.lastIndexOf("<");
@@ -187,11 +272,11 @@ public class DataReaderFactory {
             if (getLogger().isLoggable(Level.INFO)) getLogger().info("File format: Sun 1.2.2");
             return new DataReaderSun1_2_2(gcResource, in);
         }
-        else if (s.indexOf("<GC: ") == 0 && s.contains(">") && new StringTokenizer(s.substring(0, s.indexOf(">")+1), " ").countTokens() == 20) {
+        else if (s.indexOf("<GC: ") == 0 && s.contains(">") && FieldTokenizer.countFields(s, 0, s.indexOf('>') + 1, " ") == 20) {
             if (getLogger().isLoggable(Level.INFO)) getLogger().info("File format: HP-UX 1.2/1.3/1.4.0");
             return new DataReaderHPUX1_2(gcResource, in);
         }
-        else if (s.startsWith("<GC: ") && s.contains(">") && new StringTokenizer(s.substring(0, s.indexOf(">")+1), " ").countTokens() == 22) {
+        else if (s.startsWith("<GC: ") && s.contains(">") && FieldTokenizer.countFields(s, 0, s.indexOf('>') + 1, " ") == 22) {
             if (getLogger().isLoggable(Level.INFO)) getLogger().info("File format: HP-UX 1.4.1/1.4.2");
             return new DataReaderHPUX1_4_1(gcResource, in);
         }
@@ -3,7 +3,6 @@ package com.tagtraum.perf.gcviewer.imp;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
-import java.util.StringTokenizer;
 import java.util.logging.Level;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
@@ -11,7 +10,7 @@ import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
-import com.tagtraum.perf.gcviewer.util.NumberParser;
+import com.tagtraum.perf.gcviewer.util.FieldTokenizer;
 
 /**
  * DataReader for HP-UX 1.2/1.3/1.4.0
@@ -21,6 +20,8 @@ import com.tagtraum.perf.gcviewer.util.NumberParser;
  */
 public class DataReaderHPUX1_2 extends AbstractDataReader {
 
+    private final FieldTokenizer fields = new FieldTokenizer(" ");
+
     public DataReaderHPUX1_2(GCResource gcResource, InputStream in) throws UnsupportedEncodingException {
         super(gcResource, in);
     }
@@ -28,17 +29,17 @@ public class DataReaderHPUX1_2 extends AbstractDataReader {
     public GCModel read() throws IOException {
         if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading HP-UX 1.2-1.4.0 format...");
         try {
-            GCModel model = new GCModel();
+            GCModel model = createModel();
             model.setFormat(GCModel.Format.SUN_X_LOG_GC);
             String line = null;
             GCEvent event = null;
             while ((line = in.readLine()) != null && shouldContinue()) {
-                StringTokenizer st = new StringTokenizer(line, " ");
-                if (st.countTokens() != 20) {
-                    if (getLogger().isLoggable(Level.WARNING)) getLogger().warning("Malformed line (" + in.getLineNumber() + "). Wrong number of tokens ("+st.countTokens()+"): " + line);
+                fields.reset(line);
+                if (fields.getFieldCount() != 20) {
+                    if (getLogger().isLoggable(Level.WARNING)) getLogger().warning("Malformed line (" + in.getLineNumber() + "). Wrong number of tokens ("+fields.getFieldCount()+"): " + line);
                     continue;
                 }
-                if (!"<GC:".equals(st.nextToken())) {
+                if (!fields.fieldEquals(0, "<GC:")) {
                     if (getLogger().isLoggable(Level.WARNING)) getLogger().warning("Malformed line (" + in.getLineNumber() + "). Expected \"<GC:\" in " + line);
                     continue;
                 }
@@ -57,25 +58,22 @@ public class DataReaderHPUX1_2 extends AbstractDataReader {
                         5:  Old generation too full to scavenge
                         6:  FullGCAlot
                 */
-                final int reason = Integer.parseInt(st.nextToken());
+                final int reason = fields.parseInt(1);
                 event.setType(findType(reason));
                 // %2:  Program time at the beginning of the collection, in seconds
-                event.setTimestamp(NumberParser.parseDouble(st.nextToken()));
+                event.setTimestamp(fields.parseDouble(2));
                 // %3:  Garbage collection invocation.  Counts of Scavenge and
                 // Full GCs are maintained separately
-                st.nextToken();
                 // %4:  Size of the object allocation request that forced the GC, in bytes
-                st.nextToken();
                 // %5:  Tenuring threshold - determines how long the new born object
                 // remains in the New Generation
-                st.nextToken();
                 // Eden Sub-space (within the New Generation)
                 // %6:  Before
                 // %7:  After
                 // %8:  Capacity
-                final long edenBefore = Long.parseLong(st.nextToken());
-                final long edenAfter = Long.parseLong(st.nextToken());
-                final long edenCapacity = Long.parseLong(st.nextToken());
+                final long edenBefore = fields.parseLong(6);
+                final long edenAfter = fields.parseLong(7);
+                final long edenCapacity = fields.parseLong(8);
                 /*
                 GCEvent edenEvent = new GCEvent();
                 edenEvent.setType(AbstractGCEvent.Type.DEF_NEW);
@@ -88,9 +86,9 @@ public class DataReaderHPUX1_2 extends AbstractDataReader {
                 // %9:   Before
                 // %10:  After
                 // %11:  Capacity
-                final long survivorBefore = Long.parseLong(st.nextToken());
-                final long survivorAfter = Long.parseLong(st.nextToken());
-                final long survivorCapacity = Long.parseLong(st.nextToken());
+                final long survivorBefore = fields.parseLong(9);
+                final long survivorAfter = fields.parseLong(10);
+                final long survivorCapacity = fields.parseLong(11);
                 /*
                 GCEvent survivorEvent = new GCEvent();
                 survivorEvent.setType(AbstractGCEvent.Type.DEF_NEW);
@@ -110,9 +108,9 @@ public class DataReaderHPUX1_2 extends AbstractDataReader {
                 // %12:  Before
                 // %13:  After
                 // %14:  Capacity
-                final long oldBefore = Long.parseLong(st.nextToken());
-                final long oldAfter = Long.parseLong(st.nextToken());
-                final long oldCapacity = Long.parseLong(st.nextToken());
+                final long oldBefore = fields.parseLong(12);
+                final long oldAfter = fields.parseLong(13);
+                final long oldCapacity = fields.parseLong(14);
                 GCEvent oldEvent = new GCEvent();
                 oldEvent.setType(AbstractGCEvent.Type.TENURED);
                 oldEvent.setPreUsed((int)(oldBefore / 1024));
@@ -123,9 +121,9 @@ public class DataReaderHPUX1_2 extends AbstractDataReader {
                 // %15:  Before
                 // %16:  After
                 // %17:  Capacity
-                final long permBefore = Long.parseLong(st.nextToken());
-                final long permAfter = Long.parseLong(st.nextToken());
-                final long permCapacity = Long.parseLong(st.nextToken());
+                final long permBefore = fields.parseLong(15);
+                final long permAfter = fields.parseLong(16);
+                final long permCapacity = fields.parseLong(17);
                 GCEvent permEvent = new GCEvent();
                 permEvent.setType(AbstractGCEvent.Type.PERM);
                 permEvent.setPreUsed((int)(permBefore / 1024));
@@ -133,7 +131,7 @@ public class DataReaderHPUX1_2 extends AbstractDataReader {
                 permEvent.setTotal((int)(permCapacity / 1024));
 
                 // %18:  Time taken in seconds to finish the gc
-                final double pause = NumberParser.parseDouble(st.nextToken());
+                final double pause = fields.parseDouble(18);
                 event.setPause(pause);
                 event.setPreUsed(newEvent.getPreUsed() + oldEvent.getPreUsed());
                 event.setPostUsed(newEvent.getPostUsed() + oldEvent.getPostUsed());
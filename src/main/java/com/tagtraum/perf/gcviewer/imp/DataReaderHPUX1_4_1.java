@@ -9,7 +9,6 @@ package com.tagtraum.perf.gcviewer.imp;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
-import java.util.StringTokenizer;
 import java.util.logging.Level;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
@@ -17,7 +16,7 @@ import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
-import com.tagtraum.perf.gcviewer.util.NumberParser;
+import com.tagtraum.perf.gcviewer.util.FieldTokenizer;
 
 /**
  * DataReader for HP-UX 1.4.1/1.4.2
@@ -27,6 +26,8 @@ import com.tagtraum.perf.gcviewer.util.NumberParser;
  */
 public class DataReaderHPUX1_4_1 extends AbstractDataReader {
 
+    private final FieldTokenizer fields = new FieldTokenizer(" ");
+
     public DataReaderHPUX1_4_1(GCResource gcResource, InputStream in) throws UnsupportedEncodingException {
         super(gcResource, in);
     }
@@ -34,19 +35,19 @@ public class DataReaderHPUX1_4_1 extends AbstractDataReader {
     public GCModel read() throws IOException {
         if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading HP-UX 1.4.1-1.4.2 format...");
         try {
-            final GCModel model = new GCModel();
+            final GCModel model = createModel();
             model.setFormat(GCModel.Format.SUN_X_LOG_GC);
             String line = null;
             GCEvent event = null;
             while ((line = in.readLine()) != null && shouldContinue()) {
-                final StringTokenizer st = new StringTokenizer(line, " ");
-                if (st.countTokens() != 22) {
+                fields.reset(line);
+                if (fields.getFieldCount() != 22) {
                     if (getLogger().isLoggable(Level.WARNING)) {
-                        getLogger().warning("Malformed line (" + in.getLineNumber() + "). Wrong number of tokens ("+st.countTokens()+"): " + line);
-                        continue;
+                        getLogger().warning("Malformed line (" + in.getLineNumber() + "). Wrong number of tokens ("+fields.getFieldCount()+"): " + line);
                     }
+                    continue;
                 }
-                if (!"<GC:".equals(st.nextToken())) {
+                if (!fields.fieldEquals(0, "<GC:")) {
                     if (getLogger().isLoggable(Level.WARNING)) getLogger().warning("Malformed line (" + in.getLineNumber() + "). Expected \"<GC:\" in " + line);
                     continue;
                 }
@@ -109,27 +110,24 @@ public class DataReaderHPUX1_4_1 extends AbstractDataReader {
                                   5: Precleaning
                                   6: Sweeping
                 */
-                final int typeOfGC = Integer.parseInt(st.nextToken());
+                final int typeOfGC = fields.parseInt(1);
                 // %2:  see above
-                final float gcDetails = Float.parseFloat(st.nextToken());
+                final float gcDetails = (float) fields.parseDouble(2);
                 event.setType(findType(typeOfGC, gcDetails));
                 // %3:  Program time at the beginning of the collection, in seconds
-                event.setTimestamp(NumberParser.parseDouble(st.nextToken()));
+                event.setTimestamp(fields.parseDouble(3));
                 // %4:  Garbage collection invocation. Counts of background CMS GCs
                 // and other GCs are maintained separately
-                st.nextToken();
                 // %5:  Size of the object allocation request that forced the GC, in bytes
-                st.nextToken();
                 // %6:  Tenuring threshold - determines how long the new born object
                 // remains in the New Generation
-                st.nextToken();
                 // Eden Sub-space (within the New Generation)
                 // %7:  Before
                 // %8:  After
                 // %9:  Capacity
-                final long edenBefore = Long.parseLong(st.nextToken());
-                final long edenAfter = Long.parseLong(st.nextToken());
-                final long edenCapacity = Long.parseLong(st.nextToken());
+                final long edenBefore = fields.parseLong(7);
+                final long edenAfter = fields.parseLong(8);
+                final long edenCapacity = fields.parseLong(9);
                 /*
                 GCEvent edenEvent = new GCEvent();
                 edenEvent.setType(AbstractGCEvent.Type.DEF_NEW);
@@ -142,9 +140,9 @@ public class DataReaderHPUX1_4_1 extends AbstractDataReader {
                 // %10:   Before
                 // %11:  After
                 // %12:  Capacity
-                final long survivorBefore = Long.parseLong(st.nextToken());
-                final long survivorAfter = Long.parseLong(st.nextToken());
-                final long survivorCapacity = Long.parseLong(st.nextToken());
+                final long survivorBefore = fields.parseLong(10);
+                final long survivorAfter = fields.parseLong(11);
+                final long survivorCapacity = fields.parseLong(12);
                 /*
                 GCEvent survivorEvent = new GCEvent();
                 survivorEvent.setType(AbstractGCEvent.Type.DEF_NEW);
@@ -164,9 +162,9 @@ public class DataReaderHPUX1_4_1 extends AbstractDataReader {
                 // %13:  Before
                 // %14:  After
                 // %15:  Capacity
-                final long oldBefore = Long.parseLong(st.nextToken());
-                final long oldAfter = Long.parseLong(st.nextToken());
-                final long oldCapacity = Long.parseLong(st.nextToken());
+                final long oldBefore = fields.parseLong(13);
+                final long oldAfter = fields.parseLong(14);
+                final long oldCapacity = fields.parseLong(15);
                 final GCEvent oldEvent = new GCEvent();
                 oldEvent.setType(AbstractGCEvent.Type.TENURED);
                 oldEvent.setPreUsed((int)(oldBefore / 1024));
@@ -177,9 +175,9 @@ public class DataReaderHPUX1_4_1 extends AbstractDataReader {
                 // %16:  Before
                 // %17:  After
                 // %18:  Capacity
-                final long permBefore = Long.parseLong(st.nextToken());
-                final long permAfter = Long.parseLong(st.nextToken());
-                final long permCapacity = Long.parseLong(st.nextToken());
+                final long permBefore = fields.parseLong(16);
+                final long permAfter = fields.parseLong(17);
+                final long permCapacity = fields.parseLong(18);
                 final GCEvent permEvent = new GCEvent();
                 permEvent.setType(AbstractGCEvent.Type.PERM);
                 permEvent.setPreUsed((int)(permBefore / 1024));
@@ -187,7 +185,7 @@ public class DataReaderHPUX1_4_1 extends AbstractDataReader {
                 permEvent.setTotal((int)(permCapacity / 1024));
 
                 // %19:  The total stop-the-world duration, in seconds.
-                final double pause = NumberParser.parseDouble(st.nextToken());
+                final double pause = fields.parseDouble(19);
                 event.setPause(pause);
                 // %20:  The total time used in collection, in seconds.
                 // ignore for now
@@ -11,21 +11,27 @@ package com.tagtraum.perf.gcviewer.imp;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
 import java.util.logging.Level;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
-
-import org.xml.sax.SAXException;
-import org.xml.sax.SAXParseException;
-import org.xml.sax.helpers.DefaultHandler;
-
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
+import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.util.NumberParser;
+
+import static com.tagtraum.perf.gcviewer.imp.XMLStreamReaderTools.getAttributeValue;
 
 /**
- * Parses -verbose:gc output from IBM J9 JVM 5.0. Uses SAX parser and custom
- * handler to read in GC information.
+ * Parses -verbose:gc output from IBM J9 JVM 5.0. Uses the cursor api of StAX
+ * ({@link XMLStreamReader}) to read in GC information.
  * Note: Only supports -Xgcpolicy:optthruput (the default GC policy).
  * Note(2): This implementation uses the "Young" area to represent the J9 idea
  * of the Small-Object-Area (soa) and the "Old" generation area for the Large-
@@ -35,52 +41,318 @@ import com.tagtraum.perf.gcviewer.model.GCResource;
  */
 public class DataReaderIBM_J9_5_0 extends AbstractDataReader {
 
-    private InputStream inputStream;
+    private static final String AF_ELEMENT = "af";
+    private static final String TIME = "time";
+    private static final String GC = "gc";
+    private static final String TIMESMS = "timesms";
+    private static final String TENURED = "tenured";
+    private static final String SOA = "soa";
+    private static final String LOA = "loa";
+
+    private DateFormat cycleStartGCFormat5 = new SimpleDateFormat("EEE MMM dd HH:mm:ss yyyy", Locale.US);
+    private DateFormat cycleStartGCFormat6 = new SimpleDateFormat("MMM dd HH:mm:ss yyyy", Locale.US);
+    private DateFormat current = cycleStartGCFormat5;
+    private AF currentAF;
+    private int currentTenured = 0; // 0 = none, 1=pre, 2=mid, 3=end
+    private Date begin = null;
 
      public DataReaderIBM_J9_5_0(GCResource gcResource, InputStream in) throws UnsupportedEncodingException {
          super(gcResource, in);
-
-         this.inputStream = in;
     }
 
     public GCModel read() throws IOException {
         if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading IBM J9 5.0 format...");
-        try (InputStream inStream = this.inputStream){
+        try {
             final GCModel model = new GCModel();
+            model.setReferenceDateStamp(referenceDateStamp);
             model.setFormat(GCModel.Format.IBM_VERBOSE_GC);
-            DefaultHandler handler = new IBMJ9SAXHandler(gcResource, model);
 
-            // Use the default (non-validating) parser
-            SAXParserFactory factory = SAXParserFactory.newInstance();
-            factory.setValidating(false);
-
-            javax.xml.parsers.SAXParser saxParser;
+            XMLStreamReader reader = null;
             try {
-                saxParser = factory.newSAXParser();
-                saxParser.parse( inStream, handler );
-            }
-            catch (ParserConfigurationException e) {
-                final IOException exception = new IOException(e.toString());
-                exception.initCause(e);
-                throw exception;
+                reader = XMLStreamReaderTools.createInputFactory().createXMLStreamReader(in);
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        startElement(reader);
+                    }
+                    else if (event == XMLStreamConstants.END_ELEMENT && AF_ELEMENT.equals(reader.getLocalName())) {
+                        endAf(model);
+                    }
+                }
             }
-            catch (SAXException e) {
-                // TODO: if(e.getMessage().startsWith("XML document structures must start and end within the same entity")) {
-                if (e instanceof SAXParseException && ((SAXParseException) e).getColumnNumber() == 1) {
-                    // ignore. this just means a xml tag terminated.
+            catch (XMLStreamException e) {
+                if (e.getLocation() != null && e.getLocation().getColumnNumber() == 1) {
+                    // ignore. this just means a xml tag terminated (the log ends without closing all tags).
                 }
                 else {
-                    final IOException exception = new IOException(e.toString());
-                    exception.initCause(e);
-                    throw exception;
+                    throw new IOException(e.toString(), e);
+                }
+            }
+            finally {
+                if (reader != null) {
+                    try {
+                        reader.close();
+                    }
+                    catch (XMLStreamException e) {
+                        // ignore
+                    }
                 }
+                in.close();
             }
 
             return model;
-
         }
         finally {
             if (getLogger().isLoggable(Level.INFO)) getLogger().info("Done reading.");
         }
     }
+
+    private Date parseTime(String ts) throws ParseException {
+        try {
+            return current.parse(ts);
+        }
+        catch (ParseException e) {
+            if (current != cycleStartGCFormat6) {
+
+                current = cycleStartGCFormat6;
+                return parseTime(ts);
+            }
+            throw e;
+        }
+    }
+
+    private void startElement(XMLStreamReader reader) {
+        String name = reader.getLocalName();
+        try {
+            if (currentAF == null) {
+                if (AF_ELEMENT.equals(name)) {
+                    startAf(reader);
+                }
+                return;
+            }
+
+            switch (name) {
+                case TIME:
+                    String totalStr = getAttributeValue(reader, "totalms");
+                    if (totalStr != null) {
+                        currentAF.totalTime = NumberParser.parseDouble(totalStr) / 1000;
+                    }
+                    break;
+                case GC:
+                    currentAF.gcType = getAttributeValue(reader, "type");
+                    break;
+                case TIMESMS:
+                    String markStr = getAttributeValue(reader, "mark");
+                    if (markStr != null) {
+                        currentAF.gcTimeMark = NumberParser.parseDouble(markStr);
+                    }
+                    String sweepStr = getAttributeValue(reader, "sweep");
+                    if (sweepStr != null) {
+                        currentAF.gcTimeSweep = NumberParser.parseDouble(sweepStr);
+                    }
+                    break;
+                case TENURED:
+                    currentTenured++;
+                    // For now only care about Total - don't break into SOA and LOA
+                    if (currentTenured == 1) {
+                        currentAF.initialFreeBytes = getBytes(reader, "freebytes");
+                        currentAF.initialTotalBytes = getBytes(reader, "totalbytes");
+                    }
+                    else if (currentTenured == 3) {
+                        currentAF.afterFreeBytes = getBytes(reader, "freebytes");
+                        currentAF.afterTotalBytes = getBytes(reader, "totalbytes");
+                    }
+                    else if (currentTenured > 3) {
+                        getLogger().warning("currentTenured is > 3!");
+                    }
+                    break;
+                case SOA:
+                    if (currentTenured == 1) {
+                        currentAF.initialSOAFreeBytes = getBytes(reader, "freebytes");
+                        currentAF.initialSOATotalBytes = getBytes(reader, "totalbytes");
+                    }
+                    else if (currentTenured == 3) {
+                        currentAF.afterSOAFreeBytes = getBytes(reader, "freebytes");
+                        currentAF.afterSOATotalBytes = getBytes(reader, "totalbytes");
+                    }
+                    else if (currentTenured > 3) {
+                        getLogger().warning("currentTenured is > 3!");
+                    }
+                    break;
+                case LOA:
+                    if (currentTenured == 1) {
+                        currentAF.initialLOAFreeBytes = getBytes(reader, "freebytes");
+                        currentAF.initialLOATotalBytes = getBytes(reader, "totalbytes");
+                    }
+                    else if (currentTenured == 3) {
+                        currentAF.afterLOAFreeBytes = getBytes(reader, "freebytes");
+                        currentAF.afterLOATotalBytes = getBytes(reader, "totalbytes");
+                    }
+                    else if (currentTenured > 3) {
+                        getLogger().warning("currentTenured is > 3!");
+                    }
+                    break;
+                // all other elements are ignored
+            }
+        }
+        catch (ParseException e) {
+            if (getLogger().isLoggable(Level.WARNING)) getLogger().warning("line " + reader.getLocation().getLineNumber() + ": " + e.toString());
+            if (getLogger().isLoggable(Level.FINE)) getLogger().log(Level.FINE, "line " + reader.getLocation().getLineNumber() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void startAf(XMLStreamReader reader) throws ParseException {
+        currentAF = new AF();
+        currentAF.id = getAttributeValue(reader, "id");
+        currentAF.type = getAttributeValue(reader, "type");
+        final Date date = parseTime(getAttributeValue(reader, "timestamp"));
+        currentAF.timestamp = date;
+        if (begin == null) {
+            begin = date;
+            currentAF.elapsedTime = 0L;
+        }
+        else {
+            currentAF.elapsedTime = (currentAF.timestamp.getTime() - begin.getTime()) / 1000;
+        }
+    }
+
+    /**
+     * @return value of the attribute <code>name</code> or <code>-1</code>, if the current element
+     * doesn't have it
+     */
+    private long getBytes(XMLStreamReader reader, String name) {
+        String value = getAttributeValue(reader, name);
+        return value != null ? NumberParser.parseLong(value) : -1;
+    }
+
+    private void endAf(GCModel model) {
+        if (currentAF == null) {
+            getLogger().warning("Found end <af> tag with no begin tag");
+            return;
+        }
+
+        GCEvent event = new GCEvent();
+        if (!"tenured".equals(currentAF.type)) {
+            getLogger().warning("Unhandled AF type: " + currentAF.type);
+        }
+        if (!"global".equals(currentAF.gcType)) {
+            getLogger().warning("Different GC type: " + currentAF.gcType);
+        }
+        else {
+            event.setType(AbstractGCEvent.Type.FULL_GC);
+        }
+        if (currentAF.initialTotalBytes != -1
+                && currentAF.initialFreeBytes != -1) {
+            event.setPreUsed(currentAF.getPreUsedInKb());
+        }
+
+        if (currentAF.afterTotalBytes != -1
+                && currentAF.afterFreeBytes != -1) {
+            event.setPostUsed(currentAF.getPostUsedInKb());
+        }
+
+        if (currentAF.afterTotalBytes != -1) {
+            event.setTotal(currentAF.getTotalInKb());
+        }
+
+        event.setTimestamp(currentAF.elapsedTime);
+
+        if (currentAF.totalTime >= 0) {
+            event.setPause(currentAF.totalTime);
+        }
+
+        if (currentAF.afterSOATotalBytes != -1
+                && currentAF.afterSOAFreeBytes != -1
+                && currentAF.initialSOAFreeBytes != -1
+                && currentAF.initialSOATotalBytes != -1) {
+
+            final GCEvent detailEvent = new GCEvent();
+            detailEvent.setTimestamp(currentAF.elapsedTime);
+            detailEvent.setType(AbstractGCEvent.Type.PS_YOUNG_GEN);
+            detailEvent.setPreUsed(currentAF.getPreUsedSoaInKb());
+            detailEvent.setPostUsed(currentAF.getPostUsedSoaInKb());
+            detailEvent.setTotal(currentAF.getTotalSoaInKb());
+            event.add(detailEvent);
+        }
+
+        if (currentAF.afterLOATotalBytes != -1
+                && currentAF.afterLOAFreeBytes != -1
+                && currentAF.initialLOAFreeBytes != -1
+                && currentAF.initialLOATotalBytes != -1) {
+
+            final GCEvent detailEvent = new GCEvent();
+            detailEvent.setTimestamp(currentAF.elapsedTime);
+            detailEvent.setType(AbstractGCEvent.Type.PS_OLD_GEN);
+            detailEvent.setPreUsed(currentAF.getPreUsedLoaInKb());
+            detailEvent.setPostUsed(currentAF.getPostUsedLoaInKb());
+            detailEvent.setTotal(currentAF.getTotalLoaInKb());
+            event.add(detailEvent);
+        }
+
+        model.add(event);
+        currentTenured = 0;
+        currentAF = null;
+    }
+
+    /**
+     * Holder of GC information for standard Allocation Failures
+     */
+    private static class AF {
+        String type;
+        String id;
+        Date timestamp;
+        long elapsedTime;
+        long initialFreeBytes = -1;
+        long initialTotalBytes = -1;
+        long initialSOAFreeBytes = -1;
+        long initialSOATotalBytes = -1;
+        long initialLOAFreeBytes = -1;
+        long initialLOATotalBytes = -1;
+        long afterFreeBytes = -1;
+        long afterTotalBytes = -1;
+        long afterSOAFreeBytes = -1;
+        long afterSOATotalBytes = -1;
+        long afterLOAFreeBytes = -1;
+        long afterLOATotalBytes = -1;
+        String gcType;
+        double gcTimeMark = -1;
+        double gcTimeSweep = -1;
+        double totalTime = -1;
+
+        public int getPreUsedInKb() {
+            return (int) ((initialTotalBytes - initialFreeBytes) / 1024);
+        }
+
+        public int getPostUsedInKb() {
+            return (int) ((afterTotalBytes - afterFreeBytes) / 1024);
+        }
+
+        public int getTotalInKb() {
+            return (int) (afterTotalBytes / 1024);
+        }
+
+        public int getPreUsedSoaInKb() {
+            return (int) ((initialSOATotalBytes - initialSOAFreeBytes) / 1024);
+        }
+
+        public int getPostUsedSoaInKb() {
+            return (int) ((afterSOATotalBytes - afterSOAFreeBytes) / 1024);
+        }
+
+        public int getTotalSoaInKb() {
+            return (int) (afterSOATotalBytes / 1024);
+        }
+
+        public int getPreUsedLoaInKb() {
+            return (int) ((initialLOATotalBytes - initialLOAFreeBytes) / 1024);
+        }
+
+        public int getPostUsedLoaInKb() {
+            return (int) ((afterLOATotalBytes - afterLOAFreeBytes) / 1024);
+        }
+
+        public int getTotalLoaInKb() {
+            return (int) (afterLOATotalBytes / 1024);
+        }
+    }
 }
@@ -10,14 +10,9 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.logging.Level;
-import javax.xml.namespace.QName;
-import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.EndElement;
-import javax.xml.stream.events.StartElement;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
@@ -26,8 +21,13 @@ import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.util.NumberParser;
 
+import static com.tagtraum.perf.gcviewer.imp.XMLStreamReaderTools.getAttributeValue;
+
 /**
  * Parser for IBM gc logs R26_Java6 + R27_Java7 + R28_Java8
+ *
+ * <p>Uses the cursor api of StAX ({@link XMLStreamReader}), which doesn't create objects per
+ * element or attribute.</p>
  */
 public class DataReaderIBM_J9_R28 extends AbstractDataReader {
     // TODO IBM_J9: support system gcs
@@ -54,44 +54,42 @@ public class DataReaderIBM_J9_R28 extends AbstractDataReader {
     @Override
     public GCModel read() throws IOException {
         GCModel model = new GCModel();
+        model.setReferenceDateStamp(referenceDateStamp);
         try {
-            XMLInputFactory factory = XMLInputFactory.newInstance();
-            XMLEventReader eventReader = factory.createXMLEventReader(in);
+            XMLStreamReader reader = XMLStreamReaderTools.createInputFactory().createXMLStreamReader(in);
             GCEvent currentGcEvent = null;
             String eventNameStart = null;
-            while (eventReader.hasNext()) {
+            while (reader.hasNext()) {
                 try {
-                    XMLEvent event = eventReader.nextEvent();
-                    if (event.isStartElement()) {
-                        StartElement startElement = event.asStartElement();
-                        switch (startElement.getName().getLocalPart()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        switch (reader.getLocalName()) {
                             case VERBOSEGC:
-                                handleVerboseGC(startElement);
+                                handleVerboseGC(reader);
                                 break;
                             case INITIALIZED:
-                                handleInitialized(eventReader);
+                                handleInitialized(reader);
                                 break;
                             case EXCLUSIVE_START:
-                                currentGcEvent = handleExclusiveStart(startElement);
+                                currentGcEvent = handleExclusiveStart(reader);
                                 break;
                             case SYS_START:
                                 assert eventNameStart == null : "eventNameStart was expected to be null, but was " + eventNameStart;
-                                eventNameStart = handleSysStart(eventReader, startElement);
+                                eventNameStart = handleSysStart(reader);
                                 break;
                             case AF_START:
                                 assert eventNameStart == null : "eventNameStart was expected to be null, but was " + eventNameStart;
-                                eventNameStart = handleAfStart(eventReader, startElement);
+                                eventNameStart = handleAfStart(reader);
                                 break;
                             case GC_START:
-                                handleGcStart(eventReader, startElement, currentGcEvent, eventNameStart);
+                                handleGcStart(reader, currentGcEvent, eventNameStart);
                                 break;
                             case GC_END:
                                 if (currentGcEvent.getTypeAsString() != null) {
-                                    handleGcEnd(eventReader, currentGcEvent);
+                                    handleGcEnd(reader, currentGcEvent);
                                 }
                                 break;
                             case EXCLUSIVE_END:
-                                handleExclusiveEnd(startElement, currentGcEvent);
+                                handleExclusiveEnd(reader, currentGcEvent);
                                 if (currentGcEvent.getExtendedType() == null) {
                                     if (getLogger().isLoggable(Level.FINE))
                                         getLogger().fine("event at " + in.getLineNumber() + " doesn't contain any information, the parser can handle");
@@ -126,36 +124,33 @@ public class DataReaderIBM_J9_R28 extends AbstractDataReader {
         return model;
     }
 
-    private void handleVerboseGC(StartElement startElement) {
-        assert startElement.getName().getLocalPart().equals(VERBOSEGC) : "expected name of startElement: " + VERBOSEGC + ", but got " + startElement.getName();
-        getLogger().info("gc log version = " + getAttributeValue(startElement, "version"));
+    private void handleVerboseGC(XMLStreamReader reader) {
+        assert reader.getLocalName().equals(VERBOSEGC) : "expected name of startElement: " + VERBOSEGC + ", but got " + reader.getLocalName();
+        getLogger().info("gc log version = " + getAttributeValue(reader, "version"));
     }
 
-    private void handleInitialized(XMLEventReader eventReader) throws XMLStreamException {
-        String currentElementName = "";
-        while (eventReader.hasNext() && !currentElementName.equals(INITIALIZED)) {
-            XMLEvent event = eventReader.nextEvent();
-            if (event.isStartElement()) {
-                StartElement startElement = event.asStartElement();
-                if (startElement.getName().getLocalPart().equals("attribute")) {
-                    String name = getAttributeValue(startElement, "name");
+    private void handleInitialized(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (reader.getLocalName().equals("attribute")) {
+                    String name = getAttributeValue(reader, "name");
                     if (name != null && name.equals("gcPolicy")) {
-                        getLogger().info("gcPolicy = " + getAttributeValue(startElement, "value"));
+                        getLogger().info("gcPolicy = " + getAttributeValue(reader, "value"));
                     }
                 }
             }
-            else if (event.isEndElement()) {
-                EndElement endElement = event.asEndElement();
-                currentElementName = endElement.getName().getLocalPart();
+            else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals(INITIALIZED)) {
+                break;
             }
         }
     }
 
-    private GCEvent handleExclusiveStart(StartElement startElement) {
+    private GCEvent handleExclusiveStart(XMLStreamReader reader) {
         GCEvent event = new GCEvent();
         try {
             event.setDateStamp(ZonedDateTime.of(
-                    LocalDateTime.parse(getAttributeValue(startElement, "timestamp"), dateTimeFormatter),
+                    LocalDateTime.parse(getAttributeValue(reader, "timestamp"), dateTimeFormatter),
                     ZoneId.systemDefault()));
         }
         catch (DateTimeParseException e) {
@@ -166,115 +161,94 @@ public class DataReaderIBM_J9_R28 extends AbstractDataReader {
         return event;
     }
 
-    private void handleExclusiveEnd(StartElement startElement, GCEvent event) {
-        event.setPause(NumberParser.parseDouble(getAttributeValue(startElement, "durationms")) / 1000);
+    private void handleExclusiveEnd(XMLStreamReader reader, GCEvent event) {
+        event.setPause(NumberParser.parseDouble(getAttributeValue(reader, "durationms")) / 1000);
     }
 
-    private String handleSysStart(XMLEventReader eventReader, StartElement startElement) throws XMLStreamException {
-        String reason = getAttributeValue(startElement, "reason");
+    private String handleSysStart(XMLStreamReader reader) {
+        String reason = getAttributeValue(reader, "reason");
         return "sys " + (reason != null ? reason + " " : "");
     }
 
-    private String handleAfStart(XMLEventReader eventReader, StartElement startElement) throws XMLStreamException {
+    private String handleAfStart(XMLStreamReader reader) {
         return "af ";
     }
 
-    private void handleConcurrentCollectionStart(XMLEventReader eventReader, StartElement startElement) {
-    }
-
-    private void handleGcStart(XMLEventReader eventReader, StartElement startElement, GCEvent event, String eventNameStart) throws
+    private void handleGcStart(XMLStreamReader reader, GCEvent event, String eventNameStart) throws
             XMLStreamException,
             UnknownGcTypeException {
 
-        String typeName = eventNameStart + getAttributeValue(startElement, "type");
+        String typeName = eventNameStart + getAttributeValue(reader, "type");
         AbstractGCEvent.Type type = Type.lookup(typeName);
         if (type == null) {
-            throw new UnknownGcTypeException(typeName, startElement.toString());
+            throw new UnknownGcTypeException(typeName, XMLStreamReaderTools.startElementToString(reader));
         }
         event.setType(type);
 
-        String currentElementName = "";
-        while (eventReader.hasNext() && !currentElementName.equals(GC_START)) {
-            
-            XMLEvent xmlEvent = eventReader.nextEvent();
-            if (xmlEvent.isStartElement()) {
-                StartElement startEl = xmlEvent.asStartElement();
-                if (startEl.getName().getLocalPart().equals("mem-info")) {
-                    setTotalAndPreUsed(event, startEl);
+        while (reader.hasNext()) {
+            int xmlEvent = reader.next();
+            if (xmlEvent == XMLStreamConstants.START_ELEMENT) {
+                if (reader.getLocalName().equals("mem-info")) {
+                    setTotalAndPreUsed(event, reader);
                 }
-                else if (startEl.getName().getLocalPart().equals("mem")) {
-                    switch (getAttributeValue(startEl, "type")) {
+                else if (reader.getLocalName().equals("mem")) {
+                    switch (getAttributeValue(reader, "type")) {
                         case "nursery":
                             GCEvent young = new GCEvent();
                             young.setType(Type.lookup("nursery"));
-                            setTotalAndPreUsed(young, startEl);
+                            setTotalAndPreUsed(young, reader);
                             event.add(young);
                             break;
                         case "tenure":
                             GCEvent tenured = new GCEvent();
                             tenured.setType(Type.lookup("tenure"));
-                            setTotalAndPreUsed(tenured, startEl);
+                            setTotalAndPreUsed(tenured, reader);
                             event.add(tenured);
                             break;
                         // all other are ignored
                     }
                 }
             }
-            else if (xmlEvent.isEndElement()) {
-                EndElement endElement = xmlEvent.asEndElement();
-                currentElementName = endElement.getName().getLocalPart();
+            else if (xmlEvent == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals(GC_START)) {
+                break;
             }
         }
     }
 
-    private void handleGcEnd(XMLEventReader eventReader, GCEvent event) throws XMLStreamException {
-        String currentElementName = "";
-        while (eventReader.hasNext() && !currentElementName.equals(GC_END)) {
-
-            XMLEvent xmlEvent = eventReader.nextEvent();
-            if (xmlEvent.isStartElement()) {
-                StartElement startEl = xmlEvent.asStartElement();
-                if (startEl.getName().getLocalPart().equals("mem-info")) {
-                    setPostUsed(event, startEl);
+    private void handleGcEnd(XMLStreamReader reader, GCEvent event) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int xmlEvent = reader.next();
+            if (xmlEvent == XMLStreamConstants.START_ELEMENT) {
+                if (reader.getLocalName().equals("mem-info")) {
+                    setPostUsed(event, reader);
                 }
-                else if (startEl.getName().getLocalPart().equals("mem")) {
-                    switch (getAttributeValue(startEl, "type")) {
+                else if (reader.getLocalName().equals("mem")) {
+                    switch (getAttributeValue(reader, "type")) {
                         case "nursery":
-                            setPostUsed(event.getYoung(), startEl);
+                            setPostUsed(event.getYoung(), reader);
                             break;
                         case "tenure":
-                            setPostUsed(event.getTenured(), startEl);
+                            setPostUsed(event.getTenured(), reader);
                             break;
                         // all other are ignored
                     }
                 }
             }
-            else if (xmlEvent.isEndElement()) {
-                EndElement endElement = xmlEvent.asEndElement();
-                currentElementName = endElement.getName().getLocalPart();
+            else if (xmlEvent == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals(GC_END)) {
+                break;
             }
         }
     }
 
-    private void setTotalAndPreUsed(GCEvent event, StartElement startEl) {
-        long total = NumberParser.parseLong(getAttributeValue(startEl, "total"));
+    private void setTotalAndPreUsed(GCEvent event, XMLStreamReader reader) {
+        long total = NumberParser.parseLong(getAttributeValue(reader, "total"));
         event.setTotal(toKiloBytes(total));
-        event.setPreUsed(toKiloBytes(total - NumberParser.parseLong(getAttributeValue(startEl, "free"))));
+        event.setPreUsed(toKiloBytes(total - NumberParser.parseLong(getAttributeValue(reader, "free"))));
     }
 
-    private void setPostUsed(GCEvent event, StartElement startEl) {
-        long total = NumberParser.parseLong(getAttributeValue(startEl, "total"));
-        event.setPostUsed(toKiloBytes(total - NumberParser.parseLong(getAttributeValue(startEl, "free"))));
-    }
-
-    private String getAttributeValue(StartElement event, String name) {
-        String value = null;
-        Attribute attr = event.getAttributeByName(new QName(name));
-        if (attr != null) {
-            value = attr.getValue();
-        }
-        
-        return value;
+    private void setPostUsed(GCEvent event, XMLStreamReader reader) {
+        long total = NumberParser.parseLong(getAttributeValue(reader, "total"));
+        event.setPostUsed(toKiloBytes(total - NumberParser.parseLong(getAttributeValue(reader, "free"))));
     }
 
     private int toKiloBytes(long bytes) {
@@ -12,6 +12,8 @@ import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.util.NumberParser;
 
+import static com.tagtraum.perf.gcviewer.util.CharSequenceHelper.containsIgnoreCase;
+
 /**
  * DataReaderJRockit1_6_0
  * @see DataReaderJRockit1_4_2
@@ -30,7 +32,7 @@ public class DataReaderJRockit1_6_0 extends AbstractDataReader {
         if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading JRockit 1.6.0 format...");
         boolean gcSummary = false;
         try {
-            GCModel model = new GCModel();
+            GCModel model = createModel();
             model.setFormat(GCModel.Format.SUN_X_LOG_GC);
             String line = null;
             GCEvent event = null;
@@ -79,17 +81,18 @@ public class DataReaderJRockit1_6_0 extends AbstractDataReader {
                     if (getLogger().isLoggable(Level.INFO)) getLogger().warning("GC log contains OutOfMemory error: " + line.substring(startLog));
                     continue;
                 }
-                else if (line.substring(startLog).startsWith("<")) {
+                else if (line.startsWith("<", startLog)) {
                     // ignore
                     if (getLogger().isLoggable(Level.FINE)) getLogger().fine(line.substring(startLog));
                     continue;
                 }
-                else if (line.toLowerCase().indexOf("heap size:") != -1) {
+                else if (containsIgnoreCase(line, "heap size:")) {
                     if (getLogger().isLoggable(Level.INFO)) getLogger().info(line.substring(startLog));
-                    final int nurserySizeStart = line.indexOf(NURSERY_SIZE);
-                    final int nurserySizeEnd = line.indexOf('K', nurserySizeStart + NURSERY_SIZE.length());
-                    if (nurserySizeStart != -1) {
-                        nurserySize = Integer.parseInt(line.substring(nurserySizeStart + NURSERY_SIZE.length(), nurserySizeEnd));
+                    final int nurserySizeIndex = line.indexOf(NURSERY_SIZE);
+                    if (nurserySizeIndex != -1) {
+                        final int nurserySizeStart = nurserySizeIndex + NURSERY_SIZE.length();
+                        final int nurserySizeEnd = line.indexOf('K', nurserySizeStart);
+                        nurserySize = NumberParser.parseInt(line, nurserySizeStart, nurserySizeEnd - nurserySizeStart);
                     }
                     continue;
                 }
@@ -118,14 +121,13 @@ public class DataReaderJRockit1_6_0 extends AbstractDataReader {
                 //34.287-34.351: OC 460781KB->214044KB (524288KB), 0.064 s, sum of pauses 5.580 ms, longest pause 4.693 ms.
 
                 // set timestamp
-                final String timestampString = line.substring(startTimeIndex, colon);
-                final int minus = timestampString.indexOf('-');
-                if (minus == -1) {
-                    event.setTimestamp(NumberParser.parseDouble(timestampString));
-                }
-                else {
-                    event.setTimestamp(NumberParser.parseDouble(timestampString.substring(0, minus)));
+                // "34.287-34.351:" or "34.287:"
+                final int startTimestamp = skipSpaces(startTimeIndex, line);
+                int endTimestamp = line.indexOf('-', startTimestamp);
+                if (endTimestamp == -1 || endTimestamp > colon) {
+                    endTimestamp = colon;
                 }
+                event.setTimestamp(NumberParser.parseDouble(line, startTimestamp, endTimestamp - startTimestamp));
 
                 // set type
                 final int typeStart = skipSpaces(colon+1, line);
@@ -142,23 +144,23 @@ public class DataReaderJRockit1_6_0 extends AbstractDataReader {
                 // before
                 final int startBefore = typeEnd;
                 final int endBefore = line.indexOf('K', startBefore);
-                event.setPreUsed(Integer.parseInt(line.substring(startBefore, endBefore)));
+                event.setPreUsed(NumberParser.parseInt(line, startBefore, endBefore - startBefore));
 
                 // after
                 final int startAfter = endBefore+4;
                 final int endAfter = line.indexOf('K', startAfter);
-                event.setPostUsed(Integer.parseInt(line.substring(startAfter, endAfter)));
+                event.setPostUsed(NumberParser.parseInt(line, startAfter, endAfter - startAfter));
 
                 // total
                 final int startTotal = line.indexOf('(', endAfter) + 1;
                 final int endTotal = line.indexOf('K', startTotal);
-                event.setTotal(Integer.parseInt(line.substring(startTotal, endTotal)));
+                event.setTotal(NumberParser.parseInt(line, startTotal, endTotal - startTotal));
 
                 // pause
                 // 7786210KB->3242204KB (8388608KB), 0.911 s, sum of pauses 865.900 ms, longest pause 865.900 ms.
                 final int startPause = line.indexOf(PAUSE_MARKER, endTotal) + PAUSE_MARKER.length();
                 final int endPause = line.indexOf(' ', startPause);
-                event.setPause(NumberParser.parseDouble(line.substring(startPause, endPause)) / 1000.0d);
+                event.setPause(NumberParser.parseDouble(line, startPause, endPause - startPause) / 1000.0d);
                 model.add(event);
 
                 // add artificial detail events
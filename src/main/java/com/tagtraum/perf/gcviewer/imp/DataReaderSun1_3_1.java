@@ -5,13 +5,13 @@ import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.StringTokenizer;
 import java.util.logging.Level;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.util.FieldTokenizer;
 import com.tagtraum.perf.gcviewer.util.ParseInformation;
 
 /**
@@ -23,6 +23,7 @@ import com.tagtraum.perf.gcviewer.util.ParseInformation;
  */
 public class DataReaderSun1_3_1 extends AbstractDataReaderSun {
 
+    private final FieldTokenizer fields = new FieldTokenizer(" ,->()K\r\n");
     private int count;
 
     public DataReaderSun1_3_1(GCResource gcResource, InputStream in, GcLogType gcLogType) throws UnsupportedEncodingException {
@@ -33,7 +34,7 @@ public class DataReaderSun1_3_1 extends AbstractDataReaderSun {
         if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading Sun 1.3.1 format...");
         try {
             count = 0;
-            GCModel model = new GCModel();
+            GCModel model = createModel();
             model.setFormat(GCModel.Format.SUN_VERBOSE_GC);
             List<StringBuilder> lineStack = new ArrayList<StringBuilder>();
             int i;
@@ -46,11 +47,10 @@ public class DataReaderSun1_3_1 extends AbstractDataReaderSun {
                 }
                 else if (c == ']') {
                     try {
-                        model.add(parseLine(line.toString(), null));
+                        model.add(parseLine(line, null));
                     }
                     catch (ParseException e) {
                         if (getLogger().isLoggable(Level.WARNING)) getLogger().log(Level.WARNING, e.getMessage(), e);
-                        e.printStackTrace();
                     }
                     if (!lineStack.isEmpty()) {
                         line = lineStack.remove(lineStack.size() - 1); // pop
@@ -72,20 +72,19 @@ public class DataReaderSun1_3_1 extends AbstractDataReaderSun {
         }
     }
 
-    protected AbstractGCEvent<GCEvent> parseLine(String line, ParseInformation pos) throws ParseException {
+    protected AbstractGCEvent<GCEvent> parseLine(CharSequence line, ParseInformation pos) throws ParseException {
         AbstractGCEvent<GCEvent> event = new GCEvent();
         try {
             event.setTimestamp(count);
             count++;
-            StringTokenizer st = new StringTokenizer(line, " ,->()K\r\n");
-            String token = st.nextToken();
-            if (token.equals("Full") && st.nextToken().equals("GC")) {
+            fields.reset(line);
+            if (fields.fieldEquals(0, "Full") && fields.fieldEquals(1, "GC")) {
                 event.setType(AbstractGCEvent.Type.FULL_GC);
             }
-            else if (token.equals("Inc") && st.nextToken().equals("GC")) {
+            else if (fields.fieldEquals(0, "Inc") && fields.fieldEquals(1, "GC")) {
                 event.setType(AbstractGCEvent.Type.INC_GC);
             }
-            else if (token.equals("GC")) {
+            else if (fields.fieldEquals(0, "GC")) {
                 event.setType(AbstractGCEvent.Type.GC);
             }
             else {
@@ -1,9 +1,13 @@
 package com.tagtraum.perf.gcviewer.imp;
 
+import com.tagtraum.perf.gcviewer.imp.DataReaderDiagnostics.Template;
 import com.tagtraum.perf.gcviewer.model.*;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.*;
+import com.tagtraum.perf.gcviewer.util.LineClassifier;
+import com.tagtraum.perf.gcviewer.util.LineClassifier.Classification;
 import com.tagtraum.perf.gcviewer.util.NumberParser;
 import com.tagtraum.perf.gcviewer.util.ParseInformation;
+import com.tagtraum.perf.gcviewer.util.SlicedLine;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -17,6 +21,12 @@ import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static com.tagtraum.perf.gcviewer.util.CharSequenceHelper.contains;
+import static com.tagtraum.perf.gcviewer.util.CharSequenceHelper.endsWith;
+import static com.tagtraum.perf.gcviewer.util.CharSequenceHelper.indexOf;
+import static com.tagtraum.perf.gcviewer.util.CharSequenceHelper.lastIndexOf;
+import static com.tagtraum.perf.gcviewer.util.CharSequenceHelper.startsWith;
+
 /**
  * Parses log output from Sun / Oracle Java 1.4 / 1.5 / 1.6. / 1.7 / 1.8.
  * <p>
@@ -195,6 +205,34 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
     // -XX:+CMSScavengeBeforeRemark JDK 1.5
     private static final String SCAVENGE_BEFORE_REMARK = Type.SCAVENGE_BEFORE_REMARK.getName();
 
+    // classifies every line in one pass before the filters below are applied to it
+    private static final LineClassifier<LineType> LINE_CLASSIFIER = new LineClassifier.Builder<LineType>()
+            .addPrefixes(LineType.EXCLUDE, EXCLUDE_STRINGS)
+            .addPrefixes(LineType.LOG_INFORMATION, LOG_INFORMATION_STRINGS)
+            .addSubstrings(APPLICATION_TIME, LOGFILE_ROLLING_BEGIN, LOGFILE_ROLLING_END, CMS_ABORT_PRECLEAN,
+                    PRINT_CMS_STATISTICS_ITERATIONS, PRINT_CMS_STATISTICS_SURVIVOR, PRINT_TENURING_DISTRIBUTION,
+                    PRINT_REFERENCE_GC_INDICATOR, CMS_LARGE_BLOCK, SIZE, UNLOADING_CLASS, ADAPTIVE_PATTERN)
+            .build();
+    private static final LineClassifier<LineType> HEAP_LINE_CLASSIFIER = new LineClassifier.Builder<LineType>()
+            .addPrefixes(LineType.SKIP, HEAP_STRINGS)
+            .build();
+
+    // templates of problems reported to the diagnostics ({0} is the line number)
+    private static final Template FAILED_TO_PARSE_LINE = new Template(Level.WARNING,
+            "Failed to parse line {0,number,#}: {1}");
+    private static final Template CMS_STATISTICS_ITERATIONS_NO_MATCH = new Template(Level.SEVERE,
+            "printCmsStatisticsIterationsMatcher did not match for line {0,number,#}: ''{1}''");
+    private static final Template TENURING_DISTRIBUTION_NO_MATCH = new Template(Level.SEVERE,
+            "printDistributionMatcher did not match for line {0,number,#}: ''{1}''");
+    private static final Template PRINT_ADAPTIVE_SIZE_POLICY_NO_MATCH = new Template(Level.SEVERE,
+            "printAdaptiveSizePolicyMatcher did not match for line {0,number,#}: ''{1}''");
+    private static final Template ADAPTIVE_SIZE_POLICY_NO_MATCH = new Template(Level.SEVERE,
+            "adaptiveSizePolicyMatcher did not match for line {0,number,#}: ''{1}''");
+    private static final Template PRINT_FLS_STATISTICS_NO_MATCH = new Template(Level.WARNING,
+            "line {0,number,#} should contain some known PrintFLSStatistics output, which it doesn''t ({1})");
+    private static final Template EVENT_NAME_NOT_FOUND = new Template(Level.WARNING,
+            "could not find name of event before {1,number,#} on line {0,number,#}");
+
     public DataReaderSun1_6_0(GCResource gcResource, InputStream in, GcLogType gcLogType) throws UnsupportedEncodingException {
         super(gcResource, in, gcLogType);
     }
@@ -203,117 +241,130 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
         if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading Sun / Oracle 1.4.x / 1.5.x / 1.6.x / 1.7.x / 1.8.x format...");
 
         try (LineNumberReader in = this.in) {
-            GCModel model = new GCModel();
+            GCModel model = createModel();
             model.setFormat(GCModel.Format.SUN_X_LOG_GC);
             Matcher mixedLineMatcher = linesMixedPattern.matcher("");
             Matcher adaptiveSizePolicyMatcher = adaptiveSizePolicyPattern.matcher("");
             Matcher printAdaptiveSizePolicyMatcher = printAdaptiveSizePolicyPattern.matcher("");
             Matcher printCmsStatisticsIterationsMatcher = printCmsStatisticsIterationsPattern.matcher("");
             Matcher printTenuringDistributionMatcher = printTenuringDistributionPattern.matcher("");
-            String line;
+            String inputLine;
+            // line is either the line read or a SlicedLine assembled from slices of the lines read
+            CharSequence line;
             // beginningOfLine must be a stack because more than one beginningOfLine might be needed
-            Deque<String> beginningOfLine = new LinkedList<String>();
+            Deque<SlicedLine> beginningOfLine = new LinkedList<SlicedLine>();
             boolean lastLineWasScavengeBeforeRemark = false;
             boolean lineSkippedForScavengeBeforeRemark = false;
             boolean printTenuringDistributionOn = false;
             boolean isInFlsStatisticsBlock = false;
             ParseInformation parsePosition = new ParseInformation(0);
+            parsePosition.setFirstDateStamp(referenceDateStamp);
+            Classification<LineType> lineType = LINE_CLASSIFIER.newClassification();
 
-            while ((line = in.readLine()) != null && shouldContinue()) {
+            while ((inputLine = in.readLine()) != null && shouldContinue()) {
                 parsePosition.setIndex(0);
                 parsePosition.setLineNumber(in.getLineNumber());
-                if ("".equals(line)) {
+                if ("".equals(inputLine)) {
                     continue;
                 }
+                line = inputLine;
                 try {
                     printTenuringDistributionOn = false;
+                    LINE_CLASSIFIER.classify(line, lineType);
                     // filter out lines that don't need to be parsed
-                    if (startsWith(line, EXCLUDE_STRINGS, false)) {
+                    if (lineType.getPrefixCategory() == LineType.EXCLUDE) {
                         continue;
                     }
-                    else if (line.indexOf(APPLICATION_TIME) > 0) {
+                    else if (lineType.indexOf(APPLICATION_TIME) > 0) {
                         // -XX:+PrintGCApplicationConcurrentTime
                         // when it occurs including timestamp (since about jdk1.7.0_50) it should still be ignored
                         continue;
                     }
-                    else if (startsWith(line, LOG_INFORMATION_STRINGS, false)) {
-                        getLogger().info(line);
+                    else if (lineType.getPrefixCategory() == LineType.LOG_INFORMATION) {
+                        getLogger().info(inputLine);
                         continue;
                     }
-                    else if (line.indexOf(LOGFILE_ROLLING_BEGIN) > 0 || line.indexOf(LOGFILE_ROLLING_END) > 0) {
+                    else if (lineType.indexOf(LOGFILE_ROLLING_BEGIN) > 0 || lineType.indexOf(LOGFILE_ROLLING_END) > 0) {
                         continue;
                     }
 
-                    if (line.indexOf(CMS_ABORT_PRECLEAN) >= 0) {
+                    // lineType must be updated whenever line is changed up to the end of the filters below
+                    if (lineType.indexOf(CMS_ABORT_PRECLEAN) >= 0) {
                         // line contains like " CMS: abort preclean due to time "
                         // -> remove the text
-                        int indexOfStart = line.indexOf(CMS_ABORT_PRECLEAN);
-                        StringBuilder sb = new StringBuilder(line);
-                        sb.replace(indexOfStart, indexOfStart + CMS_ABORT_PRECLEAN.length(), "");
-                        line = sb.toString();
+                        int indexOfStart = lineType.indexOf(CMS_ABORT_PRECLEAN);
+                        line = slice(line, 0, indexOfStart)
+                                .append(line, indexOfStart + CMS_ABORT_PRECLEAN.length(), line.length());
+                        LINE_CLASSIFIER.classify(line, lineType);
                     }
-                    if (line.indexOf(PRINT_CMS_STATISTICS_ITERATIONS) > 0) {
+                    if (lineType.indexOf(PRINT_CMS_STATISTICS_ITERATIONS) > 0) {
                         // -XX:PrintCmsStatistics -> filter text that the parser doesn't know
                         printCmsStatisticsIterationsMatcher.reset(line);
                         if (!printCmsStatisticsIterationsMatcher.matches()) {
-                            getLogger().severe("printCmsStatisticsIterationsMatcher did not match for line " + in.getLineNumber() + ": '" + line + "'");
+                            getDiagnostics().report(CMS_STATISTICS_ITERATIONS_NO_MATCH, line);
                             continue;
                         }
 
-                        line = printCmsStatisticsIterationsMatcher.group(PRINT_CMS_STATISTICS_ITERATIONS_GROUP_BEFORE)
-                                + printCmsStatisticsIterationsMatcher.group(PRINT_CMS_STATISTICS_ITERATIONS_GROUP_AFTER);
+                        line = sliceOfGroups(line, printCmsStatisticsIterationsMatcher,
+                                PRINT_CMS_STATISTICS_ITERATIONS_GROUP_BEFORE,
+                                PRINT_CMS_STATISTICS_ITERATIONS_GROUP_AFTER);
+                        LINE_CLASSIFIER.classify(line, lineType);
                     }
-                    if (line.indexOf(PRINT_CMS_STATISTICS_SURVIVOR) > 0) {
-                        String currentBeginning = "";
+                    if (lineType.indexOf(PRINT_CMS_STATISTICS_SURVIVOR) > 0) {
+                        SlicedLine currentBeginning = new SlicedLine();
                         if (beginningOfLine.size() > 0) {
                             // if -XX:PrintCmsStatistics=2 is combined with -XX:+CMSScavengeBeforeRemark
                             // then a remark line is broken into three parts, which have to be glued together
                             currentBeginning = beginningOfLine.removeFirst();
                         }
-                        beginningOfLine.addFirst(currentBeginning + line.substring(0, line.indexOf(PRINT_CMS_STATISTICS_SURVIVOR)));
+                        beginningOfLine.addFirst(currentBeginning.append(line, 0, lineType.indexOf(PRINT_CMS_STATISTICS_SURVIVOR)));
                         continue;
                     }
-                    if (line.indexOf(PRINT_TENURING_DISTRIBUTION) > 0) {
+                    if (lineType.indexOf(PRINT_TENURING_DISTRIBUTION) > 0) {
                         printTenuringDistributionMatcher.reset(line);
                         if (!printTenuringDistributionMatcher.matches()) {
-                            getLogger().severe("printDistributionMatcher did not match for line " + in.getLineNumber() + ": '" + line + "'");
+                            getDiagnostics().report(TENURING_DISTRIBUTION_NO_MATCH, line);
                             continue;
                         }
 
-                        line = printTenuringDistributionMatcher.group(PRINT_TENURING_DISTRIBUTION_PATTERN_GROUP_BEFORE)
-                                    + printTenuringDistributionMatcher.group(PRINT_TENURING_DISTRIBUTION_PATTERN_GROUP_AFTER);
+                        line = sliceOfGroups(line, printTenuringDistributionMatcher,
+                                PRINT_TENURING_DISTRIBUTION_PATTERN_GROUP_BEFORE,
+                                PRINT_TENURING_DISTRIBUTION_PATTERN_GROUP_AFTER);
+                        LINE_CLASSIFIER.classify(line, lineType);
                     }
-                    if (line.indexOf(PRINT_REFERENCE_GC_INDICATOR) > 0) {
+                    if (lineType.indexOf(PRINT_REFERENCE_GC_INDICATOR) > 0) {
                         line = filterAwayReferenceGc(line);
+                        LINE_CLASSIFIER.classify(line, lineType);
                     }
-                    if (isInFlsStatisticsBlock || lineHasPrintFlsStatistics(line)) {
+                    if (isInFlsStatisticsBlock || lineHasPrintFlsStatistics(line, lineType)) {
                         isInFlsStatisticsBlock = handlePrintFlsStatistics(line, beginningOfLine, parsePosition, model, mixedLineMatcher);
                         continue;
                     }
 
-                    int unloadingClassIndex = line.indexOf(UNLOADING_CLASS);
+                    int unloadingClassIndex = lineType.indexOf(UNLOADING_CLASS);
                     if (unloadingClassIndex > 0) {
-                        beginningOfLine.addFirst(line.substring(0, unloadingClassIndex));
+                        beginningOfLine.addFirst(slice(line, 0, unloadingClassIndex));
                         continue;
                     }
                     else if (isPrintTenuringDistribution(line)) {
                         // this is the case, when e.g. -XX:+PrintTenuringDistribution is used
                         // where we want to skip "Desired survivor..." and "- age..." lines
-                        beginningOfLine.addFirst(line);
+                        beginningOfLine.addFirst(slice(line, 0, line.length()));
                         continue;
                     }
-                    else if (line.indexOf(ADAPTIVE_PATTERN) >= 0) {
-                        if (line.indexOf("Times") > 0) {
+                    else if (lineType.indexOf(ADAPTIVE_PATTERN) >= 0) {
+                        if (indexOf(line, "Times") > 0) {
                             // -XX:+PrintAdaptiveSizePolicy -XX:-UseAdaptiveSizePolicy
                             printAdaptiveSizePolicyMatcher.reset(line);
                             if (!printAdaptiveSizePolicyMatcher.matches()) {
-                                getLogger().severe("printAdaptiveSizePolicyMatcher did not match for line " + in.getLineNumber() + ": '" + line + "'");
+                                getDiagnostics().report(PRINT_ADAPTIVE_SIZE_POLICY_NO_MATCH, line);
                                 continue;
                             }
 
                             model.add(parseLine(
-                                    printAdaptiveSizePolicyMatcher.group(PRINT_ADAPTIVE_SIZE_GROUP_BEFORE)
-                                        + printAdaptiveSizePolicyMatcher.group(PRINT_ADAPTIVE_SIZE_GROUP_AFTER),
+                                    sliceOfGroups(line, printAdaptiveSizePolicyMatcher,
+                                            PRINT_ADAPTIVE_SIZE_GROUP_BEFORE,
+                                            PRINT_ADAPTIVE_SIZE_GROUP_AFTER),
                                     parsePosition));
                             parsePosition.setIndex(0);
                         }
@@ -321,23 +372,23 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
                             // -XX:+PrintAdaptiveSizePolicy
                             adaptiveSizePolicyMatcher.reset(line);
                             if (!adaptiveSizePolicyMatcher.matches()) {
-                                getLogger().severe("adaptiveSizePolicyMatcher did not match for line " + in.getLineNumber() + ": '" + line + "'");
+                                getDiagnostics().report(ADAPTIVE_SIZE_POLICY_NO_MATCH, line);
                                 continue;
                             }
-                            beginningOfLine.addFirst(adaptiveSizePolicyMatcher.group(1));
+                            beginningOfLine.addFirst(sliceOfGroups(line, adaptiveSizePolicyMatcher, 1));
                         }
                         continue;
                     }
                     else if (isPrintHeapAtGcStarting(line)) {
                         // if -XX:+ScavengeBeforeRemark and -XX:+PrintHeapAtGC are combined, the following lines are common
                         // 2015-05-14T18:55:12.588+0200: 1.157: [GC (CMS Final Remark) [YG occupancy: 10451 K (47936 K)]{Heap before GC invocations=22 (full 13):
-                        if (line.contains("]{" + HEAP)) {
-                            beginningOfLine.add(line.substring(0, line.indexOf("{" + HEAP)));
+                        if (contains(line, "]{" + HEAP)) {
+                            beginningOfLine.add(slice(line, 0, indexOf(line, "{" + HEAP)));
                             lastLineWasScavengeBeforeRemark = true;
                         }
 
                         // the next few lines will be the sizing of the heap
-                        skipLines(in, parsePosition, HEAP_STRINGS);
+                        skipLines(in, parsePosition, HEAP_LINE_CLASSIFIER);
                         continue;
                     }
                     else if (beginningOfLine.size() > 0) {
@@ -357,7 +408,7 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
                             continue;
                         }
                         else {
-                            line = beginningOfLine.removeFirst() + line;
+                            line = beginningOfLine.removeFirst().append(line);
                         }
                     }
                     if (isCmsScavengeBeforeRemark(line)) {
@@ -365,18 +416,19 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
                         // we have two events in the first line -> split it
                         // if this option is combined with -XX:+PrintTenuringDistribution, the
                         // first event is also distributed over more than one line
-                        int startOf2ndEvent = line.indexOf("]", line.indexOf(EVENT_YG_OCCUPANCY)) + 1;
-                        beginningOfLine.addFirst(line.substring(0, startOf2ndEvent));
+                        int startOf2ndEvent = indexOf(line, "]", indexOf(line, EVENT_YG_OCCUPANCY)) + 1;
+                        beginningOfLine.addFirst(slice(line, 0, startOf2ndEvent));
                         if (!isPrintTenuringDistribution(line)) {
-                            if (line.indexOf(SCAVENGE_BEFORE_REMARK) >= 0) {
+                            int indexOfScavengeBeforeRemark = indexOf(line, SCAVENGE_BEFORE_REMARK);
+                            if (indexOfScavengeBeforeRemark >= 0) {
                                 // jdk1.5 scavenge before remark: just after another separate event occurs
-                                startOf2ndEvent = line.indexOf(SCAVENGE_BEFORE_REMARK) + SCAVENGE_BEFORE_REMARK.length();
+                                startOf2ndEvent = indexOfScavengeBeforeRemark + SCAVENGE_BEFORE_REMARK.length();
                             }
-                            model.add(parseLine(line.substring(startOf2ndEvent), parsePosition));
+                            model.add(parseLine(slice(line, startOf2ndEvent, line.length()), parsePosition));
                             parsePosition.setIndex(0);
                         }
                         else {
-                            beginningOfLine.addFirst(line.substring(startOf2ndEvent));
+                            beginningOfLine.addFirst(slice(line, startOf2ndEvent, line.length()));
                         }
 
                         lastLineWasScavengeBeforeRemark = true;
@@ -384,7 +436,7 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
                     }
 
                     if (isMixedLine(line, mixedLineMatcher)) {
-                        handleMixedLine(model, mixedLineMatcher, beginningOfLine, parsePosition);
+                        handleMixedLine(model, line, mixedLineMatcher, beginningOfLine, parsePosition);
                         parsePosition.setIndex(0);
                         continue;
                     }
@@ -405,7 +457,7 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
                      model.add(gcEvent);
                 }
                 catch (Exception pe) {
-                    if (getLogger().isLoggable(Level.WARNING)) getLogger().warning(pe.toString());
+                    getDiagnostics().report(FAILED_TO_PARSE_LINE, pe);
                     if (getLogger().isLoggable(Level.FINE)) getLogger().log(Level.FINE, pe.getMessage(), pe);
                     beginningOfLine.clear();
                 }
@@ -413,96 +465,118 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
             return model;
         }
         finally {
+            getDiagnostics().logSummary();
             if (getLogger().isLoggable(Level.INFO)) getLogger().info("Done reading.");
         }
     }
 
-    private boolean isPrintHeapAtGcStarting(String line) {
-        return line.startsWith(HEAP) // jdk 6 and before
-                || line.indexOf(HEAP_SIZING_BEFORE) >= 0 // jdk 7 and after
-                || line.indexOf(HEAP_SIZING_AFTER) >= 0;
+    /**
+     * @return new {@link SlicedLine} containing the characters of <code>line</code> from
+     * <code>start</code> to <code>end</code>
+     */
+    private static SlicedLine slice(CharSequence line, int start, int end) {
+        return new SlicedLine().append(line, start, end);
+    }
+
+    /**
+     * @return new {@link SlicedLine} containing the <code>groups</code> of <code>matcher</code>,
+     * which has matched <code>line</code>
+     */
+    private static SlicedLine sliceOfGroups(CharSequence line, Matcher matcher, int... groups) {
+        SlicedLine slicedLine = new SlicedLine();
+        for (int group : groups) {
+            slicedLine.append(line, matcher.start(group), matcher.end(group));
+        }
+
+        return slicedLine;
+    }
+
+    private boolean isPrintHeapAtGcStarting(CharSequence line) {
+        return startsWith(line, HEAP) // jdk 6 and before
+                || indexOf(line, HEAP_SIZING_BEFORE) >= 0 // jdk 7 and after
+                || indexOf(line, HEAP_SIZING_AFTER) >= 0;
     }
 
     private void handleMixedLine(GCModel model,
+                                 CharSequence line,
                                  Matcher mixedLineMatcher,
-                                 Deque<String> beginningOfLine,
+                                 Deque<SlicedLine> beginningOfLine,
                                  ParseInformation parsePosition) throws ParseException {
 
         // if PrintTenuringDistribution is used and a line is mixed,
         // beginningOfLine may already contain a value, which must be preserved
-        String firstPartOfBeginningOfLine = beginningOfLine.pollFirst();
+        SlicedLine firstPartOfBeginningOfLine = beginningOfLine.pollFirst();
         if (firstPartOfBeginningOfLine == null) {
-            firstPartOfBeginningOfLine = "";
+            firstPartOfBeginningOfLine = new SlicedLine();
         }
-        beginningOfLine.addFirst(firstPartOfBeginningOfLine + mixedLineMatcher.group(LINES_MIXED_STARTOFLINE_GROUP));
+        beginningOfLine.addFirst(firstPartOfBeginningOfLine.append(line,
+                mixedLineMatcher.start(LINES_MIXED_STARTOFLINE_GROUP),
+                mixedLineMatcher.end(LINES_MIXED_STARTOFLINE_GROUP)));
 
-        model.add(parseLine(mixedLineMatcher.group(LINES_MIXED_ENDOFLINE_GROUP), parsePosition));
+        model.add(parseLine(sliceOfGroups(line, mixedLineMatcher, LINES_MIXED_ENDOFLINE_GROUP), parsePosition));
     }
 
-    private boolean lineHasPrintFlsStatistics(String line) {
-        return line.endsWith(BEFORE_GC)
-                || line.endsWith(AFTER_GC)
-                || line.indexOf(CMS_LARGE_BLOCK) > 0
-                || line.indexOf(SIZE) > 0;
+    private boolean lineHasPrintFlsStatistics(CharSequence line, Classification<LineType> lineType) {
+        return endsWith(line, BEFORE_GC)
+                || endsWith(line, AFTER_GC)
+                || lineType.indexOf(CMS_LARGE_BLOCK) > 0
+                || lineType.indexOf(SIZE) > 0;
     }
 
-    private boolean handlePrintFlsStatistics(String line,
-                                             Deque<String> beginningOfLine,
+    private boolean handlePrintFlsStatistics(CharSequence line,
+                                             Deque<SlicedLine> beginningOfLine,
                                              ParseInformation parseInformation,
                                              GCModel model,
                                              Matcher mixedLinesMatcher) throws ParseException {
 
+        // the parts of the event between the statistics are appended to the first beginningOfLine
         boolean isInFlsStatsBlock = true;
-        if (line.endsWith(BEFORE_GC)) {
-            beginningOfLine.addFirst(line.substring(0, line.indexOf(BEFORE_GC)));
+        if (endsWith(line, BEFORE_GC)) {
+            beginningOfLine.addFirst(slice(line, 0, indexOf(line, BEFORE_GC)));
         }
-        else if (line.endsWith(AFTER_GC)) {
-            String beginning = beginningOfLine.removeFirst();
-            beginningOfLine.addFirst(beginning + line.substring(0, line.indexOf(AFTER_GC)));
+        else if (endsWith(line, AFTER_GC)) {
+            beginningOfLine.getFirst().append(line, 0, indexOf(line, AFTER_GC));
         }
-        else if (line.indexOf(CMS_LARGE_BLOCK) > 0) {
-            String beginning = beginningOfLine.removeFirst();
-            beginningOfLine.addFirst(beginning + line.substring(0, line.indexOf(CMS_LARGE_BLOCK)));
+        else if (indexOf(line, CMS_LARGE_BLOCK) > 0) {
+            beginningOfLine.getFirst().append(line, 0, indexOf(line, CMS_LARGE_BLOCK));
         }
-        else if (line.indexOf(SIZE) > 0) {
-            String beginning = beginningOfLine.removeFirst();
-            beginningOfLine.addFirst(beginning + line.substring(0, line.indexOf(SIZE)));
+        else if (indexOf(line, SIZE) > 0) {
+            beginningOfLine.getFirst().append(line, 0, indexOf(line, SIZE));
         }
         else if (isPrintTenuringDistribution(line)) {
-            String beginning = beginningOfLine.removeFirst();
-            beginningOfLine.addFirst(beginning + line);
+            beginningOfLine.getFirst().append(line);
         }
-        else if (line.contains(TIMES)) {
+        else if (contains(line, TIMES)) {
             if (isMixedLine(line, mixedLinesMatcher)) {
-                handleMixedLine(model, mixedLinesMatcher, beginningOfLine, parseInformation);
+                handleMixedLine(model, line, mixedLinesMatcher, beginningOfLine, parseInformation);
                 parseInformation.setIndex(0);
             }
-            else if (line.contains("concurrent-")) {
+            else if (contains(line, "concurrent-")) {
                 // some concurrent event is mixed as a complete line inside the fls statistics block
                 model.add(parseLine(line, parseInformation));
             }
             else {
                 isInFlsStatsBlock = false;
-                model.add(parseLine(beginningOfLine.removeFirst() + line, parseInformation));
+                model.add(parseLine(beginningOfLine.removeFirst().append(line), parseInformation));
             }
         }
         else {
-            getLogger().warning("line should contain some known PrintFLSStatistics output, which it doesn't (" + line + ")");
+            getDiagnostics().report(PRINT_FLS_STATISTICS_NO_MATCH, line);
         }
 
         return isInFlsStatsBlock;
     }
 
-    private String filterAwayReferenceGc(String line) {
-        int lastIndexOfReference = line.lastIndexOf(PRINT_REFERENCE_GC_INDICATOR);
-        int endOfLastReference = line.indexOf("]", lastIndexOfReference) + 1;
-        int index = findEndOfNextEventNameBefore(line, line.indexOf(PRINT_REFERENCE_GC_INDICATOR));
+    private SlicedLine filterAwayReferenceGc(CharSequence line) {
+        int lastIndexOfReference = lastIndexOf(line, PRINT_REFERENCE_GC_INDICATOR);
+        int endOfLastReference = indexOf(line, "]", lastIndexOfReference) + 1;
+        int index = findEndOfNextEventNameBefore(line, indexOf(line, PRINT_REFERENCE_GC_INDICATOR));
 
-        return line.substring(0, index + 1) + line.substring(endOfLastReference);
+        return slice(line, 0, index + 1).append(line, endOfLastReference, line.length());
     }
 
-    private int findEndOfNextEventNameBefore(String line, int pos) {
-        int index = line.lastIndexOf("[", pos) - 1;
+    private int findEndOfNextEventNameBefore(CharSequence line, int pos) {
+        int index = lastIndexOf(line, '[', pos) - 1;
         char ch = 0;
         do {
             ch = line.charAt(index--);
@@ -512,32 +586,32 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
                    || ch == '.' || ch == ':' || ch == '+' || ch == '-'));
 
         if (index < 0) {
-            getLogger().warning("could not find name of event before " + pos);
+            getDiagnostics().report(EVENT_NAME_NOT_FOUND, pos);
             index = pos-1;
         }
 
         return index + 1;
     }
 
-    private boolean isMixedLine(String line, Matcher mixedLineMatcher) {
+    private boolean isMixedLine(CharSequence line, Matcher mixedLineMatcher) {
         mixedLineMatcher.reset(line);
         return mixedLineMatcher.matches();
     }
 
-    private boolean isPrintTenuringDistribution(String line) {
-        return line.endsWith("[DefNew") // serial young (CMS, Serial GC)
-                || line.endsWith("[ParNew") // parallel young (CMS, parallel GC)
-                || line.endsWith(" (promotion failed)") // CMS (if -XX:+PrintPromotionFailure is active, additional text between "ParNew" + "(promotion failed)" is introduced...)
-                || line.endsWith("[GC") // PSYoungGen (parallel sweep)
-                || (line.contains("[GC (") && (line.endsWith(") ") || line.endsWith(")"))); // parallel GC (-XX:+PrintGCCause); ends actually with "[GC (Allocation Failure) ", but text in paranthesis can vary; there may be a " " in the end
+    private boolean isPrintTenuringDistribution(CharSequence line) {
+        return endsWith(line, "[DefNew") // serial young (CMS, Serial GC)
+                || endsWith(line, "[ParNew") // parallel young (CMS, parallel GC)
+                || endsWith(line, " (promotion failed)") // CMS (if -XX:+PrintPromotionFailure is active, additional text between "ParNew" + "(promotion failed)" is introduced...)
+                || endsWith(line, "[GC") // PSYoungGen (parallel sweep)
+                || (contains(line, "[GC (") && (endsWith(line, ") ") || endsWith(line, ")"))); // parallel GC (-XX:+PrintGCCause); ends actually with "[GC (Allocation Failure) ", but text in paranthesis can vary; there may be a " " in the end
     }
 
-    private boolean isCmsScavengeBeforeRemark(String line) {
-        return line.indexOf(EVENT_YG_OCCUPANCY) >= 0
-                && (line.indexOf(EVENT_PARNEW) >= 0 || line.indexOf(EVENT_DEFNEW) >= 0);
+    private boolean isCmsScavengeBeforeRemark(CharSequence line) {
+        return indexOf(line, EVENT_YG_OCCUPANCY) >= 0
+                && (indexOf(line, EVENT_PARNEW) >= 0 || indexOf(line, EVENT_DEFNEW) >= 0);
     }
 
-    protected AbstractGCEvent<?> parseLine(String line, ParseInformation pos) throws ParseException {
+    protected AbstractGCEvent<?> parseLine(CharSequence line, ParseInformation pos) throws ParseException {
         AbstractGCEvent<?> ae = null;
         try {
             // parse datestamp          "yyyy-MM-dd'T'hh:mm:ssZ:"
@@ -560,11 +634,11 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
                 if (type.getPattern() == GcPattern.GC_PAUSE_DURATION) {
                     // the -end events contain a pause and duration as well
                     int start = pos.getIndex();
-                    int end = line.indexOf('/', pos.getIndex());
-                    event.setPause(NumberParser.parseDouble(line.substring(start, end)));
+                    int end = indexOf(line, '/', pos.getIndex());
+                    event.setPause(NumberParser.parseDouble(line, start, end - start));
                     start = end + 1;
-                    end = line.indexOf(' ', start);
-                    event.setDuration(NumberParser.parseDouble(line.substring(start, end)));
+                    end = indexOf(line, ' ', start);
+                    event.setDuration(NumberParser.parseDouble(line, start, end - start));
                 }
                 // nothing more to parse...
             }
@@ -2,6 +2,8 @@ package com.tagtraum.perf.gcviewer.imp;
 
 import com.tagtraum.perf.gcviewer.model.*;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.*;
+import com.tagtraum.perf.gcviewer.util.LineClassifier;
+import com.tagtraum.perf.gcviewer.util.LineClassifier.Classification;
 import com.tagtraum.perf.gcviewer.util.NumberParser;
 import com.tagtraum.perf.gcviewer.util.ParseInformation;
 
@@ -91,6 +93,7 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
 
     // the following pattern is specific for G1 with -XX:+PrintGCDetails
     // "[<datestamp>: ]0.295: [GC pause (young), 0.00594747 secs]"
+    // (only applied to lines passing endsWithGcPause(), which checks the end of the pattern in linear time)
     private static final Pattern PATTERN_GC_PAUSE = Pattern.compile("^([0-9-T:.+]{29})?[ ]?([0-9.,]+)?[: \\[]{2,3}([A-Z0-9a-z- ().]+)[, ]+([0-9.,]+)[ sec\\]]+$");
     private static final int GC_PAUSE_GROUP_DATESTAMP = 1;
     private static final int GC_PAUSE_GROUP_TIMESTAMP = 2;
@@ -108,7 +111,9 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
     // or "...Full GC<timestamp>..."
     // or "...)<timestamp>:  (initial-mark)..." (where the timestamp including ":" belongs to a concurrent event and the rest not)
     // or "...)<timestamp> (initial-mark)..." (where only the timestamp belongs to a concurrent event)
-    private static final Pattern PATTERN_LINES_MIXED = Pattern.compile("(.*\\)|.*Full GC)([0-9.]+.*)");
+    // -> see indexOfMixedLineTimestamp()
+    private static final String FULL_GC = "Full GC";
+    private static final String GC_PAUSE_END_CHARS = " sec]";
 
     private static final Pattern PATTERN_G1_ERGONOMICS = Pattern.compile("(.*)\\W\\d+[\\.,]\\d{3}\\W{2}\\[G1Ergonomics .+\\].*");
 
@@ -128,6 +133,16 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
         HEAP_STRINGS.add("total"); // special case of line following one containing a concurrent event mixed with heap information
     }
 
+    // classifies every line in one pass before the filters are applied to it
+    private static final LineClassifier<LineType> LINE_CLASSIFIER = new LineClassifier.Builder<LineType>()
+            .addPrefixes(LineType.EXCLUDE, EXCLUDE_STRINGS)
+            .addPrefixes(LineType.LOG_INFORMATION, LOG_INFORMATION_STRINGS)
+            .addSubstrings(APPLICATION_TIME, LOGFILE_ROLLING_BEGIN, LOGFILE_ROLLING_END, G1_ERGONOMICS)
+            .build();
+    private static final LineClassifier<LineType> HEAP_LINE_CLASSIFIER = new LineClassifier.Builder<LineType>()
+            .addPrefixes(LineType.SKIP, HEAP_STRINGS)
+            .build();
+
     /** is true, if "[Times ..." information is present in the gc log */
     private boolean hasTimes = false;
 
@@ -140,14 +155,15 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
         if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading Sun 1.6.x / 1.7.x G1 format...");
 
         try (LineNumberReader in = this.in) {
-            GCModel model = new GCModel();
+            GCModel model = createModel();
             // TODO what is this for?
             model.setFormat(GCModel.Format.SUN_X_LOG_GC);
             String line;
             ParseInformation parsePosition = new ParseInformation(0);
+            parsePosition.setFirstDateStamp(referenceDateStamp);
             Matcher gcPauseMatcher = PATTERN_GC_PAUSE.matcher("");
-            Matcher linesMixedMatcher = PATTERN_LINES_MIXED.matcher("");
             Matcher ergonomicsMatcher = PATTERN_G1_ERGONOMICS.matcher("");
+            Classification<LineType> lineType = LINE_CLASSIFIER.newClassification();
             GCEvent gcEvent = null;
             String beginningOfLine = null;
 
@@ -158,23 +174,24 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
                     continue;
                 }
                 try {
+                    LINE_CLASSIFIER.classify(line, lineType);
                     // filter out lines that don't need to be parsed
-                    if (startsWith(line, EXCLUDE_STRINGS, false)) {
+                    if (lineType.getPrefixCategory() == LineType.EXCLUDE) {
                         continue;
                     }
-                    else if (line.indexOf(APPLICATION_TIME) > 0) {
+                    else if (lineType.indexOf(APPLICATION_TIME) > 0) {
                         continue;
                     }
-                    else if (startsWith(line, LOG_INFORMATION_STRINGS, false)) {
+                    else if (lineType.getPrefixCategory() == LineType.LOG_INFORMATION) {
                         getLogger().info(line);
                         continue;
                     }
-                    else if (line.indexOf(LOGFILE_ROLLING_BEGIN) > 0 || line.indexOf(LOGFILE_ROLLING_END) > 0) {
+                    else if (lineType.indexOf(LOGFILE_ROLLING_BEGIN) > 0 || lineType.indexOf(LOGFILE_ROLLING_END) > 0) {
                         continue;
                     }
 
                     // remove G1 ergonomics pieces
-                    if (line.indexOf(G1_ERGONOMICS) >= 0) {
+                    if (lineType.indexOf(G1_ERGONOMICS) >= 0) {
                         ergonomicsMatcher.reset(line);
                         if (ergonomicsMatcher.matches()) {
                             String firstMatch = (ergonomicsMatcher.group(1));
@@ -187,12 +204,12 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
 
                     // if a new timestamp occurs in the middle of a line, that should be treated as a new line
                     // -> the rest of the old line appears on the next line
-                    linesMixedMatcher.reset(line);
-                    if (linesMixedMatcher.matches()) {
+                    int mixedLineTimestampIndex = indexOfMixedLineTimestamp(line);
+                    if (mixedLineTimestampIndex >= 0) {
                         if (line.indexOf("concurrent") > 0) {
                             // 1st pattern (complete concurrent collection follows)
-                          beginningOfLine = linesMixedMatcher.group(1);
-                          model.add(parseLine(linesMixedMatcher.group(2), parsePosition));
+                          beginningOfLine = line.substring(0, mixedLineTimestampIndex);
+                          model.add(parseLine(line.substring(mixedLineTimestampIndex), parsePosition));
                           parsePosition.setIndex(0);
                           continue; // rest of collection is on the next line, so continue there
                         }
@@ -204,7 +221,7 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
                             // all other patterns: some timestamps follow that are part of a concurrent collection
                             // but the rest of the line is the rest of the same collection
                             StringBuilder realLine = new StringBuilder();
-                            realLine.append(linesMixedMatcher.group(1));
+                            realLine.append(line, 0, mixedLineTimestampIndex);
                             int toSpaceIndex = line.indexOf(TO_SPACE_OVERFLOW);
                             int initialMarkIndex = line.indexOf(INITIAL_MARK);
                             if (toSpaceIndex > 0 && realLine.length() < toSpaceIndex) {
@@ -246,8 +263,7 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
                     // 0.356: [GC pause (young), 0.00219944 secs] -> GC_PAUSE pattern but GC_MEMORY_PAUSE
                     //   event (has extensive details)
                     // all other GC types are the same as in standard G1 mode.
-                    gcPauseMatcher.reset(line);
-                    if (gcPauseMatcher.matches()) {
+                    if (endsWithGcPause(line) && gcPauseMatcher.reset(line).matches()) {
                         ExtendedType type = extractTypeFromParsedString(gcPauseMatcher.group(GC_PAUSE_GROUP_TYPE));
 
                         if (type != null && type.getPattern().compareTo(GcPattern.GC_MEMORY_PAUSE) == 0) {
@@ -303,7 +319,7 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
                     }
                     else if (line.indexOf(HEAP_SIZING_START) >= 0) {
                         // the next few lines will be the sizing of the heap
-                        skipLinesRespectingConcurrentEvents(in, model, parsePosition, HEAP_STRINGS);
+                        skipLinesRespectingConcurrentEvents(in, model, parsePosition, HEAP_LINE_CLASSIFIER);
                         continue;
                     }
                     else if (hasIncompleteConcurrentEvent(line, parsePosition)) {
@@ -328,6 +344,57 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
         }
     }
 
+    /**
+     * Finds the start of a timestamp, which was written into the middle of <code>line</code>
+     * directly after a ")" or "Full GC" (G1 log output in 1.6.0_u25). The result is the same
+     * as splitting the line with the pattern <code>(.*\)|.*Full GC)([0-9.]+.*)</code>, but
+     * it is found in one pass over the line (without backtracking).
+     *
+     * @param line current line
+     * @return index of the timestamp (the rest of the line, which is to be treated as a new line)
+     * or <code>-1</code>, if the line is not mixed
+     */
+    static int indexOfMixedLineTimestamp(String line) {
+        // the last ")" followed by a timestamp wins; "Full GC" only counts, if there is no such ")"
+        int parenthesisIndex = -1;
+        int fullGcIndex = -1;
+        for (int i = 1; i < line.length(); ++i) {
+            char c = line.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '.') {
+                if (line.charAt(i - 1) == ')') {
+                    parenthesisIndex = i;
+                }
+                else if (line.charAt(i - 1) == 'C' && line.startsWith(FULL_GC, i - FULL_GC.length())) {
+                    fullGcIndex = i;
+                }
+            }
+        }
+
+        return parenthesisIndex >= 0 ? parenthesisIndex : fullGcIndex;
+    }
+
+    /**
+     * Checks the end of <code>line</code> for a pause ("0.00594747 secs]"): only then can
+     * {@link #PATTERN_GC_PAUSE} match. Most detail lines fail this check at their last
+     * characters, so that the pattern isn't applied to them.
+     *
+     * @param line current line
+     * @return <code>true</code>, if <code>line</code> ends with characters of " secs]" preceded
+     * by a number
+     */
+    static boolean endsWithGcPause(String line) {
+        int i = line.length() - 1;
+        while (i >= 0 && GC_PAUSE_END_CHARS.indexOf(line.charAt(i)) >= 0) {
+            --i;
+        }
+
+        if (i < 0 || i == line.length() - 1) {
+            return false;
+        }
+        char c = line.charAt(i);
+        return (c >= '0' && c <= '9') || c == '.' || c == ',';
+    }
+
     private boolean hasIncompleteConcurrentEvent(String line, ParseInformation paresPosition) {
         return !nextIsTimestamp(line, paresPosition)
                 && !nextIsDatestamp(line, paresPosition)
@@ -499,7 +566,7 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
     }
 
     @Override
-    protected AbstractGCEvent<?> parseLine(String line, ParseInformation pos) throws ParseException {
+    protected AbstractGCEvent<?> parseLine(CharSequence line, ParseInformation pos) throws ParseException {
         AbstractGCEvent<?> ae = null;
         try {
             // parse datestamp          "yyyy-MM-dd'T'hh:mm:ssZ:"
@@ -559,7 +626,7 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
      * @return complete concurrent event
      * @throws ParseException
      */
-    private AbstractGCEvent<?> parseConcurrentEvent(String line,
+    private AbstractGCEvent<?> parseConcurrentEvent(CharSequence line,
             ParseInformation pos, ZonedDateTime datestamp,
             double timestamp, final ExtendedType type) throws ParseException {
 
@@ -582,10 +649,10 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
      * -XX:+PrintHeapAtGC or -XX:+PrintAdaptiveSizePolicy.
      *
      * @param in inputStream of the current log to be read
-     * @param lineStartStrings lines starting with these strings should be ignored
+     * @param lineStartStrings lines starting with one of its prefixes (trimmed) should be ignored
      * @throws IOException problem with reading from the file
      */
-    private void skipLinesRespectingConcurrentEvents(LineNumberReader in, GCModel model, ParseInformation pos, List<String> lineStartStrings) throws IOException {
+    private void skipLinesRespectingConcurrentEvents(LineNumberReader in, GCModel model, ParseInformation pos, LineClassifier<LineType> lineStartStrings) throws IOException {
         String line = "";
 
         if (!in.markSupported()) {
@@ -604,7 +671,7 @@ public class DataReaderSun1_6_0G1 extends AbstractDataReaderSun {
             }
             else {
                 // for now just skip those lines
-                startsWithString = startsWith(line, lineStartStrings, true);
+                startsWithString = lineStartStrings.getPrefixCategory(line, true) != null;
                 if (startsWithString) {
                     // don't mark any more if line didn't match -> it is the first line that
                     // is of interest after the skipped block
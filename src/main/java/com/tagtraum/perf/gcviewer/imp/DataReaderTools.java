@@ -29,7 +29,7 @@ public class DataReaderTools {
      * @param line line that is parsed
      * @return amount of memory in kilobyte
      */
-    public int getMemoryInKiloByte(double memoryValue, char memUnit, String line) {
+    public int getMemoryInKiloByte(double memoryValue, char memUnit, CharSequence line) {
         if ('B' == memUnit) {
             return (int) Math.rint(memoryValue / 1024);
         }
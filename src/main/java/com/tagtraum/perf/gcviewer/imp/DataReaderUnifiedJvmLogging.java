@@ -12,6 +12,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import com.tagtraum.perf.gcviewer.imp.DataReaderDiagnostics.Template;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Concurrency;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.GcPattern;
@@ -130,6 +131,30 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
     /** list of strings, that are gc log lines, but not a gc event -&gt; should be logged only */
     private static final List<String> LOG_ONLY_STRINGS = Arrays.asList("Using", "Heap region size");
 
+    // templates of problems reported to the diagnostics ({0} is the line number)
+    private static final Template FAILED_TO_PARSE_EVENT = new Template(Level.WARNING,
+            "Failed to parse gc event ({1}) on line number {0,number,#} (line=\"{2}\")");
+    private static final Template FAILED_TO_PARSE_LINE = new Template(Level.WARNING,
+            "Failed to parse line number {0,number,#} (no match; line=\"{1}\")");
+    private static final Template FAILED_TO_PARSE_REGION_SIZE = new Template(Level.WARNING,
+            "Failed to parse heap region size on line {0,number,#} (line={1})");
+    private static final Template UNEXPECTED_TAIL = new Template(Level.WARNING,
+            "Unexpected tail present in the end of line number {0,number,#} (tail=\"{1}\"; line=\"{2}\")");
+    private static final Template UNEXPECTED_TAIL_EXPECTED_NOTHING = new Template(Level.WARNING,
+            "Unexpected tail present in the end of line number {0,number,#} (expected nothing to be present, tail=\"{1}\"; line=\"{2}\")");
+    private static final Template PARENT_EVENT_NOT_FOUND = new Template(Level.WARNING,
+            "Didn''t find parent event for partial event {1} (line number {0,number,#}, line=\"{2}\")");
+    private static final Template PARENT_EVENT_NOT_GC_EVENT = new Template(Level.WARNING,
+            "Parent ({1}) event for {2} should be GCEvent (line number {0,number,#}, line=\"{3}\")");
+    private static final Template EXPECTED_MEMORY = new Template(Level.WARNING,
+            "Expected only memory in the end of line number {0,number,#} (line=\"{1}\")");
+    private static final Template EXPECTED_MEMORY_AND_PAUSE = new Template(Level.WARNING,
+            "Expected memory and pause in the end of line number {0,number,#} (line=\"{1}\")");
+    private static final Template EXPECTED_PAUSE = new Template(Level.WARNING,
+            "Expected only pause in the end of line number {0,number,#} (line=\"{1}\")");
+    private static final Template EXPECTED_REGION = new Template(Level.WARNING,
+            "Expected region information in the end of line number {0,number,#} (line=\"{1}\")");
+
 
     protected DataReaderUnifiedJvmLogging(GCResource gcResource, InputStream in) throws UnsupportedEncodingException {
         super(gcResource, in);
@@ -144,7 +169,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
             Map<String, AbstractGCEvent<?>> partialEventsMap = new HashMap<>();
             Map<String, Object> infoMap = new HashMap<>();
 
-            GCModel model = new GCModel();
+            GCModel model = createModel();
             model.setFormat(GCModel.Format.UNIFIED_JVM_LOGGING);
 
             Stream<String> lines = in.lines();
@@ -156,6 +181,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
 
             return model;
         } finally {
+            getDiagnostics().logSummary();
             if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading done.");
         }
     }
@@ -174,7 +200,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
         } catch (UnknownGcTypeException | NumberFormatException e) {
             // prevent incomplete event from being added to the GCModel
             event = null;
-            getLogger().warning(String.format("Failed to parse gc event (%s) on line number %d (line=\"%s\")", e.toString(), in.getLineNumber(), context.getLine()));
+            getDiagnostics().report(FAILED_TO_PARSE_EVENT, e, context.getLine());
         }
 
         context.setCurrentEvent(event);
@@ -219,7 +245,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
                 }
                 break;
             default:
-                getLogger().warning(String.format("Unexpected tail present in the end of line number %d (tail=\"%s\"; line=\"%s\")", in.getLineNumber(), tail, context.getLine()));
+                getDiagnostics().report(UNEXPECTED_TAIL, tail, context.getLine());
         }
 
         return returnEvent;
@@ -228,12 +254,12 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
     private void updateEventDetails(ParseContext context, AbstractGCEvent<?> event) {
         AbstractGCEvent<?> parentEvent = context.getPartialEventsMap().get(event.getNumber() + "");
         if (parentEvent == null) {
-            getLogger().warning(String.format("Didn't find parent event for partial event %s (line number %d, line=\"%s\"", event.toString(), in.getLineNumber(), context.getLine()));
+            getDiagnostics().report(PARENT_EVENT_NOT_FOUND, event, context.getLine());
         } else {
             if (parentEvent instanceof GCEvent) {
                 ((GCEvent)parentEvent).add((GCEvent)event);
             } else {
-                getLogger().warning(String.format("Parent (%s) event for %s should be GCEvent (line number %d, line=\"%s\"", parentEvent.toString(), event.toString(), in.getLineNumber(), context.getLine()));
+                getDiagnostics().report(PARENT_EVENT_NOT_GC_EVENT, parentEvent, event, context.getLine());
             }
         }
     }
@@ -256,7 +282,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
 
     private void parseGcTail(ParseContext context, String tail) {
         if (!(tail == null)) {
-            getLogger().warning(String.format("Unexpected tail present in the end of line number %d (expected nothing to be present, tail=\"%s\"; line=\"%s\")", in.getLineNumber(), tail, context.getLine()));
+            getDiagnostics().report(UNEXPECTED_TAIL_EXPECTED_NOTHING, tail, context.getLine());
         }
     }
 
@@ -265,7 +291,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
         if (memoryMatcher != null && memoryMatcher.find()) {
             setMemory(event, memoryMatcher);
         } else {
-            getLogger().warning(String.format("Expected only memory in the end of line number %d (line=\"%s\")", in.getLineNumber(), context.getLine()));
+            getDiagnostics().report(EXPECTED_MEMORY, context.getLine());
         }
     }
 
@@ -278,7 +304,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
                 setMemory(event, memoryPauseMatcher);
             }
         } else {
-            getLogger().warning(String.format("Expected memory and pause in the end of line number %d (line=\"%s\")", in.getLineNumber(), context.getLine()));
+            getDiagnostics().report(EXPECTED_MEMORY_AND_PAUSE, context.getLine());
         }
     }
 
@@ -294,7 +320,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
             if (pauseMatcher.find()) {
                 setPause(event, pauseMatcher.group(GROUP_PAUSE));
             } else {
-                getLogger().warning(String.format("Expected only pause in the end of line number %d  (line=\"%s\")", in.getLineNumber(), context.getLine()));
+                getDiagnostics().report(EXPECTED_PAUSE, context.getLine());
             }
         }
     }
@@ -314,7 +340,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
                 event.setTotal(Integer.parseInt(regionMatcher.group(GROUP_REGION_TOTAL)) * regionSize * 1024);
             }
         } else {
-            getLogger().warning(String.format("Expected region information in the end of line number %d (line=\"%s\")", in.getLineNumber(), context.getLine()));
+            getDiagnostics().report(EXPECTED_REGION, context.getLine());
         }
     }
 
@@ -336,7 +362,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
             setTimeStampIfPresent(event, decoratorsMatcher.group(GROUP_DECORATORS_UPTIME));
             return event;
         } else {
-            getLogger().warning(String.format("Failed to parse line number %d (no match; line=\"%s\")", in.getLineNumber(), line));
+            getDiagnostics().report(FAILED_TO_PARSE_LINE, line);
             return null;
         }
     }
@@ -407,7 +433,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
             try {
                 context.setRegionSize(Integer.parseInt(regionSizeMatcher.group(GROUP_HEAP_REGION_SIZE)));
             } catch (NumberFormatException e) {
-                getLogger().warning(String.format("Failed to parse heap region size on line %d (line=%s)", in.getLineNumber(), context.getLine()));
+                getDiagnostics().report(FAILED_TO_PARSE_REGION_SIZE, context.getLine());
             }
         }
     }
@@ -0,0 +1,39 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of daemon threads shared by all readers inflating compressed gc logs in parallel
+ * ({@link ParallelGZIPInputStream}, {@link ZipArchive}); one thread per core.
+ */
+final class DecompressionThreads {
+
+    static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREAD_COUNT, new DecompressionThreadFactory());
+
+    private DecompressionThreads() {
+    }
+
+    static <T> Future<T> submit(Callable<T> task) {
+        return EXECUTOR.submit(task);
+    }
+
+    /**
+     * Creates daemon threads with recognisable names.
+     */
+    private static class DecompressionThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "gcviewer-inflater-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
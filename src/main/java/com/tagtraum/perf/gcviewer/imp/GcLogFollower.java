@@ -0,0 +1,143 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.ZonedDateTime;
+import java.util.logging.Level;
+
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+
+/**
+ * Follows a growing gc log file (like "tail -f"): every call of {@link #readNewEvents()} parses
+ * only the complete lines appended since the previous call and returns a model containing just
+ * their events. Nothing of earlier calls is kept except the file offset and a sample of the start
+ * of the file, which determines the format of all later parts.
+ *
+ * <p>If the file gets shorter than the offset already read (log rotated / jvm restarted), it is
+ * read from the start again ({@link #isRestarted()}). Gzipped files are not supported. Events
+ * written across more than one call (e.g. multi line events while the jvm is still writing) may
+ * be lost.</p>
+ */
+public class GcLogFollower {
+
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final File file;
+    private final int maxChunkSize;
+    private final GCResource gcResource;
+    private final DataReaderFactory dataReaderFactory = new DataReaderFactory();
+    private String formatSample;
+    private ZonedDateTime referenceDateStamp;
+    private long offset;
+    private boolean restarted;
+
+    public GcLogFollower(File file) {
+        this(file, DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * @param file file to be followed
+     * @param maxChunkSize max number of bytes parsed per call of {@link #readNewEvents()}
+     */
+    public GcLogFollower(File file, int maxChunkSize) {
+        this.file = file;
+        this.maxChunkSize = maxChunkSize;
+        this.gcResource = new GcResourceFile(file);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return number of bytes of the file parsed so far
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return <code>true</code>, if the last call of {@link #readNewEvents()} started reading the
+     * file from the beginning, because it got shorter
+     */
+    public boolean isRestarted() {
+        return restarted;
+    }
+
+    /**
+     * Parses the complete lines appended to the file since the last call (at most
+     * <code>maxChunkSize</code> bytes; the rest is read by the next call).
+     *
+     * @return model containing only the new events (empty, if there are none)
+     * @throws IOException problem reading the file or format of the file can't be determined
+     */
+    public GCModel readNewEvents() throws IOException {
+        long length = file.length();
+        restarted = length < offset;
+        if (restarted) {
+            offset = 0;
+            formatSample = null;
+            referenceDateStamp = null;
+        }
+
+        GCModel model = new GCModel();
+        if (length == offset) {
+            return model;
+        }
+
+        if (formatSample == null) {
+            formatSample = dataReaderFactory.readFormatSample(gcResource, file);
+            if (formatSample == null) {
+                return model;
+            }
+        }
+
+        byte[] chunk = read(offset, (int) Math.min(length - offset, maxChunkSize));
+        int end = lastIndexOfLineEnd(chunk) + 1;
+        if (end == 0) {
+            if (chunk.length == maxChunkSize) {
+                // line longer than a chunk: skip it, it will never be parsed
+                offset += chunk.length;
+            }
+            return model;
+        }
+
+        DataReader dataReader = dataReaderFactory.getDataReaderBySample(formatSample,
+                gcResource,
+                new ByteArrayInputStream(chunk, 0, end),
+                referenceDateStamp);
+        model = dataReader.read();
+        offset += end;
+        if (referenceDateStamp == null) {
+            referenceDateStamp = model.getFirstDateStamp();
+        }
+
+        // details of the format were logged with the first chunk
+        gcResource.getLogger().setLevel(Level.WARNING);
+        return model;
+    }
+
+    private byte[] read(long position, int length) throws IOException {
+        byte[] buffer = new byte[length];
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            in.seek(position);
+            in.readFully(buffer);
+        }
+
+        return buffer;
+    }
+
+    private int lastIndexOfLineEnd(byte[] buffer) {
+        for (int i = buffer.length - 1; i >= 0; --i) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,209 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.logging.Level;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.HttpResumePoint;
+import com.tagtraum.perf.gcviewer.util.HttpUrlConnectionHelper;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics.Phase;
+
+/**
+ * Reads only the lines appended to a remote gc log since it was read into a model (see
+ * {@link HttpResumePoint}). A conditional range request (<code>If-None-Match</code> or
+ * <code>If-Modified-Since</code> and <code>Range: bytes=&lt;offset - 1&gt;-</code>) returns nothing,
+ * if the log wasn't modified, and otherwise just the appended bytes. The first byte returned must
+ * be the line separator the previous model ended with; if it isn't, the log was replaced and
+ * must be read completely.
+ *
+ * <p>Like with {@link GcLogFollower}, events written across the offset (multi line events while
+ * the jvm is still writing) may be lost.</p>
+ *
+ * <p>Only the appended bytes are parsed, but the events of the previous model are copied into a
+ * new model on every reload (without parsing them again). The previous model can't be appended to:
+ * it is still rendered on the event dispatch thread while the reload runs in the background and
+ * may be shared with other documents through the {@link com.tagtraum.perf.gcviewer.model.GCModelCache}.</p>
+ */
+class HttpAppendedLinesReader {
+
+    private final DataReaderFactory dataReaderFactory = new DataReaderFactory();
+    private final GcResourceFile gcResource;
+    private final URL url;
+
+    public HttpAppendedLinesReader(GcResourceFile gcResource, URL url) {
+        this.gcResource = gcResource;
+        this.url = url;
+    }
+
+    /**
+     * Reads the lines appended since <code>previousModel</code> was read.
+     *
+     * @param previousModel model having an {@link HttpResumePoint}
+     * @return <code>previousModel</code>, if the log wasn't modified; a new model containing the
+     * events of <code>previousModel</code> followed by the ones appended; <code>null</code>, if
+     * the log must be read completely
+     * @throws IOException problem reading the log
+     */
+    public GCModel read(GCModel previousModel) throws IOException {
+        HttpResumePoint resumePoint = previousModel.getHttpResumePoint();
+        String formatSample = resumePoint.getFormatSample();
+        if (formatSample == null) {
+            formatSample = readFormatSample();
+            if (formatSample == null) {
+                return null;
+            }
+        }
+
+        // the byte before the offset is requested as well to check it is still the line separator
+        long start = Math.max(resumePoint.getOffset() - 1, 0L);
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        try {
+            int responseCode = HttpUrlConnectionHelper.openRange(conn, start, -1L, resumePoint.getETag(), resumePoint.getLastModified());
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                if (gcResource.getLogger().isLoggable(Level.INFO)) gcResource.getLogger().info(url + " not modified");
+                if (resumePoint.getFormatSample() == null) {
+                    previousModel.setHttpResumePoint(new HttpResumePoint(resumePoint.getOffset(),
+                            resumePoint.getETag(),
+                            resumePoint.getLastModified(),
+                            formatSample));
+                }
+                return previousModel;
+            }
+            if (responseCode != HttpURLConnection.HTTP_PARTIAL || HttpUrlConnectionHelper.getContentRangeStart(conn) != start) {
+                if (gcResource.getLogger().isLoggable(Level.INFO)) gcResource.getLogger().info("server sent " + responseCode
+                        + " instead of bytes " + start + "- of " + url + "; reading complete log");
+                return null;
+            }
+
+            byte[] appended;
+            try (InputStream in = LoadStatistics.instrument(conn.getInputStream(), Phase.DOWNLOAD)) {
+                appended = readFully(in);
+            }
+
+            int first = 0;
+            if (resumePoint.getOffset() > 0) {
+                if (appended.length == 0 || appended[0] != '\n') {
+                    if (gcResource.getLogger().isLoggable(Level.INFO)) gcResource.getLogger().info(url + " was replaced; reading complete log");
+                    return null;
+                }
+                first = 1;
+            }
+
+            int end = lastIndexOfLineEnd(appended) + 1;
+            if (gcResource.getLogger().isLoggable(Level.INFO)) gcResource.getLogger().info("reading " + Math.max(end - first, 0)
+                    + " appended bytes of " + url + " from offset " + resumePoint.getOffset());
+
+            // previousModel may be in use by the gui or other documents and must not change
+            GCModel model = new GCModel();
+            model.setFormat(previousModel.getFormat());
+            addEvents(model, previousModel);
+            if (end > first) {
+                DataReader dataReader = dataReaderFactory.getDataReaderBySample(formatSample,
+                        gcResource,
+                        new ByteArrayInputStream(appended, first, end - first),
+                        previousModel.getReferenceDateStamp());
+                if (dataReader == null) {
+                    return null;
+                }
+
+                addEvents(model, read(dataReader));
+            }
+
+            model.setURL(url);
+            model.setHttpResumePoint(new HttpResumePoint(resumePoint.getOffset() + Math.max(end - first, 0),
+                    conn.getHeaderField(HttpUrlConnectionHelper.ETAG),
+                    conn.getLastModified(),
+                    formatSample));
+            return model;
+        }
+        finally {
+            conn.disconnect();
+        }
+    }
+
+    /**
+     * Reads the complete lines at the start of the log as sample determining its format (see
+     * {@link DataReaderFactory#readFormatSample(com.tagtraum.perf.gcviewer.model.GCResource, java.io.File)}).
+     *
+     * @return sample or <code>null</code>, if the format can't be determined from it
+     */
+    private String readFormatSample() throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        try {
+            int responseCode = HttpUrlConnectionHelper.openRange(conn, 0L, DataReaderFactory.FORMAT_SAMPLE_SIZE - 1, null, 0L);
+            if (responseCode != HttpURLConnection.HTTP_PARTIAL && responseCode != HttpURLConnection.HTTP_OK) {
+                return null;
+            }
+
+            byte[] start = new byte[DataReaderFactory.FORMAT_SAMPLE_SIZE];
+            int length = 0;
+            try (InputStream in = conn.getInputStream()) {
+                int count;
+                while (length < start.length && (count = in.read(start, length, start.length - length)) >= 0) {
+                    length += count;
+                }
+            }
+
+            int end = lastIndexOfLineEnd(start, length) + 1;
+            String sample = new String(start, 0, end, StandardCharsets.US_ASCII);
+            return dataReaderFactory.getDataReaderBySample(sample, gcResource, new ByteArrayInputStream(new byte[0])) != null
+                    ? sample
+                    : null;
+        }
+        finally {
+            conn.disconnect();
+        }
+    }
+
+    private GCModel read(DataReader dataReader) throws IOException {
+        Phase previousPhase = LoadStatistics.enterPhase(Phase.PARSE);
+        try {
+            return dataReader.read();
+        }
+        finally {
+            LoadStatistics.exitPhase(previousPhase);
+        }
+    }
+
+    private void addEvents(GCModel model, GCModel source) {
+        Iterator<AbstractGCEvent<?>> iterator = source.getEvents();
+        while (iterator.hasNext()) {
+            model.add(iterator.next());
+        }
+    }
+
+    private byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[DataReaderFactory.FOUR_KB];
+        int count;
+        while ((count = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, count);
+        }
+
+        return out.toByteArray();
+    }
+
+    private int lastIndexOfLineEnd(byte[] buffer) {
+        return lastIndexOfLineEnd(buffer, buffer.length);
+    }
+
+    private int lastIndexOfLineEnd(byte[] buffer, int length) {
+        for (int i = length - 1; i >= 0; --i) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,76 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.tagtraum.perf.gcviewer.model.LineOffsetIndex;
+
+/**
+ * InputStream passing all bytes read to a {@link LineOffsetIndex}, so the index is built while
+ * the file is being parsed. Must be used directly on top of the stream of the file (below any
+ * buffering), because every byte must be seen exactly once; mark / reset are not supported.
+ */
+public class LineIndexingInputStream extends FilterInputStream {
+
+    private final LineOffsetIndex lineOffsetIndex;
+
+    public LineIndexingInputStream(InputStream in, LineOffsetIndex lineOffsetIndex) {
+        super(in);
+
+        this.lineOffsetIndex = lineOffsetIndex;
+    }
+
+    public LineOffsetIndex getLineOffsetIndex() {
+        return lineOffsetIndex;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int result = super.read();
+        if (result >= 0) {
+            lineOffsetIndex.update((byte) result);
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int result = super.read(b, off, len);
+        if (result > 0) {
+            lineOffsetIndex.update(b, off, result);
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // skipped bytes must be indexed as well
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int result = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (result < 0) {
+                break;
+            }
+            skipped += result;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // not supported
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark / reset not supported");
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link LoadStatisticsRegistry} (registered as
+ * {@value LoadStatisticsRegistry#OBJECT_NAME}). All values are summed over all loads since the
+ * start or the last {@link #reset()}; the maps contain one entry per phase.
+ */
+public interface LoadStatisticsMXBean {
+
+    /**
+     * @return number of loads
+     */
+    long getLoadCount();
+
+    /**
+     * @return name of the resource loaded last
+     */
+    String getLastResourceName();
+
+    /**
+     * @return statistics of the last load as json object
+     */
+    String getLastLoadJson();
+
+    long getLines();
+
+    long getEvents();
+
+    Map<String, Long> getWallTimeMillis();
+
+    Map<String, Long> getCpuTimeMillis();
+
+    Map<String, Long> getAllocatedBytes();
+
+    Map<String, Long> getBytes();
+
+    /**
+     * Sets all values to 0.
+     */
+    void reset();
+}
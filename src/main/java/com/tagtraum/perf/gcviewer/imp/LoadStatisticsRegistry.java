@@ -0,0 +1,143 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.tagtraum.perf.gcviewer.util.LoadStatistics;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics.Phase;
+
+/**
+ * Sums up the {@link LoadStatistics} of all loads of {@link DataReaderFacade} and publishes them
+ * as MXBean {@value #OBJECT_NAME} in the platform MBean server (e.g. to be watched in jconsole,
+ * when GCViewer is embedded in another application).
+ */
+public class LoadStatisticsRegistry implements LoadStatisticsMXBean {
+    private static final Logger LOGGER = Logger.getLogger(LoadStatisticsRegistry.class.getName());
+
+    public static final String OBJECT_NAME = "com.tagtraum.perf.gcviewer:type=LoadStatistics";
+
+    private static final LoadStatisticsRegistry INSTANCE = createInstance();
+
+    private final long[] wallNanos = new long[Phase.values().length];
+    private final long[] cpuNanos = new long[Phase.values().length];
+    private final long[] allocatedBytes = new long[Phase.values().length];
+    private final long[] bytes = new long[Phase.values().length];
+    private long loadCount;
+    private long lines;
+    private long events;
+    private LoadStatistics lastLoad;
+
+    LoadStatisticsRegistry() {
+    }
+
+    private static LoadStatisticsRegistry createInstance() {
+        LoadStatisticsRegistry registry = new LoadStatisticsRegistry();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(registry, new ObjectName(OBJECT_NAME));
+        }
+        catch (JMException | SecurityException e) {
+            // statistics are still collected; they are just not visible through jmx
+            if (LOGGER.isLoggable(Level.FINE)) LOGGER.log(Level.FINE, "failed to register " + OBJECT_NAME + " (" + e.toString() + ")", e);
+        }
+
+        return registry;
+    }
+
+    /**
+     * @return instance registered in the platform MBean server
+     */
+    public static LoadStatisticsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds the statistics of a completed load.
+     *
+     * @param statistics statistics of the load
+     */
+    public synchronized void add(LoadStatistics statistics) {
+        for (Phase phase : Phase.values()) {
+            int i = phase.ordinal();
+            wallNanos[i] += statistics.getWallNanos(phase);
+            cpuNanos[i] += statistics.getCpuNanos(phase);
+            allocatedBytes[i] += statistics.getAllocatedBytes(phase);
+            bytes[i] += statistics.getBytes(phase);
+        }
+        ++loadCount;
+        lines += statistics.getLines();
+        events += statistics.getEvents();
+        lastLoad = statistics;
+    }
+
+    @Override
+    public synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    @Override
+    public synchronized String getLastResourceName() {
+        return lastLoad != null ? lastLoad.getResourceName() : null;
+    }
+
+    @Override
+    public synchronized String getLastLoadJson() {
+        return lastLoad != null ? lastLoad.toJson() : null;
+    }
+
+    @Override
+    public synchronized long getLines() {
+        return lines;
+    }
+
+    @Override
+    public synchronized long getEvents() {
+        return events;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getWallTimeMillis() {
+        return toMap(wallNanos, 1000000L);
+    }
+
+    @Override
+    public synchronized Map<String, Long> getCpuTimeMillis() {
+        return toMap(cpuNanos, 1000000L);
+    }
+
+    @Override
+    public synchronized Map<String, Long> getAllocatedBytes() {
+        return toMap(allocatedBytes, 1L);
+    }
+
+    @Override
+    public synchronized Map<String, Long> getBytes() {
+        return toMap(bytes, 1L);
+    }
+
+    private Map<String, Long> toMap(long[] values, long divisor) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            map.put(phase.name(), values[phase.ordinal()] / divisor);
+        }
+
+        return map;
+    }
+
+    @Override
+    public synchronized void reset() {
+        Arrays.fill(wallNanos, 0);
+        Arrays.fill(cpuNanos, 0);
+        Arrays.fill(allocatedBytes, 0);
+        Arrays.fill(bytes, 0);
+        loadCount = 0;
+        lines = 0;
+        events = 0;
+        lastLoad = null;
+    }
+}
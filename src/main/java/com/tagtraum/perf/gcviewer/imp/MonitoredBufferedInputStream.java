@@ -5,28 +5,58 @@ import java.beans.PropertyChangeSupport;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Like BufferedInputStream, but keeps counter of total bytes received.
- * 
+ *
+ * <p>The reading thread only increments a plain field; as long as listeners are registered, a
+ * sampler publishes the progress every {@link #SAMPLE_INTERVAL_MS} ms (and once more at the end
+ * of the stream or when it is closed) as property change events on the sampler thread:</p>
+ * <ul>
+ *     <li>{@link #PROGRESS}: percentage read (0 - 100; only if the content length is known)</li>
+ *     <li>{@link #BYTES_PER_SECOND}: current throughput (smoothed)</li>
+ *     <li>{@link #REMAINING_MILLIS}: estimated time until the end (-1, if not known)</li>
+ * </ul>
+ *
  * @see #getBytesRead
  */
 public class MonitoredBufferedInputStream extends BufferedInputStream {
 
     public static final String PROGRESS = "progress";
+    public static final String BYTES_PER_SECOND = "bytesPerSecond";
+    public static final String REMAINING_MILLIS = "remainingMillis";
+
+    /** interval in ms between two samples (10 Hz) */
+    static final long SAMPLE_INTERVAL_MS = 100;
+
+    /** weight of the latest sample in the smoothed throughput */
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private static final ScheduledExecutorService SAMPLER = Executors.newSingleThreadScheduledExecutor(new SamplerThreadFactory());
+
     private PropertyChangeSupport propertyChangeSupport;
-    
+
 	public interface ProgressCallback {
 		String getLoggerName();
 	}
-	
-	private final AtomicInteger percentRead = new AtomicInteger(0);
-	private final AtomicLong firstPercentBound;
+
 	private final long contentLength;
-	private final AtomicLong bytesRead = new AtomicLong(0L);
-	
+	/** written by the reading thread only; a sample may see a slightly outdated value */
+	private long bytesRead;
+
+	// state of the sampler (only accessed by the sampler thread)
+	private ScheduledFuture<?> sampling;
+	private long lastSampleNanos;
+	private long lastSampleBytes;
+	private double bytesPerSecond = -1;
+	private int lastPercentage = -1;
+
 	public MonitoredBufferedInputStream(InputStream in, long contentLength) {
 		this(in, 8192, contentLength);
 	}
@@ -34,87 +64,156 @@ public class MonitoredBufferedInputStream extends BufferedInputStream {
 	public MonitoredBufferedInputStream(InputStream in, int size, long contentLength) {
 		super(in, size);
 		this.contentLength = contentLength;
-		this.firstPercentBound = new AtomicLong(contentLength/100L);
-		
+
 		this.propertyChangeSupport = new PropertyChangeSupport(this);
 	}
-	
-	public void addPropertyChangeListener(PropertyChangeListener listener) {
+
+	/**
+	 * Adds a listener for the progress events; the first listener starts the sampler.
+	 *
+	 * @param listener listener to be notified
+	 */
+	public synchronized void addPropertyChangeListener(PropertyChangeListener listener) {
 	    this.propertyChangeSupport.addPropertyChangeListener(listener);
+	    if (sampling == null) {
+	        lastSampleNanos = System.nanoTime();
+	        lastSampleBytes = bytesRead;
+	        sampling = SAMPLER.scheduleAtFixedRate(this::sample, SAMPLE_INTERVAL_MS, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+	    }
 	}
-	
-	private void updateCounters(final long increment) {
-		final long newValue = bytesRead.addAndGet(increment);
-		final long nextBound = firstPercentBound.longValue();
-		if ((newValue > nextBound) && (nextBound != 0L)) {
-			final int percentage = Math.min(100, (int)Math.floor(100 * newValue/contentLength));
-			percentRead.set(percentage);
-			// to next percentage value
-			firstPercentBound.set((1 + percentRead.get()) * contentLength/100);
-			
-			propertyChangeSupport.firePropertyChange(PROGRESS, -1, percentage);
+
+	/**
+	 * Publishes the current progress (called by the sampler).
+	 */
+	private void sample() {
+		long now = System.nanoTime();
+		long bytes = bytesRead;
+		long elapsedNanos = now - lastSampleNanos;
+		if (elapsedNanos > 0) {
+			double currentRate = (bytes - lastSampleBytes) * 1e9 / elapsedNanos;
+			bytesPerSecond = bytesPerSecond < 0 ? currentRate : RATE_SMOOTHING * currentRate + (1 - RATE_SMOOTHING) * bytesPerSecond;
+		}
+		lastSampleNanos = now;
+		lastSampleBytes = bytes;
+
+		int percentage = getPercentage(bytes);
+		if (percentage >= 0 && percentage != lastPercentage) {
+			propertyChangeSupport.firePropertyChange(PROGRESS, lastPercentage, percentage);
+			lastPercentage = percentage;
+		}
+		propertyChangeSupport.firePropertyChange(BYTES_PER_SECOND, null, (long) bytesPerSecond);
+		propertyChangeSupport.firePropertyChange(REMAINING_MILLIS, null, getRemainingMillis(bytes));
+	}
+
+	private long getRemainingMillis(long bytes) {
+		if (contentLength <= 0 || bytesPerSecond <= 0) {
+			return -1L;
+		}
+
+		return (long) (Math.max(contentLength - bytes, 0L) * 1000 / bytesPerSecond);
+	}
+
+	/**
+	 * Stops the sampler after publishing the final progress.
+	 */
+	private synchronized void stopSampling() {
+		if (sampling != null && !sampling.isCancelled()) {
+			sampling.cancel(false);
+			// the last sample runs after any sample still running (single sampler thread)
+			SAMPLER.execute(this::sample);
 		}
 	}
 
 	@Override
 	public int read() throws IOException {
 		final int result = super.read();
-		updateCounters(result);
+		if (result >= 0) {
+			++bytesRead;
+		}
+		else {
+			stopSampling();
+		}
 		return result;
 	}
 
-	@Override
-	public int read(byte[] b) throws IOException {
-		final int result = super.read(b); 
-		updateCounters(result);
-		return result;
-	}
-	
 	@Override
 	public int read(byte[] b, int off, int len) throws IOException {
-		final int result = super.read(b, off, len); 
-		updateCounters(result);
+		final int result = super.read(b, off, len);
+		if (result > 0) {
+			bytesRead += result;
+		}
+		else if (result < 0) {
+			stopSampling();
+		}
 		return result;
 	}
 
 	@Override
 	public long skip(long n) throws IOException {
-		final long result = super.skip(n); 
-		updateCounters(result);
+		final long result = super.skip(n);
+		bytesRead += result;
 		return result;
 	}
 
+	@Override
+	public void close() throws IOException {
+		try {
+			super.close();
+		}
+		finally {
+			stopSampling();
+		}
+	}
+
 	/**
 	 * Get the number of bytes read since creation or since last resetBytesRead() call.
-	 * 
+	 *
 	 * @return The number of bytes read
 	 * @see MonitoredBufferedInputStream#resetBytesRead
-	 */	
+	 */
 	public long getBytesRead() {
-		return bytesRead.longValue();
+		return bytesRead;
 	}
 
 	/**
 	 * Resets the number of bytes read.
 	 */
 	public void resetBytesRead() {
-		bytesRead.set(0L);
+		bytesRead = 0L;
 	}
 
 	/**
 	 * Calculate percentage read.
-	 * 
+	 *
 	 * @return percentage read or -1 if not known.
 	 */
 	public int getPercentageRead() {
-		if (firstPercentBound.get() > 0) {
-			return percentRead.get();
+		return getPercentage(bytesRead);
+	}
+
+	private int getPercentage(long bytes) {
+		if (contentLength <= 0L) {
+			return -1;
 		}
-		final long result = contentLength == 0L ? -1L : 100 * (getBytesRead()/contentLength);
-		return result >= 100L ? -1 : (int)result;
+
+		return (int) Math.min(100L, 100L * bytes / contentLength);
 	}
 
 	public long getContentLength() {
 		return contentLength;
 	}
+
+	/**
+	 * Creates the daemon thread publishing the progress of all streams.
+	 */
+	private static class SamplerThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "gcviewer-progress-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
 }
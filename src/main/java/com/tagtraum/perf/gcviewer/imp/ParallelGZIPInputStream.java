@@ -0,0 +1,536 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Reads gzip compressed data like {@link java.util.zip.GZIPInputStream}, but inflates the members
+ * of multi-member files (as written by log shippers concatenating compressed chunks) in parallel.
+ *
+ * <p>The compressed data is read in windows. Every position within a window where a gzip header
+ * might start is inflated as a member by the {@link DecompressionThreads} ahead of the reader;
+ * the results are used in order, starting at the end of the previous member, so false candidates
+ * (the magic bytes appearing within compressed data) are just dropped. A member not ending within
+ * its window is inflated on the reading thread, continuing where the parallel attempt stopped.
+ * A single-member file is therefore read the same way as by <code>GZIPInputStream</code>.</p>
+ *
+ * <p>Like <code>GZIPInputStream</code>, bytes following a member, which are not a gzip header,
+ * are ignored.</p>
+ */
+public class ParallelGZIPInputStream extends InputStream {
+
+    static final int DEFAULT_WINDOW_SIZE = 1024 * 1024;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+    private static final int DEFLATED = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final int HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_PENDING_MEMBERS = 2 * DecompressionThreads.THREAD_COUNT;
+
+    private final InputStream in;
+    private boolean endOfInput;
+
+    /** compressed data; a new array for each window, because the members are inflated from it */
+    private byte[] window;
+    private int windowLength;
+    /** start of the next member in <code>window</code> */
+    private int position;
+
+    private int[] candidates = new int[16];
+    private int candidateCount;
+    private int nextCandidate;
+    private boolean memberRead;
+    private final Deque<PendingMember> pendingMembers = new ArrayDeque<>();
+
+    private byte[] output;
+    private int outputPosition;
+    private int outputLength;
+
+    /** member inflated on the reading thread or <code>null</code> */
+    private Inflater inflater;
+    private CRC32 crc;
+    private long size;
+    private byte[] input;
+    private int inputLength;
+    private byte[] inputBuffer;
+    private byte[] outputBuffer;
+
+    private boolean closed;
+
+    public ParallelGZIPInputStream(InputStream in) {
+        this(in, DEFAULT_WINDOW_SIZE);
+    }
+
+    ParallelGZIPInputStream(InputStream in, int windowSize) {
+        this.in = in;
+        this.window = new byte[windowSize];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureOutput()) {
+            return -1;
+        }
+
+        return output[outputPosition++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureOutput()) {
+            return -1;
+        }
+
+        int length = Math.min(len, outputLength - outputPosition);
+        System.arraycopy(output, outputPosition, b, off, length);
+        outputPosition += length;
+        return length;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return closed ? 0 : outputLength - outputPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            cancelPendingMembers();
+            if (inflater != null) {
+                inflater.end();
+                inflater = null;
+            }
+            in.close();
+        }
+    }
+
+    /**
+     * @return <code>true</code>, if there is output to be read; <code>false</code> at the end of the data
+     */
+    private boolean ensureOutput() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+
+        while (outputPosition == outputLength) {
+            if (inflater != null) {
+                inflateOnReadingThread();
+            }
+            else {
+                Member member = nextMember();
+                if (member == null) {
+                    return false;
+                }
+
+                memberRead = true;
+                output = member.data;
+                outputPosition = 0;
+                outputLength = member.length;
+                if (member.inflater != null) {
+                    // the other candidates of this window are within this member
+                    cancelPendingMembers();
+                    inflater = member.inflater;
+                    crc = member.crc;
+                    size = member.length;
+                    input = window;
+                    inputLength = windowLength;
+                }
+                else {
+                    position = member.end;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the member starting at <code>position</code> (complete or to be continued on the
+     * reading thread).
+     *
+     * @return next member or <code>null</code>, if there is none
+     */
+    private Member nextMember() throws IOException {
+        while (true) {
+            submitMembers();
+            PendingMember pendingMember = pendingMembers.pollFirst();
+            if (pendingMember == null) {
+                if (endOfInput || windowLength - position >= 3) {
+                    // no gzip header at position
+                    return null;
+                }
+
+                refill();
+            }
+            else if (pendingMember.start < position) {
+                pendingMember.dispose();
+            }
+            else if (pendingMember.start > position) {
+                // no gzip header at position
+                cancelPendingMembers();
+                return null;
+            }
+            else {
+                Member member = pendingMember.get();
+                if (member.error != null) {
+                    cancelPendingMembers();
+                    throw member.error;
+                }
+                if (member.data != null) {
+                    return member;
+                }
+
+                // header not complete in this window
+                if (endOfInput) {
+                    if (memberRead) {
+                        // like GZIPInputStream: an incomplete header after a member is ignored
+                        return null;
+                    }
+                    throw new EOFException("Unexpected end of gzip header");
+                }
+                if (position == 0 && windowLength == window.length) {
+                    throw new ZipException("gzip header larger than " + window.length + " bytes");
+                }
+
+                refill();
+            }
+        }
+    }
+
+    /**
+     * Starts inflating the candidates of the current window until {@link #MAX_PENDING_MEMBERS} are
+     * pending.
+     */
+    private void submitMembers() {
+        while (pendingMembers.size() < MAX_PENDING_MEMBERS && nextCandidate < candidateCount) {
+            int start = candidates[nextCandidate++];
+            if (start >= position) {
+                byte[] compressed = window;
+                int end = windowLength;
+                pendingMembers.add(new PendingMember(start, DecompressionThreads.submit(() -> inflateMember(compressed, start, end))));
+            }
+        }
+    }
+
+    private void cancelPendingMembers() {
+        for (PendingMember pendingMember : pendingMembers) {
+            pendingMember.dispose();
+        }
+        pendingMembers.clear();
+    }
+
+    /**
+     * Starts a new window with the bytes of the current one from <code>position</code> on.
+     */
+    private void refill() throws IOException {
+        cancelPendingMembers();
+        byte[] newWindow = new byte[window.length];
+        int length = windowLength - position;
+        System.arraycopy(window, position, newWindow, 0, length);
+        startWindow(newWindow, length);
+    }
+
+    /**
+     * Fills <code>newWindow</code> (already containing <code>length</code> bytes) from the input
+     * and finds the candidates for members in it.
+     */
+    private void startWindow(byte[] newWindow, int length) throws IOException {
+        window = newWindow;
+        windowLength = length;
+        position = 0;
+        while (!endOfInput && windowLength < window.length) {
+            int count = in.read(window, windowLength, window.length - windowLength);
+            if (count < 0) {
+                endOfInput = true;
+            }
+            else {
+                windowLength += count;
+            }
+        }
+
+        candidateCount = 0;
+        nextCandidate = 0;
+        for (int i = 0, max = windowLength - 3; i <= max; ++i) {
+            if ((window[i] & 0xff) == GZIP_MAGIC_1 && (window[i + 1] & 0xff) == GZIP_MAGIC_2 && window[i + 2] == DEFLATED) {
+                if (candidateCount == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, candidates.length * 2);
+                }
+                candidates[candidateCount++] = i;
+            }
+        }
+    }
+
+    /**
+     * Continues inflating the current member on the reading thread; at its end, the trailer is
+     * checked and a new window is started after it.
+     */
+    private void inflateOnReadingThread() throws IOException {
+        if (outputBuffer == null) {
+            outputBuffer = new byte[OUTPUT_BUFFER_SIZE];
+            // not larger than the window, which takes the rest of the input after the member
+            inputBuffer = new byte[Math.min(OUTPUT_BUFFER_SIZE, window.length)];
+        }
+
+        try {
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    int count = in.read(inputBuffer);
+                    if (count < 0) {
+                        throw new EOFException("Unexpected end of ZLIB input stream");
+                    }
+                    input = inputBuffer;
+                    inputLength = count;
+                    inflater.setInput(inputBuffer, 0, count);
+                }
+
+                int count = inflater.inflate(outputBuffer);
+                if (count > 0) {
+                    crc.update(outputBuffer, 0, count);
+                    size += count;
+                    output = outputBuffer;
+                    outputPosition = 0;
+                    outputLength = count;
+                    return;
+                }
+                if (inflater.needsDictionary()) {
+                    throw new ZipException("Unexpected preset dictionary in gzip member");
+                }
+            }
+        }
+        catch (DataFormatException e) {
+            throw new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid ZLIB data format");
+        }
+
+        int remaining = inflater.getRemaining();
+        inflater.end();
+        inflater = null;
+
+        byte[] newWindow = new byte[window.length];
+        System.arraycopy(input, inputLength - remaining, newWindow, 0, remaining);
+        startWindow(newWindow, remaining);
+        if (windowLength < TRAILER_SIZE) {
+            throw new EOFException("Unexpected end of ZLIB input stream");
+        }
+        if (readInt(window, 0) != (int) crc.getValue() || readInt(window, 4) != (int) size) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+
+        position = TRAILER_SIZE;
+    }
+
+    /**
+     * Inflates the gzip member starting at <code>start</code> of <code>compressed</code>.
+     *
+     * @param compressed window of compressed data
+     * @param start start of the member
+     * @param end end of the data in the window
+     * @return result of the attempt (always; errors are part of the result)
+     */
+    private static Member inflateMember(byte[] compressed, int start, int end) {
+        Member member = new Member();
+        Inflater memberInflater = null;
+        try {
+            int dataStart = skipHeader(compressed, start, end);
+            if (dataStart < 0) {
+                return member;
+            }
+
+            memberInflater = new Inflater(true);
+            memberInflater.setInput(compressed, dataStart, end - dataStart);
+            byte[] data = new byte[OUTPUT_BUFFER_SIZE];
+            int length = 0;
+            while (!memberInflater.finished() && !memberInflater.needsInput()) {
+                if (length == data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                int count = memberInflater.inflate(data, length, data.length - length);
+                if (count == 0 && memberInflater.needsDictionary()) {
+                    throw new ZipException("Unexpected preset dictionary in gzip member");
+                }
+                length += count;
+            }
+
+            CRC32 memberCrc = new CRC32();
+            memberCrc.update(data, 0, length);
+            member.data = data;
+            member.length = length;
+
+            int trailerStart = end - memberInflater.getRemaining();
+            if (!memberInflater.finished() || end - trailerStart < TRAILER_SIZE) {
+                // to be continued on the reading thread
+                member.inflater = memberInflater;
+                member.crc = memberCrc;
+                memberInflater = null;
+                return member;
+            }
+
+            if (readInt(compressed, trailerStart) != (int) memberCrc.getValue() || readInt(compressed, trailerStart + 4) != length) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+            member.end = trailerStart + TRAILER_SIZE;
+        }
+        catch (DataFormatException e) {
+            member.error = new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid ZLIB data format");
+        }
+        catch (IOException e) {
+            member.error = e;
+        }
+        finally {
+            if (memberInflater != null) {
+                memberInflater.end();
+            }
+        }
+
+        return member;
+    }
+
+    /**
+     * @return start of the compressed data after the header or <code>-1</code>, if the header
+     * doesn't end before <code>end</code>
+     * @throws ZipException no valid gzip header at <code>start</code>
+     */
+    private static int skipHeader(byte[] b, int start, int end) throws ZipException {
+        if (end - start < HEADER_SIZE) {
+            return -1;
+        }
+        if ((b[start] & 0xff) != GZIP_MAGIC_1 || (b[start + 1] & 0xff) != GZIP_MAGIC_2) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (b[start + 2] != DEFLATED) {
+            throw new ZipException("Unsupported compression method");
+        }
+
+        int flags = b[start + 3] & 0xff;
+        int pos = start + HEADER_SIZE;
+        if ((flags & FEXTRA) != 0) {
+            if (end - pos < 2) {
+                return -1;
+            }
+            pos += 2 + ((b[pos] & 0xff) | (b[pos + 1] & 0xff) << 8);
+        }
+        if ((flags & FNAME) != 0) {
+            pos = skipZeroTerminated(b, pos, end);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            pos = skipZeroTerminated(b, pos, end);
+        }
+        if ((flags & FHCRC) != 0) {
+            if (pos < 0 || end - pos < 2) {
+                return -1;
+            }
+            CRC32 headerCrc = new CRC32();
+            headerCrc.update(b, start, pos - start);
+            if (((b[pos] & 0xff) | (b[pos + 1] & 0xff) << 8) != ((int) headerCrc.getValue() & 0xffff)) {
+                throw new ZipException("Corrupt GZIP header");
+            }
+            pos += 2;
+        }
+
+        return pos >= 0 && pos <= end ? pos : -1;
+    }
+
+    /**
+     * @return position after the terminating zero or <code>-1</code>, if there is none before <code>end</code>
+     */
+    private static int skipZeroTerminated(byte[] b, int pos, int end) {
+        if (pos < 0) {
+            return -1;
+        }
+        for (int i = pos; i < end; ++i) {
+            if (b[i] == 0) {
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int readInt(byte[] b, int pos) {
+        return (b[pos] & 0xff) | (b[pos + 1] & 0xff) << 8 | (b[pos + 2] & 0xff) << 16 | (b[pos + 3] & 0xff) << 24;
+    }
+
+    /**
+     * Result of inflating a member: either complete (<code>end</code> is set), to be continued on
+     * the reading thread (<code>inflater</code> is set), failed (<code>error</code> is set) or not
+     * started, because the header isn't complete (<code>data</code> is <code>null</code>).
+     */
+    private static class Member {
+        byte[] data;
+        int length;
+        int end;
+        Inflater inflater;
+        CRC32 crc;
+        IOException error;
+
+        void dispose() {
+            if (inflater != null) {
+                inflater.end();
+                inflater = null;
+            }
+        }
+    }
+
+    /**
+     * Member being inflated by the {@link DecompressionThreads}.
+     */
+    private static class PendingMember {
+        private final int start;
+        private final Future<Member> future;
+
+        public PendingMember(int start, Future<Member> future) {
+            this.start = start;
+            this.future = future;
+        }
+
+        public Member get() throws IOException {
+            try {
+                return future.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while inflating gzip member");
+            }
+            catch (ExecutionException e) {
+                throw new IOException(e.getCause().toString(), e.getCause());
+            }
+        }
+
+        /**
+         * Drops this member; the inflater of an unused result is released.
+         */
+        public void dispose() {
+            if (!future.cancel(false) && future.isDone()) {
+                try {
+                    future.get().dispose();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                catch (ExecutionException e) {
+                    // nothing to release
+                }
+            }
+        }
+    }
+}
@@ -19,14 +19,14 @@ public class ParseException extends IOException {
         this(s, null);
     }
     
-    public ParseException(String s, String line) {
+    public ParseException(String s, CharSequence line) {
         super(s);
-        this.line = line;
+        this.line = line != null ? line.toString() : null;
     }
 
-    public ParseException(String s, String line, ParseInformation pos) {
+    public ParseException(String s, CharSequence line, ParseInformation pos) {
         super(s);
-        this.line = line;
+        this.line = line != null ? line.toString() : null;
         this.parsePosition = pos;
     }
 
@@ -0,0 +1,183 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.tagtraum.perf.gcviewer.model.TimestampOffsetIndex;
+
+/**
+ * Stores {@link TimestampOffsetIndex}es of log files in a cache directory (one file per log
+ * file, named by the hash of its path). An index stays valid as long as the start of the log
+ * file is unchanged and the file didn't get shorter (so growing log files keep their index for
+ * the part already indexed).
+ *
+ * <p>The directory and the index files must be owned by the current user; others are ignored,
+ * so nobody else can make the readers skip to wrong offsets. The directory is created readable
+ * for its owner only (where the file system supports it).</p>
+ */
+public class TimestampOffsetIndexStore {
+    private static final Logger LOGGER = Logger.getLogger(TimestampOffsetIndexStore.class.getName());
+
+    /** number of bytes at the start of a log file identifying it */
+    private static final int HEAD_SIZE = 4 * 1024;
+    /** max size of an index file read (an entry every 4 MB of a 100 GB log takes less than 1 MB) */
+    private static final long MAX_INDEX_FILE_SIZE = 16L * 1024 * 1024;
+
+    private final File directory;
+
+    /**
+     * Creates a store in ".gcviewer-index" in the home directory of the current user.
+     */
+    public TimestampOffsetIndexStore() {
+        this(new File(System.getProperty("user.home"), ".gcviewer-index"));
+    }
+
+    /**
+     * @param directory directory, where the indexes are stored (created, if it doesn't exist)
+     */
+    public TimestampOffsetIndexStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the index stored for <code>logFile</code>.
+     *
+     * @param logFile log file
+     * @return index or <code>null</code>, if there is no valid one
+     */
+    public TimestampOffsetIndex load(File logFile) {
+        File indexFile = getIndexFile(logFile);
+        if (!indexFile.isFile()) {
+            return null;
+        }
+
+        try {
+            if (!isOwnedByCurrentUser(directory.toPath()) || !isOwnedByCurrentUser(indexFile.toPath())) {
+                if (LOGGER.isLoggable(Level.WARNING)) LOGGER.warning("ignoring " + indexFile + ", because it isn't owned by the current user");
+                return null;
+            }
+            if (indexFile.length() > MAX_INDEX_FILE_SIZE) {
+                if (LOGGER.isLoggable(Level.WARNING)) LOGGER.warning("ignoring " + indexFile + " (" + indexFile.length() + " bytes)");
+                return null;
+            }
+
+            byte[] content = Files.readAllBytes(indexFile.toPath());
+            TimestampOffsetIndex index = TimestampOffsetIndex.read(new DataInputStream(new ByteArrayInputStream(content)));
+            if (index.getLength() <= logFile.length() && getHeadHash(logFile, index.getLength()).equals(index.getHeadHash())) {
+                return index;
+            }
+        }
+        catch (IOException e) {
+            if (LOGGER.isLoggable(Level.FINE)) LOGGER.log(Level.FINE, "failed to read " + indexFile + " (" + e.toString() + ")", e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Stores <code>index</code> for <code>logFile</code>; problems are only logged, because the
+     * index is just an optimisation.
+     *
+     * @param logFile log file
+     * @param index index of <code>logFile</code>
+     */
+    public void store(File logFile, TimestampOffsetIndex index) {
+        File indexFile = getIndexFile(logFile);
+        try {
+            index.setHeadHash(getHeadHash(logFile, index.getLength()));
+            createDirectory();
+            if (!isOwnedByCurrentUser(directory.toPath())) {
+                if (LOGGER.isLoggable(Level.WARNING)) LOGGER.warning("not storing indexes in " + directory + ", because it isn't owned by the current user");
+                return;
+            }
+
+            File tempFile = File.createTempFile(indexFile.getName(), ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                index.write(out);
+            }
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e) {
+            if (LOGGER.isLoggable(Level.WARNING)) LOGGER.log(Level.WARNING, "failed to store " + indexFile + " (" + e.toString() + ")", e);
+        }
+    }
+
+    private void createDirectory() throws IOException {
+        Path path = directory.toPath();
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+
+        if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        }
+        else {
+            Files.createDirectories(path);
+        }
+    }
+
+    /**
+     * @return <code>true</code>, if <code>path</code> (not following links) is owned by the
+     * current user or the file system doesn't know owners
+     */
+    private boolean isOwnedByCurrentUser(Path path) throws IOException {
+        UserPrincipal owner;
+        try {
+            owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+        }
+        catch (UnsupportedOperationException e) {
+            return true;
+        }
+
+        return owner.equals(path.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName(System.getProperty("user.name")));
+    }
+
+    File getIndexFile(File logFile) {
+        return new File(directory, hash(logFile.getAbsolutePath().getBytes(StandardCharsets.UTF_8)) + ".idx");
+    }
+
+    /**
+     * Returns a hash of the start of <code>logFile</code> (at most its first <code>length</code> bytes).
+     */
+    private String getHeadHash(File logFile, long length) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(logFile, "r")) {
+            byte[] head = new byte[(int) Math.min(HEAD_SIZE, Math.min(length, in.length()))];
+            in.readFully(head);
+            return hash(head);
+        }
+    }
+
+    private String hash(byte[] bytes) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 must be supported by every jvm", e);
+        }
+
+        digest.update(bytes);
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(String.format("%02x", b));
+        }
+
+        return hash.toString();
+    }
+}
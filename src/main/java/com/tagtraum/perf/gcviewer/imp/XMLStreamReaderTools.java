@@ -0,0 +1,74 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Tools for the DataReader implementations parsing xml gc logs with the cursor api of StAX
+ * ({@link XMLStreamReader}): no objects are created per element or attribute, which matters
+ * for the huge verbose gc files written by IBM jvms.
+ */
+final class XMLStreamReaderTools {
+
+    private XMLStreamReaderTools() {
+    }
+
+    /**
+     * Creates an {@link XMLInputFactory} configured for speed: the gc logs have neither dtds nor
+     * entities nor namespaces, so all of them are switched off; text is not coalesced, because
+     * the readers only look at elements and attributes.
+     *
+     * @return new factory
+     */
+    static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        setPropertyIfSupported(factory, XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        setPropertyIfSupported(factory, XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        setPropertyIfSupported(factory, XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, Boolean.FALSE);
+        setPropertyIfSupported(factory, XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+        setPropertyIfSupported(factory, XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        setPropertyIfSupported(factory, XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
+        return factory;
+    }
+
+    private static void setPropertyIfSupported(XMLInputFactory factory, String name, Object value) {
+        if (factory.isPropertySupported(name)) {
+            factory.setProperty(name, value);
+        }
+    }
+
+    /**
+     * Returns the value of the attribute <code>localName</code> of the current start element
+     * (by iterating over the attributes by index instead of creating a <code>QName</code>).
+     *
+     * @param reader reader positioned on a start element
+     * @param localName name of the attribute
+     * @return value of the attribute or <code>null</code>, if the element doesn't have it
+     */
+    static String getAttributeValue(XMLStreamReader reader, String localName) {
+        for (int i = 0, count = reader.getAttributeCount(); i < count; ++i) {
+            if (localName.equals(reader.getAttributeLocalName(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the current start element as text like <code>&lt;gc-start type="scavenge"&gt;</code>
+     * (only intended for messages).
+     *
+     * @param reader reader positioned on a start element
+     * @return text of the start element
+     */
+    static String startElementToString(XMLStreamReader reader) {
+        StringBuilder sb = new StringBuilder("<").append(reader.getLocalName());
+        for (int i = 0, count = reader.getAttributeCount(); i < count; ++i) {
+            sb.append(' ').append(reader.getAttributeLocalName(i))
+                    .append("=\"").append(reader.getAttributeValue(i)).append('"');
+        }
+
+        return sb.append('>').toString();
+    }
+}
@@ -0,0 +1,175 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
+
+/**
+ * A zip archive of (rotated) gc logs, which is loaded as {@link GcResourceSeries} of its entries
+ * (resource names like <code>jar:file:/logs/gc.zip!/gc.log.0</code>). While the series is loaded,
+ * the entries are inflated in parallel by the {@link DecompressionThreads} ahead of the one being
+ * parsed.
+ */
+class ZipArchive implements Closeable {
+
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x504b0304;
+    /** entries larger than this are not inflated ahead, but streamed when they are read */
+    private static final long MAX_INFLATED_AHEAD_SIZE = 256L * 1024 * 1024;
+    private static final int ENTRIES_INFLATED_AHEAD = DecompressionThreads.THREAD_COUNT;
+
+    private final ZipFile zipFile;
+    private final List<ZipEntry> entries = new ArrayList<>();
+    private final List<GCResource> resources = new ArrayList<>();
+    private final Map<String, Integer> entryIndex = new HashMap<>();
+    private final List<Future<byte[]>> inflatedEntries = new ArrayList<>();
+
+    public ZipArchive(File file) throws IOException {
+        zipFile = new ZipFile(file);
+        String archiveUrl = "jar:" + file.toURI().toURL() + "!/";
+        Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+        while (zipEntries.hasMoreElements()) {
+            ZipEntry entry = zipEntries.nextElement();
+            if (!entry.isDirectory()) {
+                GcResourceFile resource = new GcResourceFile(archiveUrl + entry.getName());
+                entryIndex.put(resource.getResourceNameAsUrlString(), entries.size());
+                entries.add(entry);
+                resources.add(resource);
+                inflatedEntries.add(null);
+            }
+        }
+    }
+
+    /**
+     * Checks, whether <code>file</code> starts with the signature of a zip archive.
+     *
+     * @param file file to be checked
+     * @return <code>true</code>, if <code>file</code> is a zip archive
+     */
+    public static boolean isZipArchive(File file) {
+        if (!file.isFile() || file.length() < 4) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == LOCAL_FILE_HEADER_SIGNATURE;
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the entries of this archive as series (in the order of the archive; the series is
+     * ordered by the timestamps of the logs, when it is loaded).
+     *
+     * @param logger logger to be used by the series and all its entries
+     * @return series of all entries
+     * @throws IOException the archive contains no files
+     */
+    public GcResourceSeries createSeries(Logger logger) throws IOException {
+        if (resources.isEmpty()) {
+            throw new IOException("zip archive " + zipFile.getName() + " contains no files");
+        }
+
+        GcResourceSeries series = new GcResourceSeries(resources);
+        series.setLogger(logger);
+        for (GCResource resource : resources) {
+            resource.setLogger(logger);
+        }
+
+        return series;
+    }
+
+    /**
+     * Returns the content of the entry designated by <code>url</code> and starts inflating the
+     * entries following it.
+     *
+     * @param url url of an entry as used in the resources of {@link #createSeries(Logger)}
+     * @return content of the entry or <code>null</code>, if <code>url</code> isn't an entry of this archive
+     * @throws IOException problem inflating the entry
+     */
+    public InputStream getInputStream(URL url) throws IOException {
+        Integer index = entryIndex.get(url.toString());
+        if (index == null) {
+            return null;
+        }
+
+        for (int i = index; i < Math.min(index + ENTRIES_INFLATED_AHEAD, entries.size()); ++i) {
+            inflateAhead(i);
+        }
+
+        Future<byte[]> inflatedEntry = inflatedEntries.set(index, null);
+        if (inflatedEntry == null) {
+            // too large to be inflated ahead
+            return zipFile.getInputStream(entries.get(index));
+        }
+
+        try {
+            return new ByteArrayInputStream(inflatedEntry.get());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while inflating " + url);
+        }
+        catch (ExecutionException e) {
+            throw new IOException(e.getCause().toString(), e.getCause());
+        }
+    }
+
+    /**
+     * Returns the uncompressed size of the entry designated by <code>url</code>.
+     *
+     * @param url url of an entry as used in the resources of {@link #createSeries(Logger)}
+     * @return size or <code>-1</code>, if it is unknown
+     */
+    public long getSize(URL url) {
+        Integer index = entryIndex.get(url.toString());
+        return index != null ? entries.get(index).getSize() : -1;
+    }
+
+    private void inflateAhead(int index) {
+        ZipEntry entry = entries.get(index);
+        if (inflatedEntries.get(index) == null && entry.getSize() >= 0 && entry.getSize() <= MAX_INFLATED_AHEAD_SIZE) {
+            inflatedEntries.set(index, DecompressionThreads.submit(() -> readEntry(entry)));
+        }
+    }
+
+    private byte[] readEntry(ZipEntry entry) throws IOException {
+        byte[] content = new byte[(int) entry.getSize()];
+        try (DataInputStream in = new DataInputStream(zipFile.getInputStream(entry))) {
+            in.readFully(content);
+        }
+
+        return content;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Future<byte[]> inflatedEntry : inflatedEntries) {
+            if (inflatedEntry != null) {
+                inflatedEntry.cancel(false);
+            }
+        }
+        zipFile.close();
+    }
+}
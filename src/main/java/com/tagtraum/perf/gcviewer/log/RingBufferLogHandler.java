@@ -0,0 +1,374 @@
+package com.tagtraum.perf.gcviewer.log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Handler keeping the last {@link LogRecord}s in a bounded ring buffer and counting all records
+ * per level and message template (the message pattern of records with parameters, otherwise the
+ * message with numbers replaced and the variable tail cut off).
+ * Only the first {@link #MAX_RECORDS_PER_TEMPLATE} records of every template are stored; all others
+ * are only counted. This way, a flood of similar warnings (e.g. thousands of lines that can't be
+ * parsed) costs hardly more than a counter increment per record. The first records are kept
+ * rather than the latest ones, because they show where a problem in a gc log starts (the
+ * following ones are usually consequences of the same cause) and because keeping them doesn't
+ * require removing older records of the template from the ring buffer again.
+ *
+ * <p>Publishing is lock free and may be done from any thread. Records are not formatted before
+ * they are requested.</p>
+ */
+public class RingBufferLogHandler extends Handler {
+
+    /** default number of records kept */
+    public static final int DEFAULT_CAPACITY = 2000;
+
+    /** number of records of the same template that are stored (further records are only counted) */
+    public static final int MAX_RECORDS_PER_TEMPLATE = 50;
+
+    /** max number of different templates; all records beyond are counted in one common template */
+    private static final int MAX_TEMPLATES = 1000;
+    private static final int MAX_TEMPLATE_LENGTH = 100;
+    private static final String OTHER_TEMPLATE = "...";
+
+    private final AtomicReferenceArray<LogRecord> records;
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final AtomicLong publishedCount = new AtomicLong();
+    /** keys: templates (strings); looked up by template or by {@link TemplateProbe} */
+    private final ConcurrentMap<Level, ConcurrentMap<Object, TemplateCount>> templateCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger distinctTemplateCount = new AtomicInteger();
+    private final AtomicInteger errorCount = new AtomicInteger();
+    private final ThreadLocal<TemplateProbe> templateProbes = ThreadLocal.withInitial(TemplateProbe::new);
+
+    public RingBufferLogHandler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity max number of records stored in the ring buffer
+     */
+    public RingBufferLogHandler(int capacity) {
+        this.records = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * @see java.util.logging.Handler#publish(java.util.logging.LogRecord)
+     */
+    @Override
+    public void publish(LogRecord record) {
+        try {
+            if (isLoggable(record)) {
+                publishedCount.incrementAndGet();
+                if (isError(record.getLevel())) {
+                    errorCount.incrementAndGet();
+                }
+                if (getTemplateCount(record).increment() <= MAX_RECORDS_PER_TEMPLATE) {
+                    long sequence = writeSequence.getAndIncrement();
+                    records.set((int) (sequence % records.length()), record);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            reportError(e.toString(), e, ErrorManager.GENERIC_FAILURE);
+        }
+    }
+
+    private TemplateCount getTemplateCount(LogRecord record) {
+        Level level = record.getLevel();
+        ConcurrentMap<Object, TemplateCount> levelTemplateCounts = templateCounts.get(level);
+        if (levelTemplateCounts == null) {
+            levelTemplateCounts = templateCounts.computeIfAbsent(level, key -> new ConcurrentHashMap<>());
+        }
+
+        // known templates are looked up without creating anything: the message pattern of a
+        // record with parameters is the key itself, other messages are compared by a probe
+        TemplateCount count;
+        TemplateProbe probe = null;
+        if (hasParameters(record)) {
+            count = levelTemplateCounts.get(record.getMessage());
+        }
+        else {
+            probe = templateProbes.get();
+            probe.setMessage(record.getMessage());
+            count = levelTemplateCounts.get(probe);
+        }
+
+        if (count == null) {
+            String template = probe != null ? probe.getTemplate() : record.getMessage();
+            if (distinctTemplateCount.get() >= MAX_TEMPLATES) {
+                template = OTHER_TEMPLATE;
+                count = levelTemplateCounts.get(template);
+            }
+            if (count == null) {
+                count = levelTemplateCounts.computeIfAbsent(template, key -> {
+                    distinctTemplateCount.incrementAndGet();
+                    return new TemplateCount(level, level.getName() + " " + key);
+                });
+            }
+        }
+        if (probe != null) {
+            probe.setMessage(null);
+        }
+
+        return count;
+    }
+
+    private static boolean hasParameters(LogRecord record) {
+        return record.getMessage() != null && record.getParameters() != null && record.getParameters().length > 0;
+    }
+
+    /**
+     * Returns the template of the message of <code>record</code>: if the record has parameters,
+     * its message is the template. Otherwise the part of the message after the first ": " (which
+     * usually contains the line that couldn't be parsed) is cut off and numbers are replaced by "#".
+     *
+     * @param record record to get the template for
+     * @return template of the message
+     */
+    static String getTemplate(LogRecord record) {
+        if (hasParameters(record)) {
+            return record.getMessage();
+        }
+
+        TemplateProbe probe = new TemplateProbe();
+        probe.setMessage(record.getMessage());
+        return probe.getTemplate();
+    }
+
+    private boolean isError(Level level) {
+        return level.intValue() >= Level.WARNING.intValue() && level.intValue() < Level.OFF.intValue();
+    }
+
+    /**
+     * Returns the number of records published so far with a level of {@link Level#WARNING} or above.
+     *
+     * @return number of errors
+     */
+    public int getErrorCount() {
+        return errorCount.get();
+    }
+
+    public boolean hasErrors() {
+        return getErrorCount() > 0;
+    }
+
+    /**
+     * Returns the number of records published so far (including the ones that were only counted).
+     * Can be used to find out, if anything has changed.
+     *
+     * @return number of records published
+     */
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    /**
+     * Returns the records currently in the ring buffer from the oldest to the newest.
+     *
+     * @return records in the ring buffer
+     */
+    public List<LogRecord> getRecords() {
+        long end = writeSequence.get();
+        long start = Math.max(0, end - records.length());
+        List<LogRecord> result = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; ++sequence) {
+            LogRecord record = records.get((int) (sequence % records.length()));
+            // record may not be written yet by a concurrent publisher
+            if (record != null) {
+                result.add(record);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the counters of all templates of which more records were published than stored,
+     * ordered by count (highest first).
+     *
+     * @return counters of templates with suppressed records
+     */
+    public List<TemplateCount> getSuppressedTemplateCounts() {
+        List<TemplateCount> result = new ArrayList<>();
+        for (ConcurrentMap<Object, TemplateCount> levelTemplateCounts : templateCounts.values()) {
+            for (TemplateCount count : levelTemplateCounts.values()) {
+                if (count.getCount() > MAX_RECORDS_PER_TEMPLATE) {
+                    result.add(count);
+                }
+            }
+        }
+        Collections.sort(result, Comparator.comparingLong(TemplateCount::getCount).reversed());
+
+        return result;
+    }
+
+    /**
+     * @see java.util.logging.Handler#flush()
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * @see java.util.logging.Handler#close()
+     */
+    @Override
+    public void close() throws SecurityException {
+    }
+
+    /**
+     * Resets all internal state to an initial state and is ready to receive log events.
+     */
+    public void reset() {
+        writeSequence.set(0);
+        publishedCount.set(0);
+        for (int i = 0; i < records.length(); ++i) {
+            records.set(i, null);
+        }
+        templateCounts.clear();
+        distinctTemplateCount.set(0);
+        errorCount.set(0);
+    }
+
+    /**
+     * Template of a message without parameters, which can be compared to the templates stored
+     * as keys of {@link #templateCounts} without building it: hash code and equality are those of
+     * the template string (see {@link RingBufferLogHandler#getTemplate(LogRecord)}).
+     */
+    private static final class TemplateProbe {
+        private String message;
+        private int end;
+        private int hash;
+
+        void setMessage(String message) {
+            this.message = message != null ? message : "";
+            this.end = getEnd(this.message);
+            int h = 0;
+            char previous = 0;
+            for (int i = 0; i < end; ++i) {
+                char c = getTemplateChar(i, previous);
+                if (c != 0) {
+                    h = 31 * h + c;
+                    previous = c;
+                }
+            }
+            this.hash = h;
+        }
+
+        /**
+         * Returns the end of the part of <code>message</code> the template is built of.
+         */
+        private static int getEnd(String message) {
+            int end = message.indexOf(": ");
+            if (end >= "Exception".length() && end < MAX_TEMPLATE_LENGTH
+                    && message.regionMatches(end - "Exception".length(), "Exception", 0, "Exception".length())) {
+
+                // toString() of an exception: the message starts after the class name
+                end = message.indexOf(": ", end + 2);
+            }
+            if (end < 0) {
+                end = message.length();
+            }
+
+            return Math.min(end, MAX_TEMPLATE_LENGTH);
+        }
+
+        /**
+         * Returns the character of the template for the character at <code>index</code> of the
+         * message or 0, if it is omitted (digit following a "#").
+         */
+        private char getTemplateChar(int index, char previous) {
+            char c = message.charAt(index);
+            if (Character.isDigit(c)) {
+                return previous != '#' ? '#' : 0;
+            }
+
+            return c;
+        }
+
+        String getTemplate() {
+            StringBuilder template = new StringBuilder(end);
+            char previous = 0;
+            for (int i = 0; i < end; ++i) {
+                char c = getTemplateChar(i, previous);
+                if (c != 0) {
+                    template.append(c);
+                    previous = c;
+                }
+            }
+
+            return template.toString();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof String)) {
+                return false;
+            }
+
+            String template = (String) other;
+            int length = 0;
+            char previous = 0;
+            for (int i = 0; i < end; ++i) {
+                char c = getTemplateChar(i, previous);
+                if (c != 0) {
+                    if (length >= template.length() || template.charAt(length) != c) {
+                        return false;
+                    }
+                    ++length;
+                    previous = c;
+                }
+            }
+
+            return length == template.length();
+        }
+    }
+
+    /**
+     * Number of records published for one message template.
+     */
+    public static class TemplateCount {
+        private final Level level;
+        private final String template;
+        private final AtomicLong count = new AtomicLong();
+
+        public TemplateCount(Level level, String template) {
+            this.level = level;
+            this.template = template;
+        }
+
+        long increment() {
+            return count.incrementAndGet();
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        /**
+         * @return template including the name of the level
+         */
+        public String getTemplate() {
+            return template;
+        }
+    }
+}
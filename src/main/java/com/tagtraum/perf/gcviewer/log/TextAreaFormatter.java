@@ -24,7 +24,7 @@ public class TextAreaFormatter extends Formatter {
         final String logger = record.getSourceClassName();
         sb.append(logger.substring(logger.lastIndexOf('.') + 1));
         sb.append("]: ");
-        sb.append(record.getMessage());
+        sb.append(formatMessage(record));
         sb.append(LINE_SEPARATOR);
         if (record.getThrown() != null) {
             try (StringWriter sw = new StringWriter();
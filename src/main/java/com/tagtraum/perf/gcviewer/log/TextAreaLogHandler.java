@@ -1,81 +1,76 @@
 package com.tagtraum.perf.gcviewer.log;
 
 import javax.swing.*;
+import java.text.NumberFormat;
+import java.util.List;
 import java.util.logging.*;
 
+import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
+
 /**
- * TextAreaLogHandler.
+ * TextAreaLogHandler. Records are only collected while they are published; the text area is
+ * rendered from the collected records when {@link #updateTextArea()} is called.
  *
  * @author <a href="mailto:hs@tagtraum.com">Hendrik Schreiber</a>
  */
-public class TextAreaLogHandler extends Handler {
+public class TextAreaLogHandler extends RingBufferLogHandler {
 
     private JTextArea textArea;
-    private boolean hasErrors;
-    private int errorCount;
+    /** number of records published, when the text area was rendered last */
+    private long renderedCount;
 
     public TextAreaLogHandler() {
         this.textArea = new JTextArea();
         setFormatter(new TextAreaFormatter());
     }
 
-    /**
-     * @see java.util.logging.Handler#close()
-     */
-    public void close() throws SecurityException {
-    }
-
-    /**
-     * @see java.util.logging.Handler#flush()
-     */
-    public void flush() {
-    }
-
-    public int getErrorCount() {
-    	return errorCount;
-    }
-
     public JTextArea getTextArea() {
         return textArea;
     }
 
-    public boolean hasErrors() {
-        return hasErrors;
-    }
-
     /**
-     * @see java.util.logging.Handler#publish(java.util.logging.LogRecord)
+     * Renders all records collected in the text area, if anything has changed since the last
+     * call. Must be called on the event dispatch thread.
      */
-    public void publish(LogRecord record) {
-        try {
-            if (isLoggable(record)) {
-                final int level = record.getLevel().intValue();
-                if (level >=Level.WARNING.intValue() && level < Level.OFF.intValue()) {
-                    ++errorCount;
-                }
-                if (!hasErrors) {
-                    hasErrors = level >= Level.WARNING.intValue() && level < Level.OFF.intValue();
-                }
-                try {
-                    String formattedRecord = getFormatter().format(record);
-                    textArea.append(formattedRecord);
-                } 
-                catch (RuntimeException e) {
-                    reportError(e.toString(), e, ErrorManager.WRITE_FAILURE);
-                }
+    public void updateTextArea() {
+        long publishedCount = getPublishedCount();
+        if (publishedCount == renderedCount) {
+            return;
+        }
+        renderedCount = publishedCount;
+
+        StringBuilder sb = new StringBuilder();
+        for (LogRecord record : getRecords()) {
+            try {
+                sb.append(getFormatter().format(record));
+            }
+            catch (RuntimeException e) {
+                reportError(e.toString(), e, ErrorManager.FORMAT_FAILURE);
             }
         }
-        catch (Exception e) {
-            reportError(e.toString(), e, ErrorManager.GENERIC_FAILURE);
+
+        List<TemplateCount> suppressedTemplateCounts = getSuppressedTemplateCounts();
+        if (suppressedTemplateCounts.size() > 0) {
+            NumberFormat countFormat = NumberFormat.getIntegerInstance();
+            sb.append("\n").append(LocalisationHelper.getString("datareader_parseerror_suppressed_messages")).append("\n");
+            for (TemplateCount templateCount : suppressedTemplateCounts) {
+                sb.append(countFormat.format(templateCount.getCount()))
+                        .append(" x ")
+                        .append(templateCount.getTemplate())
+                        .append("\n");
+            }
         }
+
+        textArea.setText(sb.toString());
     }
-    
+
     /**
      * Resets all internal state to an initial state and is ready to receive log events.
      */
+    @Override
     public void reset() {
+        super.reset();
+        renderedCount = 0;
         textArea.setText("");
-        errorCount = 0;
-        hasErrors = false;
     }
 }
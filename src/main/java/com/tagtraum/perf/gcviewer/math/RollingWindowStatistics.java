@@ -0,0 +1,290 @@
+package com.tagtraum.perf.gcviewer.math;
+
+import java.util.Arrays;
+
+/**
+ * Pause and allocation statistics over sliding time windows (e.g. the last 1 / 5 / 15 minutes)
+ * with fixed memory usage: values are aggregated into a ring of buckets of
+ * <code>bucketSeconds</code> each; only the last <code>bucketCount</code> buckets are kept.
+ * Pause quantiles are computed from a logarithmic histogram per bucket (relative error of the
+ * quantile &lt; 12%).
+ *
+ * <p>Timestamps are seconds on any monotonic scale (e.g. jvm uptime as found in gc logs). Windows
+ * are aligned to bucket boundaries: a window of <code>n</code> seconds contains all buckets
+ * starting within the last <code>n</code> seconds before <code>now</code>.</p>
+ */
+public class RollingWindowStatistics {
+
+    public static final int DEFAULT_BUCKET_SECONDS = 10;
+    /** default: 15 minutes in buckets of 10 seconds */
+    public static final int DEFAULT_BUCKET_COUNT = 90;
+
+    private static final int BINS_PER_DECADE = 20;
+    /** lower bound of the histogram: 1 microsecond (1e-6 seconds) */
+    private static final int MIN_EXPONENT = -6;
+    /** upper bound of the histogram: 1000 seconds */
+    private static final int MAX_EXPONENT = 3;
+    /** bin 0 counts all pauses below 1 microsecond */
+    private static final int BIN_COUNT = (MAX_EXPONENT - MIN_EXPONENT) * BINS_PER_DECADE + 1;
+
+    private final int bucketSeconds;
+    private final Bucket[] buckets;
+    private long newestBucketIndex = Long.MIN_VALUE;
+    private double firstTimestamp = Double.NaN;
+    private double lastTimestamp = Double.NaN;
+
+    public RollingWindowStatistics() {
+        this(DEFAULT_BUCKET_SECONDS, DEFAULT_BUCKET_COUNT);
+    }
+
+    /**
+     * @param bucketSeconds resolution of the windows in seconds
+     * @param bucketCount number of buckets kept (<code>bucketSeconds * bucketCount</code> is the longest window)
+     */
+    public RollingWindowStatistics(int bucketSeconds, int bucketCount) {
+        if (bucketSeconds < 1 || bucketCount < 1) {
+            throw new IllegalArgumentException("bucketSeconds (" + bucketSeconds + ") and bucketCount (" + bucketCount + ") must be > 0");
+        }
+        this.bucketSeconds = bucketSeconds;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; ++i) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Adds a pause at <code>timestamp</code>. Values older than the longest window are ignored.
+     *
+     * @param timestamp timestamp in seconds
+     * @param pause pause in seconds
+     */
+    public void addPause(double timestamp, double pause) {
+        Bucket bucket = getBucket(timestamp);
+        if (bucket != null) {
+            bucket.pauseCount++;
+            bucket.pauseSum += pause;
+            bucket.pauseMax = Math.max(bucket.pauseMax, pause);
+            bucket.histogram[getBin(pause)]++;
+        }
+    }
+
+    /**
+     * Adds memory allocated until <code>timestamp</code>. Values older than the longest window are
+     * ignored.
+     *
+     * @param timestamp timestamp in seconds
+     * @param allocated allocated memory (any unit; rates are returned in the same unit per second)
+     */
+    public void addAllocation(double timestamp, long allocated) {
+        Bucket bucket = getBucket(timestamp);
+        if (bucket != null) {
+            bucket.allocated += allocated;
+        }
+    }
+
+    /**
+     * Removes all values (e.g. if the log was restarted with new timestamps).
+     */
+    public void reset() {
+        for (Bucket bucket : buckets) {
+            bucket.clear(Long.MIN_VALUE);
+        }
+        newestBucketIndex = Long.MIN_VALUE;
+        firstTimestamp = Double.NaN;
+        lastTimestamp = Double.NaN;
+    }
+
+    /**
+     * @return timestamp of the first value added since creation / last {@link #reset()} or
+     * <code>NaN</code>, if there is none
+     */
+    public double getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    /**
+     * @return greatest timestamp added since creation / last {@link #reset()} or <code>NaN</code>,
+     * if there is none
+     */
+    public double getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * @return longest window supported in seconds
+     */
+    public int getMaxWindowSeconds() {
+        return bucketSeconds * buckets.length;
+    }
+
+    /**
+     * @param now current timestamp in seconds
+     * @param windowSeconds length of the window in seconds
+     * @return number of pauses in the window
+     */
+    public int getPauseCount(double now, int windowSeconds) {
+        return merge(now, windowSeconds).pauseCount;
+    }
+
+    /**
+     * Returns the pause, which is not exceeded by the given fraction of all pauses in the window
+     * (e.g. 0.99 for the 99th percentile).
+     *
+     * @param now current timestamp in seconds
+     * @param windowSeconds length of the window in seconds
+     * @param quantile value between 0 and 1
+     * @return pause in seconds or <code>NaN</code>, if there is no pause in the window
+     */
+    public double getPauseQuantile(double now, int windowSeconds, double quantile) {
+        Bucket merged = merge(now, windowSeconds);
+        if (merged.pauseCount == 0) {
+            return Double.NaN;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * merged.pauseCount));
+        long count = 0;
+        for (int bin = 0; bin < BIN_COUNT; ++bin) {
+            count += merged.histogram[bin];
+            if (count >= rank) {
+                return Math.min(getUpperBound(bin), merged.pauseMax);
+            }
+        }
+
+        return merged.pauseMax;
+    }
+
+    /**
+     * @param now current timestamp in seconds
+     * @param windowSeconds length of the window in seconds
+     * @return longest pause in the window in seconds or <code>NaN</code>, if there is none
+     */
+    public double getPauseMax(double now, int windowSeconds) {
+        Bucket merged = merge(now, windowSeconds);
+        return merged.pauseCount > 0 ? merged.pauseMax : Double.NaN;
+    }
+
+    /**
+     * Returns the percentage of time not spent in pauses within the window. If the values start
+     * within the window, only the time since the first value is taken into account.
+     *
+     * @param now current timestamp in seconds
+     * @param windowSeconds length of the window in seconds
+     * @return throughput in percent or <code>NaN</code>, if the window has no duration yet
+     */
+    public double getThroughput(double now, int windowSeconds) {
+        double duration = getDuration(now, windowSeconds);
+        if (duration <= 0) {
+            return Double.NaN;
+        }
+
+        return Math.max(0, 100 * (1 - merge(now, windowSeconds).pauseSum / duration));
+    }
+
+    /**
+     * @param now current timestamp in seconds
+     * @param windowSeconds length of the window in seconds
+     * @return allocation rate (unit of {@link #addAllocation(double, long)} per second) or
+     * <code>NaN</code>, if the window has no duration yet
+     */
+    public double getAllocationRate(double now, int windowSeconds) {
+        double duration = getDuration(now, windowSeconds);
+        if (duration <= 0) {
+            return Double.NaN;
+        }
+
+        return merge(now, windowSeconds).allocated / duration;
+    }
+
+    private double getDuration(double now, int windowSeconds) {
+        if (Double.isNaN(firstTimestamp)) {
+            return 0;
+        }
+
+        double windowStart = (getBucketIndex(now) - getBucketCount(windowSeconds) + 1) * (double) bucketSeconds;
+        return now - Math.max(windowStart, firstTimestamp);
+    }
+
+    private int getBucketCount(int windowSeconds) {
+        if (windowSeconds < 1 || windowSeconds > getMaxWindowSeconds()) {
+            throw new IllegalArgumentException("windowSeconds (" + windowSeconds + ") must be between 1 and " + getMaxWindowSeconds());
+        }
+
+        return (windowSeconds + bucketSeconds - 1) / bucketSeconds;
+    }
+
+    private long getBucketIndex(double timestamp) {
+        return (long) Math.floor(timestamp / bucketSeconds);
+    }
+
+    private Bucket getBucket(double timestamp) {
+        if (Double.isNaN(firstTimestamp)) {
+            firstTimestamp = timestamp;
+        }
+        if (Double.isNaN(lastTimestamp) || timestamp > lastTimestamp) {
+            lastTimestamp = timestamp;
+        }
+
+        long index = getBucketIndex(timestamp);
+        if (newestBucketIndex != Long.MIN_VALUE && index <= newestBucketIndex - buckets.length) {
+            return null;
+        }
+
+        newestBucketIndex = Math.max(newestBucketIndex, index);
+        Bucket bucket = buckets[(int) Math.floorMod(index, (long) buckets.length)];
+        if (bucket.index != index) {
+            bucket.clear(index);
+        }
+
+        return bucket;
+    }
+
+    private Bucket merge(double now, int windowSeconds) {
+        long last = getBucketIndex(now);
+        long first = last - getBucketCount(windowSeconds) + 1;
+        Bucket merged = new Bucket();
+        for (Bucket bucket : buckets) {
+            if (bucket.index >= first && bucket.index <= last) {
+                merged.pauseCount += bucket.pauseCount;
+                merged.pauseSum += bucket.pauseSum;
+                merged.pauseMax = Math.max(merged.pauseMax, bucket.pauseMax);
+                merged.allocated += bucket.allocated;
+                for (int bin = 0; bin < BIN_COUNT; ++bin) {
+                    merged.histogram[bin] += bucket.histogram[bin];
+                }
+            }
+        }
+
+        return merged;
+    }
+
+    static int getBin(double pause) {
+        if (pause <= 0) {
+            return 0;
+        }
+
+        int bin = (int) Math.floor((Math.log10(pause) - MIN_EXPONENT) * BINS_PER_DECADE) + 1;
+        return Math.max(0, Math.min(BIN_COUNT - 1, bin));
+    }
+
+    static double getUpperBound(int bin) {
+        return Math.pow(10, MIN_EXPONENT + (double) bin / BINS_PER_DECADE);
+    }
+
+    private static class Bucket {
+        private long index = Long.MIN_VALUE;
+        private int pauseCount;
+        private double pauseSum;
+        private double pauseMax;
+        private long allocated;
+        private final int[] histogram = new int[BIN_COUNT];
+
+        private void clear(long index) {
+            this.index = index;
+            pauseCount = 0;
+            pauseSum = 0;
+            pauseMax = 0;
+            allocated = 0;
+            Arrays.fill(histogram, 0);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.tagtraum.perf.gcviewer.model;
 
-import javax.swing.event.SwingPropertyChangeSupport;
 import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
 import java.util.logging.Logger;
 
 /**
@@ -12,7 +12,7 @@ import java.util.logging.Logger;
 public abstract class AbstractGcResource implements GCResource {
     private String resourceName;
     private GCModel model;
-    private SwingPropertyChangeSupport propertyChangeSupport;
+    private PropertyChangeSupport propertyChangeSupport;
     private Logger logger;
     private boolean isReload;
     private boolean isReadCancelled;
@@ -22,7 +22,8 @@ public abstract class AbstractGcResource implements GCResource {
         this.resourceName = resourceName;
         this.logger = logger;
         this.model = new GCModel();
-        this.propertyChangeSupport = new SwingPropertyChangeSupport(this);
+        // not SwingPropertyChangeSupport: command line use must not load swing
+        this.propertyChangeSupport = new PropertyChangeSupport(this);
     }
 
     @Override
@@ -75,7 +76,9 @@ public abstract class AbstractGcResource implements GCResource {
     public void setIsReadCancelled(boolean isReadCancelled) {
         // TODO i18n
         this.getLogger().info("--> cancel requested");
+        boolean oldValue = this.isReadCancelled;
         this.isReadCancelled = isReadCancelled;
+        propertyChangeSupport.firePropertyChange(GcResourceFile.PROPERTY_READ_CANCELLED, oldValue, isReadCancelled);
     }
 
     @Override
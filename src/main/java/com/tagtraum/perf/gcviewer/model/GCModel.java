@@ -15,12 +15,14 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.function.IntSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,6 +31,7 @@ import com.tagtraum.perf.gcviewer.math.IntData;
 import com.tagtraum.perf.gcviewer.math.RegressionLine;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.CollectionType;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Generation;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics;
 
 /**
  * Collection of GCEvents.
@@ -44,7 +47,7 @@ public class GCModel implements Serializable {
      *
      * @author <a href="mailto:gcviewer@gmx.ch">Joerg Wuethrich</a>
      */
-    private static class FileInformation implements Serializable {
+    static class FileInformation implements Serializable {
         private static final long serialVersionUID = 1L;
         private static final Logger logger = Logger.getLogger(FileInformation.class.getName());
 
@@ -180,6 +183,11 @@ public class GCModel implements Serializable {
     private RegressionLine postFullGCSlope;
     private RegressionLine relativePostFullGCIncrease;
     private URL url;
+    private LineOffsetIndex lineOffsetIndex; // byte offsets of the lines in the log file
+    private int[] eventLineNumbers; // line number in the log file of every event (same order as allEvents)
+    private HttpResumePoint httpResumePoint; // position to continue reading a remote log at
+    private transient IntSupplier lineNumberSource; // current line of the log file while parsing
+    private ZonedDateTime referenceDateStamp; // datestamp of timestamp 0 for events without timestamp
 
     public GCModel() {
         this.allEvents = new ArrayList<AbstractGCEvent<?>>();
@@ -307,6 +315,124 @@ public class GCModel implements Serializable {
         return fileInformation;
     }
 
+    /**
+     * Sets the source of the current line number in the log file while it is being parsed.
+     * Every event added while a source is set is associated with the line returned by the
+     * source (usually the last line of the event). Must be set to <code>null</code>, when
+     * parsing is done.
+     *
+     * @param lineNumberSource source of the line numbers or <code>null</code>
+     * @see #getLineNumber(int)
+     */
+    public void setLineNumberSource(IntSupplier lineNumberSource) {
+        this.lineNumberSource = lineNumberSource;
+    }
+
+    /**
+     * Sets the datestamp, from which the timestamps of events with a datestamp only are
+     * calculated. Without a reference, the datestamp of the first event is used. Must be set,
+     * before the first event is added, when only a part of a log file is parsed (otherwise the
+     * timestamps of the part start at 0 instead of the timestamps in the complete file).
+     *
+     * @param referenceDateStamp datestamp corresponding to timestamp 0 or <code>null</code>
+     */
+    public void setReferenceDateStamp(ZonedDateTime referenceDateStamp) {
+        this.referenceDateStamp = referenceDateStamp;
+    }
+
+    /**
+     * @return datestamp corresponding to timestamp 0 (set by {@link #setReferenceDateStamp(ZonedDateTime)}
+     * or the first datestamp of this model)
+     */
+    public ZonedDateTime getReferenceDateStamp() {
+        return referenceDateStamp != null ? referenceDateStamp : getFirstDateStamp();
+    }
+
+    private void addEventLineNumber(int lineNumber) {
+        int index = allEvents.size() - 1;
+        if (eventLineNumbers == null) {
+            eventLineNumbers = new int[Math.max(1024, allEvents.size())];
+        }
+        else if (index >= eventLineNumbers.length) {
+            eventLineNumbers = Arrays.copyOf(eventLineNumbers, Math.max(eventLineNumbers.length * 2, index + 1));
+        }
+        eventLineNumbers[index] = lineNumber;
+    }
+
+    /**
+     * Returns the line number in the log file of the event at <code>index</code>.
+     *
+     * @param index index of the event (as in {@link #get(int)})
+     * @return line number (starting with 1) or -1 if not known
+     */
+    public int getLineNumber(int index) {
+        if (eventLineNumbers == null || index >= eventLineNumbers.length || eventLineNumbers[index] == 0) {
+            return -1;
+        }
+        return eventLineNumbers[index];
+    }
+
+    /**
+     * Returns the index of the event with the timestamp closest to <code>timestamp</code>.
+     * Events are expected in the order of their timestamps (which is the order they are written
+     * to the log file).
+     *
+     * @param timestamp timestamp in seconds
+     * @return index of the closest event or -1, if the model contains no events
+     */
+    public int getIndexOfNearestEvent(double timestamp) {
+        if (allEvents.isEmpty()) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = allEvents.size() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (allEvents.get(middle).getTimestamp() < timestamp) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        if (low > 0 && timestamp - allEvents.get(low - 1).getTimestamp() < allEvents.get(low).getTimestamp() - timestamp) {
+            --low;
+        }
+
+        return low;
+    }
+
+    public LineOffsetIndex getLineOffsetIndex() {
+        return lineOffsetIndex;
+    }
+
+    /**
+     * Sets the index of the line offsets in the log file this model was read from.
+     *
+     * @param lineOffsetIndex index of the log file
+     */
+    public void setLineOffsetIndex(LineOffsetIndex lineOffsetIndex) {
+        this.lineOffsetIndex = lineOffsetIndex;
+    }
+
+    /**
+     * @return position to continue reading the remote log this model was read from or
+     * <code>null</code>, if it must be read completely
+     */
+    public HttpResumePoint getHttpResumePoint() {
+        return httpResumePoint;
+    }
+
+    /**
+     * Sets the position up to which the remote log this model was read from was parsed.
+     *
+     * @param httpResumePoint position to continue reading at or <code>null</code>
+     */
+    public void setHttpResumePoint(HttpResumePoint httpResumePoint) {
+        this.httpResumePoint = httpResumePoint;
+    }
+
     public void setURL(URL url) {
         this.url = url;
         this.fileInformation.setFileInformation(readFileInformation(url));
@@ -349,6 +475,27 @@ public class GCModel implements Serializable {
         return stopTheWorldEvents.iterator();
     }
 
+    /**
+     * Returns an iterator to the stop the world events starting at <code>fromIndex</code> (used to
+     * process only the events added since a previous pass over this model or a model of the same log).
+     *
+     * @param fromIndex index of the first event to be returned
+     * @return iterator to all stop the world events starting at <code>fromIndex</code>
+     * @throws IndexOutOfBoundsException if <code>fromIndex</code> is greater than the number of events
+     */
+    public Iterator<AbstractGCEvent<?>> getStopTheWorldEvents(int fromIndex) {
+        return stopTheWorldEvents.listIterator(fromIndex);
+    }
+
+    /**
+     * Returns the number of stop the world events.
+     *
+     * @return number of stop the world events
+     */
+    public int getStopTheWorldEventCount() {
+        return stopTheWorldEvents.size();
+    }
+
     /**
      * Returns an iterator to all garbage collection events (without full gcs / vm operations).
      *
@@ -358,6 +505,27 @@ public class GCModel implements Serializable {
         return gcEvents.iterator();
     }
 
+    /**
+     * Returns an iterator to the garbage collection events starting at <code>fromIndex</code>.
+     *
+     * @param fromIndex index of the first event to be returned
+     * @return iterator to all gc events starting at <code>fromIndex</code>
+     * @throws IndexOutOfBoundsException if <code>fromIndex</code> is greater than the number of events
+     * @see #getGCEvents()
+     */
+    public Iterator<GCEvent> getGCEvents(int fromIndex) {
+        return gcEvents.listIterator(fromIndex);
+    }
+
+    /**
+     * Returns the number of garbage collection events (without full gcs / vm operations).
+     *
+     * @return number of gc events
+     */
+    public int getGCEventCount() {
+        return gcEvents.size();
+    }
+
     /**
      * Returns an iterator to all vm operation events.
      *
@@ -405,9 +573,24 @@ public class GCModel implements Serializable {
     }
 
     public void add(AbstractGCEvent<?> abstractEvent) {
+        LoadStatistics statistics = LoadStatistics.enterModelAdd();
+        try {
+            addEvent(abstractEvent);
+        }
+        finally {
+            if (statistics != null) {
+                statistics.exitModelAdd();
+            }
+        }
+    }
+
+    private void addEvent(AbstractGCEvent<?> abstractEvent) {
         makeSureHasTimeStamp(abstractEvent);
 
         allEvents.add(abstractEvent);
+        if (lineNumberSource != null) {
+            addEventLineNumber(lineNumberSource.getAsInt());
+        }
 
         if (abstractEvent.isStopTheWorld()) {
             // totalPause must not be added here yet, because in case of vmOperationEvents, the
@@ -515,9 +698,9 @@ public class GCModel implements Serializable {
     }
 
     private void makeSureHasTimeStamp(AbstractGCEvent<?> abstractEvent) {
-        if (size() >= 1 && abstractEvent.getTimestamp() < 0.000001 && abstractEvent.getDatestamp() != null) {
+        if ((size() >= 1 || referenceDateStamp != null) && abstractEvent.getTimestamp() < 0.000001 && abstractEvent.getDatestamp() != null) {
             // looks like there is no timestamp set -> set one, because a lot depends on the timestamps
-            abstractEvent.setTimestamp(ChronoUnit.MILLIS.between(getFirstDateStamp(), abstractEvent.getDatestamp()) / 1000.0);
+            abstractEvent.setTimestamp(ChronoUnit.MILLIS.between(getReferenceDateStamp(), abstractEvent.getDatestamp()) / 1000.0);
         }
     }
 
@@ -0,0 +1,142 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Thread safe cache of parsed {@link GCModel}s keeping the models used most recently. The models
+ * are softly referenced: the garbage collector may drop them (least recently used first), before
+ * the heap runs out; dropped models are no longer returned by {@link #get(Object)}.
+ *
+ * <p>Models in the cache are shared by everyone getting them and must not be modified any more.</p>
+ *
+ * <p>Loads in progress can be registered ({@link #startLoad(Object, CompletableFuture)}), so that
+ * threads requiring the same model at the same time wait for it instead of parsing it again.</p>
+ *
+ * @param <K> type of the keys
+ */
+public class GCModelCache<K> {
+
+    /** max number of models kept in the {@link #getShared() shared cache} */
+    public static final int SHARED_MAX_SIZE = 32;
+
+    private static final GCModelCache<GCModelCacheKey> SHARED = new GCModelCache<>(SHARED_MAX_SIZE);
+
+    private final Map<K, SoftReference<GCModel>> models;
+    private final ConcurrentMap<K, CompletableFuture<GCModel>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxSize max number of models kept
+     */
+    public GCModelCache(int maxSize) {
+        this.models = new LinkedHashMap<K, SoftReference<GCModel>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, SoftReference<GCModel>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache shared by all documents of this process; it is keyed by the resources the
+     * models were read from and the state of their files (see {@link GCModelCacheKey}).
+     *
+     * @return process wide cache
+     */
+    public static GCModelCache<GCModelCacheKey> getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the model stored for <code>key</code> and marks it as most recently used.
+     *
+     * @param key key of the model
+     * @return model or <code>null</code> if there is none for <code>key</code> (any more)
+     */
+    public synchronized GCModel get(K key) {
+        SoftReference<GCModel> reference = models.get(key);
+        if (reference == null) {
+            return null;
+        }
+
+        GCModel model = reference.get();
+        if (model == null) {
+            models.remove(key);
+        }
+
+        return model;
+    }
+
+    /**
+     * Stores <code>model</code> for <code>key</code>; removes the model used least recently, if
+     * the cache is full.
+     *
+     * @param key key of the model
+     * @param model model to be stored
+     */
+    public synchronized void put(K key, GCModel model) {
+        models.put(key, new SoftReference<>(model));
+    }
+
+    /**
+     * Registers <code>load</code> as load of the model for <code>key</code> in progress, unless
+     * there is one already.
+     *
+     * @param key key of the model
+     * @param load completed with the model by {@link #endLoad(Object, CompletableFuture, GCModel)}
+     * @return load already in progress for <code>key</code> (<code>load</code> isn't registered) or
+     * <code>null</code>, if <code>load</code> was registered
+     */
+    public CompletableFuture<GCModel> startLoad(K key, CompletableFuture<GCModel> load) {
+        return loads.putIfAbsent(key, load);
+    }
+
+    /**
+     * Ends <code>load</code> registered by {@link #startLoad(Object, CompletableFuture)}: stores
+     * <code>model</code> and completes <code>load</code> with it.
+     *
+     * @param key key of the model
+     * @param load load to be ended
+     * @param model model loaded or <code>null</code>, if it couldn't be loaded completely (not stored;
+     * the threads waiting must load it on their own)
+     */
+    public void endLoad(K key, CompletableFuture<GCModel> load, GCModel model) {
+        if (model != null) {
+            put(key, model);
+        }
+        loads.remove(key, load);
+        load.complete(model);
+    }
+
+    /**
+     * Removes all models whose key matches <code>filter</code>.
+     *
+     * @param filter keys of the models to be removed
+     */
+    public synchronized void removeIf(Predicate<? super K> filter) {
+        models.keySet().removeIf(filter);
+    }
+
+    public synchronized void clear() {
+        models.clear();
+    }
+
+    /**
+     * @return number of models kept (without the ones dropped by the garbage collector)
+     */
+    public synchronized int size() {
+        for (Iterator<SoftReference<GCModel>> iterator = models.values().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().get() == null) {
+                iterator.remove();
+            }
+        }
+
+        return models.size();
+    }
+}
@@ -0,0 +1,110 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.model.GCModel.FileInformation;
+
+/**
+ * Key of a model in the {@link GCModelCache#getShared() shared model cache}: the urls of the
+ * local files a {@link GCResource} consists of together with the state of the files
+ * (last modification, creation, length) when they were read. A model cached for a file which
+ * changed since isn't found any more.
+ */
+public final class GCModelCacheKey {
+
+    private final List<String> urls;
+    private final List<FileInformation> fileInformations;
+
+    private GCModelCacheKey(List<String> urls, List<FileInformation> fileInformations) {
+        this.urls = urls;
+        this.fileInformations = fileInformations;
+    }
+
+    /**
+     * Creates the key for the current state of the files of <code>gcResource</code>.
+     *
+     * @param gcResource resource to be read
+     * @return key or <code>null</code>, if the model of <code>gcResource</code> can't be cached
+     * (not a local file, file doesn't exist, only a time range of the log is read)
+     */
+    public static GCModelCacheKey of(GCResource gcResource) {
+        List<String> urls = new ArrayList<>();
+        List<FileInformation> fileInformations = new ArrayList<>();
+        if (!add(gcResource, urls, fileInformations)) {
+            return null;
+        }
+
+        return new GCModelCacheKey(Collections.unmodifiableList(urls), Collections.unmodifiableList(fileInformations));
+    }
+
+    private static boolean add(GCResource gcResource, List<String> urls, List<FileInformation> fileInformations) {
+        if (gcResource instanceof GcResourceSeries) {
+            for (GCResource resource : ((GcResourceSeries) gcResource).getResourcesInOrder()) {
+                if (!add(resource, urls, fileInformations)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+        if (!(gcResource instanceof GcResourceFile) || ((GcResourceFile) gcResource).getTimeRange() != null) {
+            return false;
+        }
+
+        try {
+            URL url = ((GcResourceFile) gcResource).getResourceNameAsUrl();
+            if (!"file".equals(url.getProtocol())) {
+                return false;
+            }
+
+            File file = new File(url.getFile());
+            if (!file.isFile()) {
+                return false;
+            }
+
+            urls.add(url.toString());
+            fileInformations.add(new FileInformation(file));
+            return true;
+        }
+        catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param other other key
+     * @return <code>true</code>, if <code>other</code> designates the same files (possibly in
+     * another state)
+     */
+    public boolean isSameResource(GCModelCacheKey other) {
+        return urls.equals(other.urls);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof GCModelCacheKey)) {
+            return false;
+        }
+
+        GCModelCacheKey key = (GCModelCacheKey) other;
+        return urls.equals(key.urls) && fileInformations.equals(key.fileInformations);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * urls.hashCode() + fileInformations.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "GCModelCacheKey [urls=" + urls + ", fileInformations=" + fileInformations + "]";
+    }
+}
@@ -52,7 +52,8 @@ public interface GCResource {
     void setIsReload(boolean isReload);
 
     /**
-     * Indicate, that reading of this GCResource should be cancelled.
+     * Indicate, that reading of this GCResource should be cancelled (fires a property change event
+     * "readCancelled").
      *
      * @param isReadCancelled <code>true</code>, if read should be cancelled
      */
@@ -16,8 +16,11 @@ import java.util.logging.Logger;
 public class GcResourceFile extends AbstractGcResource
 {
     public static final String PROPERTY_MODEL = "model";
+    public static final String PROPERTY_READ_CANCELLED = "readCancelled";
     private static final AtomicInteger COUNT = new AtomicInteger(0);
 
+    private TimeRange timeRange;
+
     public GcResourceFile(File file) {
         this(file.getAbsolutePath());
     }
@@ -31,9 +34,25 @@ public class GcResourceFile extends AbstractGcResource
 
     }
 
+    /**
+     * @return range of the log to be read or <code>null</code> to read all of it
+     */
+    public TimeRange getTimeRange() {
+        return timeRange;
+    }
+
+    /**
+     * Restricts the events read to <code>timeRange</code>.
+     *
+     * @param timeRange range of the log to be read or <code>null</code> to read all of it
+     */
+    public void setTimeRange(TimeRange timeRange) {
+        this.timeRange = timeRange;
+    }
+
     public URL getResourceNameAsUrl() throws MalformedURLException {
         URL url = null;
-        if (getResourceName().startsWith("http") || getResourceName().startsWith("file")) {
+        if (getResourceName().startsWith("http") || getResourceName().startsWith("file") || getResourceName().startsWith("jar:")) {
             url = new URL(getResourceName());
         }
         else {
@@ -97,7 +116,7 @@ public class GcResourceFile extends AbstractGcResource
 
     @Override
     public String toString() {
-        return "GCResourceFile [resourceNameAsUrlString=" + getResourceNameAsUrlString() + ", isReload=" + isReload() + ", logger=" + getLogger() + ", model="
+        return "GCResourceFile [resourceNameAsUrlString=" + getResourceNameAsUrlString() + ", isReload=" + isReload() + (timeRange != null ? ", timeRange=" + timeRange : "") + ", logger=" + getLogger() + ", model="
                 + getModel() + "]";
     }
 }
@@ -0,0 +1,56 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.io.Serializable;
+
+/**
+ * Position up to which a remote gc log was read into a {@link GCModel} together with the
+ * validators the server sent for it (<code>ETag</code>, <code>Last-Modified</code>). A reload
+ * requests only the bytes appended after {@link #getOffset()} and only if the log was modified.
+ */
+public class HttpResumePoint implements Serializable {
+
+    private static final long serialVersionUID = 6311950837203574813L;
+
+    private final long offset;
+    private final String eTag;
+    private final long lastModified;
+    private final String formatSample;
+
+    /**
+     * @param offset number of bytes of the complete lines read
+     * @param eTag entity tag sent by the server or <code>null</code>
+     * @param lastModified last modification sent by the server or <code>0</code>
+     * @param formatSample complete lines at the start of the log determining its format or
+     * <code>null</code>, if not read yet
+     */
+    public HttpResumePoint(long offset, String eTag, long lastModified, String formatSample) {
+        this.offset = offset;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.formatSample = formatSample;
+    }
+
+    /**
+     * @return number of bytes of the complete lines read (the appended lines start here)
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getFormatSample() {
+        return formatSample;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpResumePoint [offset=" + offset + ", eTag=" + eTag + ", lastModified=" + lastModified + "]";
+    }
+}
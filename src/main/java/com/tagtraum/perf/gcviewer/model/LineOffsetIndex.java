@@ -0,0 +1,160 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Sparse index of the byte offsets of the lines in a log file. Only the offset of every
+ * {@link #LINES_PER_ENTRY}th line is stored; the offset of any other line is found by scanning
+ * forward from the closest entry before it. The index is built from the raw bytes of the file
+ * (usually while the file is parsed), so the line numbers correspond to the ones counted by
+ * {@link java.io.LineNumberReader} for files using "\n" or "\r\n" as line separator.
+ *
+ * <p>Lines are numbered starting with 1.</p>
+ */
+public class LineOffsetIndex implements Serializable {
+
+    private static final long serialVersionUID = 4893619255740617722L;
+
+    /** number of lines between two entries of the index */
+    public static final int LINES_PER_ENTRY = 256;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+
+    private long[] offsets = new long[64];
+    private int entryCount = 1;
+    private int newLineCount;
+    private long length;
+    private long lastLineStart;
+    private boolean compressed;
+
+    public LineOffsetIndex() {
+        super();
+    }
+
+    /**
+     * Creates a copy of <code>other</code>, which can be extended independently.
+     *
+     * @param other index to be copied
+     */
+    public LineOffsetIndex(LineOffsetIndex other) {
+        this.offsets = Arrays.copyOf(other.offsets, other.offsets.length);
+        this.entryCount = other.entryCount;
+        this.newLineCount = other.newLineCount;
+        this.length = other.length;
+        this.lastLineStart = other.lastLineStart;
+        this.compressed = other.compressed;
+    }
+
+    /**
+     * Adds <code>len</code> bytes of the file starting at <code>off</code> to the index. Bytes must
+     * be added in the order they appear in the file.
+     *
+     * @param b buffer containing the bytes
+     * @param off start offset in <code>b</code>
+     * @param len number of bytes to be added
+     */
+    public void update(byte[] b, int off, int len) {
+        for (int i = off; i < off + len; ++i) {
+            update(b[i]);
+        }
+    }
+
+    /**
+     * Adds one byte of the file to the index.
+     *
+     * @param b next byte of the file
+     */
+    public void update(byte b) {
+        if (length < 2) {
+            checkCompression(b);
+        }
+        ++length;
+        if (b == '\n') {
+            ++newLineCount;
+            lastLineStart = length;
+            if (newLineCount % LINES_PER_ENTRY == 0) {
+                if (entryCount == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, entryCount * 2);
+                }
+                offsets[entryCount++] = length;
+            }
+        }
+    }
+
+    private void checkCompression(byte b) {
+        if (length == 0) {
+            compressed = (b & 0xff) == GZIP_MAGIC_1;
+        }
+        else {
+            compressed = compressed && (b & 0xff) == GZIP_MAGIC_2;
+        }
+    }
+
+    /**
+     * Returns <code>true</code>, if the bytes added to this index are gzip compressed (which
+     * makes the offsets useless for direct access to the file).
+     *
+     * @return <code>true</code> if the indexed file is compressed
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Returns the number of bytes added to this index.
+     *
+     * @return number of bytes indexed
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the offset after the last line separator added (where a line, that isn't
+     * complete yet, starts).
+     *
+     * @return number of bytes of the complete lines added
+     */
+    public long getLastLineStart() {
+        return lastLineStart;
+    }
+
+    /**
+     * Returns the number of lines indexed (a last line without line separator is counted as well).
+     *
+     * @return number of lines
+     */
+    public int getLineCount() {
+        return newLineCount + (length > lastLineStart ? 1 : 0);
+    }
+
+    /**
+     * Returns the line number of the closest indexed line at or before <code>lineNumber</code>.
+     *
+     * @param lineNumber line number (starting with 1)
+     * @return line number of the closest indexed line
+     */
+    public int getIndexedLineNumber(int lineNumber) {
+        return getEntry(lineNumber) * LINES_PER_ENTRY + 1;
+    }
+
+    /**
+     * Returns the byte offset of the line returned by {@link #getIndexedLineNumber(int)}.
+     *
+     * @param lineNumber line number (starting with 1)
+     * @return byte offset of the closest indexed line
+     */
+    public long getIndexedLineOffset(int lineNumber) {
+        return offsets[getEntry(lineNumber)];
+    }
+
+    private int getEntry(int lineNumber) {
+        if (lineNumber < 1) {
+            throw new IllegalArgumentException("lineNumber must be > 0 (was " + lineNumber + ")");
+        }
+        return Math.min((lineNumber - 1) / LINES_PER_ENTRY, entryCount - 1);
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Range of a gc log to be read: either by timestamps (seconds since start of the jvm) or by
+ * datestamps. Both ends are inclusive; a missing end means "unbounded".
+ */
+public class TimeRange implements Serializable {
+
+    private static final long serialVersionUID = -2306218409158254641L;
+
+    private final double fromTimestamp;
+    private final double toTimestamp;
+    private final ZonedDateTime fromDatestamp;
+    private final ZonedDateTime toDatestamp;
+
+    private TimeRange(double fromTimestamp, double toTimestamp, ZonedDateTime fromDatestamp, ZonedDateTime toDatestamp) {
+        this.fromTimestamp = fromTimestamp;
+        this.toTimestamp = toTimestamp;
+        this.fromDatestamp = fromDatestamp;
+        this.toDatestamp = toDatestamp;
+    }
+
+    /**
+     * @param from first timestamp in seconds (<code>Double.NEGATIVE_INFINITY</code>: from start)
+     * @param to last timestamp in seconds (<code>Double.POSITIVE_INFINITY</code>: until end)
+     * @return range of timestamps
+     */
+    public static TimeRange ofTimestamps(double from, double to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from (" + from + ") must not be after to (" + to + ")");
+        }
+        return new TimeRange(from, to, null, null);
+    }
+
+    /**
+     * @param from first datestamp (<code>null</code>: from start)
+     * @param to last datestamp (<code>null</code>: until end)
+     * @return range of datestamps
+     */
+    public static TimeRange ofDatestamps(ZonedDateTime from, ZonedDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from (" + from + ") must not be after to (" + to + ")");
+        }
+        return new TimeRange(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                from != null ? from : ZonedDateTime.of(LocalDateTime.MIN, ZoneId.of("UTC")),
+                to != null ? to : ZonedDateTime.of(LocalDateTime.MAX, ZoneId.of("UTC")));
+    }
+
+    /**
+     * Parses a range given as text: either seconds (e.g. "3600" or "3600.5") or ISO 8601 date
+     * and time with or without offset (e.g. "2017-05-04T10:00:00" in the default time zone or
+     * "2017-05-04T10:00:00+02:00"). Both ends must be of the same kind.
+     *
+     * @param from start of the range (<code>null</code> / empty: from start)
+     * @param to end of the range (<code>null</code> / empty: until end)
+     * @return range or <code>null</code>, if both ends are missing
+     * @throws IllegalArgumentException if the ends can't be parsed, are of different kinds or
+     * <code>from</code> is after <code>to</code>
+     */
+    public static TimeRange parse(String from, String to) {
+        boolean hasFrom = from != null && !from.trim().isEmpty();
+        boolean hasTo = to != null && !to.trim().isEmpty();
+        if (!hasFrom && !hasTo) {
+            return null;
+        }
+
+        boolean isTimestamp = hasFrom ? isNumber(from) : isNumber(to);
+        if (hasFrom && hasTo && isTimestamp != isNumber(to)) {
+            throw new IllegalArgumentException("from (" + from + ") and to (" + to + ") must both be seconds or both be dates");
+        }
+
+        if (isTimestamp) {
+            return ofTimestamps(hasFrom ? Double.parseDouble(from.trim()) : Double.NEGATIVE_INFINITY,
+                    hasTo ? Double.parseDouble(to.trim()) : Double.POSITIVE_INFINITY);
+        }
+        else {
+            return ofDatestamps(hasFrom ? parseDatestamp(from.trim()) : null, hasTo ? parseDatestamp(to.trim()) : null);
+        }
+    }
+
+    private static boolean isNumber(String value) {
+        return value.trim().matches("[0-9]+(\\.[0-9]*)?");
+    }
+
+    private static ZonedDateTime parseDatestamp(String value) {
+        try {
+            return ZonedDateTime.parse(value);
+        }
+        catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value).atZone(ZoneId.systemDefault());
+            }
+            catch (DateTimeParseException e2) {
+                throw new IllegalArgumentException("'" + value + "' is neither seconds nor a date (yyyy-MM-ddTHH:mm:ss)", e2);
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code>, if this range is defined by datestamps, <code>false</code> for timestamps
+     */
+    public boolean isDatestampRange() {
+        return fromDatestamp != null;
+    }
+
+    public double getFromTimestamp() {
+        return fromTimestamp;
+    }
+
+    public double getToTimestamp() {
+        return toTimestamp;
+    }
+
+    public ZonedDateTime getFromDatestamp() {
+        return fromDatestamp;
+    }
+
+    public ZonedDateTime getToDatestamp() {
+        return toDatestamp;
+    }
+
+    /**
+     * @param event event to be checked
+     * @return <code>true</code>, if <code>event</code> is within this range (events without
+     * datestamp are never within a range of datestamps)
+     */
+    public boolean contains(AbstractGCEvent<?> event) {
+        if (isDatestampRange()) {
+            ZonedDateTime datestamp = event.getDatestamp();
+            return datestamp != null && !datestamp.isBefore(fromDatestamp) && !datestamp.isAfter(toDatestamp);
+        }
+        else {
+            return event.getTimestamp() >= fromTimestamp && event.getTimestamp() <= toTimestamp;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isDatestampRange()
+                ? "TimeRange [" + fromDatestamp + " - " + toDatestamp + "]"
+                : "TimeRange [" + fromTimestamp + "s - " + toTimestamp + "s]";
+    }
+}
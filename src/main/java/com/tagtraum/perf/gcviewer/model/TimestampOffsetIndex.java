@@ -0,0 +1,273 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Sparse index of a log file mapping time to byte offsets: about every
+ * <code>bytesPerEntry</code> bytes the offset of a line is stored together with timestamp,
+ * datestamp and number of the first event written after that line. All events before an offset
+ * were logged at or before the time of the entry, so reading a time range can start at the last
+ * entry before the range and stop at the first entry after it.
+ *
+ * <p>The index is built from a model, which was parsed completely and knows the line number of
+ * its events (see {@link GCModel#getLineNumber(int)}) and a {@link LineOffsetIndex} of the file.</p>
+ *
+ * <p>Indexes are stored in a plain binary format ({@link #write(DataOutputStream)} /
+ * {@link #read(DataInputStream)}) starting with {@link #FORMAT_VERSION}.</p>
+ */
+public class TimestampOffsetIndex {
+
+    /** version of the format written by {@link #write(DataOutputStream)} */
+    public static final int FORMAT_VERSION = 1;
+
+    /** bytes of one entry in the stored format (offset, timestamp, datestamp, event number) */
+    private static final int ENTRY_SIZE = 8 + 8 + 8 + 4;
+
+    /** default distance between two entries: 4 MB */
+    public static final long DEFAULT_BYTES_PER_ENTRY = 4L * 1024 * 1024;
+
+    private static final long NO_DATESTAMP = Long.MIN_VALUE;
+
+    private long[] offsets = new long[16];
+    private double[] timestamps = new double[16];
+    private long[] datestamps = new long[16];
+    private int[] eventNumbers = new int[16];
+    private int entryCount;
+    private long length;
+    private String headHash;
+    private ZonedDateTime firstDatestamp;
+
+    /**
+     * Builds the index of the file <code>model</code> was read from.
+     *
+     * @param model model read completely from the file
+     * @param lineOffsetIndex line offsets of the file
+     * @param bytesPerEntry minimal distance of two entries in bytes
+     * @return index (without entries, if the line numbers of the events are not known)
+     */
+    public static TimestampOffsetIndex build(GCModel model, LineOffsetIndex lineOffsetIndex, long bytesPerEntry) {
+        TimestampOffsetIndex index = new TimestampOffsetIndex();
+        index.length = lineOffsetIndex.getLength();
+        index.firstDatestamp = model.getReferenceDateStamp();
+        long nextOffset = 0;
+        for (int i = 0; i < model.size(); ++i) {
+            int lineNumber = model.getLineNumber(i);
+            if (lineNumber < 1) {
+                continue;
+            }
+
+            // the indexed line may be in the middle of event i, but never after its last line
+            long offset = lineOffsetIndex.getIndexedLineOffset(lineNumber);
+            if (offset >= nextOffset) {
+                AbstractGCEvent<?> event = model.get(i);
+                index.add(offset, event.getTimestamp(), event.getDatestamp(), i);
+                nextOffset = offset + bytesPerEntry;
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Writes this index to <code>out</code>.
+     *
+     * @param out stream to write to
+     * @throws IOException problem writing
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(length);
+        out.writeUTF(headHash != null ? headHash : "");
+        out.writeUTF(firstDatestamp != null ? firstDatestamp.toString() : "");
+        out.writeInt(entryCount);
+        for (int entry = 0; entry < entryCount; ++entry) {
+            out.writeLong(offsets[entry]);
+            out.writeDouble(timestamps[entry]);
+            out.writeLong(datestamps[entry]);
+            out.writeInt(eventNumbers[entry]);
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #write(DataOutputStream)}.
+     *
+     * @param in stream containing nothing but the index (its {@link DataInputStream#available()
+     * available bytes} must be the remaining size of the index)
+     * @return index
+     * @throws IOException problem reading or <code>in</code> doesn't contain a valid index
+     */
+    public static TimestampOffsetIndex read(DataInputStream in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("unsupported index format version " + version);
+        }
+
+        TimestampOffsetIndex index = new TimestampOffsetIndex();
+        index.length = in.readLong();
+        index.headHash = in.readUTF();
+        String firstDatestamp = in.readUTF();
+        try {
+            index.firstDatestamp = firstDatestamp.isEmpty() ? null : ZonedDateTime.parse(firstDatestamp);
+        }
+        catch (DateTimeParseException e) {
+            throw new IOException("illegal first datestamp " + firstDatestamp, e);
+        }
+
+        int entryCount = in.readInt();
+        if (index.length < 0 || entryCount < 0 || (long) entryCount * ENTRY_SIZE != in.available()) {
+            throw new IOException("illegal index (length " + index.length + ", " + entryCount + " entries)");
+        }
+        long previousOffset = 0;
+        for (int entry = 0; entry < entryCount; ++entry) {
+            long offset = in.readLong();
+            double timestamp = in.readDouble();
+            long datestamp = in.readLong();
+            int eventNumber = in.readInt();
+            if (offset < previousOffset || offset > index.length || eventNumber < 0) {
+                throw new IOException("illegal entry " + entry + " (offset " + offset + ", event " + eventNumber + ")");
+            }
+            index.add(offset, timestamp, datestamp, eventNumber);
+            previousOffset = offset;
+        }
+
+        return index;
+    }
+
+    private void add(long offset, double timestamp, ZonedDateTime datestamp, int eventNumber) {
+        add(offset, timestamp, datestamp != null ? datestamp.toInstant().toEpochMilli() : NO_DATESTAMP, eventNumber);
+    }
+
+    private void add(long offset, double timestamp, long datestamp, int eventNumber) {
+        if (entryCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, entryCount * 2);
+            timestamps = Arrays.copyOf(timestamps, entryCount * 2);
+            datestamps = Arrays.copyOf(datestamps, entryCount * 2);
+            eventNumbers = Arrays.copyOf(eventNumbers, entryCount * 2);
+        }
+        offsets[entryCount] = offset;
+        timestamps[entryCount] = timestamp;
+        datestamps[entryCount] = datestamp;
+        eventNumbers[entryCount] = eventNumber;
+        ++entryCount;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public long getOffset(int entry) {
+        return offsets[entry];
+    }
+
+    public double getTimestamp(int entry) {
+        return timestamps[entry];
+    }
+
+    /**
+     * @param entry number of the entry
+     * @return datestamp of the entry or <code>null</code>, if the log has no datestamps
+     */
+    public Instant getDatestamp(int entry) {
+        return datestamps[entry] != NO_DATESTAMP ? Instant.ofEpochMilli(datestamps[entry]) : null;
+    }
+
+    /**
+     * @param entry number of the entry
+     * @return number of events in the file before the offset of the entry
+     */
+    public int getEventNumber(int entry) {
+        return eventNumbers[entry];
+    }
+
+    /**
+     * @return number of bytes of the file, when the index was built
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the datestamp of the first event of the file; the timestamps of events having a
+     * datestamp only are calculated from it (see {@link GCModel#setReferenceDateStamp(ZonedDateTime)}).
+     *
+     * @return datestamp of the first event or <code>null</code>, if it has none
+     */
+    public ZonedDateTime getFirstDatestamp() {
+        return firstDatestamp;
+    }
+
+    /**
+     * @return hash of the start of the file the index was built for (identifies the file)
+     */
+    public String getHeadHash() {
+        return headHash;
+    }
+
+    public void setHeadHash(String headHash) {
+        this.headHash = headHash;
+    }
+
+    /**
+     * Returns the offset, where reading must start to find all events in <code>timeRange</code>.
+     *
+     * @param timeRange time range to be read
+     * @return offset of a line start (0, if the index doesn't help)
+     */
+    public long getStartOffset(TimeRange timeRange) {
+        long offset = 0;
+        for (int entry = 0; entry < entryCount; ++entry) {
+            int comparison = compare(entry, timeRange, true);
+            if (comparison == Integer.MIN_VALUE || comparison >= 0) {
+                break;
+            }
+            offset = offsets[entry];
+        }
+
+        return offset;
+    }
+
+    /**
+     * Returns the offset, where reading can stop, because all events following it are after
+     * <code>timeRange</code>.
+     *
+     * @param timeRange time range to be read
+     * @param fileLength current length of the file
+     * @return offset of a line start or <code>fileLength</code>, if the index doesn't help
+     */
+    public long getEndOffset(TimeRange timeRange, long fileLength) {
+        for (int entry = 0; entry < entryCount; ++entry) {
+            int comparison = compare(entry, timeRange, false);
+            if (comparison == Integer.MIN_VALUE) {
+                break;
+            }
+            if (comparison > 0) {
+                return offsets[entry];
+            }
+        }
+
+        return fileLength;
+    }
+
+    /**
+     * Compares the time of <code>entry</code> to the start (<code>isFrom</code>) or end of
+     * <code>timeRange</code>; returns <code>Integer.MIN_VALUE</code>, if they can't be compared.
+     */
+    private int compare(int entry, TimeRange timeRange, boolean isFrom) {
+        if (timeRange.isDatestampRange()) {
+            if (datestamps[entry] == NO_DATESTAMP) {
+                return Integer.MIN_VALUE;
+            }
+            Instant datestamp = Instant.ofEpochMilli(datestamps[entry]);
+            return Integer.signum(datestamp.compareTo((isFrom ? timeRange.getFromDatestamp() : timeRange.getToDatestamp()).toInstant()));
+        }
+        else {
+            return Double.compare(timestamps[entry], isFrom ? timeRange.getFromTimestamp() : timeRange.getToTimestamp());
+        }
+    }
+}
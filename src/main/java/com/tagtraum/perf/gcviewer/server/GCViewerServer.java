@@ -0,0 +1,334 @@
+package com.tagtraum.perf.gcviewer.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.tagtraum.perf.gcviewer.exp.DataWriter;
+import com.tagtraum.perf.gcviewer.exp.DataWriterType;
+import com.tagtraum.perf.gcviewer.exp.impl.DataWriterFactory;
+import com.tagtraum.perf.gcviewer.imp.DataReaderException;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCModelCache;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+
+/**
+ * Analysis server: gc logs (plain or gzipped) are POSTed to {@link #CONTEXT_ANALYSE} and the
+ * export requested by the query parameter <code>type</code> (any {@link DataWriterType}; default
+ * SUMMARY) is returned. Optional query parameter <code>name</code> is used as name of the log file
+ * in the exports (for models found in the cache: the name given, when the content was parsed).
+ *
+ * <p>Logs are parsed by at most <code>threadCount</code> threads; at most <code>queueCapacity</code>
+ * further requests wait. All requests beyond are rejected immediately with "503 Service
+ * Unavailable", so callers can retry later. Parsed models are cached by the SHA-256 hash of the
+ * uploaded content (response header {@link #HEADER_CACHE}).</p>
+ */
+public class GCViewerServer {
+    private static final Logger LOGGER = Logger.getLogger(GCViewerServer.class.getName());
+
+    public static final String CONTEXT_ANALYSE = "/analyse";
+    /** response header telling, if the model was found in the cache ("hit" / "miss") */
+    public static final String HEADER_CACHE = "X-GCViewer-Cache";
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+    public static final int DEFAULT_CACHE_SIZE = 32;
+    public static final long DEFAULT_MAX_UPLOAD_SIZE = 1024L * 1024 * 1024;
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final int HTTP_METHOD_NOT_ALLOWED = 405;
+    private static final int HTTP_PAYLOAD_TOO_LARGE = 413;
+    private static final int HTTP_UNPROCESSABLE_ENTITY = 422;
+    private static final int HTTP_INTERNAL_ERROR = 500;
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+
+    private final HttpServer httpServer;
+    private final ExecutorService httpExecutor;
+    private final Semaphore admission;
+    private final Semaphore parsing;
+    private final GCModelCache<String> modelCache;
+    private long maxUploadSize = DEFAULT_MAX_UPLOAD_SIZE;
+
+    /**
+     * Creates the server; it is started by {@link #start()}.
+     *
+     * @param address address to bind to (port 0 chooses a free port)
+     * @param threadCount number of logs parsed in parallel
+     * @param queueCapacity number of requests waiting, before further requests are rejected
+     * @param cacheSize number of parsed models kept in the cache
+     * @throws IOException problem binding the address
+     */
+    public GCViewerServer(InetSocketAddress address, int threadCount, int queueCapacity, int cacheSize) throws IOException {
+        this.admission = new Semaphore(threadCount + queueCapacity);
+        this.modelCache = new GCModelCache<>(cacheSize);
+        this.parsing = new Semaphore(threadCount);
+        // one thread per admitted request plus some to reject requests while all others are busy
+        this.httpExecutor = Executors.newFixedThreadPool(threadCount + queueCapacity + 2, new ServerThreadFactory("gcviewer-http-"));
+
+        this.httpServer = HttpServer.create(address, 0);
+        this.httpServer.setExecutor(httpExecutor);
+        this.httpServer.createContext(CONTEXT_ANALYSE, this::handleAnalyse);
+    }
+
+    public void start() {
+        httpServer.start();
+        LOGGER.info("GCViewer server listening on " + getAddress());
+    }
+
+    /**
+     * Stops the server waiting at most <code>delay</code> seconds for running requests.
+     *
+     * @param delay max seconds to wait
+     */
+    public void stop(int delay) {
+        httpServer.stop(delay);
+        httpExecutor.shutdownNow();
+    }
+
+    public InetSocketAddress getAddress() {
+        return httpServer.getAddress();
+    }
+
+    public void setMaxUploadSize(long maxUploadSize) {
+        this.maxUploadSize = maxUploadSize;
+    }
+
+    GCModelCache<String> getModelCache() {
+        return modelCache;
+    }
+
+    int getAvailablePermits() {
+        return admission.availablePermits();
+    }
+
+    private void handleAnalyse(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendText(exchange, HTTP_METHOD_NOT_ALLOWED, "only POST is supported");
+                return;
+            }
+
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            DataWriterType type;
+            try {
+                type = DataWriterType.valueOf(parameters.getOrDefault("type", DataWriterType.SUMMARY.name()));
+            }
+            catch (IllegalArgumentException e) {
+                sendText(exchange, HTTP_BAD_REQUEST, "unknown type " + parameters.get("type"));
+                return;
+            }
+
+            if (!admission.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendText(exchange, HTTP_SERVICE_UNAVAILABLE, "too many requests");
+                return;
+            }
+            try {
+                analyse(exchange, type, getFileName(parameters.get("name")));
+            }
+            finally {
+                admission.release();
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            if (LOGGER.isLoggable(Level.WARNING)) LOGGER.log(Level.WARNING, "request failed (" + e.toString() + ")", e);
+            try {
+                sendText(exchange, HTTP_INTERNAL_ERROR, e.toString());
+            }
+            catch (IOException e2) {
+                // response was already (partially) sent; nothing more can be done
+            }
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    private void analyse(HttpExchange exchange, DataWriterType type, String fileName) throws IOException {
+        Path directory = Files.createTempDirectory("gcviewer-upload-");
+        File file = new File(directory.toFile(), fileName);
+        try {
+            String hash;
+            try {
+                hash = receive(exchange.getRequestBody(), file);
+            }
+            catch (UploadTooLargeException e) {
+                sendText(exchange, HTTP_PAYLOAD_TOO_LARGE, "upload larger than " + maxUploadSize + " bytes");
+                return;
+            }
+
+            GCModel model = modelCache.get(hash);
+            exchange.getResponseHeaders().set(HEADER_CACHE, model != null ? "hit" : "miss");
+            if (model == null) {
+                try {
+                    model = parse(file);
+                }
+                catch (DataReaderException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    sendText(exchange, HTTP_UNPROCESSABLE_ENTITY, "failed to parse gc log: " + cause.toString());
+                    return;
+                }
+                modelCache.put(hash, model);
+            }
+
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            try (DataWriter writer = DataWriterFactory.getDataWriter(response, type, null)) {
+                writer.write(model);
+            }
+            send(exchange, HTTP_OK, getContentType(type), response.toByteArray());
+        }
+        finally {
+            Files.deleteIfExists(file.toPath());
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Parses <code>file</code> on the current thread as soon as one of the <code>threadCount</code>
+     * parse permits is available. The model refers to the name of the upload instead of the
+     * temporary file, which is deleted after the request.
+     */
+    private GCModel parse(File file) throws DataReaderException, IOException {
+        try {
+            parsing.acquire();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting to parse", e);
+        }
+        try {
+            GCModel model = new DataReaderFacade().loadModel(new GcResourceFile(file));
+            model.setURL(new URL("file", null, file.getName()));
+            return model;
+        }
+        finally {
+            parsing.release();
+        }
+    }
+
+    /**
+     * Writes <code>in</code> to <code>file</code> and returns the SHA-256 hash of its content.
+     */
+    private String receive(InputStream in, File file) throws IOException, UploadTooLargeException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 must be supported by every jvm", e);
+        }
+
+        long size = 0;
+        try (InputStream digestIn = new DigestInputStream(in, digest);
+             OutputStream out = Files.newOutputStream(file.toPath())) {
+
+            byte[] buffer = new byte[64 * 1024];
+            int length;
+            while ((length = digestIn.read(buffer)) >= 0) {
+                size += length;
+                if (size > maxUploadSize) {
+                    throw new UploadTooLargeException();
+                }
+                out.write(buffer, 0, length);
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(String.format("%02x", b));
+        }
+
+        return hash.toString();
+    }
+
+    private String getFileName(String name) {
+        if (name == null || name.isEmpty()) {
+            return "upload.log";
+        }
+
+        // the name must never leave the upload directory
+        return name.replaceAll("[^A-Za-z0-9._-]", "_").replaceAll("^\\.+", "_");
+    }
+
+    private String getContentType(DataWriterType type) {
+        switch (type) {
+            case PNG  : return "image/png";
+            case JSON : return "application/json";
+            case CSV  : // fallthrough
+            case CSV_TS : // fallthrough
+            case SUMMARY : return "text/csv";
+            default   : return "text/plain";
+        }
+    }
+
+    private Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int index = parameter.indexOf('=');
+                if (index > 0) {
+                    parameters.put(URLDecoder.decode(parameter.substring(0, index), "UTF-8"),
+                            URLDecoder.decode(parameter.substring(index + 1), "UTF-8"));
+                }
+            }
+        }
+
+        return parameters;
+    }
+
+    private void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        send(exchange, status, "text/plain; charset=utf-8", (text + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static class UploadTooLargeException extends Exception {
+    }
+
+    private static class ServerThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        public ServerThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.tagtraum.perf.gcviewer.util;
+
+/**
+ * Searching methods of {@link String} for any {@link CharSequence} (like {@link SlicedLine}). The
+ * results are the same as the ones of the methods of <code>String</code> with the same name;
+ * if the <code>CharSequence</code> is a <code>String</code>, its methods are used.
+ */
+public final class CharSequenceHelper {
+
+    private CharSequenceHelper() {
+    }
+
+    /**
+     * @see String#indexOf(int, int)
+     */
+    public static int indexOf(CharSequence s, char c, int fromIndex) {
+        if (s instanceof String) {
+            return ((String) s).indexOf(c, fromIndex);
+        }
+
+        for (int i = Math.max(fromIndex, 0); i < s.length(); ++i) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @see String#indexOf(String)
+     */
+    public static int indexOf(CharSequence s, String str) {
+        return indexOf(s, str, 0);
+    }
+
+    /**
+     * @see String#indexOf(String, int)
+     */
+    public static int indexOf(CharSequence s, String str, int fromIndex) {
+        if (s instanceof String) {
+            return ((String) s).indexOf(str, fromIndex);
+        }
+
+        int start = Math.max(fromIndex, 0);
+        if (str.isEmpty()) {
+            return Math.min(start, s.length());
+        }
+
+        char first = str.charAt(0);
+        for (int i = start, max = s.length() - str.length(); i <= max; ++i) {
+            if (s.charAt(i) == first && regionMatches(s, i + 1, str, 1)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @see String#lastIndexOf(int, int)
+     */
+    public static int lastIndexOf(CharSequence s, char c, int fromIndex) {
+        if (s instanceof String) {
+            return ((String) s).lastIndexOf(c, fromIndex);
+        }
+
+        for (int i = Math.min(fromIndex, s.length() - 1); i >= 0; --i) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @see String#lastIndexOf(String)
+     */
+    public static int lastIndexOf(CharSequence s, String str) {
+        if (s instanceof String) {
+            return ((String) s).lastIndexOf(str);
+        }
+
+        for (int i = s.length() - str.length(); i >= 0; --i) {
+            if (regionMatches(s, i, str, 0)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @see String#startsWith(String, int)
+     */
+    public static boolean startsWith(CharSequence s, String prefix, int offset) {
+        if (s instanceof String) {
+            return ((String) s).startsWith(prefix, offset);
+        }
+
+        return offset >= 0 && offset <= s.length() - prefix.length() && regionMatches(s, offset, prefix, 0);
+    }
+
+    /**
+     * @see String#startsWith(String)
+     */
+    public static boolean startsWith(CharSequence s, String prefix) {
+        return startsWith(s, prefix, 0);
+    }
+
+    /**
+     * @see String#endsWith(String)
+     */
+    public static boolean endsWith(CharSequence s, String suffix) {
+        return startsWith(s, suffix, s.length() - suffix.length());
+    }
+
+    /**
+     * @see String#contains(CharSequence)
+     */
+    public static boolean contains(CharSequence s, String str) {
+        return indexOf(s, str, 0) >= 0;
+    }
+
+    /**
+     * Like {@link #contains(CharSequence, String)}, but the case of the characters is ignored the
+     * same way as by <code>String.regionMatches(true, ...)</code>.
+     *
+     * @see String#regionMatches(boolean, int, String, int, int)
+     */
+    public static boolean containsIgnoreCase(CharSequence s, String str) {
+        if (s instanceof String) {
+            String string = (String) s;
+            for (int i = 0, max = string.length() - str.length(); i <= max; ++i) {
+                if (string.regionMatches(true, i, str, 0, str.length())) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        return containsIgnoreCase(s.toString(), str);
+    }
+
+    /**
+     * @return <code>true</code>, if the characters of <code>s</code> starting at <code>offset</code>
+     * are the same as the ones of <code>str</code> starting at <code>strOffset</code>
+     * (<code>s</code> must be long enough)
+     */
+    private static boolean regionMatches(CharSequence s, int offset, String str, int strOffset) {
+        for (int i = strOffset; i < str.length(); ++i) {
+            if (s.charAt(offset + i - strOffset) != str.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
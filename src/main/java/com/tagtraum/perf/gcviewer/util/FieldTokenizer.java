@@ -0,0 +1,220 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import java.util.Arrays;
+
+/**
+ * Splits a line into fields separated by delimiter characters like {@link java.util.StringTokenizer}
+ * does (several delimiters in a row separate two fields only once), but without creating a String
+ * per field: the fields are kept as offset / length pairs over the line and numbers are parsed
+ * directly from them. One <code>FieldTokenizer</code> should be reused for all lines of a reader;
+ * it is not thread safe.
+ *
+ * <pre>
+ * FieldTokenizer fields = new FieldTokenizer(" ");
+ * fields.reset(line);
+ * if (fields.getFieldCount() == 20 &amp;&amp; fields.fieldEquals(0, "&lt;GC:")) {
+ *     double timestamp = fields.parseDouble(2);
+ * }
+ * </pre>
+ */
+public final class FieldTokenizer {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private final boolean[] delimiters;
+    private CharSequence line = "";
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int fieldCount;
+
+    /**
+     * @param delimiters all characters separating the fields
+     */
+    public FieldTokenizer(String delimiters) {
+        this.delimiters = toDelimiterTable(delimiters);
+    }
+
+    private static boolean[] toDelimiterTable(String delimiters) {
+        int maxDelimiter = 0;
+        for (int i = 0; i < delimiters.length(); ++i) {
+            maxDelimiter = Math.max(maxDelimiter, delimiters.charAt(i));
+        }
+
+        boolean[] table = new boolean[maxDelimiter + 1];
+        for (int i = 0; i < delimiters.length(); ++i) {
+            table[delimiters.charAt(i)] = true;
+        }
+
+        return table;
+    }
+
+    private static boolean isDelimiter(boolean[] delimiters, char c) {
+        return c < delimiters.length && delimiters[c];
+    }
+
+    /**
+     * Counts the fields of <code>line</code> from <code>start</code> to <code>end</code> without
+     * keeping them (the same as <code>new StringTokenizer(line.substring(start, end), delimiters).countTokens()</code>).
+     *
+     * @param line line to be split
+     * @param start index of the first character
+     * @param end index after the last character
+     * @param delimiters all characters separating the fields
+     * @return number of fields
+     */
+    public static int countFields(CharSequence line, int start, int end, String delimiters) {
+        int count = 0;
+        boolean inField = false;
+        for (int i = start; i < end; ++i) {
+            boolean isDelimiter = delimiters.indexOf(line.charAt(i)) >= 0;
+            if (!isDelimiter && !inField) {
+                ++count;
+            }
+            inField = !isDelimiter;
+        }
+
+        return count;
+    }
+
+    /**
+     * Splits <code>line</code> into fields.
+     *
+     * @param line line to be split
+     * @return this tokenizer
+     */
+    public FieldTokenizer reset(CharSequence line) {
+        return reset(line, 0, line.length());
+    }
+
+    /**
+     * Splits the characters of <code>line</code> from <code>start</code> to <code>end</code> into
+     * fields; the offsets of the fields are still relative to <code>line</code>.
+     *
+     * @param line line to be split
+     * @param start index of the first character
+     * @param end index after the last character
+     * @return this tokenizer
+     */
+    public FieldTokenizer reset(CharSequence line, int start, int end) {
+        this.line = line;
+        fieldCount = 0;
+        int i = start;
+        while (i < end) {
+            while (i < end && isDelimiter(delimiters, line.charAt(i))) {
+                ++i;
+            }
+            if (i == end) {
+                break;
+            }
+
+            if (fieldCount == starts.length) {
+                starts = Arrays.copyOf(starts, fieldCount * 2);
+                ends = Arrays.copyOf(ends, fieldCount * 2);
+            }
+            starts[fieldCount] = i;
+            while (i < end && !isDelimiter(delimiters, line.charAt(i))) {
+                ++i;
+            }
+            ends[fieldCount] = i;
+            ++fieldCount;
+        }
+
+        return this;
+    }
+
+    /**
+     * @return number of fields of the current line
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @param field index of the field (starting with 0)
+     * @return index of the first character of the field in the line
+     * @throws IndexOutOfBoundsException if the line doesn't have field number <code>field</code>
+     */
+    public int getStart(int field) {
+        checkField(field);
+        return starts[field];
+    }
+
+    /**
+     * @param field index of the field (starting with 0)
+     * @return number of characters of the field
+     * @throws IndexOutOfBoundsException if the line doesn't have field number <code>field</code>
+     */
+    public int getLength(int field) {
+        checkField(field);
+        return ends[field] - starts[field];
+    }
+
+    /**
+     * @param field index of the field (starting with 0)
+     * @param s expected content of the field
+     * @return <code>true</code> if the field consists of exactly the characters of <code>s</code>
+     * @throws IndexOutOfBoundsException if the line doesn't have field number <code>field</code>
+     */
+    public boolean fieldEquals(int field, String s) {
+        int length = getLength(field);
+        if (length != s.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < length; ++i) {
+            if (line.charAt(starts[field] + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the field as new String (only intended for messages; the other methods don't create
+     * Strings).
+     *
+     * @param field index of the field (starting with 0)
+     * @return content of the field
+     * @throws IndexOutOfBoundsException if the line doesn't have field number <code>field</code>
+     */
+    public String getField(int field) {
+        return line.subSequence(getStart(field), ends[field]).toString();
+    }
+
+    /**
+     * @param field index of the field (starting with 0)
+     * @return field parsed as int
+     * @throws NumberFormatException if the field is no int
+     * @throws IndexOutOfBoundsException if the line doesn't have field number <code>field</code>
+     */
+    public int parseInt(int field) {
+        return NumberParser.parseInt(line, getStart(field), getLength(field));
+    }
+
+    /**
+     * @param field index of the field (starting with 0)
+     * @return field parsed as long
+     * @throws NumberFormatException if the field is no long
+     * @throws IndexOutOfBoundsException if the line doesn't have field number <code>field</code>
+     */
+    public long parseLong(int field) {
+        return NumberParser.parseLong(line, getStart(field), getLength(field));
+    }
+
+    /**
+     * @param field index of the field (starting with 0)
+     * @return field parsed as double (see {@link NumberParser#parseDouble(CharSequence, int, int)})
+     * @throws NumberFormatException if the field is no double
+     * @throws IndexOutOfBoundsException if the line doesn't have field number <code>field</code>
+     */
+    public double parseDouble(int field) {
+        return NumberParser.parseDouble(line, getStart(field), getLength(field));
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException("field " + field + " of " + fieldCount);
+        }
+    }
+}
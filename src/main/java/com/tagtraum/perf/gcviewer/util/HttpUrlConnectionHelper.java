@@ -21,10 +21,16 @@ import java.util.zip.GZIPInputStream;
 public class HttpUrlConnectionHelper {
 
     public static final String GZIP = "gzip";
+    public static final String IDENTITY = "identity";
+    public static final String ETAG = "ETag";
 
     private static final Logger LOGGER = Logger.getLogger(HttpUrlConnectionHelper.class.getName());
     private static final String ACCEPT_ENCODING = "Accept-Encoding";
     private static final String CHARSET_KEY = "charset=";
+    private static final String RANGE = "Range";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String BYTES_UNIT = "bytes";
 
     private HttpUrlConnectionHelper() {
         super();
@@ -146,6 +152,69 @@ public class HttpUrlConnectionHelper {
         return in;
     }
 
+    /**
+     * Sets request properties for a conditional range request and connects. The content is
+     * requested without encoding, so the offsets are the ones of the resource itself.
+     *
+     * @param httpConn The HTTP connection
+     * @param start offset of the first byte requested
+     * @param end offset of the last byte requested or <code>-1</code> for all bytes until the end
+     * @param eTag only request the range, if the entity tag is different (<code>If-None-Match</code>;
+     * <code>null</code>, if there is no condition)
+     * @param lastModified only request the range, if the resource was modified later
+     * (<code>If-Modified-Since</code>; <code>0</code>, if there is no condition; ignored if
+     * <code>eTag</code> is given)
+     * @return response code (usually 206 with the range, 304 if not modified or 200 with all
+     * bytes, if the server doesn't support ranges)
+     * @throws IOException if problem occured.
+     */
+    public static int openRange(HttpURLConnection httpConn, long start, long end, String eTag, long lastModified)
+            throws IOException {
+
+        httpConn.setRequestProperty(ACCEPT_ENCODING, IDENTITY);
+        httpConn.setRequestProperty(RANGE, BYTES_UNIT + "=" + start + "-" + (end >= 0 ? Long.toString(end) : ""));
+        if (eTag != null) {
+            httpConn.setRequestProperty(IF_NONE_MATCH, eTag);
+        }
+        else if (lastModified > 0L) {
+            httpConn.setIfModifiedSince(lastModified);
+        }
+        httpConn.setUseCaches(false);
+        httpConn.connect();
+
+        int responseCode = httpConn.getResponseCode();
+        LOGGER.log(Level.FINE, "Range " + start + "-" + (end >= 0 ? Long.toString(end) : "") + " of " + httpConn.getURL()
+                + ": server sent " + responseCode + "; Content-Range = " + httpConn.getHeaderField(CONTENT_RANGE));
+        return responseCode;
+    }
+
+    /**
+     * Returns the offset of the first byte of a partial response
+     * (<code>Content-Range: bytes &lt;start&gt;-&lt;end&gt;/&lt;length&gt;</code>).
+     *
+     * @param httpConn The HTTP connection (connected)
+     * @return offset of the first byte or <code>-1</code>, if there is no valid
+     * <code>Content-Range</code> header
+     */
+    public static long getContentRangeStart(HttpURLConnection httpConn) {
+        String contentRange = httpConn.getHeaderField(CONTENT_RANGE);
+        if (contentRange == null || !contentRange.startsWith(BYTES_UNIT + " ")) {
+            return -1L;
+        }
+
+        int dash = contentRange.indexOf('-', BYTES_UNIT.length() + 1);
+        if (dash < 0) {
+            return -1L;
+        }
+
+        try {
+            return Long.parseLong(contentRange.substring(BYTES_UNIT.length() + 1, dash).trim());
+        }
+        catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
     public static InputStream openInputStream(HttpURLConnection httpConn, String acceptEncoding) throws IOException {
     	return openInputStream(httpConn, acceptEncoding, null);
     }
@@ -0,0 +1,367 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Puts lines of a gc log into categories in one pass instead of a series of
+ * <code>startsWith()</code> / <code>indexOf()</code> calls per line:
+ * <ul>
+ *     <li>prefixes: a trie finds the category of the strings the line starts with; if the line
+ *     starts with strings of several categories, the category added first to the {@link Builder}
+ *     wins.</li>
+ *     <li>substrings: an Aho-Corasick automaton finds the first index of every substring in the
+ *     line (the same as <code>line.indexOf(substring)</code>).</li>
+ * </ul>
+ *
+ * <p>A <code>LineClassifier</code> is immutable and can be shared by all readers; the result of
+ * {@link #classify(CharSequence, Classification)} is written to a {@link Classification}, which should
+ * be reused for every line.</p>
+ *
+ * @param <T> type of the categories of the prefixes
+ */
+public final class LineClassifier<T> {
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private final List<T> categories;
+    private final PrefixNode prefixTrie;
+
+    private final Map<String, Integer> substringIds;
+    private final int[] substringLengths;
+    // characters of the substrings -> class of the character; all other characters are class 0
+    private final int[] characterClasses;
+    private final int characterClassCount;
+    // transitions of the automaton: state * characterClassCount + character class -> next state
+    private final int[] transitions;
+    // state -> ids of all substrings ending in this state
+    private final int[][] outputs;
+
+    private LineClassifier(Builder<T> builder) {
+        this.categories = new ArrayList<>(builder.categories);
+        this.prefixTrie = builder.prefixTrie;
+        this.substringIds = new HashMap<>(builder.substringIds);
+        this.substringLengths = new int[builder.substrings.size()];
+        for (int i = 0; i < substringLengths.length; ++i) {
+            substringLengths[i] = builder.substrings.get(i).length();
+        }
+
+        int maxCharacter = 0;
+        for (String substring : builder.substrings) {
+            for (int i = 0; i < substring.length(); ++i) {
+                maxCharacter = Math.max(maxCharacter, substring.charAt(i));
+            }
+        }
+        this.characterClasses = new int[maxCharacter + 1];
+        int classCount = 1;
+        for (String substring : builder.substrings) {
+            for (int i = 0; i < substring.length(); ++i) {
+                if (characterClasses[substring.charAt(i)] == 0) {
+                    characterClasses[substring.charAt(i)] = classCount++;
+                }
+            }
+        }
+        this.characterClassCount = classCount;
+
+        // trie of the substrings (goto function)
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        gotoTable.add(newState());
+        stateOutputs.add(new ArrayList<>());
+        for (int id = 0; id < builder.substrings.size(); ++id) {
+            String substring = builder.substrings.get(id);
+            int state = 0;
+            for (int i = 0; i < substring.length(); ++i) {
+                int characterClass = characterClasses[substring.charAt(i)];
+                if (gotoTable.get(state)[characterClass] < 0) {
+                    gotoTable.get(state)[characterClass] = gotoTable.size();
+                    gotoTable.add(newState());
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = gotoTable.get(state)[characterClass];
+            }
+            stateOutputs.get(state).add(id);
+        }
+
+        // failure links in breadth first order turn the trie into a deterministic automaton
+        this.transitions = new int[gotoTable.size() * characterClassCount];
+        int[] failure = new int[gotoTable.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int characterClass = 0; characterClass < characterClassCount; ++characterClass) {
+            int next = gotoTable.get(0)[characterClass];
+            if (next > 0) {
+                failure[next] = 0;
+                queue.add(next);
+            }
+            transitions[characterClass] = Math.max(next, 0);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            stateOutputs.get(state).addAll(stateOutputs.get(failure[state]));
+            for (int characterClass = 0; characterClass < characterClassCount; ++characterClass) {
+                int next = gotoTable.get(state)[characterClass];
+                if (next > 0) {
+                    failure[next] = transitions[failure[state] * characterClassCount + characterClass];
+                    queue.add(next);
+                    transitions[state * characterClassCount + characterClass] = next;
+                }
+                else {
+                    transitions[state * characterClassCount + characterClass] =
+                            transitions[failure[state] * characterClassCount + characterClass];
+                }
+            }
+        }
+
+        this.outputs = new int[stateOutputs.size()][];
+        for (int state = 0; state < outputs.length; ++state) {
+            outputs[state] = new int[stateOutputs.get(state).size()];
+            for (int i = 0; i < outputs[state].length; ++i) {
+                outputs[state][i] = stateOutputs.get(state).get(i);
+            }
+        }
+    }
+
+    private int[] newState() {
+        int[] state = new int[characterClassCount];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    /**
+     * Creates a {@link Classification} to be used with {@link #classify(CharSequence, Classification)}.
+     *
+     * @return new classification
+     */
+    public Classification<T> newClassification() {
+        return new Classification<>(this);
+    }
+
+    /**
+     * Classifies <code>line</code>: finds the category of its prefix and the first index of all
+     * substrings.
+     *
+     * @param line line to be classified
+     * @param classification result (created by {@link #newClassification()} of this classifier)
+     * @return <code>classification</code>
+     */
+    public Classification<T> classify(CharSequence line, Classification<T> classification) {
+        if (classification.classifier != this) {
+            throw new IllegalArgumentException("classification was created by another classifier");
+        }
+
+        classification.prefixCategory = getPrefixCategory(line, false);
+
+        int[] firstIndexes = classification.firstIndexes;
+        Arrays.fill(firstIndexes, -1);
+        int state = 0;
+        for (int i = 0; i < line.length(); ++i) {
+            char c = line.charAt(i);
+            state = transitions[state * characterClassCount + (c < characterClasses.length ? characterClasses[c] : 0)];
+            for (int id : outputs[state]) {
+                if (firstIndexes[id] < 0) {
+                    firstIndexes[id] = i - substringLengths[id] + 1;
+                }
+            }
+        }
+
+        return classification;
+    }
+
+    /**
+     * Returns the category of the strings <code>line</code> starts with (the same as calling
+     * <code>startsWith()</code> for all prefixes). If <code>trimLine</code> is <code>true</code>,
+     * <code>line</code> is trimmed first.
+     *
+     * @param line line to be checked
+     * @param trimLine if <code>true</code> then trim <code>line</code>
+     * @return category of the prefix or <code>null</code>, if <code>line</code> doesn't start
+     * with any of the prefixes
+     */
+    public T getPrefixCategory(CharSequence line, boolean trimLine) {
+        int start = 0;
+        int end = line.length();
+        if (trimLine) {
+            while (start < end && line.charAt(start) <= ' ') {
+                ++start;
+            }
+            while (end > start && line.charAt(end - 1) <= ' ') {
+                --end;
+            }
+        }
+
+        int category = NONE;
+        PrefixNode node = prefixTrie;
+        for (int i = start; i < end && node != null; ++i) {
+            node = node.getChild(line.charAt(i));
+            if (node != null) {
+                category = Math.min(category, node.category);
+            }
+        }
+
+        return category == NONE ? null : categories.get(category);
+    }
+
+    /**
+     * Result of {@link LineClassifier#classify(CharSequence, Classification)} for one line.
+     *
+     * @param <T> type of the categories of the prefixes
+     */
+    public static final class Classification<T> {
+        private final LineClassifier<T> classifier;
+        private final int[] firstIndexes;
+        private T prefixCategory;
+
+        private Classification(LineClassifier<T> classifier) {
+            this.classifier = classifier;
+            this.firstIndexes = new int[classifier.substringLengths.length];
+            Arrays.fill(firstIndexes, -1);
+        }
+
+        /**
+         * @return category of the prefix of the line or <code>null</code>, if it doesn't start
+         * with any of the prefixes
+         */
+        public T getPrefixCategory() {
+            return prefixCategory;
+        }
+
+        /**
+         * Returns the index of the first occurrence of <code>substring</code> in the line (as
+         * <code>line.indexOf(substring)</code>).
+         *
+         * @param substring one of the substrings of the classifier
+         * @return index of <code>substring</code> or <code>-1</code>, if the line doesn't contain it
+         * @throws IllegalArgumentException if <code>substring</code> was not added to the classifier
+         */
+        public int indexOf(String substring) {
+            Integer id = classifier.substringIds.get(substring);
+            if (id == null) {
+                throw new IllegalArgumentException("unknown substring '" + substring + "'");
+            }
+
+            return firstIndexes[id];
+        }
+    }
+
+    /**
+     * Collects the prefixes and substrings of a {@link LineClassifier}; it can't be changed any
+     * more after {@link #build()}.
+     *
+     * @param <T> type of the categories of the prefixes
+     */
+    public static final class Builder<T> {
+        private final List<T> categories = new ArrayList<>();
+        private final PrefixNode prefixTrie = new PrefixNode();
+        private final List<String> substrings = new ArrayList<>();
+        private final Map<String, Integer> substringIds = new HashMap<>();
+        private boolean isBuilt = false;
+
+        /**
+         * Adds prefixes of <code>category</code>.
+         *
+         * @param category category of lines starting with one of <code>prefixes</code>
+         * @param prefixes strings the lines start with
+         * @return this builder
+         */
+        public Builder<T> addPrefixes(T category, Collection<String> prefixes) {
+            checkNotBuilt();
+            int categoryIndex = categories.indexOf(category);
+            if (categoryIndex < 0) {
+                categoryIndex = categories.size();
+                categories.add(category);
+            }
+
+            for (String prefix : prefixes) {
+                if (prefix.isEmpty()) {
+                    throw new IllegalArgumentException("prefix must not be empty");
+                }
+
+                PrefixNode node = prefixTrie;
+                for (int i = 0; i < prefix.length(); ++i) {
+                    node = node.getOrAddChild(prefix.charAt(i));
+                }
+                node.category = Math.min(node.category, categoryIndex);
+            }
+
+            return this;
+        }
+
+        /**
+         * Adds substrings, of which the first index in a line is to be found.
+         *
+         * @param substrings strings to be searched
+         * @return this builder
+         */
+        public Builder<T> addSubstrings(String... substrings) {
+            checkNotBuilt();
+            for (String substring : substrings) {
+                if (substring.isEmpty()) {
+                    throw new IllegalArgumentException("substring must not be empty");
+                }
+                if (!substringIds.containsKey(substring)) {
+                    substringIds.put(substring, this.substrings.size());
+                    this.substrings.add(substring);
+                }
+            }
+
+            return this;
+        }
+
+        public LineClassifier<T> build() {
+            checkNotBuilt();
+            isBuilt = true;
+            prefixTrie.compact();
+            return new LineClassifier<>(this);
+        }
+
+        private void checkNotBuilt() {
+            if (isBuilt) {
+                throw new IllegalStateException("classifier has already been built");
+            }
+        }
+    }
+
+    /**
+     * Node of the trie of the prefixes; the children are sorted by their character.
+     */
+    private static final class PrefixNode {
+        private char[] characters = new char[0];
+        private PrefixNode[] children = new PrefixNode[0];
+        private int category = NONE;
+        // only used while the trie is built
+        private TreeMap<Character, PrefixNode> childMap = new TreeMap<>();
+
+        PrefixNode getChild(char c) {
+            int index = Arrays.binarySearch(characters, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        PrefixNode getOrAddChild(char c) {
+            return childMap.computeIfAbsent(c, key -> new PrefixNode());
+        }
+
+        void compact() {
+            if (childMap == null) {
+                return;
+            }
+
+            characters = new char[childMap.size()];
+            children = new PrefixNode[childMap.size()];
+            int i = 0;
+            for (Map.Entry<Character, PrefixNode> entry : childMap.entrySet()) {
+                characters[i] = entry.getKey();
+                children[i] = entry.getValue();
+                children[i].compact();
+                ++i;
+            }
+            childMap = null;
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.function.IntSupplier;
+
+/**
+ * Statistics of one load of a gc log: wall time, cpu time and bytes allocated per {@link Phase}
+ * plus the number of bytes, lines and events processed.
+ *
+ * <p>The time is accounted exclusively: while a phase is entered from within another one (e.g.
+ * {@link Phase#FILE_READ} from within {@link Phase#PARSE}, when the reader needs more data), the
+ * time is booked to the inner phase only. The phases are tracked per thread; the instance of the
+ * current thread is set by {@link #begin(String)} and can be reached by {@link #current()} from
+ * everywhere (readers, streams, model) without passing it around. All static methods do nothing,
+ * if there is no load going on in the current thread.</p>
+ *
+ * <p>{@link Phase#MODEL_ADD} is entered once per event; to keep the overhead low, only its wall
+ * time is measured. Its cpu time and allocations are booked to the enclosing phase.</p>
+ */
+public class LoadStatistics {
+
+    /**
+     * Phases of a load.
+     */
+    public enum Phase {
+        /** reading from a http(s) connection */
+        DOWNLOAD,
+        /** reading from a file */
+        FILE_READ,
+        /** unzipping a gzipped stream */
+        DECOMPRESS,
+        /** finding the reader for the format of the log */
+        FORMAT_DETECTION,
+        /** decoding the bytes into lines */
+        READ_LINES,
+        /** parsing the lines by the reader */
+        PARSE,
+        /** adding the events to the model */
+        MODEL_ADD,
+        /** building and storing the timestamp offset index */
+        INDEX,
+        /** rendering the chart */
+        RENDER
+    }
+
+    private static final ThreadLocal<LoadStatistics> CURRENT = new ThreadLocal<>();
+    private static final int PHASE_COUNT = Phase.values().length;
+    private static final double NANOS_PER_MILLI = 1000000d;
+    private static final double BYTES_PER_MB = 1024d * 1024d;
+
+    private final String resourceName;
+    private final ThreadMXBean threadMXBean;
+    private final boolean isCpuTimeSupported;
+    private final boolean isAllocatedBytesSupported;
+
+    private final long[] count = new long[PHASE_COUNT];
+    private final long[] wallNanos = new long[PHASE_COUNT];
+    private final long[] cpuNanos = new long[PHASE_COUNT];
+    private final long[] allocatedBytes = new long[PHASE_COUNT];
+    private final long[] bytes = new long[PHASE_COUNT];
+    private long lines;
+    private long events;
+
+    private Phase currentPhase;
+    /** phase cpu time and allocations are booked to (differs from currentPhase during light phases) */
+    private Phase heavyPhase;
+    private long wallMark;
+    private long cpuMark;
+    private long allocatedMark;
+    private Phase modelAddParent;
+    private IntSupplier lineSource;
+    private long startNanos;
+    private long totalWallNanos;
+
+    public LoadStatistics(String resourceName) {
+        this.resourceName = resourceName;
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+        this.isCpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+        this.isAllocatedBytesSupported = threadMXBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Starts a new load in the current thread, if there is none going on yet.
+     *
+     * @param resourceName name of the resource being loaded
+     * @return new instance or <code>null</code>, if there is a load going on already (its
+     * instance collects the statistics)
+     */
+    public static LoadStatistics begin(String resourceName) {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+
+        LoadStatistics statistics = new LoadStatistics(resourceName);
+        statistics.startNanos = System.nanoTime();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Ends the load started by {@link #begin(String)} in the current thread.
+     */
+    public void end() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        collectLines();
+        totalWallNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return statistics of the load going on in the current thread or <code>null</code>
+     */
+    public static LoadStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Enters <code>phase</code> in the load going on in the current thread.
+     *
+     * @param phase phase to be entered
+     * @return phase to be passed to {@link #exitPhase(Phase)}
+     */
+    public static Phase enterPhase(Phase phase) {
+        LoadStatistics statistics = CURRENT.get();
+        return statistics != null ? statistics.enter(phase) : null;
+    }
+
+    /**
+     * Returns to <code>previous</code> in the load going on in the current thread.
+     *
+     * @param previous phase returned by {@link #enterPhase(Phase)}
+     */
+    public static void exitPhase(Phase previous) {
+        LoadStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.exit(previous);
+        }
+    }
+
+    /**
+     * Enters {@link Phase#MODEL_ADD} in the load going on in the current thread (wall time only)
+     * and counts the event being added.
+     *
+     * @return statistics of the current thread, on which {@link #exitModelAdd()} must be called
+     * or <code>null</code>, if there is no load going on
+     */
+    public static LoadStatistics enterModelAdd() {
+        LoadStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.modelAddParent = statistics.enterLight(Phase.MODEL_ADD);
+            ++statistics.events;
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Leaves {@link Phase#MODEL_ADD} entered by {@link #enterModelAdd()}.
+     */
+    public void exitModelAdd() {
+        exitLight(modelAddParent);
+    }
+
+    /**
+     * Sets the source of the number of lines read so far by the reader of the load going on in
+     * the current thread (the lines of a previous source are kept).
+     *
+     * @param lineSource current line number of the reader
+     */
+    public static void setLineSource(IntSupplier lineSource) {
+        LoadStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectLines();
+            statistics.lineSource = lineSource;
+        }
+    }
+
+    /**
+     * Returns a stream booking all reads from <code>in</code> to <code>phase</code> of the load
+     * going on in the current thread.
+     *
+     * @param in stream to be instrumented
+     * @param phase phase of the reads
+     * @return <code>in</code>, if there is no load going on
+     */
+    public static InputStream instrument(InputStream in, Phase phase) {
+        LoadStatistics statistics = CURRENT.get();
+        return statistics != null ? new InstrumentedInputStream(in, statistics, phase) : in;
+    }
+
+    /**
+     * Returns a reader booking all reads from <code>in</code> to <code>phase</code> of the load
+     * going on in the current thread.
+     *
+     * @param in reader to be instrumented
+     * @param phase phase of the reads
+     * @return <code>in</code>, if there is no load going on
+     */
+    public static Reader instrument(Reader in, Phase phase) {
+        LoadStatistics statistics = CURRENT.get();
+        return statistics != null ? new InstrumentedReader(in, statistics, phase) : in;
+    }
+
+    /**
+     * Enters <code>phase</code>; the time since the last change is booked to the phase left.
+     *
+     * @param phase phase to be entered
+     * @return phase left (to be passed to {@link #exit(Phase)})
+     */
+    public Phase enter(Phase phase) {
+        Phase previous = currentPhase;
+        switchTo(phase);
+        ++count[phase.ordinal()];
+        return previous;
+    }
+
+    /**
+     * Leaves the current phase and returns to <code>previous</code>.
+     *
+     * @param previous phase returned by {@link #enter(Phase)}
+     */
+    public void exit(Phase previous) {
+        switchTo(previous);
+    }
+
+    private void switchTo(Phase phase) {
+        long wallNow = System.nanoTime();
+        long cpuNow = getCpuTime();
+        long allocatedNow = getAllocatedBytes();
+        if (currentPhase != null) {
+            wallNanos[currentPhase.ordinal()] += wallNow - wallMark;
+        }
+        if (heavyPhase != null) {
+            cpuNanos[heavyPhase.ordinal()] += cpuNow - cpuMark;
+            allocatedBytes[heavyPhase.ordinal()] += allocatedNow - allocatedMark;
+        }
+        wallMark = wallNow;
+        cpuMark = cpuNow;
+        allocatedMark = allocatedNow;
+        currentPhase = phase;
+        heavyPhase = phase;
+    }
+
+    private Phase enterLight(Phase phase) {
+        long wallNow = System.nanoTime();
+        if (currentPhase != null) {
+            wallNanos[currentPhase.ordinal()] += wallNow - wallMark;
+        }
+        wallMark = wallNow;
+        Phase previous = currentPhase;
+        currentPhase = phase;
+        ++count[phase.ordinal()];
+        return previous;
+    }
+
+    private void exitLight(Phase previous) {
+        long wallNow = System.nanoTime();
+        wallNanos[currentPhase.ordinal()] += wallNow - wallMark;
+        wallMark = wallNow;
+        currentPhase = previous;
+    }
+
+    private long getCpuTime() {
+        return isCpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long getAllocatedBytes() {
+        return isAllocatedBytesSupported
+                ? ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId())
+                : 0;
+    }
+
+    private void collectLines() {
+        if (lineSource != null) {
+            lines += lineSource.getAsInt();
+            lineSource = null;
+        }
+    }
+
+    /**
+     * Adds bytes processed by <code>phase</code>.
+     *
+     * @param phase phase having processed the bytes
+     * @param byteCount number of bytes
+     */
+    public void addBytes(Phase phase, long byteCount) {
+        bytes[phase.ordinal()] += byteCount;
+    }
+
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    /**
+     * @return <code>true</code>, if the jvm supports measuring cpu time per thread
+     */
+    public boolean isCpuTimeSupported() {
+        return isCpuTimeSupported;
+    }
+
+    /**
+     * @return <code>true</code>, if the jvm supports measuring allocated bytes per thread
+     */
+    public boolean isAllocatedBytesSupported() {
+        return isAllocatedBytesSupported;
+    }
+
+    /**
+     * @param phase phase
+     * @return number of times <code>phase</code> was entered
+     */
+    public long getCount(Phase phase) {
+        return count[phase.ordinal()];
+    }
+
+    public long getWallNanos(Phase phase) {
+        return wallNanos[phase.ordinal()];
+    }
+
+    public long getCpuNanos(Phase phase) {
+        return cpuNanos[phase.ordinal()];
+    }
+
+    public long getAllocatedBytes(Phase phase) {
+        return allocatedBytes[phase.ordinal()];
+    }
+
+    public long getBytes(Phase phase) {
+        return bytes[phase.ordinal()];
+    }
+
+    /**
+     * @return wall time between {@link #begin(String)} and {@link #end()}
+     */
+    public long getTotalWallNanos() {
+        return totalWallNanos;
+    }
+
+    /**
+     * @return number of lines read (known after {@link #end()})
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    /**
+     * @return number of events added to the model
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * @return statistics as json object
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"resource\":");
+        appendJsonString(sb, resourceName);
+        sb.append(",\"totalWallNanos\":").append(totalWallNanos);
+        sb.append(",\"lines\":").append(lines);
+        sb.append(",\"events\":").append(events);
+        sb.append(",\"cpuTimeSupported\":").append(isCpuTimeSupported);
+        sb.append(",\"allocatedBytesSupported\":").append(isAllocatedBytesSupported);
+        sb.append(",\"phases\":{");
+        for (Phase phase : Phase.values()) {
+            int i = phase.ordinal();
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(phase.name()).append("\":{");
+            sb.append("\"count\":").append(count[i]);
+            sb.append(",\"wallNanos\":").append(wallNanos[i]);
+            sb.append(",\"cpuNanos\":").append(cpuNanos[i]);
+            sb.append(",\"allocatedBytes\":").append(allocatedBytes[i]);
+            sb.append(",\"bytes\":").append(bytes[i]);
+            sb.append('}');
+        }
+        sb.append("}}");
+
+        return sb.toString();
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+
+        sb.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            }
+            else if (c < 0x20 || c > 0x7e) {
+                sb.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * @return table of the phases entered (for the log)
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "load statistics of %s: %.1f ms, %d lines, %d events%n",
+                resourceName, totalWallNanos / NANOS_PER_MILLI, lines, events));
+        sb.append(String.format(Locale.US, "%-17s %10s %10s %10s %12s %10s%n",
+                "phase", "wall ms", "cpu ms", "alloc MB", "bytes", "count"));
+        for (Phase phase : Phase.values()) {
+            int i = phase.ordinal();
+            if (count[i] == 0) {
+                continue;
+            }
+            sb.append(String.format(Locale.US, "%-17s %10.1f %10s %10s %12d %10d%n",
+                    phase.name(),
+                    wallNanos[i] / NANOS_PER_MILLI,
+                    isCpuTimeSupported ? String.format(Locale.US, "%.1f", cpuNanos[i] / NANOS_PER_MILLI) : "n/a",
+                    isAllocatedBytesSupported ? String.format(Locale.US, "%.1f", allocatedBytes[i] / BYTES_PER_MB) : "n/a",
+                    bytes[i],
+                    count[i]));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Books all reads to a phase and counts the bytes read.
+     */
+    private static class InstrumentedInputStream extends FilterInputStream {
+        private final LoadStatistics statistics;
+        private final Phase phase;
+
+        public InstrumentedInputStream(InputStream in, LoadStatistics statistics, Phase phase) {
+            super(in);
+            this.statistics = statistics;
+            this.phase = phase;
+        }
+
+        @Override
+        public int read() throws IOException {
+            Phase previous = statistics.enter(phase);
+            try {
+                int result = in.read();
+                if (result >= 0) {
+                    statistics.addBytes(phase, 1);
+                }
+                return result;
+            }
+            finally {
+                statistics.exit(previous);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Phase previous = statistics.enter(phase);
+            try {
+                int result = in.read(b, off, len);
+                if (result > 0) {
+                    statistics.addBytes(phase, result);
+                }
+                return result;
+            }
+            finally {
+                statistics.exit(previous);
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            Phase previous = statistics.enter(phase);
+            try {
+                return in.skip(n);
+            }
+            finally {
+                statistics.exit(previous);
+            }
+        }
+    }
+
+    /**
+     * Books all reads to a phase and counts the chars read.
+     */
+    private static class InstrumentedReader extends FilterReader {
+        private final LoadStatistics statistics;
+        private final Phase phase;
+
+        public InstrumentedReader(Reader in, LoadStatistics statistics, Phase phase) {
+            super(in);
+            this.statistics = statistics;
+            this.phase = phase;
+        }
+
+        @Override
+        public int read() throws IOException {
+            Phase previous = statistics.enter(phase);
+            try {
+                int result = in.read();
+                if (result >= 0) {
+                    statistics.addBytes(phase, 1);
+                }
+                return result;
+            }
+            finally {
+                statistics.exit(previous);
+            }
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            Phase previous = statistics.enter(phase);
+            try {
+                int result = in.read(cbuf, off, len);
+                if (result > 0) {
+                    statistics.addBytes(phase, result);
+                }
+                return result;
+            }
+            finally {
+                statistics.exit(previous);
+            }
+        }
+    }
+}
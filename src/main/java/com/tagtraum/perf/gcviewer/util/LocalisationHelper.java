@@ -10,7 +10,6 @@ import java.util.ResourceBundle;
  * <p>created on: 25.04.2013</p>
  */
 public class LocalisationHelper {
-    private static ResourceBundle resourceBundle;
     private static final Object[] EMPTY_ARRAY = new Object[]{};
     
     /**
@@ -41,10 +40,14 @@ public class LocalisationHelper {
     }
     
     private static ResourceBundle getBundle() {
-        if (resourceBundle == null) {
-            resourceBundle = ResourceBundle.getBundle("localStrings");
-        }
-        
-        return resourceBundle;
+        return BundleHolder.BUNDLE;
+    }
+
+    /**
+     * The bundle is loaded (thread safe) on first use of a localised text; command line exports
+     * usually never need one.
+     */
+    private static class BundleHolder {
+        private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("localStrings");
     }
 }
@@ -0,0 +1,164 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import com.tagtraum.perf.gcviewer.model.LineOffsetIndex;
+
+/**
+ * Read only access to single lines of a (possibly very large) log file. The file is memory mapped
+ * and a {@link LineOffsetIndex} is used to find the position of a line, so only the bytes of the
+ * lines requested are ever read, no matter how large the file is.
+ *
+ * <p>Instances are not thread safe.</p>
+ */
+public class MappedLogFile implements Closeable {
+
+    /** longest part of a line that is returned by {@link #getLine(int)} */
+    public static final int MAX_LINE_LENGTH = 8192;
+
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long length;
+    private final LineOffsetIndex lineOffsetIndex;
+
+    /** last line found; used as starting point for sequential access */
+    private int lastLineNumber;
+    private long lastLineOffset;
+
+    /**
+     * Maps <code>file</code> using <code>lineOffsetIndex</code> to find the lines. If the file has
+     * grown since the index was built, the index is extended (without changing
+     * <code>lineOffsetIndex</code>); if it is smaller or no index is given, a new one is built.
+     *
+     * @param file file to be mapped
+     * @param lineOffsetIndex index of the file built while it was parsed (may be <code>null</code>)
+     * @throws IOException problem opening / mapping the file
+     */
+    public MappedLogFile(File file, LineOffsetIndex lineOffsetIndex) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            this.length = channel.size();
+            this.chunks = new MappedByteBuffer[(int) ((length + CHUNK_SIZE - 1) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; ++i) {
+                long position = (long) i << CHUNK_SHIFT;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, length - position));
+            }
+        }
+        catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        if (lineOffsetIndex == null || lineOffsetIndex.isCompressed() || lineOffsetIndex.getLength() > length) {
+            this.lineOffsetIndex = extendIndex(new LineOffsetIndex());
+        }
+        else if (lineOffsetIndex.getLength() < length) {
+            this.lineOffsetIndex = extendIndex(new LineOffsetIndex(lineOffsetIndex));
+        }
+        else {
+            this.lineOffsetIndex = lineOffsetIndex;
+        }
+    }
+
+    private LineOffsetIndex extendIndex(LineOffsetIndex index) {
+        for (long position = index.getLength(); position < length; ++position) {
+            index.update(get(position));
+        }
+
+        return index;
+    }
+
+    private byte get(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].get((int) (position & CHUNK_MASK));
+    }
+
+    /**
+     * Returns the number of lines in the file.
+     *
+     * @return number of lines
+     */
+    public int getLineCount() {
+        return lineOffsetIndex.getLineCount();
+    }
+
+    /**
+     * Returns the size of the file in bytes.
+     *
+     * @return size of the file
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the line at <code>lineNumber</code> without line separator. Lines longer than
+     * {@link #MAX_LINE_LENGTH} are truncated.
+     *
+     * @param lineNumber number of the line (starting with 1)
+     * @return the line
+     * @throws IllegalArgumentException if there is no line <code>lineNumber</code> in the file
+     */
+    public String getLine(int lineNumber) {
+        if (lineNumber < 1 || lineNumber > getLineCount()) {
+            throw new IllegalArgumentException("lineNumber " + lineNumber + " not in range 1.." + getLineCount());
+        }
+
+        int currentLineNumber;
+        long offset;
+        if (lastLineNumber > 0 && lastLineNumber <= lineNumber
+                && lineNumber - lastLineNumber < LineOffsetIndex.LINES_PER_ENTRY) {
+
+            currentLineNumber = lastLineNumber;
+            offset = lastLineOffset;
+        }
+        else {
+            currentLineNumber = lineOffsetIndex.getIndexedLineNumber(lineNumber);
+            offset = lineOffsetIndex.getIndexedLineOffset(lineNumber);
+        }
+        while (currentLineNumber < lineNumber) {
+            offset = findEndOfLine(offset) + 1;
+            ++currentLineNumber;
+        }
+        lastLineNumber = lineNumber;
+        lastLineOffset = offset;
+
+        long end = findEndOfLine(offset);
+        if (end > offset && get(end - 1) == '\r') {
+            --end;
+        }
+        byte[] bytes = new byte[(int) Math.min(end - offset, MAX_LINE_LENGTH)];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = get(offset + i);
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the position of the '\n' terminating the line starting at <code>offset</code>
+     * (or the length of the file for the last line).
+     */
+    private long findEndOfLine(long offset) {
+        long position = offset;
+        while (position < length && get(position) != '\n') {
+            ++position;
+        }
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
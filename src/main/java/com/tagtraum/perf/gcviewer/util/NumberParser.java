@@ -9,8 +9,6 @@ package com.tagtraum.perf.gcviewer.util;
  * @see <a href="http://www.tagtraum.com/performance/">"Performant Java Programmieren" by Hendrik Schreiber</a>
  */
 public class NumberParser {
-    // replace parseInt(String) with parseInt(CharSequence) in later version
-    // replace parseLong(String) with parseLong(CharSequence) in later version
 
     public static final int MAX_NEGATIVE_INTEGER_CHARS = Integer.toString(Integer.MIN_VALUE).length();
     public static final int MAX_POSITIVE_INTEGER_CHARS = Integer.toString(Integer.MAX_VALUE).length();
@@ -18,6 +16,13 @@ public class NumberParser {
     public static final int MAX_NEGATIVE_LONG_CHARS = Long.toString(Long.MIN_VALUE).length();
     public static final int MAX_POSITIVE_LONG_CHARS = Long.toString(Long.MAX_VALUE).length();
 
+    // all powers of ten, which can be represented exactly as double
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    // largest integer, which (as all smaller ones) can be represented exactly as double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
     public static int parseInt(char[] cb, int offset, int length ) throws NumberFormatException {
         if (cb == null) throw new NumberFormatException("null");
         int result = 0;
@@ -65,7 +70,7 @@ public class NumberParser {
         return parseInt(s, 0, s.length());
     }
 
-    public static int parseInt(String s, int offset, int length) throws NumberFormatException {
+    public static int parseInt(CharSequence s, int offset, int length) throws NumberFormatException {
         // for speed this is a copy of parseInt(string) instead of just using toCharArrays()...
         if (s == null) throw new NumberFormatException("null");
         int result = 0;
@@ -76,33 +81,33 @@ public class NumberParser {
 
         if (length > 0) {
             if (s.charAt(offset) == '-') {
-                if (length > MAX_NEGATIVE_INTEGER_CHARS) throw new NumberFormatException(s);
+                if (length > MAX_NEGATIVE_INTEGER_CHARS) throw new NumberFormatException(s.toString());
                 negative = true;
                 limit = Integer.MIN_VALUE;
                 i++;
             } else {
-                if (length > MAX_POSITIVE_INTEGER_CHARS) throw new NumberFormatException(s);
+                if (length > MAX_POSITIVE_INTEGER_CHARS) throw new NumberFormatException(s.toString());
                 limit = -Integer.MAX_VALUE;
             }
             while (i < length) {
                 digit = s.charAt(offset + i++)-'0';
                 if (digit < 0 || digit > 9) {
-                    throw new NumberFormatException(s);
+                    throw new NumberFormatException(s.toString());
                 }
                 result *= 10;
                 if (result < limit + digit) {
-                    throw new NumberFormatException(s);
+                    throw new NumberFormatException(s.toString());
                 }
                 result -= digit;
             }
         } else {
-            throw new NumberFormatException(s);
+            throw new NumberFormatException(s.toString());
         }
         if (negative) {
             if (i > 1) {
                 return result;
             } else {
-                throw new NumberFormatException(s);
+                throw new NumberFormatException(s.toString());
             }
         } else {
             return -result;
@@ -113,7 +118,7 @@ public class NumberParser {
         return parseLong(s, 0, s.length());
     }
 
-    public static long parseLong(String s, int offset, int length) throws NumberFormatException {
+    public static long parseLong(CharSequence s, int offset, int length) throws NumberFormatException {
         if (s == null) throw new NumberFormatException("null");
         long result = 0;
         boolean negative = false;
@@ -126,7 +131,7 @@ public class NumberParser {
                 // shortcut for ints
                 // => shortcut doesn't work!! (e.g. -6442450944 is too big for an int, but has not too many characters)
                 // if (length <= MAX_NEGATIVE_INTEGER_CHARS) return parseInt(s, offset, length);
-                if (length > MAX_NEGATIVE_LONG_CHARS) throw new NumberFormatException(s);
+                if (length > MAX_NEGATIVE_LONG_CHARS) throw new NumberFormatException(s.toString());
                 negative = true;
                 limit = Long.MIN_VALUE;
                 i++;
@@ -134,28 +139,28 @@ public class NumberParser {
                 // shortcut for ints
                 // => shortcut doesn't work!! (e.g. 6442450944 is too big for an int, but has not too many characters)
                 //if (length <= MAX_POSITIVE_INTEGER_CHARS) return parseInt(s, offset, length);
-                if (length > MAX_POSITIVE_LONG_CHARS) throw new NumberFormatException(s);
+                if (length > MAX_POSITIVE_LONG_CHARS) throw new NumberFormatException(s.toString());
                 limit = -Long.MAX_VALUE;
             }
             while (i < length) {
                 digit = s.charAt(offset + i++)-'0';
                 if (digit < 0 || digit > 9) {
-                    throw new NumberFormatException(s);
+                    throw new NumberFormatException(s.toString());
                 }
                 result *= 10L;
                 if (result < limit + digit) {
-                    throw new NumberFormatException(s);
+                    throw new NumberFormatException(s.toString());
                 }
                 result -= digit;
             }
         } else {
-            throw new NumberFormatException(s);
+            throw new NumberFormatException(s.toString());
         }
         if (negative) {
             if (i > 1) {
                 return result;
             } else {
-                throw new NumberFormatException(s);
+                throw new NumberFormatException(s.toString());
             }
         } else {
             return -result;
@@ -212,15 +217,49 @@ public class NumberParser {
         }
     }
     
-    public static double parseDouble(String s, int offset, int length) {
-        // Currently, this method is unlikely to be as efficient as those above.
-        // This logic is factored out so as to allow future optimisations. For
-        // example, we might want to make some simplifying assumptions about the
-        // kind of doubles present in GC logs.
-        
-        return parseDouble(s.substring(offset, offset + length));
+    public static double parseDouble(CharSequence s, int offset, int length) {
+        // Most doubles in gc logs are plain decimals like "0.0012345". If all their digits fit into
+        // the mantissa of a double and there are not more than 22 fraction digits, both the digits
+        // and the power of ten are exact doubles; the division of the two is rounded correctly and
+        // returns the same value as Double.parseDouble() without creating a String.
+        // Everything else (exponents, blanks, too many digits, ...) is left to Double.parseDouble().
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && s.charAt(i) == '-') {
+            negative = true;
+            ++i;
+        }
+
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigitCount = -1;
+        for (; i < end; ++i) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9' && mantissa <= (MAX_EXACT_MANTISSA - 9) / 10) {
+                mantissa = mantissa * 10 + (c - '0');
+                ++digitCount;
+                if (fractionDigitCount >= 0) {
+                    ++fractionDigitCount;
+                }
+            }
+            else if ((c == '.' || c == ',') && fractionDigitCount < 0) {
+                // some localized gc logs contain "," in pauses
+                fractionDigitCount = 0;
+            }
+            else {
+                break;
+            }
+        }
+
+        if (i < end || digitCount == 0 || fractionDigitCount >= POWERS_OF_TEN.length) {
+            return parseDouble(s.subSequence(offset, end).toString());
+        }
+
+        double value = fractionDigitCount > 0 ? mantissa / POWERS_OF_TEN[fractionDigitCount] : mantissa;
+        return negative ? -value : value;
     }
-    
+
     public static double parseDouble (String s) {
         // replace "," with "." because doubles may only contain "."
         // some localized gc logs contain "," in pauses
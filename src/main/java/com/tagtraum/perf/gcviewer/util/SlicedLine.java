@@ -0,0 +1,166 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import java.util.Arrays;
+
+/**
+ * Logical line of a gc log assembled from slices of the lines read from the log, without copying
+ * their characters. Some jvms split one event over several lines (or write parts of other events
+ * in the middle of it); the parsers put the parts together in a <code>SlicedLine</code> and
+ * parse it through its {@link CharSequence} interface.
+ *
+ * <p>Slices of another <code>SlicedLine</code> are flattened into slices of the original lines,
+ * so changing a <code>SlicedLine</code> later never changes the ones built from it.</p>
+ *
+ * @see CharSequenceHelper
+ */
+public final class SlicedLine implements CharSequence {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private String[] sources = new String[INITIAL_CAPACITY];
+    private int[] sourceStarts = new int[INITIAL_CAPACITY];
+    // index of the first character of every slice in this line; lineStarts[sliceCount] == length
+    private int[] lineStarts = new int[INITIAL_CAPACITY + 1];
+    private int sliceCount;
+    // slice of the last call of charAt() (the parsers mostly read sequentially)
+    private int currentSlice;
+    private String string;
+
+    /**
+     * Appends all characters of <code>s</code>.
+     *
+     * @param s characters to be appended
+     * @return this line
+     */
+    public SlicedLine append(CharSequence s) {
+        return append(s, 0, s.length());
+    }
+
+    /**
+     * Appends the characters of <code>s</code> from <code>start</code> (inclusive) to
+     * <code>end</code> (exclusive).
+     *
+     * @param s characters to be appended
+     * @param start index of first character
+     * @param end index after the last character
+     * @return this line
+     * @throws IndexOutOfBoundsException if <code>start</code> or <code>end</code> are outside of <code>s</code>
+     */
+    public SlicedLine append(CharSequence s, int start, int end) {
+        if (start < 0 || end > s.length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + s.length());
+        }
+
+        if (start == end) {
+            return this;
+        }
+        if (s instanceof SlicedLine) {
+            ((SlicedLine) s).appendSlicesTo(this, start, end);
+        }
+        else if (s instanceof String) {
+            addSlice((String) s, start, end);
+        }
+        else {
+            addSlice(s.subSequence(start, end).toString(), 0, end - start);
+        }
+
+        return this;
+    }
+
+    private void appendSlicesTo(SlicedLine target, int start, int end) {
+        for (int slice = findSlice(start); slice < sliceCount && lineStarts[slice] < end; ++slice) {
+            int from = Math.max(start, lineStarts[slice]) - lineStarts[slice];
+            int to = Math.min(end, lineStarts[slice + 1]) - lineStarts[slice];
+            target.addSlice(sources[slice], sourceStarts[slice] + from, sourceStarts[slice] + to);
+        }
+    }
+
+    private void addSlice(String source, int start, int end) {
+        string = null;
+        int length = length();
+        if (sliceCount > 0
+                && sources[sliceCount - 1] == source
+                && sourceStarts[sliceCount - 1] + length - lineStarts[sliceCount - 1] == start) {
+
+            // continuation of the last slice
+            lineStarts[sliceCount] = length + end - start;
+            return;
+        }
+
+        if (sliceCount == sources.length) {
+            sources = Arrays.copyOf(sources, sliceCount * 2);
+            sourceStarts = Arrays.copyOf(sourceStarts, sliceCount * 2);
+            lineStarts = Arrays.copyOf(lineStarts, sliceCount * 2 + 1);
+        }
+        sources[sliceCount] = source;
+        sourceStarts[sliceCount] = start;
+        ++sliceCount;
+        lineStarts[sliceCount] = length + end - start;
+    }
+
+    private int findSlice(int index) {
+        int low = 0;
+        int high = sliceCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (lineStarts[middle] <= index) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @return number of slices of this line
+     */
+    public int getSliceCount() {
+        return sliceCount;
+    }
+
+    @Override
+    public int length() {
+        return lineStarts[sliceCount];
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+
+        int slice = currentSlice;
+        if (index < lineStarts[slice] || index >= lineStarts[slice + 1]) {
+            slice = findSlice(index);
+            currentSlice = slice;
+        }
+
+        return sources[slice].charAt(sourceStarts[slice] + index - lineStarts[slice]);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new SlicedLine().append(this, start, end);
+    }
+
+    @Override
+    public String toString() {
+        if (string == null) {
+            if (sliceCount == 1) {
+                string = sources[0].substring(sourceStarts[0], sourceStarts[0] + length());
+            }
+            else {
+                StringBuilder sb = new StringBuilder(length());
+                for (int slice = 0; slice < sliceCount; ++slice) {
+                    sb.append(sources[slice], sourceStarts[slice], sourceStarts[slice] + lineStarts[slice + 1] - lineStarts[slice]);
+                }
+                string = sb.toString();
+            }
+        }
+
+        return string;
+    }
+}
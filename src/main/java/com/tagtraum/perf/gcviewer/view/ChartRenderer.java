@@ -15,11 +15,11 @@ import javax.swing.JComponent;
  * @author <a href="mailto:hs@tagtraum.com">Hendrik Schreiber</a>
  */
 public abstract class ChartRenderer extends JComponent {
-    private ModelChartImpl modelChart;
+    private ModelChart modelChart;
     private boolean drawLine;
     private Paint linePaint;
 
-    public ChartRenderer(ModelChartImpl modelChart) {
+    public ChartRenderer(ModelChart modelChart) {
         this.modelChart = modelChart;
     }
 
@@ -31,11 +31,11 @@ public abstract class ChartRenderer extends JComponent {
         this.drawLine = drawLine;
     }
 
-    public ModelChartImpl getModelChart() {
+    public ModelChart getModelChart() {
         return modelChart;
     }
 
-    public void setModelChart(ModelChartImpl modelChart) {
+    public void setModelChart(ModelChart modelChart) {
         this.modelChart = modelChart;
     }
 
@@ -49,7 +49,16 @@ public abstract class ChartRenderer extends JComponent {
 
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D)g;
+        paintChart((Graphics2D)g);
+    }
+
+    /**
+     * Paints this renderer into <code>g2d</code> applying the antialiasing setting of the chart.
+     * Doesn't need this component to be part of a displayed component hierarchy.
+     *
+     * @param g2d graphics to paint into
+     */
+    public void paintChart(Graphics2D g2d) {
         Paint oldPaint = g2d.getPaint();
         Object oldAAHint = g2d.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
         if (modelChart.isAntiAlias()) g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
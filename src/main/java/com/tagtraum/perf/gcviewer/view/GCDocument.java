@@ -1,5 +1,6 @@
 package com.tagtraum.perf.gcviewer.view;
 
+import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.view.model.GCPreferences;
 import com.tagtraum.perf.gcviewer.view.model.GCResourceGroup;
@@ -329,6 +330,12 @@ public class GCDocument extends JInternalFrame {
 
     private class MultiModelChartFacade implements ModelChart {
 
+        @Override
+        public GCModel getModel() {
+            if (chartPanelViews.isEmpty()) return null;
+            return chartPanelViews.get(0).getModelChart().getModel();
+        }
+
         @Override
         public boolean isAntiAlias() {
             if (chartPanelViews.isEmpty()) return false;
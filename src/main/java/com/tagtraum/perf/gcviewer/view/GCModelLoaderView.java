@@ -19,7 +19,9 @@ import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.SwingWorker;
+import javax.swing.Timer;
 
+import com.tagtraum.perf.gcviewer.imp.MonitoredBufferedInputStream;
 import com.tagtraum.perf.gcviewer.log.TextAreaLogHandler;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
@@ -32,12 +34,17 @@ public class GCModelLoaderView extends JPanel implements PropertyChangeListener,
     private static final long serialVersionUID = 1L;
     public static final String CMD_CANCEL = "cancel";
 
+    /** interval in ms for rendering the log records while the model is loaded */
+    private static final int LOG_UPDATE_INTERVAL = 500;
+
     private GCResource gcResource;
 
     private JLabel messageLabel;
     private JProgressBar progressBar;
     private JButton cancelButton;
     private TextAreaLogHandler textAreaLogHandler = new TextAreaLogHandler();
+    private Timer logUpdateTimer;
+    private long bytesPerSecond = -1;
 
 	/**
 	 * @param gcResource resource to be tracked
@@ -76,6 +83,13 @@ public class GCModelLoaderView extends JPanel implements PropertyChangeListener,
 
         add(textAreaScrollPane, BorderLayout.CENTER);
 
+        // log records are only rendered from time to time and only if they can be seen
+        logUpdateTimer = new Timer(LOG_UPDATE_INTERVAL, e -> {
+            if (isShowing()) {
+                textAreaLogHandler.updateTextArea();
+            }
+        });
+
         setGCResource(gcResource);
 	}
 
@@ -83,9 +97,12 @@ public class GCModelLoaderView extends JPanel implements PropertyChangeListener,
 	    textAreaLogHandler.reset();
         progressBar.setVisible(true);
         progressBar.setValue(0);
+        progressBar.setString(null);
+        bytesPerSecond = -1;
         cancelButton.setVisible(true);
         messageLabel.setVisible(false);
         gcResource.getLogger().addHandler(textAreaLogHandler);
+        logUpdateTimer.restart();
 
         this.gcResource = gcResource;
 	}
@@ -100,12 +117,28 @@ public class GCModelLoaderView extends JPanel implements PropertyChangeListener,
         if ("progress".equals(eventPropertyName)) {
             progressBar.setValue((int)evt.getNewValue());
         }
+        else if (MonitoredBufferedInputStream.BYTES_PER_SECOND.equals(eventPropertyName)) {
+            bytesPerSecond = (long) evt.getNewValue();
+        }
+        else if (MonitoredBufferedInputStream.REMAINING_MILLIS.equals(eventPropertyName)) {
+            // sent after bytesPerSecond for the same sample
+            long remainingMillis = (long) evt.getNewValue();
+            if (bytesPerSecond >= 0 && remainingMillis >= 0) {
+                progressBar.setString(LocalisationHelper.getString("datareader_progress",
+                        progressBar.getValue(),
+                        String.format("%.1f", bytesPerSecond / (1024.0 * 1024.0)),
+                        (remainingMillis + 999) / 1000));
+            }
+        }
         else if ("state".equals(eventPropertyName)) {
             if (SwingWorker.StateValue.STARTED == evt.getNewValue()) {
                 // don't clear textArea here, because event comes late!
             }
             else if (SwingWorker.StateValue.DONE == evt.getNewValue()) {
                 progressBar.setValue(100);
+                progressBar.setString(null);
+                logUpdateTimer.stop();
+                textAreaLogHandler.updateTextArea();
                 final int nErrors = textAreaLogHandler.getErrorCount();
 
                 messageLabel.setText(LocalisationHelper.getString("datareader_parseerror_dialog_message", nErrors));
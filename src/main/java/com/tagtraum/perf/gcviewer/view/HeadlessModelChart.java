@@ -0,0 +1,398 @@
+package com.tagtraum.perf.gcviewer.view;
+
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.util.TimeFormat;
+import com.tagtraum.perf.gcviewer.view.model.GCPreferences;
+import com.tagtraum.perf.gcviewer.view.renderer.ConcurrentGcBegionEndRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.FullGCLineRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.GCRectanglesRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.GCTimesRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.IncLineRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.InitialMarkLevelRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.PolygonChartRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.TotalHeapRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.TotalTenuredRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.TotalYoungRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.UsedHeapRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.UsedTenuredRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.UsedYoungRenderer;
+
+/**
+ * Chart of a gc file painting the same layers and rulers as {@link ModelChartImpl}, but directly
+ * into a given {@link Graphics2D} (e.g. of a {@link java.awt.image.BufferedImage}). It is not part
+ * of a Swing component hierarchy, needs neither a native peer nor the event dispatch thread and
+ * always scales the time axis to fit the width it is painted into.
+ *
+ * <p>An instance must only be used by one thread at a time; different instances can paint in
+ * parallel.</p>
+ *
+ * @see SimpleChartRenderer
+ */
+public class HeadlessModelChart implements ModelChart {
+
+    private GCModel model;
+    private double scaleFactor = 1;
+    private double runningTime;
+    private double maxPause;
+    private long footprint;
+    private boolean antiAlias;
+    private boolean showDateStamp;
+    private Rectangle lastChartBounds = new Rectangle();
+
+    private TotalYoungRenderer totalYoungRenderer;
+    private TotalHeapRenderer totalHeapRenderer;
+    private TotalTenuredRenderer totalTenuredRenderer;
+    private IncLineRenderer incLineRenderer;
+    private GCRectanglesRenderer gcRectanglesRenderer;
+    private FullGCLineRenderer fullGCLineRenderer;
+    private GCTimesRenderer gcTimesRenderer;
+    private UsedHeapRenderer usedHeapRenderer;
+    private UsedTenuredRenderer usedTenuredRenderer;
+    private UsedYoungRenderer usedYoungRenderer;
+    private InitialMarkLevelRenderer initialMarkLevelRenderer;
+    private ConcurrentGcBegionEndRenderer concurrentGcLineRenderer;
+
+    /** all renderers in the order they are painted (same order as in {@link ModelChartImpl}) */
+    private List<ChartRenderer> renderers;
+
+    public HeadlessModelChart() {
+        this.model = new GCModel();
+
+        totalHeapRenderer = new TotalHeapRenderer(this);
+        totalYoungRenderer = new TotalYoungRenderer(this);
+        totalTenuredRenderer = new TotalTenuredRenderer(this);
+        usedYoungRenderer = new UsedYoungRenderer(this);
+        gcTimesRenderer = new GCTimesRenderer(this);
+        concurrentGcLineRenderer = new ConcurrentGcBegionEndRenderer(this);
+        incLineRenderer = new IncLineRenderer(this);
+        gcRectanglesRenderer = new GCRectanglesRenderer(this);
+        fullGCLineRenderer = new FullGCLineRenderer(this);
+        usedTenuredRenderer = new UsedTenuredRenderer(this);
+        usedHeapRenderer = new UsedHeapRenderer(this);
+        initialMarkLevelRenderer = new InitialMarkLevelRenderer(this);
+
+        renderers = Arrays.asList(totalHeapRenderer,
+                totalYoungRenderer,
+                totalTenuredRenderer,
+                usedYoungRenderer,
+                gcTimesRenderer,
+                concurrentGcLineRenderer,
+                incLineRenderer,
+                gcRectanglesRenderer,
+                fullGCLineRenderer,
+                usedTenuredRenderer,
+                usedHeapRenderer,
+                initialMarkLevelRenderer);
+    }
+
+    /**
+     * Paints the chart including its rulers into the area (0, 0, <code>width</code>, <code>height</code>)
+     * of <code>g</code>.
+     *
+     * @param g graphics to paint into
+     * @param width width of the area to be painted
+     * @param height height of the area to be painted
+     */
+    public void paint(Graphics2D g, int width, int height) {
+        RulerPainter memoryRuler = new RulerPainter(true, 0, footprint / 1024, "M", NumberFormat.getInstance());
+        RulerPainter pauseRuler = new RulerPainter(true, 0, maxPause, "s", NumberFormat.getInstance());
+        RulerPainter timestampRuler = new RulerPainter(false, 0, runningTime, "", new TimeFormat());
+        if (showDateStamp) {
+            timestampRuler.setOffset(model.getStartDate().toInstant().toEpochMilli() / 1000);
+        }
+
+        int memoryRulerWidth = memoryRuler.getMinWidth(g.getFontMetrics(memoryRuler.getFont()));
+        int pauseRulerWidth = pauseRuler.getMinWidth(g.getFontMetrics(pauseRuler.getFont()));
+        FontMetrics timestampFontMetrics = g.getFontMetrics(timestampRuler.getFont());
+        timestampRuler.getMinWidth(timestampFontMetrics);
+        int timestampRulerHeight = timestampFontMetrics.getHeight();
+
+        Rectangle chartBounds = new Rectangle(memoryRulerWidth + pauseRulerWidth,
+                timestampRulerHeight,
+                Math.max(width - memoryRulerWidth - pauseRulerWidth, 1),
+                Math.max(height - timestampRulerHeight, 1));
+
+        if (runningTime > 0) {
+            setScaleFactor(chartBounds.width / runningTime);
+        }
+        if (!chartBounds.equals(lastChartBounds)) {
+            for (ChartRenderer renderer : renderers) {
+                renderer.setBounds(0, 0, chartBounds.width, chartBounds.height);
+            }
+            resetPolygonCache();
+            lastChartBounds = chartBounds;
+        }
+
+        paintRuler(g, memoryRuler, new Rectangle(0, chartBounds.y, memoryRulerWidth, chartBounds.height), chartBounds.height);
+        paintRuler(g, pauseRuler, new Rectangle(memoryRulerWidth, chartBounds.y, pauseRulerWidth, chartBounds.height), chartBounds.height);
+        paintRuler(g, timestampRuler, new Rectangle(chartBounds.x, 0, chartBounds.width, timestampRulerHeight), runningTime * getScaleFactor());
+
+        Graphics2D chartGraphics = (Graphics2D) g.create(chartBounds.x, chartBounds.y, chartBounds.width, chartBounds.height);
+        try {
+            chartGraphics.setColor(Color.WHITE);
+            chartGraphics.fillRect(0, 0, chartBounds.width, chartBounds.height);
+            for (ChartRenderer renderer : renderers) {
+                if (renderer.isVisible()) {
+                    Graphics2D rendererGraphics = (Graphics2D) chartGraphics.create();
+                    try {
+                        renderer.paintChart(rendererGraphics);
+                    }
+                    finally {
+                        rendererGraphics.dispose();
+                    }
+                }
+            }
+        }
+        finally {
+            chartGraphics.dispose();
+        }
+    }
+
+    private void paintRuler(Graphics2D g, RulerPainter ruler, Rectangle bounds, double length) {
+        Graphics2D rulerGraphics = (Graphics2D) g.create(bounds.x, bounds.y, bounds.width, bounds.height);
+        try {
+            ruler.paint(rulerGraphics, new Rectangle(0, 0, bounds.width, bounds.height), bounds.width, bounds.height, length);
+        }
+        finally {
+            rulerGraphics.dispose();
+        }
+    }
+
+    public void setModel(GCModel model, GCPreferences preferences) {
+        this.model = model;
+
+        applyPreferences(preferences);
+        setRunningTime(model.getRunningTime());
+        setFootprint(model.getFootprint());
+        setMaxPause(model.getPause().getMax());
+        resetPolygonCache();
+    }
+
+    private void applyPreferences(GCPreferences preferences) {
+        setAntiAlias(preferences.getGcLineProperty(GCPreferences.ANTI_ALIAS));
+        setShowTenured(preferences.getGcLineProperty(GCPreferences.TENURED_MEMORY));
+        setShowYoung(preferences.getGcLineProperty(GCPreferences.YOUNG_MEMORY));
+        setShowGCTimesLine(preferences.getGcLineProperty(GCPreferences.GC_TIMES_LINE));
+        setShowGCTimesRectangles(preferences.getGcLineProperty(GCPreferences.GC_TIMES_RECTANGLES));
+        setShowFullGCLines(preferences.getGcLineProperty(GCPreferences.FULL_GC_LINES));
+        setShowIncGCLines(preferences.getGcLineProperty(GCPreferences.INC_GC_LINES));
+        setShowTotalMemoryLine(preferences.getGcLineProperty(GCPreferences.TOTAL_MEMORY));
+        setShowUsedMemoryLine(preferences.getGcLineProperty(GCPreferences.USED_MEMORY));
+        setShowUsedTenuredMemoryLine(preferences.getGcLineProperty(GCPreferences.USED_TENURED_MEMORY));
+        setShowUsedYoungMemoryLine(preferences.getGcLineProperty(GCPreferences.USED_YOUNG_MEMORY));
+        setShowInitialMarkLevel(preferences.getGcLineProperty(GCPreferences.INITIAL_MARK_LEVEL));
+        setShowConcurrentCollectionBeginEnd(preferences.getGcLineProperty(GCPreferences.CONCURRENT_COLLECTION_BEGIN_END));
+        setShowDateStamp(preferences.getGcLineProperty(GCPreferences.SHOW_DATE_STAMP, false));
+    }
+
+    @Override
+    public GCModel getModel() {
+        return model;
+    }
+
+    @Override
+    public void setScaleFactor(double scaleFactor) {
+        if (this.scaleFactor != scaleFactor) {
+            this.scaleFactor = scaleFactor;
+            resetPolygonCache();
+        }
+    }
+
+    @Override
+    public double getScaleFactor() {
+        return scaleFactor;
+    }
+
+    @Override
+    public boolean isShowGCTimesLine() {
+        return gcTimesRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowGCTimesLine(boolean showGCTimesLine) {
+        gcTimesRenderer.setVisible(showGCTimesLine);
+    }
+
+    @Override
+    public boolean isShowGCTimesRectangles() {
+        return gcRectanglesRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowGCTimesRectangles(boolean showGCTimesRectangles) {
+        gcRectanglesRenderer.setVisible(showGCTimesRectangles);
+    }
+
+    @Override
+    public boolean isShowFullGCLines() {
+        return fullGCLineRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowFullGCLines(boolean showFullGCLines) {
+        fullGCLineRenderer.setVisible(showFullGCLines);
+    }
+
+    @Override
+    public boolean isShowIncGCLines() {
+        return incLineRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowIncGCLines(boolean showIncGCLines) {
+        incLineRenderer.setVisible(showIncGCLines);
+    }
+
+    @Override
+    public boolean isShowTotalMemoryLine() {
+        return totalHeapRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowTotalMemoryLine(boolean showTotalMemoryLine) {
+        totalHeapRenderer.setVisible(showTotalMemoryLine);
+    }
+
+    @Override
+    public boolean isShowUsedMemoryLine() {
+        return usedHeapRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowUsedMemoryLine(boolean showUsedMemoryLine) {
+        usedHeapRenderer.setVisible(showUsedMemoryLine);
+    }
+
+    @Override
+    public boolean isShowUsedYoungMemoryLine() {
+        return usedYoungRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowUsedYoungMemoryLine(boolean showUsedYoungMemoryLine) {
+        usedYoungRenderer.setVisible(showUsedYoungMemoryLine);
+    }
+
+    @Override
+    public boolean isShowUsedTenuredMemoryLine() {
+        return usedTenuredRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowUsedTenuredMemoryLine(boolean showUsedTenuredMemoryLine) {
+        usedTenuredRenderer.setVisible(showUsedTenuredMemoryLine);
+    }
+
+    @Override
+    public void setShowTenured(boolean showTenured) {
+        boolean changed = showTenured != isShowTenured();
+        totalTenuredRenderer.setVisible(showTenured);
+
+        if (changed) {
+            // reset cache because young generation needs to be recomputed
+            for (ChartRenderer renderer : renderers) {
+                if (renderer instanceof PolygonChartRenderer) {
+                    ((PolygonChartRenderer) renderer).resetSeries();
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isShowTenured() {
+        return totalTenuredRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowYoung(boolean showYoung) {
+        totalYoungRenderer.setVisible(showYoung);
+    }
+
+    @Override
+    public boolean isShowYoung() {
+        return totalYoungRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowInitialMarkLevel(boolean showInitialMarkLevel) {
+        initialMarkLevelRenderer.setVisible(showInitialMarkLevel);
+    }
+
+    @Override
+    public boolean isShowInitialMarkLevel() {
+        return initialMarkLevelRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowConcurrentCollectionBeginEnd(boolean showConcurrentCollectionBeginEnd) {
+        concurrentGcLineRenderer.setVisible(showConcurrentCollectionBeginEnd);
+    }
+
+    @Override
+    public boolean isShowConcurrentCollectionBeginEnd() {
+        return concurrentGcLineRenderer.isVisible();
+    }
+
+    @Override
+    public void setRunningTime(double runningTime) {
+        this.runningTime = runningTime;
+    }
+
+    @Override
+    public void setFootprint(long footprint) {
+        this.footprint = footprint;
+    }
+
+    @Override
+    public void setMaxPause(double maxPause) {
+        this.maxPause = maxPause;
+    }
+
+    @Override
+    public long getFootprint() {
+        return footprint;
+    }
+
+    @Override
+    public double getMaxPause() {
+        return maxPause;
+    }
+
+    @Override
+    public boolean isAntiAlias() {
+        return antiAlias;
+    }
+
+    @Override
+    public void setAntiAlias(boolean antiAlias) {
+        this.antiAlias = antiAlias;
+    }
+
+    @Override
+    public void resetPolygonCache() {
+        for (ChartRenderer renderer : renderers) {
+            if (renderer instanceof PolygonChartRenderer) {
+                ((PolygonChartRenderer) renderer).resetPolygon();
+            }
+        }
+    }
+
+    @Override
+    public void setShowDateStamp(boolean showDateStamp) {
+        this.showDateStamp = showDateStamp;
+    }
+
+    @Override
+    public boolean isShowDateStamp() {
+        return showDateStamp;
+    }
+
+}
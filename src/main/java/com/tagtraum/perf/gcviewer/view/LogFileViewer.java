@@ -0,0 +1,158 @@
+package com.tagtraum.perf.gcviewer.view;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Frame;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.AbstractListModel;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.text.Position.Bias;
+
+import com.tagtraum.perf.gcviewer.model.LineOffsetIndex;
+import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
+import com.tagtraum.perf.gcviewer.util.MappedLogFile;
+
+/**
+ * Dialog to display the raw lines of a gc log file. Only the lines currently visible are read
+ * from the (memory mapped) file, so files of any size can be displayed and any line can be shown
+ * immediately.
+ */
+public class LogFileViewer extends ScreenCenteredDialog {
+
+    private static final Logger LOGGER = Logger.getLogger(LogFileViewer.class.getName());
+
+    /** width of the lines displayed in characters (longer lines are cut) */
+    private static final int LINE_WIDTH = 1000;
+
+    private MappedLogFile logFile;
+    private JList<String> lineList;
+
+    /**
+     * Creates the dialog for <code>file</code>.
+     *
+     * @param f parent frame
+     * @param file log file to be displayed
+     * @param lineOffsetIndex index of the lines in <code>file</code> (may be <code>null</code>)
+     * @throws IOException problem opening the file
+     */
+    public LogFileViewer(Frame f, File file, LineOffsetIndex lineOffsetIndex) throws IOException {
+        super(f, LocalisationHelper.getString("logviewer_title", file.getName()));
+
+        this.logFile = new MappedLogFile(file, lineOffsetIndex);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        initComponents();
+    }
+
+    protected void initComponents() {
+        super.initComponents();
+
+        lineList = new JList<String>(new LineListModel()) {
+            @Override
+            public int getNextMatch(String prefix, int startIndex, Bias bias) {
+                // searching by prefix would read the whole file
+                return -1;
+            }
+        };
+        lineList.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        lineList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        lineList.setCellRenderer(new LineRenderer(String.valueOf(logFile.getLineCount()).length()));
+        // fixed cell size prevents the list from reading all lines to compute its size
+        lineList.setFixedCellHeight(lineList.getFontMetrics(lineList.getFont()).getHeight());
+        lineList.setFixedCellWidth(lineList.getFontMetrics(lineList.getFont()).charWidth('0') * LINE_WIDTH);
+
+        JScrollPane scrollPane = new JScrollPane(
+                lineList,
+                JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
+                JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        scrollPane.setPreferredSize(new Dimension(900, 600));
+
+        getContentPane().add("Center", scrollPane);
+        pack();
+    }
+
+    /**
+     * Selects line <code>lineNumber</code> and scrolls it to the middle of the view.
+     *
+     * @param lineNumber number of the line (starting with 1)
+     */
+    public void showLine(int lineNumber) {
+        int index = Math.max(0, Math.min(lineNumber, logFile.getLineCount()) - 1);
+        lineList.setSelectedIndex(index);
+        lineList.ensureIndexIsVisible(index);
+        // the size of the view is only known, when the dialog is visible
+        SwingUtilities.invokeLater(() -> {
+            Rectangle cell = lineList.getCellBounds(index, index);
+            Rectangle visible = lineList.getVisibleRect();
+            if (cell != null) {
+                lineList.scrollRectToVisible(new Rectangle(visible.x,
+                        cell.y - (visible.height - cell.height) / 2,
+                        visible.width,
+                        visible.height));
+            }
+        });
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (logFile != null) {
+            try {
+                logFile.close();
+            }
+            catch (IOException e) {
+                if (LOGGER.isLoggable(Level.WARNING)) LOGGER.warning("problem closing log file (" + e.toString() + ")");
+            }
+        }
+    }
+
+    /**
+     * ListModel reading the lines from the file when they are requested.
+     */
+    private class LineListModel extends AbstractListModel<String> {
+
+        @Override
+        public int getSize() {
+            return logFile.getLineCount();
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            return logFile.getLine(index + 1);
+        }
+
+    }
+
+    /**
+     * Renders a line prefixed with its line number.
+     */
+    private static class LineRenderer extends DefaultListCellRenderer {
+
+        private final String format;
+
+        public LineRenderer(int lineNumberDigits) {
+            this.format = "%" + lineNumberDigits + "d  %s";
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+            return super.getListCellRendererComponent(list, String.format(format, index + 1, value), index, isSelected, cellHasFocus);
+        }
+
+    }
+}
@@ -1,5 +1,7 @@
 package com.tagtraum.perf.gcviewer.view;
 
+import com.tagtraum.perf.gcviewer.model.GCModel;
+
 /**
  * Interface with all important methods for the model chart showing the graphs of the gc file.
  *
@@ -8,6 +10,8 @@ package com.tagtraum.perf.gcviewer.view;
  * Time: 2:43:39 PM
  */
 public interface ModelChart {
+    GCModel getModel();
+
     void setScaleFactor(double scaleFactor);
 
     double getScaleFactor();
@@ -1,6 +1,7 @@
 package com.tagtraum.perf.gcviewer.view;
 
 import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
 import com.tagtraum.perf.gcviewer.util.TimeFormat;
 import com.tagtraum.perf.gcviewer.view.model.GCPreferences;
 import com.tagtraum.perf.gcviewer.view.model.PropertyChangeEventConsts;
@@ -17,6 +18,10 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.text.DateFormat;
 import java.text.Format;
 import java.text.NumberFormat;
@@ -35,6 +40,7 @@ import java.util.logging.Logger;
 public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeListener, PropertyChangeListener {
 
     private static final Logger LOGGER = Logger.getLogger(ModelChartImpl.class.getName());
+    private static final String LINE_NUMBER = "lineNumber";
 
     private GCModel model;
     private Chart chart;
@@ -185,6 +191,74 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
             }
         });
 
+        // chart menu
+        final JPopupMenu chartPopup = new JPopupMenu();
+        final JMenuItem showLogLinesItem = new JMenuItem(LocalisationHelper.getString("logviewer_popup_show_log_lines"));
+        chartPopup.add(showLogLinesItem);
+        showLogLinesItem.addActionListener(e -> showLogLines((Integer) showLogLinesItem.getClientProperty(LINE_NUMBER)));
+
+        this.chart.addMouseListener(new MouseAdapter() {
+            public void mousePressed(MouseEvent e) {
+                maybePopup(e);
+            }
+
+            public void mouseReleased(MouseEvent e) {
+                maybePopup(e);
+            }
+
+            private void maybePopup(MouseEvent e) {
+                if (e.isPopupTrigger()) {
+                    int lineNumber = getLineNumberAt(e.getX());
+                    showLogLinesItem.putClientProperty(LINE_NUMBER, lineNumber);
+                    showLogLinesItem.setEnabled(lineNumber > 0);
+                    chartPopup.show(e.getComponent(), e.getX(), e.getY());
+                }
+            }
+        });
+
+    }
+
+    /**
+     * Returns the line number in the log file of the event closest to <code>x</code>.
+     *
+     * @param x x-coordinate in the chart
+     * @return line number or -1 if not known
+     */
+    private int getLineNumberAt(int x) {
+        if (model == null || model.getLineOffsetIndex() == null || getLogFile() == null) {
+            return -1;
+        }
+
+        int index = model.getIndexOfNearestEvent(x / getScaleFactor() + model.getFirstPauseTimeStamp());
+        return index < 0 ? -1 : model.getLineNumber(index);
+    }
+
+    private File getLogFile() {
+        URL url = model.getURL();
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+
+        try {
+            return new File(url.toURI());
+        }
+        catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void showLogLines(int lineNumber) {
+        try {
+            LogFileViewer viewer = new LogFileViewer(JOptionPane.getFrameForComponent(this), getLogFile(), model.getLineOffsetIndex());
+            viewer.showLine(lineNumber);
+            viewer.setVisible(true);
+        }
+        catch (IOException e) {
+            JOptionPane.showMessageDialog(this,
+                    e.getLocalizedMessage(),
+                    LocalisationHelper.getString("logviewer_open_failed"),
+                    JOptionPane.ERROR_MESSAGE);
+        }
     }
 
     public void addTimeOffsetChangeListener(PropertyChangeListener listener) {
@@ -248,10 +322,13 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
 
     @Override
     public void setShowTenured(boolean showTenured) {
+        boolean changed = showTenured != isShowTenured();
         totalTenuredRenderer.setVisible(showTenured);
 
-        // reset cache because young generation needs to be repainted
-        resetPolygonCache();
+        if (changed) {
+            // reset cache because young generation needs to be recomputed
+            chart.resetSeries();
+        }
     }
 
     @Override
@@ -417,6 +494,7 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
         setShowDateStamp(preferences.getGcLineProperty(GCPreferences.SHOW_DATE_STAMP, false));
     }
 
+    @Override
     public GCModel getModel() {
         return model;
     }
@@ -478,6 +556,18 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
             }
         }
 
+        /**
+         * Reset the cached polygons and the data series they are computed from of all
+         * {@link PolygonChartRenderer}s stored in this chart.
+         */
+        public void resetSeries() {
+            for (Component component : getComponents()) {
+                if (component instanceof PolygonChartRenderer) {
+                    ((PolygonChartRenderer)component).resetSeries();
+                }
+            }
+        }
+
         @Override
         public void componentResized(ComponentEvent e) {
             resetPolygons();
@@ -501,16 +591,7 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
     }
 
     private class Ruler extends JPanel {
-        private boolean vertical;
-        private double minUnit;
-        private double maxUnit;
-        private final double log10 = Math.log(10);
-        private Font font;
-        private Format formatter;
-        private String longestString;
-        private String unitName;
-        private int minHalfDistance;
-        private double offset;
+        private RulerPainter painter;
 
         private SwingPropertyChangeSupport propertyChangeSupport;
 
@@ -519,12 +600,7 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
         }
 
         public Ruler(boolean vertical, double minUnit, double maxUnit, String unitName, Format formatter) {
-            setUnitName(unitName);
-            this.formatter = formatter;
-            setVertical(vertical);
-            setMinUnit(minUnit);
-            setMaxUnit(maxUnit);
-            font = new Font("sans-serif", Font.PLAIN, 10);
+            painter = new RulerPainter(vertical, minUnit, maxUnit, unitName, formatter);
 
             propertyChangeSupport = new SwingPropertyChangeSupport(this, true);
         }
@@ -543,16 +619,14 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
         }
 
         public Dimension getPreferredSize() {
-            FontMetrics fm = getToolkit().getFontMetrics(font);
-            configureFormatter();
-            int minWidth = fm.stringWidth(longestString) + 5;
+            FontMetrics fm = getToolkit().getFontMetrics(painter.getFont());
+            int minWidth = painter.getMinWidth(fm);
             Dimension bestSize = null;
             if (isVertical()) {
                 bestSize = new Dimension(minWidth, getHeight());
             }
             else {
                 bestSize = new Dimension((int) (runningTime * getScaleFactor()), fm.getHeight());
-                minHalfDistance = minWidth;
             }
             return bestSize;
         }
@@ -567,179 +641,46 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
 
         protected void paintComponent(Graphics g) {
             super.paintComponents(g);
-            configureFormatter();
-            double lineDistance = getLineDistance();
-            Rectangle clip = g.getClipBounds();
-            g.clearRect(clip.x, clip.y, clip.width, clip.height);
-            g.setColor(Color.black);
-            if (isVertical()) {
-                double halfLineDistance = lineDistance / 2.0d;
-                for (double line = getHeight(); line > 0; line -= lineDistance) {
-                    g.drawLine(0, (int) line, getWidth(), (int) line);
-                }
-                for (double line = getHeight() - halfLineDistance; line > 0; line -= lineDistance) {
-                    int inset = 3;
-                    g.drawLine(inset, (int) line, getWidth() - inset, (int) line);
-                }
-                String number = null;
-                for (double line = getHeight(); line > 0; line -= lineDistance) {
-                    g.setFont(font);
-                    String newNumber = format((getHeight() - line) / getPixelsPerUnit() + minUnit) + getUnitName();
-                    if (!newNumber.equals(number)) {
-                        g.drawString(newNumber, 2, (int) line - 2);
-                    }
-                    number = newNumber;
-                }
-            }
-            else {
-                double halfLineDistance = lineDistance / 2.0d;
-                double start = clip.x - ((clip.x + offset * getPixelsPerUnit()) % lineDistance);
-                double end = clip.x + clip.width;
-                for (double line = start; line < end; line += lineDistance) {
-                    g.drawLine((int) line, 0, (int) line, getHeight());
-                }
-                for (double line = start + halfLineDistance; line < end; line += lineDistance) {
-                    int inset = 3;
-                    g.drawLine((int) line, inset, (int) line, getHeight() - inset);
-                }
-                String number = null;
-                for (double line = start; line < end; line += lineDistance) {
-                    g.setFont(font);
-                    String newNumber = format(line / getPixelsPerUnit() + minUnit) + getUnitName();
-                    if (!newNumber.equals(number)) {
-                        g.drawString(newNumber, ((int) line) + 3, getHeight() - 2);
-                    }
-                    number = newNumber;
-                }
-            }
+            painter.paint(g,
+                    g.getClipBounds(),
+                    getWidth(),
+                    getHeight(),
+                    isVertical() ? getHeight() : runningTime * getScaleFactor());
         }
 
         public double getOffset() {
-            return offset;
+            return painter.getOffset();
         }
 
         public void setOffset(double offset) {
-            if (Math.signum(this.offset - offset) != 0) {
-                double offsetBefore = this.offset;
-                this.offset = offset;
+            if (Math.signum(painter.getOffset() - offset) != 0) {
+                double offsetBefore = painter.getOffset();
+                painter.setOffset(offset);
                 propertyChangeSupport.firePropertyChange(PropertyChangeEventConsts.RULER_OFFSET_CHANGED,
                         offsetBefore,
                         offset);
             }
         }
 
-        private String format(final double val) {
-            final double offsetValue = val + offset;
-            String s = null;
-            if (formatter instanceof NumberFormat) {
-                s = ((NumberFormat)formatter).format(offsetValue);
-            }
-            else if (formatter instanceof DateFormat) {
-                final Date date = new Date(Math.round(offsetValue) * 1000);
-                s = ((DateFormat)formatter).format(date);
-            }
-            return s;
-        }
-
-        private double getLineDistance() {
-            if (formatter instanceof NumberFormat) return getNumberLineDistance();
-            else if (formatter instanceof DateFormat) return getDateLineDistance();
-            return 0.0d;
-        }
-
-        private double getDateLineDistance() {
-            double lineDistance = getPixelsPerUnit();
-            if (isVertical()) {
-                if (lineDistance < 20) lineDistance *= 10.0d; // 10sec
-                if (lineDistance < 20) lineDistance *= 3.0d; // 30sec
-                if (lineDistance < 20) lineDistance *= 2.0d; // 1min
-                if (lineDistance < 20) lineDistance *= 2.0d; // 2min
-                if (lineDistance < 20) lineDistance *= 5.0d; // 10min
-                if (lineDistance < 20) lineDistance *= 2.0d; // 20min
-                if (lineDistance < 20) lineDistance *= 3.0d; // 1h
-                if (lineDistance < 20) {
-                    double oneHourDistance = lineDistance;
-                    while (lineDistance < 20) lineDistance += oneHourDistance;
-                }
-            }
-            else {
-                if (lineDistance < minHalfDistance * 2) lineDistance *= 10.0d; // 10sec
-                if (lineDistance < minHalfDistance * 2) lineDistance *= 2.0d; // 20sec
-                if (lineDistance < minHalfDistance * 2) lineDistance *= 1.5d; // 30sec
-                if (lineDistance < minHalfDistance * 2) lineDistance *= 2.0d; // 1min
-                if (lineDistance < minHalfDistance * 2) lineDistance *= 2.0d; // 2min
-                if (lineDistance < minHalfDistance * 2) lineDistance *= 2.5d; // 5min
-                if (lineDistance < minHalfDistance * 2) lineDistance *= 2.0d; // 10min
-                if (lineDistance < minHalfDistance * 2) lineDistance *= 2.0d; // 20min
-                if (lineDistance < minHalfDistance * 2) lineDistance *= 3.0d; // 1h
-                if (lineDistance < minHalfDistance * 2) {
-                    double oneHourDistance = lineDistance;
-                    while (lineDistance < minHalfDistance * 2) lineDistance += oneHourDistance;
-                }
-            }
-            return lineDistance;
-        }
-
-        private double getNumberLineDistance() {
-            double log10PixelPerUnit = Math.log(getPixelsPerUnit()) / log10;
-            double lineDistance = getPixelsPerUnit() * Math.pow(10, Math.ceil(-log10PixelPerUnit) + 1);
-            if (isVertical()) {
-                while (lineDistance < 20) lineDistance *= 10.0d;
-            }
-            else {
-                while (lineDistance < minHalfDistance * 2) lineDistance *= 10.0d;
-            }
-            return lineDistance;
-        }
-
-        private double getPixelsPerUnit() {
-            return isVertical()
-                       ? getHeight() / (maxUnit - minUnit)
-                       : (runningTime * getScaleFactor() / (maxUnit - minUnit));
-        }
-
         public void setMinUnit(double minUnit) {
-            this.minUnit = minUnit;
-            configureFormatter();
+            painter.setMinUnit(minUnit);
+            invalidate();
         }
 
         public void setMaxUnit(double maxUnit) {
-            this.maxUnit = maxUnit;
-            configureFormatter();
+            painter.setMaxUnit(maxUnit);
+            invalidate();
         }
 
         public void configureFormatter() {
-            if (formatter instanceof NumberFormat) {
-                double digits = Math.log(maxUnit) / log10;
-                if (digits < 1) {
-                    ((NumberFormat)formatter).setMaximumFractionDigits((int) Math.abs(digits) + 2);
-                    ((NumberFormat)formatter).setMinimumFractionDigits((int) Math.abs(digits) + 2);
-                }
-                else {
-                    ((NumberFormat)formatter).setMaximumFractionDigits(0);
-                    ((NumberFormat)formatter).setMinimumFractionDigits(0);
-                }
-            }
-            longestString = format(maxUnit);
-            if (unitName != null) longestString += unitName;
+            painter.configureFormatter();
             invalidate();
         }
 
         public boolean isVertical() {
-            return vertical;
+            return painter.isVertical();
         }
 
-        public void setVertical(boolean vertical) {
-            this.vertical = vertical;
-        }
-
-        public String getUnitName() {
-            return unitName;
-        }
-
-        public void setUnitName(String unitName) {
-            this.unitName = unitName;
-        }
     }
 
     @Override
@@ -2,12 +2,16 @@ package com.tagtraum.perf.gcviewer.view;
 
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.awt.Insets;
 
 import javax.swing.JCheckBox;
 import javax.swing.JFileChooser;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import com.tagtraum.perf.gcviewer.model.TimeRange;
 import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
 import com.tagtraum.perf.gcviewer.view.util.ExtensionFileFilter;
 
@@ -20,6 +24,8 @@ import com.tagtraum.perf.gcviewer.view.util.ExtensionFileFilter;
 public class OpenFileView extends JFileChooser {
 
     private JCheckBox addFileCheckBox;
+    private JTextField fromTextField;
+    private JTextField toTextField;
 
     public OpenFileView() {
         setDialogTitle(LocalisationHelper.getString("fileopen_dialog_title"));
@@ -32,14 +38,43 @@ public class OpenFileView extends JFileChooser {
         addFileCheckBox.setVerticalTextPosition(SwingConstants.TOP);
         addFileCheckBox.setToolTipText(LocalisationHelper.getString("fileopen_dialog_hint_add_checkbox"));
 
+        fromTextField = new JTextField(12);
+        fromTextField.setToolTipText(LocalisationHelper.getString("fileopen_dialog_time_range_hint"));
+        toTextField = new JTextField(12);
+        toTextField.setToolTipText(LocalisationHelper.getString("fileopen_dialog_time_range_hint"));
+
         final JPanel panel = new JPanel(new GridBagLayout());
         final GridBagConstraints gridBagConstraints = new GridBagConstraints();
         gridBagConstraints.anchor = GridBagConstraints.NORTH;
         gridBagConstraints.weighty = 2;
         panel.add(addFileCheckBox, gridBagConstraints);
-        
+
+        gridBagConstraints.anchor = GridBagConstraints.WEST;
+        gridBagConstraints.weighty = 0;
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.insets = new Insets(2, 5, 2, 0);
+        gridBagConstraints.gridy = 1;
+        panel.add(new JLabel(LocalisationHelper.getString("fileopen_dialog_time_range_from")), gridBagConstraints);
+        gridBagConstraints.gridy = 2;
+        panel.add(fromTextField, gridBagConstraints);
+        gridBagConstraints.gridy = 3;
+        panel.add(new JLabel(LocalisationHelper.getString("fileopen_dialog_time_range_to")), gridBagConstraints);
+        gridBagConstraints.gridy = 4;
+        panel.add(toTextField, gridBagConstraints);
+
         setAccessory(panel);
     }
+
+    /**
+     * Returns the time range entered (both fields empty: <code>null</code> - read whole file).
+     *
+     * @return time range or <code>null</code>
+     * @throws IllegalArgumentException if the text entered is no valid time range
+     * @see TimeRange#parse(String, String)
+     */
+    public TimeRange getTimeRange() {
+        return TimeRange.parse(fromTextField.getText(), toTextField.getText());
+    }
     
     public boolean isAddCheckBoxSelected() {
         return addFileCheckBox.isSelected();
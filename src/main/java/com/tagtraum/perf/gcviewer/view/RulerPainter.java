@@ -0,0 +1,226 @@
+package com.tagtraum.perf.gcviewer.view;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.text.DateFormat;
+import java.text.Format;
+import java.text.NumberFormat;
+import java.util.Date;
+
+/**
+ * Paints the scale of a ruler (vertical for memory / pause, horizontal for the timestamps)
+ * into any {@link Graphics}. Contains no state of a Swing component, so that it can be used both
+ * by the rulers of {@link ModelChartImpl} and by {@link HeadlessModelChart}.
+ *
+ * <p>Instances are not thread safe (the formatters aren't).</p>
+ */
+class RulerPainter {
+    private static final double LOG10 = Math.log(10);
+
+    private boolean vertical;
+    private double minUnit;
+    private double maxUnit;
+    private Font font;
+    private Format formatter;
+    private String longestString;
+    private String unitName;
+    private int minHalfDistance;
+    private double offset;
+
+    public RulerPainter(boolean vertical, double minUnit, double maxUnit, String unitName, Format formatter) {
+        this.unitName = unitName;
+        this.formatter = formatter;
+        this.vertical = vertical;
+        this.minUnit = minUnit;
+        this.font = new Font("sans-serif", Font.PLAIN, 10);
+        setMaxUnit(maxUnit);
+    }
+
+    public Font getFont() {
+        return font;
+    }
+
+    /**
+     * Returns the width needed to display the longest label of this ruler. For horizontal rulers,
+     * this is also used as minimum distance between two labels.
+     *
+     * @param fm FontMetrics for the font of this ruler
+     * @return width of the longest label
+     */
+    public int getMinWidth(FontMetrics fm) {
+        configureFormatter();
+        int minWidth = fm.stringWidth(longestString) + 5;
+        if (!isVertical()) {
+            minHalfDistance = minWidth;
+        }
+        return minWidth;
+    }
+
+    /**
+     * Paints the ruler.
+     *
+     * @param g graphics to paint into
+     * @param clip part of the ruler to be painted
+     * @param width width of the ruler
+     * @param height height of the ruler
+     * @param length length of the scale in pixels (height for vertical rulers, length of the time
+     * axis for horizontal rulers)
+     */
+    public void paint(Graphics g, Rectangle clip, int width, int height, double length) {
+        configureFormatter();
+        double pixelsPerUnit = length / (maxUnit - minUnit);
+        double lineDistance = getLineDistance(pixelsPerUnit);
+        g.clearRect(clip.x, clip.y, clip.width, clip.height);
+        g.setColor(Color.black);
+        if (isVertical()) {
+            double halfLineDistance = lineDistance / 2.0d;
+            for (double line = height; line > 0; line -= lineDistance) {
+                g.drawLine(0, (int) line, width, (int) line);
+            }
+            for (double line = height - halfLineDistance; line > 0; line -= lineDistance) {
+                int inset = 3;
+                g.drawLine(inset, (int) line, width - inset, (int) line);
+            }
+            String number = null;
+            for (double line = height; line > 0; line -= lineDistance) {
+                g.setFont(font);
+                String newNumber = format((height - line) / pixelsPerUnit + minUnit) + getUnitName();
+                if (!newNumber.equals(number)) {
+                    g.drawString(newNumber, 2, (int) line - 2);
+                }
+                number = newNumber;
+            }
+        }
+        else {
+            double halfLineDistance = lineDistance / 2.0d;
+            double start = clip.x - ((clip.x + offset * pixelsPerUnit) % lineDistance);
+            double end = clip.x + clip.width;
+            for (double line = start; line < end; line += lineDistance) {
+                g.drawLine((int) line, 0, (int) line, height);
+            }
+            for (double line = start + halfLineDistance; line < end; line += lineDistance) {
+                int inset = 3;
+                g.drawLine((int) line, inset, (int) line, height - inset);
+            }
+            String number = null;
+            for (double line = start; line < end; line += lineDistance) {
+                g.setFont(font);
+                String newNumber = format(line / pixelsPerUnit + minUnit) + getUnitName();
+                if (!newNumber.equals(number)) {
+                    g.drawString(newNumber, ((int) line) + 3, height - 2);
+                }
+                number = newNumber;
+            }
+        }
+    }
+
+    public double getOffset() {
+        return offset;
+    }
+
+    public void setOffset(double offset) {
+        this.offset = offset;
+    }
+
+    private String format(final double val) {
+        final double offsetValue = val + offset;
+        String s = null;
+        if (formatter instanceof NumberFormat) {
+            s = ((NumberFormat)formatter).format(offsetValue);
+        }
+        else if (formatter instanceof DateFormat) {
+            final Date date = new Date(Math.round(offsetValue) * 1000);
+            s = ((DateFormat)formatter).format(date);
+        }
+        return s;
+    }
+
+    private double getLineDistance(double pixelsPerUnit) {
+        if (formatter instanceof NumberFormat) return getNumberLineDistance(pixelsPerUnit);
+        else if (formatter instanceof DateFormat) return getDateLineDistance(pixelsPerUnit);
+        return 0.0d;
+    }
+
+    private double getDateLineDistance(double pixelsPerUnit) {
+        double lineDistance = pixelsPerUnit;
+        if (isVertical()) {
+            if (lineDistance < 20) lineDistance *= 10.0d; // 10sec
+            if (lineDistance < 20) lineDistance *= 3.0d; // 30sec
+            if (lineDistance < 20) lineDistance *= 2.0d; // 1min
+            if (lineDistance < 20) lineDistance *= 2.0d; // 2min
+            if (lineDistance < 20) lineDistance *= 5.0d; // 10min
+            if (lineDistance < 20) lineDistance *= 2.0d; // 20min
+            if (lineDistance < 20) lineDistance *= 3.0d; // 1h
+            if (lineDistance < 20) {
+                double oneHourDistance = lineDistance;
+                while (lineDistance < 20) lineDistance += oneHourDistance;
+            }
+        }
+        else {
+            if (lineDistance < minHalfDistance * 2) lineDistance *= 10.0d; // 10sec
+            if (lineDistance < minHalfDistance * 2) lineDistance *= 2.0d; // 20sec
+            if (lineDistance < minHalfDistance * 2) lineDistance *= 1.5d; // 30sec
+            if (lineDistance < minHalfDistance * 2) lineDistance *= 2.0d; // 1min
+            if (lineDistance < minHalfDistance * 2) lineDistance *= 2.0d; // 2min
+            if (lineDistance < minHalfDistance * 2) lineDistance *= 2.5d; // 5min
+            if (lineDistance < minHalfDistance * 2) lineDistance *= 2.0d; // 10min
+            if (lineDistance < minHalfDistance * 2) lineDistance *= 2.0d; // 20min
+            if (lineDistance < minHalfDistance * 2) lineDistance *= 3.0d; // 1h
+            if (lineDistance < minHalfDistance * 2) {
+                double oneHourDistance = lineDistance;
+                while (lineDistance < minHalfDistance * 2) lineDistance += oneHourDistance;
+            }
+        }
+        return lineDistance;
+    }
+
+    private double getNumberLineDistance(double pixelsPerUnit) {
+        double log10PixelPerUnit = Math.log(pixelsPerUnit) / LOG10;
+        double lineDistance = pixelsPerUnit * Math.pow(10, Math.ceil(-log10PixelPerUnit) + 1);
+        if (isVertical()) {
+            while (lineDistance < 20) lineDistance *= 10.0d;
+        }
+        else {
+            while (lineDistance < minHalfDistance * 2) lineDistance *= 10.0d;
+        }
+        return lineDistance;
+    }
+
+    public void setMinUnit(double minUnit) {
+        this.minUnit = minUnit;
+        configureFormatter();
+    }
+
+    public void setMaxUnit(double maxUnit) {
+        this.maxUnit = maxUnit;
+        configureFormatter();
+    }
+
+    public void configureFormatter() {
+        if (formatter instanceof NumberFormat) {
+            double digits = Math.log(maxUnit) / LOG10;
+            if (digits < 1) {
+                ((NumberFormat)formatter).setMaximumFractionDigits((int) Math.abs(digits) + 2);
+                ((NumberFormat)formatter).setMinimumFractionDigits((int) Math.abs(digits) + 2);
+            }
+            else {
+                ((NumberFormat)formatter).setMaximumFractionDigits(0);
+                ((NumberFormat)formatter).setMinimumFractionDigits(0);
+            }
+        }
+        longestString = format(maxUnit);
+        if (unitName != null) longestString += unitName;
+    }
+
+    public boolean isVertical() {
+        return vertical;
+    }
+
+    public String getUnitName() {
+        return unitName;
+    }
+
+}
@@ -4,112 +4,74 @@ import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.view.model.GCPreferences;
 
 import javax.imageio.ImageIO;
-import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.lang.reflect.InvocationTargetException;
-
-import static javax.swing.SwingUtilities.invokeAndWait;
 
+/**
+ * Renders the chart of a {@link GCModel} as png image. Painting is done by a {@link HeadlessModelChart}
+ * directly into the graphics of a {@link BufferedImage}, so no Swing components need to be realised
+ * and the event dispatch thread is not involved.
+ *
+ * <p>This class is thread safe: several models can be rendered in parallel using the same instance.</p>
+ */
 public class SimpleChartRenderer {
 
-    public void render(GCModel model, FileOutputStream outputStream) throws IOException {
+    /**
+     * Renders the chart of <code>model</code> using the size and settings stored in the
+     * preferences of GCViewer and closes <code>outputStream</code> when done.
+     *
+     * @param model model to be rendered
+     * @param outputStream stream to write the png image to
+     * @throws IOException problem writing the image
+     */
+    public void render(GCModel model, OutputStream outputStream) throws IOException {
         GCPreferences gcPreferences = new GCPreferences().load();
-        Dimension d = new Dimension(gcPreferences.getWindowWidth(), gcPreferences.getWindowHeight());
-
-        BufferedImage image = new BufferedImage(d.width, d.height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D graphics = image.createGraphics();
-        graphics.setBackground(Color.WHITE);
-        graphics.clearRect(0, 0, image.getWidth(), image.getHeight());
-
-        ChartDrawingParameters params
-                = new ChartDrawingParameters(model, gcPreferences, d, graphics, image, outputStream);
-
-        if (EventQueue.isDispatchThread()) {
-            drawAndSaveToStream(params);
-        }
-        else {
-            new SwingChartToStreamHelper().execute(params);
-        }
-    }
-
-    private void drawAndSaveToStream(ChartDrawingParameters params) throws IOException {
-        ModelChartImpl pane = new ModelChartImpl();
-        pane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
-
-        pane.setModel(params.model, params.gcPreferences);
-        pane.setFootprint(params.model.getFootprint());
-        pane.setMaxPause(params.model.getPause().getMax());
-        pane.setRunningTime(params.model.getRunningTime());
-
-        pane.setSize(params.dimension);
-        pane.addNotify();
-        pane.validate();
-
-        pane.autoSetScaleFactor();
-        pane.paint(params.graphics);
-
-        ImageIO.write(params.image, "png", params.outputStream);
-        params.outputStream.close();
+        render(model, gcPreferences, new Dimension(gcPreferences.getWindowWidth(), gcPreferences.getWindowHeight()), outputStream);
     }
 
     /**
-     * Helperclass that saves the chart to a file making sure, it happens on the EventDispathThread.
+     * Renders the chart of <code>model</code> and closes <code>outputStream</code> when done.
+     *
+     * @param model model to be rendered
+     * @param gcPreferences settings of the chart (which lines should be shown)
+     * @param dimension size of the image
+     * @param outputStream stream to write the png image to
+     * @throws IOException problem writing the image
      */
-    private class SwingChartToStreamHelper {
+    public void render(GCModel model, GCPreferences gcPreferences, Dimension dimension, OutputStream outputStream)
+            throws IOException {
 
-        private IOException ioException;
-
-        public void execute(ChartDrawingParameters params) throws IOException {
-            try {
-                invokeAndWait(() -> {
-                    try {
-                        drawAndSaveToStream(params);
-                    }
-                    catch (IOException e) {
-                        this.ioException = e;
-                    }
-                });
-            }
-            catch (InterruptedException | InvocationTargetException e) {
-                // may look a bit strange, but allows to defer exception handling to a place, where it makes sense.
-                ioException = new IOException(e);
-            }
-
-            if (ioException != null) {
-                throw ioException;
-            }
+        try (OutputStream out = outputStream) {
+            ImageIO.write(renderImage(model, gcPreferences, dimension), "png", out);
         }
     }
 
     /**
-     * Holder class wrapping all parameters needed to draw the chart and save it to an OutputStream.
+     * Renders the chart of <code>model</code> into a new image.
+     *
+     * @param model model to be rendered
+     * @param gcPreferences settings of the chart (which lines should be shown)
+     * @param dimension size of the image
+     * @return image containing the chart
      */
-    private static class ChartDrawingParameters {
-
-        GCModel model;
-        GCPreferences gcPreferences;
-        Dimension dimension;
-        Graphics2D graphics;
-        BufferedImage image;
-        OutputStream outputStream;
-
-        public ChartDrawingParameters(GCModel model,
-                                      GCPreferences gcPreferences,
-                                      Dimension dimension,
-                                      Graphics2D graphics,
-                                      BufferedImage image,
-                                      OutputStream outputStream) {
+    public BufferedImage renderImage(GCModel model, GCPreferences gcPreferences, Dimension dimension) {
+        BufferedImage image = new BufferedImage(dimension.width, dimension.height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, image.getWidth(), image.getHeight());
 
-            this.model = model;
-            this.gcPreferences = gcPreferences;
-            this.dimension = dimension;
-            this.graphics = graphics;
-            this.image = image;
-            this.outputStream = outputStream;
+            HeadlessModelChart chart = new HeadlessModelChart();
+            chart.setModel(model, gcPreferences);
+            chart.paint(graphics, dimension.width, dimension.height);
+        }
+        finally {
+            graphics.dispose();
         }
+
+        return image;
     }
+
 }
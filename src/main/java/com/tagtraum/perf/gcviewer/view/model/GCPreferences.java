@@ -52,11 +52,15 @@ public class GCPreferences {
     private static final String WINDOW_Y = "window.y";
     private static final String LASTFILE = "lastfile";
     private static final String RECENT_FILE_PREFIX = "recent.";
+    private static final String LOADER_THREADS = "loader.threads";
+    private static final String LOADER_MEMORY_PERCENT = "loader.memorypercent";
     
     private static final int WINDOW_WIDTH_DEFAULT = 800;
     private static final int WINDOW_HEIGHT_DEFAULT = 600;
     private static final int WINDOW_X_DEFAULT = 0;
     private static final int WINDOW_Y_DEFAULT = 0;
+    private static final int LOADER_THREADS_DEFAULT = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int LOADER_MEMORY_PERCENT_DEFAULT = 60;
     
     private static final Logger LOGGER = Logger.getLogger(GCPreferences.class.getName());
 
@@ -145,6 +149,28 @@ public class GCPreferences {
         properties.setProperty(WINDOW_Y, Integer.toString(value));
     }
     
+    /**
+     * @return maximum number of logs loaded in parallel
+     */
+    public int getLoaderThreads() {
+        return Math.max(1, getIntValue(LOADER_THREADS, LOADER_THREADS_DEFAULT));
+    }
+
+    public void setLoaderThreads(int value) {
+        properties.setProperty(LOADER_THREADS, Integer.toString(value));
+    }
+
+    /**
+     * @return percentage of the maximum heap the models of all logs loaded in parallel may take
+     */
+    public int getLoaderMemoryPercent() {
+        return Math.min(100, Math.max(1, getIntValue(LOADER_MEMORY_PERCENT, LOADER_MEMORY_PERCENT_DEFAULT)));
+    }
+
+    public void setLoaderMemoryPercent(int value) {
+        properties.setProperty(LOADER_MEMORY_PERCENT, Integer.toString(value));
+    }
+
     public void setLastFile(String filename) {
         properties.setProperty(LASTFILE, filename);
     }
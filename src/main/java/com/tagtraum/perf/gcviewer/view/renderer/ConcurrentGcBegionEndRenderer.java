@@ -8,7 +8,7 @@ import java.util.Iterator;
 
 import com.tagtraum.perf.gcviewer.model.ConcurrentGCEvent;
 import com.tagtraum.perf.gcviewer.view.ChartRenderer;
-import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
+import com.tagtraum.perf.gcviewer.view.ModelChart;
 
 /**
  * ConcurrentGcStardEndRenderer draws lines for every begin and end of a concurrent GC event. Start
@@ -21,7 +21,7 @@ public class ConcurrentGcBegionEndRenderer extends ChartRenderer {
     public static final Paint CONCURRENT_COLLECTION_BEGIN = Color.CYAN;
     public static final Paint CONCURRENT_COLLECTION_END = Color.PINK;
     
-    public ConcurrentGcBegionEndRenderer(ModelChartImpl modelChart) {
+    public ConcurrentGcBegionEndRenderer(ModelChart modelChart) {
         super(modelChart);
         setLinePaint(CONCURRENT_COLLECTION_BEGIN);
     }
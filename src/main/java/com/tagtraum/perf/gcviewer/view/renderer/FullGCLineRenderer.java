@@ -2,7 +2,7 @@ package com.tagtraum.perf.gcviewer.view.renderer;
 
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.view.ChartRenderer;
-import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
+import com.tagtraum.perf.gcviewer.view.ModelChart;
 
 import java.awt.*;
 import java.util.Iterator;
@@ -17,7 +17,7 @@ import java.util.Iterator;
 public class FullGCLineRenderer extends ChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.BLACK;
 
-    public FullGCLineRenderer(ModelChartImpl modelChart) {
+    public FullGCLineRenderer(ModelChart modelChart) {
         super(modelChart);
         setLinePaint(DEFAULT_LINEPAINT);
     }
@@ -9,7 +9,7 @@ import java.util.Iterator;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.view.ChartRenderer;
-import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
+import com.tagtraum.perf.gcviewer.view.ModelChart;
 import com.tagtraum.perf.gcviewer.model.VmOperationEvent;
 
 /**
@@ -21,7 +21,7 @@ public class GCRectanglesRenderer extends ChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.GRAY;
     private Paint brighter;
 
-    public GCRectanglesRenderer(ModelChartImpl modelChart) {
+    public GCRectanglesRenderer(ModelChart modelChart) {
         super(modelChart);
         setLinePaint(DEFAULT_LINEPAINT);
     }
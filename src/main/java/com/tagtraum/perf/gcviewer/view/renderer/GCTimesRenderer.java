@@ -2,11 +2,8 @@ package com.tagtraum.perf.gcviewer.view.renderer;
 
 import java.awt.Color;
 import java.awt.Paint;
-import java.awt.Polygon;
-import java.util.Iterator;
 
 import com.tagtraum.perf.gcviewer.view.ModelChart;
-import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 
@@ -20,21 +17,20 @@ import com.tagtraum.perf.gcviewer.model.GCModel;
 public class GCTimesRenderer extends PolygonChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.GREEN;
 
-    public GCTimesRenderer(ModelChartImpl modelChart) {
+    public GCTimesRenderer(ModelChart modelChart) {
         super(modelChart);
         setLinePaint(DEFAULT_LINEPAINT);
         setDrawPolygon(false);
         setDrawLine(true);
     }
 
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createTimeScaledPolygon();
-        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext();) {
-            AbstractGCEvent<?> event = i.next();
-            polygon.addPoint(event.getTimestamp() - model.getFirstPauseTimeStamp(), event.getPause());
-        }
-        // dummy point to make the polygon complete
-        polygon.addPoint(model.getRunningTime(), 0.0d);
-        return polygon;
+    @Override
+    protected ScaledPolygon createScaledPolygon() {
+        return createTimeScaledPolygon();
+    }
+
+    @Override
+    protected void addPoints(DataSeries series, ModelChart modelChart, GCModel model, AbstractGCEvent<?> event) {
+        series.addPoint(event.getTimestamp() - model.getFirstPauseTimeStamp(), event.getPause());
     }
 }
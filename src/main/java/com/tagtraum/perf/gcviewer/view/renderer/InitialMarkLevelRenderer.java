@@ -2,13 +2,12 @@ package com.tagtraum.perf.gcviewer.view.renderer;
 
 import java.awt.Color;
 import java.awt.Paint;
-import java.awt.Polygon;
 import java.util.Iterator;
 
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.view.ModelChart;
-import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 /**
  * Draws a line indicating the level of memory at the initial-mark event.
@@ -20,22 +19,33 @@ import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 public class InitialMarkLevelRenderer extends PolygonChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.YELLOW;
 
-    public InitialMarkLevelRenderer(ModelChartImpl modelChart) {
+    public InitialMarkLevelRenderer(ModelChart modelChart) {
         super(modelChart);
         setLinePaint(DEFAULT_LINEPAINT);
         setDrawPolygon(false);
         setDrawLine(true);
     }
 
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createMemoryScaledPolygon();
-        for (Iterator<GCEvent> i = model.getGCEvents(); i.hasNext();) {
-            GCEvent event = i.next();
-            if (event.isInitialMark()) {
-                polygon.addPoint(event.getTimestamp() - model.getFirstPauseTimeStamp(), event.getPreUsed());
-            }
+    @Override
+    protected Iterator<GCEvent> getEvents(GCModel model, int fromIndex) {
+        return model.getGCEvents(fromIndex);
+    }
+
+    @Override
+    protected int getEventCount(GCModel model) {
+        return model.getGCEventCount();
+    }
+
+    @Override
+    protected void addPoints(DataSeries series, ModelChart modelChart, GCModel model, AbstractGCEvent<?> event) {
+        GCEvent gcEvent = (GCEvent) event;
+        if (gcEvent.isInitialMark()) {
+            series.addPoint(gcEvent.getTimestamp() - model.getFirstPauseTimeStamp(), gcEvent.getPreUsed());
         }
+    }
+
+    @Override
+    protected void addClosingPoints(ScaledPolygon polygon, DataSeries series, GCModel model) {
         // Don't add dummy point to make the polygon complete! Just stop drawing.
-        return polygon;
     }
 }
@@ -1,20 +1,27 @@
 package com.tagtraum.perf.gcviewer.view.renderer;
 
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.GcPattern;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.view.ChartRenderer;
 import com.tagtraum.perf.gcviewer.view.ModelChart;
-import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 import java.awt.*;
 import java.awt.geom.Point2D;
 import java.util.Arrays;
+import java.util.Iterator;
 
 /**
  * Superclass for components rendering model data as polygon, polyline
  * or both.
  *
+ * <p>The points of the polygon are kept in two stages: the unscaled {@link DataSeries} computed from
+ * the events of the model and the {@link ScaledPolygon} computed from the series. If a new model
+ * continues the events of the series (as it happens, when a watched log file grows), only the
+ * points of the new events are appended. If only the scaling changes (zoom, resize, new footprint),
+ * the polygon is recomputed from the series without iterating over the events again.</p>
+ *
  * Date: Jun 2, 2005
  * Time: 2:53:36 PM
  * @author <a href="mailto:hs@tagtraum.com">Hendrik Schreiber</a>
@@ -22,10 +29,17 @@ import java.util.Arrays;
 public abstract class PolygonChartRenderer extends ChartRenderer {
     private boolean drawPolygon;
     private Paint fillPaint;
-    private Polygon polygon;
+    private ScaledPolygon polygon;
+    private int scaledPoints;
+    private boolean polygonValid;
     private Polygon clippedPolygon = new Polygon();
 
-    public PolygonChartRenderer(ModelChartImpl modelChart) {
+    private DataSeries series;
+    private double seriesFirstPauseTimeStamp;
+    private int processedEvents;
+    private AbstractGCEvent<?> lastProcessedEvent;
+
+    public PolygonChartRenderer(ModelChart modelChart) {
         super(modelChart);
         setOpaque(false);
     }
@@ -40,10 +54,22 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
 
     /**
      * Reset the internally cached polygon. Should always be done when size of chart is changed
-     * in some way (zoom, window resize, reload), but not more often.
+     * in some way (zoom, window resize, reload), but not more often. The polygon will be updated
+     * with the next paint; points of events that have already been processed are reused.
      */
     public void resetPolygon() {
+        polygonValid = false;
+    }
+
+    /**
+     * Reset the internally cached polygon and the data series it is computed from. Must be done,
+     * when the values of the points change (not only their scaling); e.g. when the tenured
+     * generation is shown / hidden.
+     */
+    public void resetSeries() {
+        series = null;
         polygon = null;
+        polygonValid = false;
     }
 
     /**
@@ -51,9 +77,10 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
      */
     public void paintComponent(Graphics2D g2d) {
         if ((!drawPolygon) && (!isDrawLine())) return;
-        if (polygon == null) {
+        if (!polygonValid) {
             // don't recompute polygon for each paint event
-            polygon = computePolygon(getModelChart(), getModelChart().getModel());
+            updatePolygon(getModelChart(), getModelChart().getModel());
+            polygonValid = true;
         }
         clippedPolygon = initClippedPolygon(polygon, g2d.getClip());
         if (drawPolygon) {
@@ -74,6 +101,62 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
         }
     }
 
+    /**
+     * Brings the cached series and polygon up to date with <code>model</code> and the current
+     * scaling of the chart. Only points of events not yet processed are added to the series and
+     * only points not yet scaled are added to the polygon.
+     *
+     * @param modelChart chart containing this renderer
+     * @param model current model of the chart
+     * @return the updated polygon
+     */
+    Polygon updatePolygon(ModelChart modelChart, GCModel model) {
+        if (!isSeriesContinuedBy(model)) {
+            series = createSeries();
+            seriesFirstPauseTimeStamp = model.getFirstPauseTimeStamp();
+            processedEvents = 0;
+            lastProcessedEvent = null;
+            polygon = null;
+        }
+        for (Iterator<? extends AbstractGCEvent<?>> i = getEvents(model, processedEvents); i.hasNext(); ) {
+            lastProcessedEvent = i.next();
+            addPoints(series, modelChart, model, lastProcessedEvent);
+            ++processedEvents;
+        }
+
+        ScaledPolygon scaledPolygon = createScaledPolygon();
+        if (polygon == null || !polygon.hasSameScale(scaledPolygon)) {
+            polygon = scaledPolygon;
+            scaledPoints = 0;
+        }
+        else {
+            // remove the closing points of the last update
+            polygon.resetToMark();
+        }
+        series.addTo(polygon, scaledPoints);
+        scaledPoints = series.size();
+        polygon.mark();
+        addClosingPoints(polygon, series, model);
+
+        return polygon;
+    }
+
+    /**
+     * Returns <code>true</code>, if the events already processed into the series are the first
+     * events of <code>model</code>.
+     */
+    private boolean isSeriesContinuedBy(GCModel model) {
+        if (series == null || Double.compare(seriesFirstPauseTimeStamp, model.getFirstPauseTimeStamp()) != 0) {
+            return false;
+        }
+        if (processedEvents == 0) {
+            return true;
+        }
+
+        return getEventCount(model) >= processedEvents
+                && lastProcessedEvent.equals(getEvents(model, processedEvents - 1).next());
+    }
+
     /**
      * Updates the <code>clippedPolygon</code> instance in this class to contain only the points
      * needed to fill the current clipped area.
@@ -166,7 +249,89 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
         return insertionBoundary;
     }
 
-    public abstract Polygon computePolygon(ModelChart modelChart, GCModel model);
+    /**
+     * Computes the polygon for all events of <code>model</code> without using or changing the
+     * cached polygon of this renderer.
+     *
+     * @param modelChart chart containing this renderer
+     * @param model model to compute the polygon for
+     * @return polygon containing the points of all events of <code>model</code>
+     */
+    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
+        DataSeries series = createSeries();
+        for (Iterator<? extends AbstractGCEvent<?>> i = getEvents(model, 0); i.hasNext(); ) {
+            addPoints(series, modelChart, model, i.next());
+        }
+        ScaledPolygon polygon = createScaledPolygon();
+        series.addTo(polygon, 0);
+        addClosingPoints(polygon, series, model);
+        return polygon;
+    }
+
+    /**
+     * Returns the events this renderer computes its points from starting at <code>fromIndex</code>.
+     * Default is all stop the world events.
+     *
+     * @param model model containing the events
+     * @param fromIndex index of first event to be returned
+     * @return iterator over the events starting at <code>fromIndex</code>
+     */
+    protected Iterator<? extends AbstractGCEvent<?>> getEvents(GCModel model, int fromIndex) {
+        return model.getStopTheWorldEvents(fromIndex);
+    }
+
+    /**
+     * Returns the number of events returned by {@link #getEvents(GCModel, int)} starting at 0.
+     *
+     * @param model model containing the events
+     * @return number of events
+     */
+    protected int getEventCount(GCModel model) {
+        return model.getStopTheWorldEventCount();
+    }
+
+    /**
+     * Creates a new (empty) series for this renderer. Subclasses needing state while adding points
+     * may return a subclass of {@link DataSeries} holding this state.
+     *
+     * @return new series
+     */
+    protected DataSeries createSeries() {
+        return new DataSeries();
+    }
+
+    /**
+     * Adds the (unscaled) points of one event to <code>series</code>.
+     *
+     * @param series series to add the points to
+     * @param modelChart chart containing this renderer
+     * @param model model containing <code>event</code>
+     * @param event event to add points for
+     */
+    protected abstract void addPoints(DataSeries series, ModelChart modelChart, GCModel model, AbstractGCEvent<?> event);
+
+    /**
+     * Adds the points needed to complete the polygon after the last point of the series. They
+     * are recomputed for every update of the polygon, because the running time may have changed.
+     * Default is a dummy point at the end of the running time on the x-axis.
+     *
+     * @param polygon polygon to add the points to
+     * @param series series the polygon was computed from
+     * @param model current model
+     */
+    protected void addClosingPoints(ScaledPolygon polygon, DataSeries series, GCModel model) {
+        polygon.addPoint(model.getRunningTime(), 0.0d);
+    }
+
+    /**
+     * Creates an empty polygon using the scaling for this renderer. Default is scaling relative
+     * to the footprint.
+     *
+     * @return new polygon
+     */
+    protected ScaledPolygon createScaledPolygon() {
+        return createMemoryScaledPolygon();
+    }
 
     protected Paint createPaint(Polygon polygon) {
         if (fillPaint instanceof GradientPaint) {
@@ -208,6 +373,51 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
                 || event.getExtendedType().getPattern().equals(GcPattern.GC_MEMORY_PAUSE);
     }
 
+    /**
+     * Unscaled points of a renderer in the order they were computed from the events.
+     */
+    protected static class DataSeries {
+        private double[] xpoints = new double[16];
+        private double[] ypoints = new double[16];
+        private int npoints;
+
+        public void addPoint(double x, double y) {
+            if (npoints == xpoints.length) {
+                xpoints = Arrays.copyOf(xpoints, npoints * 2);
+                ypoints = Arrays.copyOf(ypoints, npoints * 2);
+            }
+            xpoints[npoints] = x;
+            ypoints[npoints] = y;
+            ++npoints;
+        }
+
+        public int size() {
+            return npoints;
+        }
+
+        /**
+         * Returns the y-value of the last point or 0, if the series is empty.
+         *
+         * @return y-value of last point
+         */
+        public double getLastY() {
+            return npoints > 0 ? ypoints[npoints - 1] : 0.0d;
+        }
+
+        /**
+         * Adds the points starting at <code>fromIndex</code> to <code>polygon</code>.
+         *
+         * @param polygon polygon to add the points to
+         * @param fromIndex index of the first point to be added
+         */
+        public void addTo(ScaledPolygon polygon, int fromIndex) {
+            for (int i = fromIndex; i < npoints; ++i) {
+                polygon.addPoint(xpoints[i], ypoints[i]);
+            }
+        }
+
+    }
+
     /**
      * Polygon that scales points upon addition.
      */
@@ -217,6 +427,10 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
         private int yOffset;
         private Point lastPointOfOptimisation = new Point();
         private boolean lastPointWasOptimised = false;
+        private int markedNpoints = -1;
+        private int[] markedPoints = new int[4];
+        private Point markedLastPointOfOptimisation = new Point();
+        private boolean markedLastPointWasOptimised;
 
         public ScaledPolygon(double xScaleFactor, double yScaleFactor, int yOffset) {
             this.xScaleFactor = xScaleFactor;
@@ -285,6 +499,56 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
             addPoint(getScaledXValue(x), getScaledYValue(y));
         }
 
+        /**
+         * Remembers the current state of this polygon to be able to remove all points added
+         * afterwards using {@link #resetToMark()}.
+         */
+        public void mark() {
+            markedNpoints = npoints;
+            // adding points modifies at most the last two existing points
+            for (int i = 0; i < 2; ++i) {
+                int index = npoints - 2 + i;
+                if (index >= 0) {
+                    markedPoints[i * 2] = xpoints[index];
+                    markedPoints[i * 2 + 1] = ypoints[index];
+                }
+            }
+            markedLastPointOfOptimisation.setLocation(lastPointOfOptimisation);
+            markedLastPointWasOptimised = lastPointWasOptimised;
+        }
+
+        /**
+         * Restores the state of this polygon when {@link #mark()} was last called.
+         */
+        public void resetToMark() {
+            if (markedNpoints < 0) {
+                throw new IllegalStateException("mark() must be called before resetToMark()");
+            }
+            npoints = markedNpoints;
+            for (int i = 0; i < 2; ++i) {
+                int index = npoints - 2 + i;
+                if (index >= 0) {
+                    xpoints[index] = markedPoints[i * 2];
+                    ypoints[index] = markedPoints[i * 2 + 1];
+                }
+            }
+            lastPointOfOptimisation.setLocation(markedLastPointOfOptimisation);
+            lastPointWasOptimised = markedLastPointWasOptimised;
+            invalidate();
+        }
+
+        /**
+         * Returns <code>true</code>, if <code>other</code> scales points the same way as this polygon.
+         *
+         * @param other polygon to compare with
+         * @return <code>true</code> if both polygons have the same scaling
+         */
+        public boolean hasSameScale(ScaledPolygon other) {
+            return Double.compare(xScaleFactor, other.xScaleFactor) == 0
+                    && Double.compare(yScaleFactor, other.yScaleFactor) == 0
+                    && yOffset == other.yOffset;
+        }
+
         private int getScaledXValue(double x) {
             return (int)(xScaleFactor * x);
         }
@@ -3,14 +3,11 @@ package com.tagtraum.perf.gcviewer.view.renderer;
 import java.awt.Color;
 import java.awt.GradientPaint;
 import java.awt.Paint;
-import java.awt.Polygon;
-import java.util.Iterator;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.view.ModelChart;
-import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 /**
  * Renders total size of young generation.
@@ -24,7 +21,7 @@ public class TotalYoungRenderer extends PolygonChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.ORANGE;
     public static final Paint DEFAULT_FILLPAINT = new GradientPaint(0, 0, Color.ORANGE, 0, 0, Color.WHITE);
 
-    public TotalYoungRenderer(ModelChartImpl modelChart) {
+    public TotalYoungRenderer(ModelChart modelChart) {
         super(modelChart);
         setFillPaint(DEFAULT_FILLPAINT);
         setLinePaint(DEFAULT_LINEPAINT);
@@ -32,39 +29,41 @@ public class TotalYoungRenderer extends PolygonChartRenderer {
         setDrawLine(true);
     }
 
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createMemoryScaledPolygon();
-        polygon.addPoint(0.0d, 0.0d);
-        double lastTenured = 0;
-        double lastYoung = 0;
-        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext();) {
-            AbstractGCEvent<?> abstractGCEvent = i.next();
-            if (abstractGCEvent instanceof GCEvent) {
-                GCEvent event = (GCEvent) abstractGCEvent;
-                double tenuredSize = 0;
-                double youngSize = 0;
-                GCEvent young = event.getYoung();
-                GCEvent tenured = event.getTenured();
-                if (hasMemoryInformation(event) && young != null && tenured != null) {
-                    if (modelChart.isShowTenured()) {
-                        tenuredSize = tenured.getTotal();
-                    }
-                    youngSize = young.getTotal();
+    @Override
+    protected DataSeries createSeries() {
+        DataSeries series = new DataSeries();
+        series.addPoint(0.0d, 0.0d);
+        return series;
+    }
+
+    @Override
+    protected void addPoints(DataSeries series, ModelChart modelChart, GCModel model, AbstractGCEvent<?> abstractGCEvent) {
+        if (abstractGCEvent instanceof GCEvent) {
+            GCEvent event = (GCEvent) abstractGCEvent;
+            double tenuredSize = 0;
+            double youngSize = 0;
+            GCEvent young = event.getYoung();
+            GCEvent tenured = event.getTenured();
+            if (hasMemoryInformation(event) && young != null && tenured != null) {
+                if (modelChart.isShowTenured()) {
+                    tenuredSize = tenured.getTotal();
+                }
+                youngSize = young.getTotal();
 
-                    if (polygon.npoints == 1) {
-                        // first point needs to be treated different from the rest,
-                        // because otherwise the polygon would not start with a vertical line at 0,
-                        // but with a slanting line between 0 and after the first pause
-                        polygon.addPoint(0, tenuredSize + youngSize);
-                    }
-                    polygon.addPoint(event.getTimestamp() - model.getFirstPauseTimeStamp() + event.getPause(), tenuredSize + youngSize);
-                    lastYoung = youngSize;
-                    lastTenured = tenuredSize;
+                if (series.size() == 1) {
+                    // first point needs to be treated different from the rest,
+                    // because otherwise the polygon would not start with a vertical line at 0,
+                    // but with a slanting line between 0 and after the first pause
+                    series.addPoint(0, tenuredSize + youngSize);
                 }
+                series.addPoint(event.getTimestamp() - model.getFirstPauseTimeStamp() + event.getPause(), tenuredSize + youngSize);
             }
         }
-        polygon.addPointNotOptimised(model.getRunningTime(), lastTenured + lastYoung);
+    }
+
+    @Override
+    protected void addClosingPoints(ScaledPolygon polygon, DataSeries series, GCModel model) {
+        polygon.addPointNotOptimised(model.getRunningTime(), series.getLastY());
         polygon.addPointNotOptimised(model.getRunningTime(), 0.0d);
-        return polygon;
     }
 }
@@ -2,14 +2,11 @@ package com.tagtraum.perf.gcviewer.view.renderer;
 
 import java.awt.Color;
 import java.awt.Paint;
-import java.awt.Polygon;
-import java.util.Iterator;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.view.ModelChart;
-import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 /**
  * UsedHeapRenderer.
@@ -21,30 +18,23 @@ import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 public class UsedHeapRenderer extends PolygonChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.BLUE;
 
-    public UsedHeapRenderer(ModelChartImpl modelChart) {
+    public UsedHeapRenderer(ModelChart modelChart) {
         super(modelChart);
         setLinePaint(DEFAULT_LINEPAINT);
         setDrawPolygon(false);
         setDrawLine(true);
     }
 
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createMemoryScaledPolygon();
-        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext();) {
-            AbstractGCEvent<?> abstractGCEvent = i.next();
-            if (abstractGCEvent instanceof GCEvent) {
-                GCEvent event = (GCEvent) abstractGCEvent;
-                // e.g. "GC remark" of G1 algorithm does not contain memory information
-                if (event.getTotal() > 0) {
-                    final double timestamp = event.getTimestamp() - model.getFirstPauseTimeStamp();
-                    polygon.addPoint(timestamp, event.getPreUsed());
-                    polygon.addPoint(timestamp + event.getPause(), event.getPostUsed());
-                }
+    @Override
+    protected void addPoints(DataSeries series, ModelChart modelChart, GCModel model, AbstractGCEvent<?> abstractGCEvent) {
+        if (abstractGCEvent instanceof GCEvent) {
+            GCEvent event = (GCEvent) abstractGCEvent;
+            // e.g. "GC remark" of G1 algorithm does not contain memory information
+            if (event.getTotal() > 0) {
+                final double timestamp = event.getTimestamp() - model.getFirstPauseTimeStamp();
+                series.addPoint(timestamp, event.getPreUsed());
+                series.addPoint(timestamp + event.getPause(), event.getPostUsed());
             }
         }
-        // dummy point to make the polygon complete
-        polygon.addPoint(model.getRunningTime(), 0.0d);
-        //System.out.println("last x coord " + polygon.xpoints[polygon.npoints-1]);
-        return polygon;
     }
 }
@@ -2,14 +2,11 @@ package com.tagtraum.perf.gcviewer.view.renderer;
 
 import java.awt.Color;
 import java.awt.Paint;
-import java.awt.Polygon;
-import java.util.Iterator;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.view.ModelChart;
-import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 /**
  * UsedYoungRenderer draws a line to indicate the current usage of the young generation. The line
@@ -21,7 +18,7 @@ import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 public class UsedYoungRenderer extends PolygonChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.LIGHT_GRAY;
 
-    public UsedYoungRenderer(ModelChartImpl modelChart) {
+    public UsedYoungRenderer(ModelChart modelChart) {
         super(modelChart);
         setLinePaint(DEFAULT_LINEPAINT);
         setDrawPolygon(false);
@@ -29,41 +26,46 @@ public class UsedYoungRenderer extends PolygonChartRenderer {
     }
 
     @Override
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createMemoryScaledPolygon();
-        GCEvent lastTenuredEvent = null;
-        GCEvent tenuredEvent = null;
-        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext();) {
-            AbstractGCEvent<?> abstractGCEvent = i.next();
-            if (abstractGCEvent instanceof GCEvent) {
-                GCEvent event = (GCEvent) abstractGCEvent;
-                GCEvent youngEvent = event.getYoung();
-                int lastTenuredTotal = 0;
-                int tenuredTotal = 0;
-                if (youngEvent != null) {
-                    // event contains information about generation (only with -XX:+PrintGCDetails)
-                    if (modelChart.isShowTenured()) {
-                        if (tenuredEvent != null && tenuredEvent.getTotal() > 0) {
-                            lastTenuredEvent = tenuredEvent;
-                        }
-                        if (lastTenuredEvent == null) lastTenuredEvent = event.getTenured();
-                        tenuredEvent = event.getTenured();
+    protected DataSeries createSeries() {
+        return new YoungSeries();
+    }
 
-                        lastTenuredTotal = lastTenuredEvent.getTotal();
-                        tenuredTotal = tenuredEvent.getTotal();
-                    }
-                    // e.g. "GC remark" of G1 algorithm does not contain memory information
-                    if (youngEvent.getTotal() > 0) {
-                        final double timestamp = event.getTimestamp() - model.getFirstPauseTimeStamp();
-                        polygon.addPoint(timestamp, lastTenuredTotal + youngEvent.getPreUsed());
-                        polygon.addPoint(timestamp + event.getPause(), tenuredTotal + youngEvent.getPostUsed());
+    @Override
+    protected void addPoints(DataSeries series, ModelChart modelChart, GCModel model, AbstractGCEvent<?> abstractGCEvent) {
+        if (abstractGCEvent instanceof GCEvent) {
+            YoungSeries youngSeries = (YoungSeries) series;
+            GCEvent event = (GCEvent) abstractGCEvent;
+            GCEvent youngEvent = event.getYoung();
+            int lastTenuredTotal = 0;
+            int tenuredTotal = 0;
+            if (youngEvent != null) {
+                // event contains information about generation (only with -XX:+PrintGCDetails)
+                if (modelChart.isShowTenured()) {
+                    if (youngSeries.tenuredEvent != null && youngSeries.tenuredEvent.getTotal() > 0) {
+                        youngSeries.lastTenuredEvent = youngSeries.tenuredEvent;
                     }
+                    if (youngSeries.lastTenuredEvent == null) youngSeries.lastTenuredEvent = event.getTenured();
+                    youngSeries.tenuredEvent = event.getTenured();
+
+                    lastTenuredTotal = youngSeries.lastTenuredEvent.getTotal();
+                    tenuredTotal = youngSeries.tenuredEvent.getTotal();
+                }
+                // e.g. "GC remark" of G1 algorithm does not contain memory information
+                if (youngEvent.getTotal() > 0) {
+                    final double timestamp = event.getTimestamp() - model.getFirstPauseTimeStamp();
+                    series.addPoint(timestamp, lastTenuredTotal + youngEvent.getPreUsed());
+                    series.addPoint(timestamp + event.getPause(), tenuredTotal + youngEvent.getPostUsed());
                 }
             }
         }
-        // dummy point to make the polygon complete
-        polygon.addPoint(model.getRunningTime(), 0.0d);
-        return polygon;
+    }
+
+    /**
+     * Series remembering the tenured events needed to compute the points of the next event.
+     */
+    private static class YoungSeries extends DataSeries {
+        private GCEvent lastTenuredEvent;
+        private GCEvent tenuredEvent;
     }
 
 }
@@ -0,0 +1,94 @@
+package com.tagtraum.perf.gcviewer;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.exp.DataWriterType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the class {@link GCViewerBatch}.
+ */
+public class GCViewerBatchTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File inputDirectory;
+    private File outputDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        inputDirectory = temporaryFolder.newFolder("logs");
+        outputDirectory = new File(temporaryFolder.getRoot(), "out");
+
+        copy("SampleSun1_6_0CMS.txt", "a.log");
+        copy("SampleSun1_7_0-01_G1_young.txt", "b.log");
+        Files.write(new File(inputDirectory, "c.log").toPath(), "no gc log\n".getBytes(StandardCharsets.US_ASCII));
+        Files.write(new File(inputDirectory, "readme.txt").toPath(), "not matched by glob\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void copy(String sample, String name) throws IOException {
+        try (InputStream in = UnittestHelper.getResourceAsStream(FOLDER.OPENJDK, sample)) {
+            Files.copy(in, new File(inputDirectory, name).toPath());
+        }
+    }
+
+    @Test
+    public void findFilesInDirectory() throws Exception {
+        List<Path> files = GCViewerBatch.findFiles(inputDirectory.getPath());
+
+        assertThat("number of files", files.size(), is(4));
+        assertThat("first file", files.get(0).getFileName().toString(), is("a.log"));
+    }
+
+    @Test
+    public void findFilesWithGlob() throws Exception {
+        List<Path> files = GCViewerBatch.findFiles(inputDirectory.getPath() + "/*.log");
+
+        assertThat("number of files", files.size(), is(3));
+        assertThat("last file", files.get(2).getFileName().toString(), is("c.log"));
+    }
+
+    @Test
+    public void failureDoesNotStopOtherFiles() throws Exception {
+        List<GCViewerBatch.BatchResult> results = new GCViewerBatch(DataWriterType.SUMMARY, 2)
+                .run(inputDirectory.getPath() + "/*.log", outputDirectory);
+
+        assertThat("number of results", results.size(), is(3));
+        assertThat("a.log ok", results.get(0).isFailed(), is(false));
+        assertThat("a.log events", results.get(0).getEventCount() > 0, is(true));
+        assertThat("b.log ok", results.get(1).isFailed(), is(false));
+        assertThat("c.log failed", results.get(2).isFailed(), is(true));
+        assertThat("export a.log", new File(outputDirectory, "a.log.csv").length() > 0, is(true));
+        assertThat("export b.log", new File(outputDirectory, "b.log.csv").length() > 0, is(true));
+
+        List<String> summary = Files.readAllLines(new File(outputDirectory, GCViewerBatch.SUMMARY_FILE_NAME).toPath());
+        assertThat("summary rows", summary.size(), is(4));
+        assertThat("header", summary.get(0), startsWith("file;status;"));
+        assertThat("row c.log", summary.get(3), startsWith(results.get(2).getFile() + ";FAILED;"));
+    }
+
+    @Test
+    public void doMainBatch() throws Exception {
+        String[] args = {"--batch", inputDirectory.getPath(), outputDirectory.getPath(), "-t", "PLAIN", "--threads", "2"};
+        int exitValue = new GCViewer().doMain(args);
+
+        assertThat("result of doMain (c.log and readme.txt fail)", exitValue, is(-1));
+        assertThat("export a.log", new File(outputDirectory, "a.log.txt").length() > 0, is(true));
+    }
+
+}
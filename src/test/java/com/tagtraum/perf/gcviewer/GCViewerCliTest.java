@@ -0,0 +1,91 @@
+package com.tagtraum.perf.gcviewer;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the class {@link GCViewerCli}; startup is measured in a jvm of its own.
+ */
+public class GCViewerCliTest {
+
+    /** startup budget in ms of a summary export of a small file; only checked, if system property "gcviewer.cli.startupBudgetMillis" is set */
+    private static final Long STARTUP_BUDGET_MILLIS = Long.getLong("gcviewer.cli.startupBudgetMillis");
+    private static final String SAMPLE = "target/test-classes/openjdk/SampleSun1_6_0CMS.txt";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void export() throws Exception {
+        File summary = new File(temporaryFolder.getRoot(), "summary.csv");
+        int exitValue = new GCViewerCli().doMain(new String[] {SAMPLE, summary.getPath()});
+
+        assertThat("exit value", exitValue, is(GCViewerCli.EXIT_OK));
+        assertThat("summary written", summary.length() > 0, is(true));
+    }
+
+    @Test
+    public void guiArgumentsAreRejected() throws Exception {
+        assertThat("no arguments", new GCViewerCli().doMain(new String[0]), is(GCViewerCli.EXIT_ARGS_PARSE_FAILED));
+        assertThat("one argument", new GCViewerCli().doMain(new String[] {SAMPLE}), is(GCViewerCli.EXIT_ARGS_PARSE_FAILED));
+    }
+
+    @Test
+    public void exportFileNotFound() throws Exception {
+        File summary = new File(temporaryFolder.getRoot(), "summary.csv");
+        int exitValue = new GCViewerCli().doMain(new String[] {"doesNotExist.log", summary.getPath()});
+
+        assertThat("exit value", exitValue, is(GCViewerCli.EXIT_EXPORT_FAILED));
+    }
+
+    @Test
+    public void startupWithoutAwt() throws Exception {
+        File summary = new File(temporaryFolder.getRoot(), "summary.csv");
+        List<String> command = new ArrayList<>(Arrays.asList(
+                new File(System.getProperty("java.home"), "bin/java").getPath(),
+                "-verbose:class",
+                "-cp", System.getProperty("java.class.path"),
+                GCViewerCli.class.getName(),
+                SAMPLE, summary.getPath()));
+
+        long start = System.currentTimeMillis();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<String> awtClasses = getAwtClasses(process);
+        int exitValue = process.waitFor();
+        long duration = System.currentTimeMillis() - start;
+
+        assertThat("exit value", exitValue, is(GCViewerCli.EXIT_OK));
+        assertThat("awt / swing classes loaded", awtClasses, is(new ArrayList<String>()));
+        if (STARTUP_BUDGET_MILLIS != null) {
+            assertThat("startup and export in ms", duration, lessThan(STARTUP_BUDGET_MILLIS));
+        }
+    }
+
+    private List<String> getAwtClasses(Process process) throws IOException {
+        List<String> awtClasses = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.contains(" java.awt.") || line.contains(" javax.swing.") || line.contains(" sun.awt.")) {
+                    awtClasses.add(line);
+                }
+            }
+        }
+
+        return awtClasses;
+    }
+}
@@ -0,0 +1,59 @@
+package com.tagtraum.perf.gcviewer;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the class {@link GCViewerFollow}.
+ */
+public class GCViewerFollowTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void update() throws Exception {
+        File file = temporaryFolder.newFile("gc.log");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GCViewerFollow follow = new GCViewerFollow(file, new PrintStream(output, true, "UTF-8"));
+
+        follow.update(1000);
+        assertThat("no events", output.toString("UTF-8"), containsString("events: 0 (no events yet)"));
+
+        file.delete();
+        try (InputStream in = UnittestHelper.getResourceAsStream(FOLDER.OPENJDK, "SampleSun1_6_0CMS.txt")) {
+            Files.copy(in, file.toPath());
+        }
+        output.reset();
+        follow.update(2000);
+
+        String line = output.toString("UTF-8");
+        assertThat("1m window", line, containsString(" | 1m: pauses "));
+        assertThat("15m window", line, containsString(" | 15m: pauses "));
+        assertThat("throughput", line, containsString(" %"));
+        assertThat("allocation", line, containsString(" M/s"));
+        assertThat("now", follow.getNow(2000), closeTo(follow.getStatistics().getLastTimestamp(), 0.0001));
+        assertThat("now 5s later", follow.getNow(7000), closeTo(follow.getStatistics().getLastTimestamp() + 5, 0.0001));
+        assertThat("pauses found", follow.getStatistics().getPauseCount(follow.getNow(2000), 60) > 0, is(true));
+
+        output.reset();
+        Files.write(file.toPath(), new byte[0]);
+        follow.update(3000);
+        assertThat("truncated", Double.isNaN(follow.getStatistics().getLastTimestamp()), is(true));
+        assertThat("output after truncation", new String(output.toByteArray(), StandardCharsets.UTF_8), containsString("no events yet"));
+    }
+}
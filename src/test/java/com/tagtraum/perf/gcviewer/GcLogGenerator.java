@@ -0,0 +1,725 @@
+package com.tagtraum.perf.gcviewer;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Writes synthetic gc logs of any size in the formats the DataReaders support, e.g. to benchmark
+ * or stress test the readers with logs of production size. The log only depends on the settings
+ * and the seed: the same settings always produce the same log.
+ *
+ * <p>The simulated jvm fills its young generation between two collections (the interval is
+ * exponentially distributed around <code>1 / eventsPerSecond</code>). Young collections promote a
+ * part of the young generation; when the old generation is 75% full, an old collection (concurrent
+ * cycle or - at <code>fullGcRatio</code> or for Serial / Parallel - a full collection) reduces it to
+ * the live set. Pauses are log-normally distributed around <code>pauseMedianMillis</code>. Noise
+ * lines the readers ignore are added after about <code>noiseLineRatio</code> of the collections.</p>
+ *
+ * <p>Usage: <code>GcLogGenerator &lt;format&gt; &lt;size[k|m|g]&gt; &lt;file&gt; [&lt;seed&gt;]</code></p>
+ */
+public class GcLogGenerator {
+
+    /**
+     * Formats the generator can write (ZGC is missing, because there is no reader for it).
+     */
+    public enum Format {
+        UJL_G1, UJL_SHENANDOAH, UJL_CMS, UJL_PARALLEL, UJL_SERIAL, SUN1_6_CMS, SUN1_7_G1, IBM_J9_R28, JROCKIT1_6
+    }
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000, 100000, 1000000, 10000000};
+    private static final LocalDateTime START = LocalDateTime.of(2017, 1, 1, 0, 0);
+    private static final DateTimeFormatter IBM_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    private final Format format;
+    private long seed;
+    private double eventsPerSecond = 1;
+    private double pauseMedianMillis = 10;
+    private double pauseSigma = 0.5;
+    private int heapSizeMb = 1024;
+    private double fullGcRatio = 0.05;
+    private double noiseLineRatio = 0.05;
+
+    // state of the simulated jvm
+    private Random random;
+    private double timestamp;
+    private long youngCapacity;
+    private long oldCapacity;
+    private long oldUsed;
+    private long liveSet;
+    private int gcNumber;
+    private int xmlId;
+
+    public GcLogGenerator(Format format) {
+        this.format = format;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param eventsPerSecond mean number of young collections per second
+     */
+    public void setEventsPerSecond(double eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    /**
+     * @param pauseMedianMillis median of the pauses of young collections (full collections pause
+     * about ten times longer)
+     */
+    public void setPauseMedianMillis(double pauseMedianMillis) {
+        this.pauseMedianMillis = pauseMedianMillis;
+    }
+
+    /**
+     * @param pauseSigma standard deviation of the logarithm of the pauses (0: constant pauses)
+     */
+    public void setPauseSigma(double pauseSigma) {
+        this.pauseSigma = pauseSigma;
+    }
+
+    public void setHeapSizeMb(int heapSizeMb) {
+        this.heapSizeMb = heapSizeMb;
+    }
+
+    /**
+     * @param fullGcRatio share of old collections being full collections (for concurrent collectors)
+     */
+    public void setFullGcRatio(double fullGcRatio) {
+        this.fullGcRatio = fullGcRatio;
+    }
+
+    /**
+     * @param noiseLineRatio share of collections followed by a line, which doesn't contain gc information
+     */
+    public void setNoiseLineRatio(double noiseLineRatio) {
+        this.noiseLineRatio = noiseLineRatio;
+    }
+
+    /**
+     * Generates a log of about <code>size</code> bytes in memory.
+     *
+     * @param size minimal size in bytes
+     * @return content of the log
+     */
+    public byte[] generate(int size) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + 8192);
+        try {
+            write(out, size);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("ByteArrayOutputStream doesn't throw IOExceptions", e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a log of at least <code>size</code> bytes (the last collection and the end of the
+     * log are complete). <code>out</code> is flushed, but not closed.
+     *
+     * @param out where to write the log to
+     * @param size minimal size in bytes
+     * @return number of collections written
+     * @throws IOException problem writing to <code>out</code>
+     */
+    public long write(OutputStream out, long size) throws IOException {
+        random = new Random(seed);
+        timestamp = 0.01 + random.nextDouble() * 0.01;
+        long heapSize = heapSizeMb * 1024L;
+        youngCapacity = heapSize / 3;
+        oldCapacity = heapSize - youngCapacity;
+        oldUsed = oldCapacity / 20;
+        liveSet = oldCapacity * 3 / 10;
+        gcNumber = 0;
+        xmlId = 1;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 64 * 1024);
+        StringBuilder sb = new StringBuilder(4096);
+        appendHeader(sb);
+        long written = flush(writer, sb);
+        long collections = 0;
+        while (written < size) {
+            timestamp += -Math.log(1 - random.nextDouble()) / eventsPerSecond;
+            collections += appendCollections(sb);
+            if (random.nextDouble() < noiseLineRatio) {
+                appendNoise(sb);
+            }
+            written += flush(writer, sb);
+        }
+        appendFooter(sb);
+        flush(writer, sb);
+        writer.flush();
+
+        return collections;
+    }
+
+    private long flush(Writer writer, StringBuilder sb) throws IOException {
+        int length = sb.length();
+        writer.append(sb);
+        sb.setLength(0);
+        return length;
+    }
+
+    /**
+     * @return pause in milliseconds
+     */
+    private double nextPause(double factor) {
+        return pauseMedianMillis * factor * Math.exp(pauseSigma * random.nextGaussian());
+    }
+
+    private double nextFraction(double min, double max) {
+        return min + (max - min) * random.nextDouble();
+    }
+
+    private int appendCollections(StringBuilder sb) {
+        if (format == Format.UJL_SHENANDOAH) {
+            appendShenandoahCycle(sb);
+            return 1;
+        }
+
+        long youngBefore = (long) (youngCapacity * nextFraction(0.85, 1.0));
+        long survivors = (long) (youngBefore * nextFraction(0.02, 0.08));
+        long before = oldUsed + youngBefore;
+        oldUsed = Math.min(oldCapacity, oldUsed + (long) (youngBefore * nextFraction(0.01, 0.05)));
+        double pause = nextPause(1);
+        appendYoung(sb, youngBefore, survivors, before, oldUsed + survivors, pause);
+        timestamp += pause / 1000;
+        if (oldUsed < oldCapacity * 3 / 4) {
+            return 1;
+        }
+
+        timestamp += nextFraction(0.001, 0.1);
+        long oldBefore = oldUsed;
+        oldUsed = (long) (liveSet * nextFraction(0.9, 1.1));
+        boolean isConcurrent = format != Format.UJL_SERIAL && format != Format.UJL_PARALLEL;
+        if (isConcurrent && random.nextDouble() >= fullGcRatio) {
+            appendConcurrentCycle(sb, oldBefore + survivors, oldUsed + survivors);
+        }
+        else {
+            pause = nextPause(10);
+            appendFull(sb, oldBefore, survivors, oldUsed, pause);
+            timestamp += pause / 1000;
+        }
+
+        return 2;
+    }
+
+    private void appendHeader(StringBuilder sb) {
+        switch (format) {
+            case UJL_G1:
+            case UJL_SHENANDOAH:
+            case UJL_CMS:
+            case UJL_PARALLEL:
+            case UJL_SERIAL:
+                appendUjlPrefix(sb).append("Using ").append(getUjlCollectorName()).append('\n');
+                break;
+            case IBM_J9_R28:
+                sb.append("<?xml version=\"1.0\" ?>\n\n");
+                sb.append("<verbosegc xmlns=\"http://www.ibm.com/j9/verbosegc\" version=\"R28_Java8_GA_20150116_2030_B231420_CMPRSS\">\n\n");
+                break;
+            case JROCKIT1_6:
+                sb.append("[INFO ][memory ] GC mode: Garbage collection optimized for short pausetimes, strategy: Generational Concurrent Mark & Sweep.\n");
+                sb.append("[INFO ][memory ] Heap size: ").append(heapSizeMb * 1024L).append("KB, maximal heap size: ").append(heapSizeMb * 1024L)
+                        .append("KB, nursery size: ").append(youngCapacity).append("KB.\n");
+                sb.append("[INFO ][memory ] <start>-<end>: <type> <before>KB-><after>KB (<heap>KB), <time> ms, sum of pauses <pause> ms.\n");
+                sb.append("[INFO ][memory ] <start>  - start time of collection (seconds since jvm start).\n");
+                sb.append("[INFO ][memory ] <type>   - OC (old collection) or YC (young collection).\n");
+                sb.append("[INFO ][memory ] <end>    - end time of collection (seconds since jvm start).\n");
+                sb.append("[INFO ][memory ] <before> - memory used by objects before collection (KB).\n");
+                sb.append("[INFO ][memory ] <after>  - memory used by objects after collection (KB).\n");
+                sb.append("[INFO ][memory ] <heap>   - size of heap after collection (KB).\n");
+                sb.append("[INFO ][memory ] <time>   - total time of collection (milliseconds).\n");
+                sb.append("[INFO ][memory ] <pause>  - total sum of pauses during collection (milliseconds).\n");
+                sb.append("[INFO ][memory ]            Run with -Xverbose:gcpause to see individual phases.\n");
+                break;
+            default:
+                // no header
+        }
+    }
+
+    private void appendFooter(StringBuilder sb) {
+        if (format == Format.IBM_J9_R28) {
+            sb.append("\n</verbosegc>\n");
+        }
+    }
+
+    private void appendNoise(StringBuilder sb) {
+        switch (format) {
+            case UJL_G1:
+            case UJL_SHENANDOAH:
+            case UJL_CMS:
+            case UJL_PARALLEL:
+            case UJL_SERIAL:
+                sb.append('[');
+                appendFixed(sb, timestamp, 3).append("s][info][safepoint] Application time: ");
+                appendFixed(sb, nextFraction(0.001, 1), 7).append(" seconds\n");
+                break;
+            case SUN1_6_CMS:
+            case SUN1_7_G1:
+                sb.append("Application time: ");
+                appendFixed(sb, nextFraction(0.001, 1), 7).append(" seconds\n");
+                break;
+            case IBM_J9_R28:
+                long total = (long) (youngCapacity * 1024 * nextFraction(0.5, 1));
+                sb.append("<allocation-stats totalBytes=\"").append(total).append("\" >\n");
+                sb.append("  <allocated-bytes non-tlh=\"").append(total / 20).append("\" tlh=\"").append(total - total / 20).append("\" />\n");
+                sb.append("</allocation-stats>\n");
+                break;
+            case JROCKIT1_6:
+                sb.append("[INFO ][memory ] [OC#").append(gcNumber).append("] Changing GC strategy from: genconcon to: genconpar, reason: Emergency parallel sweep requested.\n");
+                break;
+            default:
+                throw new IllegalStateException("unknown format " + format);
+        }
+    }
+
+    private void appendYoung(StringBuilder sb, long youngBefore, long youngAfter, long before, long after, double pause) {
+        switch (format) {
+            case UJL_G1:
+                appendUjlPause(sb, "Pause Young (G1 Evacuation Pause)", before, after, pause);
+                break;
+            case UJL_CMS:
+            case UJL_PARALLEL:
+            case UJL_SERIAL:
+                appendUjlPause(sb, "Pause Young (Allocation Failure)", before, after, pause);
+                break;
+            case SUN1_6_CMS:
+                appendSunTimestamp(sb).append("[GC ");
+                appendSunTimestamp(sb).append("[ParNew: ").append(youngBefore).append("K->").append(youngAfter)
+                        .append("K(").append(youngCapacity).append("K), ");
+                appendSunSeconds(sb, pause * 0.99).append(" secs] ");
+                appendSunHeap(sb, before, after).append(", ");
+                appendSunSeconds(sb, pause).append(" secs]");
+                appendSunTimes(sb, pause);
+                break;
+            case SUN1_7_G1:
+                appendSunTimestamp(sb).append("[GC pause (young), ");
+                appendSunSeconds(sb, pause).append(" secs]\n");
+                sb.append("   [Parallel Time: ");
+                appendFixed(sb, pause * 0.95, 1).append(" ms, GC Workers: 4]\n");
+                sb.append("      [Object Copy (ms): Min: ");
+                appendFixed(sb, pause * 0.8, 1).append(", Avg: ");
+                appendFixed(sb, pause * 0.85, 1).append(", Max: ");
+                appendFixed(sb, pause * 0.9, 1).append(", Diff: ");
+                appendFixed(sb, pause * 0.1, 1).append(", Sum: ");
+                appendFixed(sb, pause * 3.4, 1).append("]\n");
+                sb.append("   [Clear CT: 0.1 ms]\n");
+                sb.append("   [Other: ");
+                appendFixed(sb, pause * 0.05, 1).append(" ms]\n");
+                sb.append("   [Eden: ");
+                appendG1Size(sb, youngBefore - youngAfter).append('(');
+                appendG1Size(sb, youngCapacity).append(")->0.0B(");
+                appendG1Size(sb, youngCapacity).append(") Survivors: ");
+                appendG1Size(sb, youngAfter / 2).append("->");
+                appendG1Size(sb, youngAfter).append(" Heap: ");
+                appendG1Size(sb, before).append('(');
+                appendG1Size(sb, getHeapSize()).append(")->");
+                appendG1Size(sb, after).append('(');
+                appendG1Size(sb, getHeapSize()).append(")]");
+                appendSunTimes(sb, pause);
+                break;
+            case IBM_J9_R28:
+                appendIbmCollection(sb, "scavenge", youngBefore, youngAfter, before - youngBefore, after - youngAfter, pause);
+                break;
+            case JROCKIT1_6:
+                appendJRockitCollection(sb, "YC", before, after, pause, pause);
+                break;
+            default:
+                throw new IllegalStateException("unknown format " + format);
+        }
+    }
+
+    private void appendFull(StringBuilder sb, long oldBefore, long young, long oldAfter, double pause) {
+        long before = oldBefore + young;
+        switch (format) {
+            case UJL_G1:
+            case UJL_CMS:
+            case UJL_SERIAL:
+            case UJL_SHENANDOAH:
+                appendUjlPause(sb, "Pause Full (Allocation Failure)", before, oldAfter, pause);
+                break;
+            case UJL_PARALLEL:
+                appendUjlPause(sb, "Pause Full (Ergonomics)", before, oldAfter, pause);
+                break;
+            case SUN1_6_CMS:
+                appendSunTimestamp(sb).append("[Full GC ");
+                appendSunTimestamp(sb).append("[CMS: ").append(oldBefore).append("K->").append(oldAfter)
+                        .append("K(").append(oldCapacity).append("K), ");
+                appendSunSeconds(sb, pause * 0.99).append(" secs] ");
+                appendSunHeap(sb, before, oldAfter).append(", [CMS Perm : 2561K->2560K(21248K)], ");
+                appendSunSeconds(sb, pause).append(" secs]");
+                appendSunTimes(sb, pause);
+                break;
+            case SUN1_7_G1:
+                appendSunTimestamp(sb).append("[Full GC ").append(before / 1024).append("M->").append(oldAfter / 1024)
+                        .append("M(").append(heapSizeMb).append("M), ");
+                appendSunSeconds(sb, pause).append(" secs]");
+                appendSunTimes(sb, pause);
+                break;
+            case IBM_J9_R28:
+                appendIbmCollection(sb, "global", young, 0, oldBefore, oldAfter, pause);
+                break;
+            case JROCKIT1_6:
+                appendJRockitCollection(sb, "OC", before, oldAfter, pause, pause);
+                break;
+            default:
+                throw new IllegalStateException("unknown format " + format);
+        }
+    }
+
+    private void appendConcurrentCycle(StringBuilder sb, long before, long after) {
+        int cycleNumber;
+        switch (format) {
+            case UJL_G1:
+                appendUjlPause(sb, "Pause Initial Mark (G1 Evacuation Pause)", before, before, nextPause(1));
+                cycleNumber = gcNumber++;
+                appendUjlPrefix(sb, cycleNumber).append("Concurrent Cycle\n");
+                double cycleStart = timestamp;
+                timestamp += nextFraction(0.01, 0.5);
+                appendUjlPause(sb, cycleNumber, "Pause Remark", before, before, nextPause(0.5));
+                timestamp += nextFraction(0.001, 0.01);
+                appendUjlPause(sb, cycleNumber, "Pause Cleanup", before, after, nextPause(0.1));
+                appendUjlPrefix(sb, cycleNumber).append("Concurrent Cycle ");
+                appendFixed(sb, (timestamp - cycleStart) * 1000, 3).append("ms\n");
+                break;
+            case UJL_CMS:
+                cycleNumber = gcNumber;
+                appendUjlPause(sb, "Pause Initial Mark", before, before, nextPause(0.1));
+                appendUjlConcurrentPhase(sb, cycleNumber, "Concurrent Mark");
+                appendUjlConcurrentPhase(sb, cycleNumber, "Concurrent Preclean");
+                appendUjlPause(sb, cycleNumber, "Pause Remark", before, before, nextPause(0.5));
+                appendUjlConcurrentPhase(sb, cycleNumber, "Concurrent Sweep");
+                appendUjlConcurrentPhase(sb, cycleNumber, "Concurrent Reset");
+                break;
+            case SUN1_6_CMS:
+                appendSunTimestamp(sb).append("[GC [1 CMS-initial-mark: ").append(oldUsed).append("K(").append(oldCapacity).append("K)] ");
+                double pause = nextPause(0.1);
+                sb.append(before).append("K(").append(getHeapSize()).append("K), ");
+                appendSunSeconds(sb, pause).append(" secs]");
+                appendSunTimes(sb, pause);
+                appendSunConcurrentPhase(sb, "CMS-concurrent-mark");
+                appendSunConcurrentPhase(sb, "CMS-concurrent-preclean");
+                pause = nextPause(0.5);
+                appendSunTimestamp(sb).append("[GC[YG occupancy: ").append(before - oldUsed).append(" K (").append(youngCapacity).append(" K)]");
+                appendSunTimestamp(sb).append("[Rescan (parallel) , ");
+                appendSunSeconds(sb, pause * 0.8).append(" secs]");
+                appendSunTimestamp(sb).append("[weak refs processing, 0.0000057 secs] [1 CMS-remark: ")
+                        .append(oldUsed).append("K(").append(oldCapacity).append("K)] ");
+                sb.append(before).append("K(").append(getHeapSize()).append("K), ");
+                appendSunSeconds(sb, pause).append(" secs]");
+                appendSunTimes(sb, pause);
+                appendSunConcurrentPhase(sb, "CMS-concurrent-sweep");
+                appendSunConcurrentPhase(sb, "CMS-concurrent-reset");
+                break;
+            case SUN1_7_G1:
+                pause = nextPause(1);
+                appendSunTimestamp(sb).append("[GC pause (young) (initial-mark), ");
+                appendSunSeconds(sb, pause).append(" secs]\n");
+                sb.append("   [Eden: 0.0B(");
+                appendG1Size(sb, youngCapacity).append(")->0.0B(");
+                appendG1Size(sb, youngCapacity).append(") Survivors: 0.0B->0.0B Heap: ");
+                appendG1Size(sb, before).append('(');
+                appendG1Size(sb, getHeapSize()).append(")->");
+                appendG1Size(sb, before).append('(');
+                appendG1Size(sb, getHeapSize()).append(")]");
+                appendSunTimes(sb, pause);
+                timestamp += pause / 1000;
+                appendSunTimestamp(sb).append("[GC concurrent-root-region-scan-start]\n");
+                appendSunConcurrentEnd(sb, "GC concurrent-root-region-scan-end");
+                appendSunTimestamp(sb).append("[GC concurrent-mark-start]\n");
+                appendSunConcurrentEnd(sb, "GC concurrent-mark-end");
+                pause = nextPause(0.5);
+                appendSunTimestamp(sb).append("[GC remark ");
+                appendSunTimestamp(sb).append("[GC ref-proc, 0.0000700 secs], ");
+                appendSunSeconds(sb, pause).append(" secs]");
+                appendSunTimes(sb, pause);
+                timestamp += pause / 1000;
+                pause = nextPause(0.1);
+                appendSunTimestamp(sb).append("[GC cleanup ").append(before / 1024).append("M->").append(after / 1024)
+                        .append("M(").append(heapSizeMb).append("M), ");
+                appendSunSeconds(sb, pause).append(" secs]");
+                appendSunTimes(sb, pause);
+                appendSunTimestamp(sb).append("[GC concurrent-cleanup-start]\n");
+                appendSunConcurrentEnd(sb, "GC concurrent-cleanup-end");
+                break;
+            case IBM_J9_R28:
+                appendIbmCollection(sb, "global", 0, 0, before, after, nextPause(5));
+                break;
+            case JROCKIT1_6:
+                double duration = nextFraction(100, 1000);
+                appendJRockitCollection(sb, "OC", before, after, duration, nextPause(2));
+                timestamp += duration / 1000;
+                break;
+            default:
+                throw new IllegalStateException("no concurrent collections in format " + format);
+        }
+    }
+
+    private void appendShenandoahCycle(StringBuilder sb) {
+        long before = Math.min(getHeapSize(), (long) (liveSet + youngCapacity * nextFraction(1, 1.5)));
+        long after = (long) (liveSet * nextFraction(0.9, 1.1));
+        if (random.nextDouble() < fullGcRatio / 10) {
+            double pause = nextPause(10);
+            appendUjlPause(sb, "Pause Full (Allocation Failure)", before, after, pause);
+            timestamp += pause / 1000;
+            return;
+        }
+
+        int cycleNumber = gcNumber++;
+        long evacuated = before + youngCapacity / 20;
+        appendShenandoahPause(sb, cycleNumber, "Pause Init Mark", -1, -1);
+        appendShenandoahPhase(sb, cycleNumber, "Concurrent marking", before, before);
+        appendShenandoahPause(sb, cycleNumber, "Pause Final Mark", before, before);
+        appendShenandoahPhase(sb, cycleNumber, "Concurrent evacuation ", before, evacuated);
+        appendShenandoahPause(sb, cycleNumber, "Pause Init Update Refs", -1, -1);
+        appendShenandoahPhase(sb, cycleNumber, "Concurrent update references ", evacuated, evacuated);
+        appendShenandoahPause(sb, cycleNumber, "Pause Final Update Refs", evacuated, after);
+        appendShenandoahPhase(sb, cycleNumber, "Concurrent reset bitmaps", after, after);
+    }
+
+    private void appendShenandoahPause(StringBuilder sb, int cycleNumber, String name, long before, long after) {
+        double pause = nextPause(0.1);
+        appendUjlPrefix(sb, cycleNumber).append(name).append(' ');
+        if (before >= 0) {
+            appendUjlHeap(sb, before, after).append(' ');
+        }
+        appendFixed(sb, pause, 3).append("ms\n");
+        timestamp += pause / 1000;
+    }
+
+    private void appendShenandoahPhase(StringBuilder sb, int cycleNumber, String name, long before, long after) {
+        double duration = nextPause(0.5);
+        timestamp += duration / 1000;
+        appendUjlPrefix(sb, cycleNumber).append(name).append(' ');
+        appendUjlHeap(sb, before, after).append(' ');
+        appendFixed(sb, duration, 3).append("ms\n");
+    }
+
+    private String getUjlCollectorName() {
+        switch (format) {
+            case UJL_G1:
+                return "G1";
+            case UJL_SHENANDOAH:
+                return "Shenandoah";
+            case UJL_CMS:
+                return "Concurrent Mark Sweep";
+            case UJL_PARALLEL:
+                return "Parallel";
+            case UJL_SERIAL:
+                return "Serial";
+            default:
+                throw new IllegalStateException(format + " is no unified jvm logging format");
+        }
+    }
+
+    private long getHeapSize() {
+        return youngCapacity + oldCapacity;
+    }
+
+    private StringBuilder appendUjlPrefix(StringBuilder sb) {
+        sb.append('[');
+        return appendFixed(sb, timestamp, 3).append("s][info][gc] ");
+    }
+
+    private StringBuilder appendUjlPrefix(StringBuilder sb, int number) {
+        return appendUjlPrefix(sb).append("GC(").append(number).append(") ");
+    }
+
+    private StringBuilder appendUjlHeap(StringBuilder sb, long before, long after) {
+        return sb.append(before / 1024).append("M->").append(after / 1024).append("M(").append(heapSizeMb).append("M)");
+    }
+
+    private void appendUjlPause(StringBuilder sb, String name, long before, long after, double pause) {
+        appendUjlPause(sb, gcNumber++, name, before, after, pause);
+    }
+
+    private void appendUjlPause(StringBuilder sb, int number, String name, long before, long after, double pause) {
+        appendUjlPrefix(sb, number).append(name).append(' ');
+        appendUjlHeap(sb, before, after).append(' ');
+        appendFixed(sb, pause, 3).append("ms\n");
+    }
+
+    private void appendUjlConcurrentPhase(StringBuilder sb, int number, String name) {
+        appendUjlPrefix(sb, number).append(name).append('\n');
+        double duration = nextPause(0.5);
+        timestamp += duration / 1000;
+        appendUjlPrefix(sb, number).append(name).append(' ');
+        appendFixed(sb, duration, 3).append("ms\n");
+    }
+
+    private StringBuilder appendSunTimestamp(StringBuilder sb) {
+        return appendFixed(sb, timestamp, 3).append(": ");
+    }
+
+    private StringBuilder appendSunSeconds(StringBuilder sb, double millis) {
+        return appendFixed(sb, millis / 1000, 7);
+    }
+
+    private StringBuilder appendSunHeap(StringBuilder sb, long before, long after) {
+        return sb.append(before).append("K->").append(after).append("K(").append(getHeapSize()).append("K)");
+    }
+
+    private void appendSunTimes(StringBuilder sb, double millis) {
+        sb.append(" [Times: user=");
+        appendFixed(sb, millis * 3 / 1000, 2).append(" sys=");
+        appendFixed(sb, millis / 5000, 2).append(", real=");
+        appendFixed(sb, millis / 1000, 2).append(" secs] \n");
+    }
+
+    private void appendSunConcurrentPhase(StringBuilder sb, String name) {
+        appendSunTimestamp(sb).append('[').append(name).append("-start]\n");
+        double duration = nextPause(0.5);
+        timestamp += duration / 1000;
+        appendSunTimestamp(sb).append('[').append(name).append(": ");
+        appendFixed(sb, duration / 1000, 3).append('/');
+        appendFixed(sb, duration / 1000, 3).append(" secs]");
+        appendSunTimes(sb, duration);
+    }
+
+    private void appendSunConcurrentEnd(StringBuilder sb, String name) {
+        double duration = nextPause(0.5);
+        timestamp += duration / 1000;
+        appendSunTimestamp(sb).append('[').append(name).append(", ");
+        appendSunSeconds(sb, duration).append(" secs]\n");
+    }
+
+    /**
+     * Appends a size given in kb the way G1 logs it (e.g. "12.5M").
+     */
+    private StringBuilder appendG1Size(StringBuilder sb, long kiloBytes) {
+        if (kiloBytes >= 1024 * 1024) {
+            return appendFixed(sb, kiloBytes / (1024.0 * 1024), 1).append('G');
+        }
+        else if (kiloBytes >= 1024) {
+            return appendFixed(sb, kiloBytes / 1024.0, 1).append('M');
+        }
+
+        return appendFixed(sb, kiloBytes, 1).append('K');
+    }
+
+    private StringBuilder appendIbmTimestamp(StringBuilder sb, String name) {
+        return sb.append(' ').append(name).append("=\"").append(START.plusNanos((long) (timestamp * 1000000000)).format(IBM_DATE_FORMATTER)).append('"');
+    }
+
+    private void appendIbmCollection(StringBuilder sb, String type, long youngBefore, long youngAfter, long oldBefore, long oldAfter, double pause) {
+        int cycleId = xmlId + 2;
+        sb.append("<exclusive-start id=\"").append(xmlId++).append('"');
+        appendIbmTimestamp(sb, "timestamp").append(">\n");
+        sb.append("  <response-info timems=\"0.030\" idlems=\"0.030\" threads=\"0\" lastid=\"00000000303A2A00\" lastname=\"main\" />\n");
+        sb.append("</exclusive-start>\n");
+        sb.append("<af-start id=\"").append(xmlId++).append("\" totalBytesRequested=\"16392\"");
+        appendIbmTimestamp(sb, "timestamp").append(" />\n");
+        sb.append("<cycle-start id=\"").append(xmlId++).append("\" type=\"").append(type).append("\" contextid=\"0\"");
+        appendIbmTimestamp(sb, "timestamp").append(" />\n");
+        sb.append("<gc-start id=\"").append(xmlId++).append("\" type=\"").append(type).append("\" contextid=\"").append(cycleId).append('"');
+        appendIbmTimestamp(sb, "timestamp").append(">\n");
+        appendIbmMemInfo(sb, youngBefore, oldBefore);
+        sb.append("</gc-start>\n");
+        timestamp += pause / 1000;
+        sb.append("<gc-op id=\"").append(xmlId++).append("\" type=\"").append("scavenge".equals(type) ? "scavenge" : "mark")
+                .append("\" timems=\"");
+        appendFixed(sb, pause * 0.95, 3).append("\" contextid=\"").append(cycleId).append('"');
+        appendIbmTimestamp(sb, "timestamp").append(" />\n");
+        sb.append("<gc-end id=\"").append(xmlId++).append("\" type=\"").append(type).append("\" contextid=\"").append(cycleId)
+                .append("\" durationms=\"");
+        appendFixed(sb, pause * 0.99, 3).append('"');
+        appendIbmTimestamp(sb, "timestamp").append(">\n");
+        appendIbmMemInfo(sb, youngAfter, oldAfter);
+        sb.append("</gc-end>\n");
+        sb.append("<cycle-end id=\"").append(xmlId++).append("\" type=\"").append(type).append("\" contextid=\"").append(cycleId).append('"');
+        appendIbmTimestamp(sb, "timestamp").append(" />\n");
+        sb.append("<af-end id=\"").append(xmlId++).append('"');
+        appendIbmTimestamp(sb, "timestamp").append(" />\n");
+        sb.append("<exclusive-end id=\"").append(xmlId++).append('"');
+        appendIbmTimestamp(sb, "timestamp").append(" durationms=\"");
+        appendFixed(sb, pause, 3).append("\" />\n\n");
+    }
+
+    private void appendIbmMemInfo(StringBuilder sb, long young, long old) {
+        long total = getHeapSize() * 1024;
+        sb.append("  <mem-info id=\"").append(xmlId++).append("\" free=\"").append(total - (young + old) * 1024).append("\" total=\"").append(total).append("\">\n");
+        sb.append("    <mem type=\"nursery\" free=\"").append((youngCapacity - young) * 1024).append("\" total=\"").append(youngCapacity * 1024).append("\" />\n");
+        sb.append("    <mem type=\"tenure\" free=\"").append((oldCapacity - old) * 1024).append("\" total=\"").append(oldCapacity * 1024).append("\" />\n");
+        sb.append("  </mem-info>\n");
+    }
+
+    private void appendJRockitCollection(StringBuilder sb, String type, long before, long after, double durationMillis, double pause) {
+        sb.append("[INFO ][memory ] [").append(type).append('#').append(gcNumber++).append("] ");
+        appendFixed(sb, timestamp, 3).append('-');
+        appendFixed(sb, timestamp + durationMillis / 1000, 3).append(": ").append(type).append(' ')
+                .append(before).append("KB->").append(after).append("KB (").append(getHeapSize()).append("KB), ");
+        appendFixed(sb, durationMillis / 1000, 3).append(" s, sum of pauses ");
+        appendFixed(sb, pause, 3).append(" ms, longest pause ");
+        appendFixed(sb, pause, 3).append(" ms.\n");
+    }
+
+    /**
+     * Appends <code>value</code> (&gt;= 0) with <code>decimals</code> digits after the point
+     * (much faster than <code>String.format()</code> for logs of many GB).
+     */
+    private static StringBuilder appendFixed(StringBuilder sb, double value, int decimals) {
+        long factor = POWERS_OF_TEN[decimals];
+        long scaled = Math.round(value * factor);
+        sb.append(scaled / factor);
+        if (decimals > 0) {
+            sb.append('.');
+            String fraction = Long.toString(scaled % factor);
+            for (int i = fraction.length(); i < decimals; ++i) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        }
+
+        return sb;
+    }
+
+    private static long parseSize(String size) {
+        String value = size.toLowerCase();
+        long factor = 1;
+        if (value.endsWith("k")) {
+            factor = 1024;
+        }
+        else if (value.endsWith("m")) {
+            factor = 1024 * 1024;
+        }
+        else if (value.endsWith("g")) {
+            factor = 1024 * 1024 * 1024;
+        }
+
+        return Long.parseLong(factor > 1 ? value.substring(0, value.length() - 1) : value) * factor;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("GcLogGenerator <format> <size[k|m|g]> <file> [<seed>]");
+            System.out.println("  formats: " + Arrays.toString(Format.values()));
+            return;
+        }
+
+        GcLogGenerator generator = new GcLogGenerator(Format.valueOf(args[0]));
+        if (args.length > 3) {
+            generator.setSeed(Long.parseLong(args[3]));
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(args[2]))) {
+            long collections = generator.write(out, parseSize(args[1]));
+            System.out.println(collections + " collections written to " + args[2]);
+        }
+    }
+}
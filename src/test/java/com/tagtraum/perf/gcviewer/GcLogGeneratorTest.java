@@ -0,0 +1,135 @@
+package com.tagtraum.perf.gcviewer;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.logging.Level;
+
+import com.tagtraum.perf.gcviewer.GcLogGenerator.Format;
+import com.tagtraum.perf.gcviewer.imp.DataReader;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFactory;
+import com.tagtraum.perf.gcviewer.imp.DataReaderIBM_J9_R28;
+import com.tagtraum.perf.gcviewer.imp.DataReaderJRockit1_6_0;
+import com.tagtraum.perf.gcviewer.imp.DataReaderSun1_6_0;
+import com.tagtraum.perf.gcviewer.imp.DataReaderSun1_6_0G1;
+import com.tagtraum.perf.gcviewer.imp.DataReaderUnifiedJvmLogging;
+import com.tagtraum.perf.gcviewer.imp.TestLogHandler;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import org.junit.Test;
+
+/**
+ * Tests the class {@link GcLogGenerator}: every format must be read by its reader without warnings.
+ */
+public class GcLogGeneratorTest {
+
+    private static final int SIZE = 256 * 1024;
+
+    private GCModel read(Format format, byte[] log, Class<? extends DataReader> expectedReader) throws Exception {
+        TestLogHandler handler = new TestLogHandler();
+        handler.setLevel(Level.WARNING);
+        GCResource gcResource = new GcResourceFile(format.name());
+        gcResource.getLogger().addHandler(handler);
+
+        DataReader reader = new DataReaderFactory().getDataReader(gcResource, new ByteArrayInputStream(log));
+        assertThat(format + " reader", reader, instanceOf(expectedReader));
+        GCModel model = reader.read();
+
+        assertThat(format + " warnings " + handler.getLogRecords(), handler.getCount(), is(0));
+        assertThat(format + " pauses", model.getPause().getN(), greaterThan(10));
+        return model;
+    }
+
+    private GCModel generateAndRead(Format format, Class<? extends DataReader> expectedReader) throws Exception {
+        byte[] log = new GcLogGenerator(format).generate(SIZE);
+        assertThat(format + " size", log.length, greaterThanOrEqualTo(SIZE));
+        return read(format, log, expectedReader);
+    }
+
+    @Test
+    public void ujlG1() throws Exception {
+        GCModel model = generateAndRead(Format.UJL_G1, DataReaderUnifiedJvmLogging.class);
+        assertThat("concurrent events", model.getConcurrentEventPauses().size(), greaterThan(0));
+    }
+
+    @Test
+    public void ujlShenandoah() throws Exception {
+        generateAndRead(Format.UJL_SHENANDOAH, DataReaderUnifiedJvmLogging.class);
+    }
+
+    @Test
+    public void ujlCms() throws Exception {
+        GCModel model = generateAndRead(Format.UJL_CMS, DataReaderUnifiedJvmLogging.class);
+        assertThat("concurrent events", model.getConcurrentEventPauses().size(), greaterThan(0));
+    }
+
+    @Test
+    public void ujlParallel() throws Exception {
+        GCModel model = generateAndRead(Format.UJL_PARALLEL, DataReaderUnifiedJvmLogging.class);
+        assertThat("full gcs", model.getFullGCPause().getN(), greaterThan(0));
+    }
+
+    @Test
+    public void ujlSerial() throws Exception {
+        GCModel model = generateAndRead(Format.UJL_SERIAL, DataReaderUnifiedJvmLogging.class);
+        assertThat("full gcs", model.getFullGCPause().getN(), greaterThan(0));
+    }
+
+    @Test
+    public void sun1_6Cms() throws Exception {
+        GCModel model = generateAndRead(Format.SUN1_6_CMS, DataReaderSun1_6_0.class);
+        assertThat("concurrent events", model.getConcurrentEventPauses().size(), greaterThan(0));
+    }
+
+    @Test
+    public void sun1_7G1() throws Exception {
+        GCModel model = generateAndRead(Format.SUN1_7_G1, DataReaderSun1_6_0G1.class);
+        assertThat("concurrent events", model.getConcurrentEventPauses().size(), greaterThan(0));
+    }
+
+    @Test
+    public void ibmJ9R28() throws Exception {
+        generateAndRead(Format.IBM_J9_R28, DataReaderIBM_J9_R28.class);
+    }
+
+    @Test
+    public void jrockit1_6() throws Exception {
+        generateAndRead(Format.JROCKIT1_6, DataReaderJRockit1_6_0.class);
+    }
+
+    @Test
+    public void deterministic() {
+        GcLogGenerator generator = new GcLogGenerator(Format.UJL_G1);
+        generator.setSeed(7);
+        byte[] first = generator.generate(64 * 1024);
+        byte[] second = generator.generate(64 * 1024);
+        generator.setSeed(8);
+        byte[] otherSeed = generator.generate(64 * 1024);
+
+        assertThat("same seed", Arrays.equals(first, second), is(true));
+        assertThat("other seed", Arrays.equals(first, otherSeed), is(false));
+    }
+
+    @Test
+    public void settings() throws Exception {
+        GcLogGenerator generator = new GcLogGenerator(Format.SUN1_6_CMS);
+        generator.setEventsPerSecond(10);
+        generator.setPauseMedianMillis(100);
+        generator.setPauseSigma(0);
+        generator.setHeapSizeMb(4096);
+        generator.setNoiseLineRatio(0.5);
+        GCModel model = read(Format.SUN1_6_CMS, generator.generate(SIZE), DataReaderSun1_6_0.class);
+
+        assertThat("young pauses", model.getGCPause().getMax(), closeTo(0.1, 0.0001));
+        assertThat("heap size", model.getFootprint(), is(4096L * 1024));
+        assertThat("events per second", model.getRunningTime() / model.getGCPause().getN(), not(greaterThan(0.2)));
+    }
+}
@@ -114,4 +114,133 @@ public class TestGCViewerArgsParser {
             assertThat("exception message", e.getMessage(), startsWith("Illegal type 'ILLEGAL'"));
         }
     }
+
+    @Test
+    public void batchMode() throws Exception {
+        String[] args = {"--batch", "logs/*.log", "out", "--threads", "3", "-t", "CSV"};
+        GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+        gcViewerArgsParser.parseArguments(args);
+
+        assertTrue(gcViewerArgsParser.isBatchMode());
+        assertEquals(gcViewerArgsParser.getArgumentCount(), 2);
+        assertEquals(gcViewerArgsParser.getGcFile(), "logs/*.log");
+        assertEquals(gcViewerArgsParser.getSummaryFilePath(), "out");
+        assertEquals(gcViewerArgsParser.getThreadCount(), 3);
+        assertEquals(gcViewerArgsParser.getType(), DataWriterType.CSV);
+    }
+
+    @Test
+    public void illegalThreadCount() {
+        String[] args = {"--batch", "logs", "out", "--threads", "none"};
+        try {
+            GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+            gcViewerArgsParser.parseArguments(args);
+            fail("GCVIewerArgsParserException expected");
+        }
+        catch (GCViewerArgsParserException e) {
+            assertThat("exception message", e.getMessage(), startsWith("Illegal value 'none' for option --threads"));
+        }
+    }
+
+    @Test
+    public void singleDashAliases() throws Exception {
+        String[] args = {"-batch", "logs", "out", "-threads", "2", "-interval", "7"};
+        GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+        gcViewerArgsParser.parseArguments(args);
+
+        assertTrue(gcViewerArgsParser.isBatchMode());
+        assertEquals(gcViewerArgsParser.getArgumentCount(), 2);
+        assertEquals(gcViewerArgsParser.getThreadCount(), 2);
+        assertEquals(gcViewerArgsParser.getInterval(), 7);
+
+        gcViewerArgsParser = new GCViewerArgsParser();
+        gcViewerArgsParser.parseArguments(new String[] {"-server", "8080"});
+        assertEquals(gcViewerArgsParser.getServerPort(), 8080);
+    }
+
+    @Test
+    public void serverMode() throws Exception {
+        String[] args = {"--server", "8080", "--threads", "4"};
+        GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+        gcViewerArgsParser.parseArguments(args);
+
+        assertTrue(gcViewerArgsParser.isServerMode());
+        assertEquals(gcViewerArgsParser.getArgumentCount(), 0);
+        assertEquals(gcViewerArgsParser.getServerPort(), 8080);
+        assertEquals(gcViewerArgsParser.getThreadCount(), 4);
+    }
+
+    @Test
+    public void illegalPort() {
+        String[] args = {"--server", "65536"};
+        try {
+            GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+            gcViewerArgsParser.parseArguments(args);
+            fail("GCVIewerArgsParserException expected");
+        }
+        catch (GCViewerArgsParserException e) {
+            assertThat("exception message", e.getMessage(), startsWith("Illegal value '65536' for option --server"));
+        }
+    }
+
+    @Test
+    public void followMode() throws Exception {
+        String[] args = {"--follow", "gc.log", "--interval", "5"};
+        GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+        gcViewerArgsParser.parseArguments(args);
+
+        assertTrue(gcViewerArgsParser.isFollowMode());
+        assertEquals(gcViewerArgsParser.getArgumentCount(), 1);
+        assertEquals(gcViewerArgsParser.getGcFile(), "gc.log");
+        assertEquals(gcViewerArgsParser.getInterval(), 5);
+    }
+
+    @Test
+    public void illegalInterval() {
+        String[] args = {"--follow", "gc.log", "--interval", "0"};
+        try {
+            GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+            gcViewerArgsParser.parseArguments(args);
+            fail("GCVIewerArgsParserException expected");
+        }
+        catch (GCViewerArgsParserException e) {
+            assertThat("exception message", e.getMessage(), startsWith("Illegal value '0' for option --interval"));
+        }
+    }
+
+    @Test
+    public void timeRange() throws Exception {
+        String[] args = {"gc.log", "summary.csv", "--from", "60", "--to", "120.5"};
+        GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+        gcViewerArgsParser.parseArguments(args);
+
+        assertEquals(gcViewerArgsParser.getArgumentCount(), 2);
+        assertEquals(gcViewerArgsParser.getTimeRange().getFromTimestamp(), 60, 0.0001);
+        assertEquals(gcViewerArgsParser.getTimeRange().getToTimestamp(), 120.5, 0.0001);
+        assertEquals(((GcResourceFile) gcViewerArgsParser.getGcResource()).getTimeRange(), gcViewerArgsParser.getTimeRange());
+    }
+
+    @Test
+    public void loadStatistics() throws Exception {
+        String[] args = {"gc.log", "summary.csv", "--load-stats", "stats.json"};
+        GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+        gcViewerArgsParser.parseArguments(args);
+
+        assertEquals(gcViewerArgsParser.getArgumentCount(), 2);
+        assertEquals(gcViewerArgsParser.getLoadStatisticsFilePath(), "stats.json");
+        assertEquals(gcViewerArgsParser.getSummaryFilePath(), "summary.csv");
+    }
+
+    @Test
+    public void illegalTimeRange() {
+        String[] args = {"gc.log", "summary.csv", "--from", "120", "--to", "60"};
+        try {
+            GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+            gcViewerArgsParser.parseArguments(args);
+            fail("GCVIewerArgsParserException expected");
+        }
+        catch (GCViewerArgsParserException e) {
+            assertThat("exception message", e.getMessage(), startsWith("Illegal value '120 / 60' for option --from / --to"));
+        }
+    }
 }
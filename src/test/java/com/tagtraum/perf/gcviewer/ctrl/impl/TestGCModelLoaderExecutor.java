@@ -0,0 +1,217 @@
+package com.tagtraum.perf.gcviewer.ctrl.impl;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.tagtraum.perf.gcviewer.ctrl.impl.GCModelLoaderExecutor.Priority;
+import com.tagtraum.perf.gcviewer.imp.DataReaderException;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the class {@link GCModelLoaderExecutor}.
+ */
+public class TestGCModelLoaderExecutor {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<String> started = new CopyOnWriteArrayList<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    /**
+     * Loader recording when it starts and waiting for <code>release</code> before it returns an
+     * empty model.
+     */
+    private class BlockingLoader extends AbstractGCModelLoaderImpl {
+        private final GCResource gcResource;
+        private final CountDownLatch startedLatch = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        public BlockingLoader(GCResource gcResource, CountDownLatch release) {
+            this.gcResource = gcResource;
+            this.release = release;
+        }
+
+        @Override
+        protected GCModel loadGcModel() throws DataReaderException {
+            started.add(gcResource.getResourceName());
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            startedLatch.countDown();
+            try {
+                if (!release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new DataReaderException("not released");
+                }
+                return new GCModel();
+            }
+            catch (InterruptedException e) {
+                throw new DataReaderException("interrupted", e);
+            }
+            finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public GCResource getGcResource() {
+            return gcResource;
+        }
+
+        void awaitStarted() throws InterruptedException {
+            assertThat(gcResource.getResourceName() + " started", startedLatch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), is(true));
+        }
+
+        void awaitDone() throws InterruptedException, ExecutionException {
+            try {
+                get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+            catch (TimeoutException e) {
+                throw new AssertionError(gcResource.getResourceName() + " not done", e);
+            }
+        }
+    }
+
+    private GcResourceFile createLog(String name, int size) throws IOException {
+        File file = temporaryFolder.newFile(name);
+        Files.write(file.toPath(), new byte[size]);
+        return new GcResourceFile(file);
+    }
+
+    @Test
+    public void priorities() throws Exception {
+        GCModelLoaderExecutor executor = new GCModelLoaderExecutor(1, Long.MAX_VALUE);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingLoader first = new BlockingLoader(new GcResourceFile("first"), release);
+        executor.execute(first, Priority.VISIBLE_DOCUMENT);
+        first.awaitStarted();
+
+        BlockingLoader reload = new BlockingLoader(new GcResourceFile("reload"), release);
+        BlockingLoader background = new BlockingLoader(new GcResourceFile("background"), release);
+        BlockingLoader visible1 = new BlockingLoader(new GcResourceFile("visible1"), release);
+        BlockingLoader visible2 = new BlockingLoader(new GcResourceFile("visible2"), release);
+        executor.execute(reload, Priority.RELOAD);
+        executor.execute(background, Priority.BACKGROUND_DOCUMENT);
+        executor.execute(visible1, Priority.VISIBLE_DOCUMENT);
+        executor.execute(visible2, Priority.VISIBLE_DOCUMENT);
+        assertThat("queued", executor.getQueuedCount(), is(4));
+
+        release.countDown();
+        reload.awaitDone();
+        assertThat(started, contains("first", "visible1", "visible2", "background", "reload"));
+    }
+
+    @Test
+    public void demoteVisibleDocument() throws Exception {
+        GCModelLoaderExecutor executor = new GCModelLoaderExecutor(1, Long.MAX_VALUE);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingLoader first = new BlockingLoader(new GcResourceFile("first"), release);
+        executor.execute(first, Priority.VISIBLE_DOCUMENT);
+        first.awaitStarted();
+
+        BlockingLoader oldDocument = new BlockingLoader(new GcResourceFile("oldDocument"), release);
+        BlockingLoader newDocument = new BlockingLoader(new GcResourceFile("newDocument"), release);
+        executor.execute(oldDocument, Priority.VISIBLE_DOCUMENT);
+        executor.demoteVisibleDocument();
+        executor.execute(newDocument, Priority.VISIBLE_DOCUMENT);
+
+        release.countDown();
+        oldDocument.awaitDone();
+        assertThat(started, contains("first", "newDocument", "oldDocument"));
+    }
+
+    @Test
+    public void cancelQueued() throws Exception {
+        GCModelLoaderExecutor executor = new GCModelLoaderExecutor(1, Long.MAX_VALUE);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingLoader first = new BlockingLoader(new GcResourceFile("first"), release);
+        executor.execute(first, Priority.VISIBLE_DOCUMENT);
+        first.awaitStarted();
+
+        BlockingLoader queued = new BlockingLoader(new GcResourceFile("queued"), release);
+        executor.execute(queued, Priority.VISIBLE_DOCUMENT);
+        queued.getGcResource().setIsReadCancelled(true);
+        assertThat("cancelled", queued.isCancelled(), is(true));
+        assertThat("removed from queue", executor.getQueuedCount(), is(0));
+
+        release.countDown();
+        first.awaitDone();
+        assertThat(started, is(Collections.singletonList("first")));
+    }
+
+    @Test
+    public void cancelRunning() throws Exception {
+        GCModelLoaderExecutor executor = new GCModelLoaderExecutor(1, Long.MAX_VALUE);
+        BlockingLoader running = new BlockingLoader(new GcResourceFile("running"), new CountDownLatch(1));
+        executor.execute(running, Priority.VISIBLE_DOCUMENT);
+        running.awaitStarted();
+
+        running.getGcResource().setIsReadCancelled(true);
+        assertThat("cancelled", running.isCancelled(), is(true));
+
+        // the interrupted thread is free for the next load
+        BlockingLoader next = new BlockingLoader(new GcResourceFile("next"), new CountDownLatch(0));
+        executor.execute(next, Priority.VISIBLE_DOCUMENT);
+        next.awaitDone();
+        assertThat("running loads", this.running.get(), is(0));
+    }
+
+    @Test
+    public void memoryAdmission() throws Exception {
+        int logSize = 100;
+        long budget = GCModelLoaderExecutor.MODEL_BYTES_PER_LOG_BYTE * logSize * 3 / 2;
+        GCModelLoaderExecutor executor = new GCModelLoaderExecutor(4, budget);
+        assertThat("estimate", GCModelLoaderExecutor.estimateMemory(createLog("estimate.log", logSize)),
+                is((long) GCModelLoaderExecutor.MODEL_BYTES_PER_LOG_BYTE * logSize));
+
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingLoader first = new BlockingLoader(createLog("first.log", logSize), release);
+        BlockingLoader second = new BlockingLoader(createLog("second.log", logSize), release);
+        BlockingLoader tooLarge = new BlockingLoader(createLog("tooLarge.log", logSize * 2), release);
+        executor.execute(first, Priority.VISIBLE_DOCUMENT);
+        first.awaitStarted();
+        executor.execute(second, Priority.VISIBLE_DOCUMENT);
+        executor.execute(tooLarge, Priority.VISIBLE_DOCUMENT);
+
+        release.countDown();
+        second.awaitDone();
+        tooLarge.awaitDone();
+        assertThat("all loaded", started.size(), is(3));
+        assertThat("loads running in parallel", maxRunning.get(), is(1));
+    }
+
+    @Test
+    public void smallLogsInParallel() throws Exception {
+        GCModelLoaderExecutor executor = new GCModelLoaderExecutor(2, GCModelLoaderExecutor.MODEL_BYTES_PER_LOG_BYTE * 100);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingLoader first = new BlockingLoader(createLog("first.log", 50), release);
+        BlockingLoader second = new BlockingLoader(createLog("second.log", 50), release);
+        executor.execute(first, Priority.VISIBLE_DOCUMENT);
+        executor.execute(second, Priority.VISIBLE_DOCUMENT);
+        first.awaitStarted();
+        second.awaitStarted();
+
+        release.countDown();
+        second.awaitDone();
+        assertThat("loads running in parallel", maxRunning.get(), is(2));
+    }
+}
@@ -0,0 +1,92 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+import com.tagtraum.perf.gcviewer.imp.DataReaderDiagnostics.Template;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the class {@link DataReaderDiagnostics}.
+ */
+public class DataReaderDiagnosticsTest {
+
+    private static final Template PROBLEM = new Template(Level.WARNING, "problem on line {0,number,#} ({1})");
+    private static final Template OTHER_PROBLEM = new Template(Level.WARNING, "other problem on line {0,number,#}");
+
+    private TestLogHandler handler;
+    private DataReaderDiagnostics diagnostics;
+    private int lineNumber;
+
+    @Before
+    public void setUp() {
+        Logger logger = Logger.getLogger(DataReaderDiagnosticsTest.class.getName());
+        logger.setUseParentHandlers(false);
+        for (java.util.logging.Handler oldHandler : logger.getHandlers()) {
+            logger.removeHandler(oldHandler);
+        }
+        handler = new TestLogHandler();
+        handler.setLevel(Level.WARNING);
+        logger.addHandler(handler);
+
+        lineNumber = 0;
+        diagnostics = new DataReaderDiagnostics(logger, DataReaderDiagnosticsTest.class.getName(), () -> lineNumber, 3);
+    }
+
+    @Test
+    public void formattingIsDeferred() {
+        CountingArgument argument = new CountingArgument();
+        lineNumber = 12345;
+        diagnostics.report(PROBLEM, argument);
+
+        assertThat("not formatted yet", argument.toStringCount, is(0));
+        assertThat("number of records", handler.getCount(), is(1));
+        assertThat("formatted message",
+                new SimpleFormatter().formatMessage(handler.getLogRecords().get(0)),
+                is("problem on line 12345 (argument)"));
+        assertThat("formatted", argument.toStringCount, is(1));
+        assertThat("source class", handler.getLogRecords().get(0).getSourceClassName(), is(DataReaderDiagnosticsTest.class.getName()));
+    }
+
+    @Test
+    public void sampleLimit() {
+        for (lineNumber = 1; lineNumber <= 10; ++lineNumber) {
+            diagnostics.report(PROBLEM, "x");
+        }
+        diagnostics.report(OTHER_PROBLEM);
+
+        assertThat("count problem", diagnostics.getCount(PROBLEM), is(10));
+        assertThat("count other problem", diagnostics.getCount(OTHER_PROBLEM), is(1));
+        assertThat("total count", diagnostics.getTotalCount(), is(11));
+        assertThat("number of records", handler.getCount(), is(4));
+    }
+
+    @Test
+    public void logSummary() {
+        handler.setLevel(Level.INFO);
+        for (lineNumber = 1; lineNumber <= 10; ++lineNumber) {
+            diagnostics.report(PROBLEM, "x");
+        }
+        diagnostics.logSummary();
+
+        assertThat("number of records", handler.getCount(), is(4));
+        assertThat("summary",
+                new SimpleFormatter().formatMessage(handler.getLogRecords().get(3)),
+                is("7 more problems like \"problem on line {0,number,#} ({1})\" were not logged (first at line 1)"));
+    }
+
+    private static class CountingArgument {
+        private int toStringCount;
+
+        @Override
+        public String toString() {
+            ++toStringCount;
+            return "argument";
+        }
+    }
+}
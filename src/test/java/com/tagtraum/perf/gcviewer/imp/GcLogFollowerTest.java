@@ -0,0 +1,130 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the class {@link GcLogFollower} appending parts of a sample log to a file.
+ */
+public class GcLogFollowerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File file;
+    private List<String> lines;
+
+    @Before
+    public void setUp() throws IOException {
+        file = temporaryFolder.newFile("gc.log");
+        try (InputStream in = UnittestHelper.getResourceAsStream(FOLDER.OPENJDK, "SampleSun1_6_0CMS.txt")) {
+            byte[] content = new byte[in.available()];
+            int length = 0;
+            while (length < content.length) {
+                length += in.read(content, length, content.length - length);
+            }
+            lines = Arrays.asList(new String(content, StandardCharsets.US_ASCII).split("\n"));
+        }
+    }
+
+    private void append(String text) throws IOException {
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+    }
+
+    private void appendLines(int from, int to) throws IOException {
+        append(String.join("\n", lines.subList(from, to)) + "\n");
+    }
+
+    @Test
+    public void readOnlyNewLines() throws Exception {
+        GcLogFollower follower = new GcLogFollower(file);
+        assertThat("empty file", follower.readNewEvents().size(), is(0));
+
+        appendLines(0, 5);
+        GCModel model = follower.readNewEvents();
+        assertThat("first 5 lines", model.size(), is(5));
+        assertThat("offset", follower.getOffset(), is(file.length()));
+
+        assertThat("nothing new", follower.readNewEvents().size(), is(0));
+
+        // incomplete line is not parsed before it is complete
+        String line = lines.get(5);
+        append(line.substring(0, 20));
+        assertThat("incomplete line", follower.readNewEvents().size(), is(0));
+        append(line.substring(20) + "\n");
+        assertThat("completed line", follower.readNewEvents().size(), is(1));
+        assertThat("restarted", follower.isRestarted(), is(false));
+    }
+
+    @Test
+    public void sameEventsAsCompleteFile() throws Exception {
+        GcLogFollower follower = new GcLogFollower(file);
+        appendLines(0, 5);
+        int eventCount = follower.readNewEvents().size();
+        appendLines(5, lines.size());
+        eventCount += follower.readNewEvents().size();
+
+        GCModel completeModel = new GcLogFollower(file).readNewEvents();
+        assertThat("event count", eventCount, is(completeModel.size()));
+    }
+
+    @Test
+    public void truncatedFile() throws Exception {
+        GcLogFollower follower = new GcLogFollower(file);
+        appendLines(0, 5);
+        follower.readNewEvents();
+
+        Files.write(file.toPath(), new byte[0]);
+        appendLines(0, 2);
+        GCModel model = follower.readNewEvents();
+        assertThat("restarted", follower.isRestarted(), is(true));
+        assertThat("events after restart", model.size(), is(2));
+    }
+
+    @Test
+    public void datestampsOnly() throws Exception {
+        GcLogFollower follower = new GcLogFollower(file);
+        append("2017-05-04T10:00:00.000+0000: [GC 1000K->500K(8192K), 0.0100000 secs]\n"
+                + "2017-05-04T10:00:01.500+0000: [GC 1000K->500K(8192K), 0.0100000 secs]\n");
+        GCModel model = follower.readNewEvents();
+        assertThat("events of first chunk", model.size(), is(2));
+        assertThat("timestamp of second event", model.get(1).getTimestamp(), is(1.5));
+
+        append("2017-05-04T10:00:04.000+0000: [GC 1000K->500K(8192K), 0.0100000 secs]\n"
+                + "2017-05-04T10:00:05.250+0000: [GC 1000K->500K(8192K), 0.0100000 secs]\n");
+        model = follower.readNewEvents();
+        assertThat("events of second chunk", model.size(), is(2));
+        assertThat("timestamp of third event", model.get(0).getTimestamp(), is(4.0));
+        assertThat("timestamp of fourth event", model.get(1).getTimestamp(), is(5.25));
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownFormat() throws Exception {
+        char[] line = new char[1023];
+        Arrays.fill(line, 'x');
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20; ++i) {
+            sb.append(line).append('\n');
+        }
+        append(sb.toString());
+
+        new GcLogFollower(file).readNewEvents();
+    }
+}
@@ -104,7 +104,7 @@ public class TestAbstractDataReaderSun {
         }
     
         @Override
-        public void setMemoryExtended(GCEvent event, String line, ParseInformation pos) throws ParseException {
+        public void setMemoryExtended(GCEvent event, CharSequence line, ParseInformation pos) throws ParseException {
             super.setMemoryExtended(event, line, pos);
         }
         
@@ -114,7 +114,7 @@ public class TestAbstractDataReaderSun {
         }
     
         @Override
-        protected AbstractGCEvent<?> parseLine(String line, ParseInformation pos) throws ParseException {
+        protected AbstractGCEvent<?> parseLine(CharSequence line, ParseInformation pos) throws ParseException {
             return null;
         }
 
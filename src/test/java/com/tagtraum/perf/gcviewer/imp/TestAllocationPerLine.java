@@ -0,0 +1,191 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.logging.Level;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Guards the garbage created by the {@link DataReader}s: parses every sample in the test resources
+ * (containing at least one event) and compares the bytes allocated per line (summed up over all samples of a reader) with the
+ * budgets in {@value #BUDGETS}. Only {@link DataReader#read()} is measured (the log is read into
+ * memory before; format detection is not included).
+ *
+ * <p>If a change makes parsing cheaper, lower the budget of the reader; to print the values
+ * measured in the format of the budgets file, run the test with
+ * <code>-Dallocation.budgets.print=true</code>. The budgets were measured with java 17; on java 8
+ * (no compact strings) twice the budget is allowed.</p>
+ */
+public class TestAllocationPerLine {
+
+    private static final String BUDGETS = "allocation-per-line-budgets.properties";
+    private static final FOLDER[] SAMPLE_FOLDERS = {FOLDER.HP, FOLDER.IBM, FOLDER.JROCKIT, FOLDER.OPENJDK, FOLDER.OPENJDK_UJL};
+    private static final int WARMUP_COUNT = 3;
+    private static final int MEASUREMENT_COUNT = 3;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+
+    @Before
+    public void setUp() {
+        ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        assumeTrue("allocated bytes per thread not supported by jvm",
+                mxBean instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) mxBean).isThreadAllocatedMemorySupported()
+                        && ((com.sun.management.ThreadMXBean) mxBean).isThreadAllocatedMemoryEnabled());
+        threadMXBean = (com.sun.management.ThreadMXBean) mxBean;
+    }
+
+    @Test
+    public void allocationPerLine() throws Exception {
+        List<Sample> samples = readSamples();
+        for (int i = 0; i < WARMUP_COUNT; ++i) {
+            for (Sample sample : samples) {
+                measure(sample);
+            }
+        }
+
+        boolean print = Boolean.getBoolean("allocation.budgets.print");
+        Map<String, long[]> allocatedBytesAndLines = new TreeMap<>();
+        for (Sample sample : samples) {
+            long allocatedBytes = Long.MAX_VALUE;
+            for (int i = 0; i < MEASUREMENT_COUNT; ++i) {
+                allocatedBytes = Math.min(allocatedBytes, measure(sample));
+            }
+            if (print) {
+                System.out.println("# " + sample.file.getName() + " (" + sample.readerName + "): "
+                        + allocatedBytes / sample.lineCount + " bytes / line");
+            }
+
+            long[] sum = allocatedBytesAndLines.computeIfAbsent(sample.readerName, name -> new long[2]);
+            sum[0] += allocatedBytes;
+            sum[1] += sample.lineCount;
+        }
+
+        Properties budgets = new Properties();
+        try (InputStream in = UnittestHelper.getResourceAsStream(BUDGETS)) {
+            budgets.load(in);
+        }
+        double factor = System.getProperty("java.specification.version").startsWith("1.") ? 2 : 1;
+
+        StringBuilder violations = new StringBuilder();
+        for (Map.Entry<String, long[]> entry : allocatedBytesAndLines.entrySet()) {
+            long bytesPerLine = entry.getValue()[0] / entry.getValue()[1];
+            String budget = budgets.getProperty(entry.getKey());
+            if (print) {
+                System.out.println(entry.getKey() + "=" + bytesPerLine);
+            }
+
+            if (budget == null) {
+                violations.append("\n").append(entry.getKey()).append(": no budget in ").append(BUDGETS)
+                        .append(" (measured ").append(bytesPerLine).append(" bytes / line)");
+            }
+            else if (bytesPerLine > Long.parseLong(budget.trim()) * factor) {
+                violations.append("\n").append(entry.getKey()).append(": ").append(bytesPerLine)
+                        .append(" bytes / line > budget of ").append(budget.trim());
+            }
+        }
+
+        assertTrue("allocation per line over budget:" + violations, violations.length() == 0);
+    }
+
+    /**
+     * Reads all samples, which can be parsed, into memory.
+     */
+    private List<Sample> readSamples() throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        for (FOLDER folder : SAMPLE_FOLDERS) {
+            File[] files = new File("src/test/resources", folder.getFolderName()).listFiles(File::isFile);
+            if (files == null) {
+                continue;
+            }
+
+            for (File file : files) {
+                if (file.getName().endsWith(".gz")) {
+                    // same content as the uncompressed sample
+                    continue;
+                }
+
+                byte[] content = Files.readAllBytes(file.toPath());
+                DataReader reader;
+                try {
+                    reader = new DataReaderFactory().getDataReader(createGcResource(file), new ByteArrayInputStream(content));
+                }
+                catch (IOException e) {
+                    // format can't be determined (e.g. incomplete sample) -> nothing to parse
+                    continue;
+                }
+
+                String readerName = reader.getClass().getSimpleName();
+                if (reader.read().size() == 0) {
+                    // format not supported by the reader detected (every line fails)
+                    continue;
+                }
+
+                samples.add(new Sample(file, content, readerName));
+            }
+        }
+
+        return samples;
+    }
+
+    private GCResource createGcResource(File file) {
+        GCResource gcResource = new GcResourceFile(file);
+        // only the parsing itself should be measured
+        gcResource.getLogger().setLevel(Level.OFF);
+        return gcResource;
+    }
+
+    /**
+     * @return bytes allocated by parsing <code>sample</code>
+     */
+    private long measure(Sample sample) throws IOException {
+        DataReader reader = new DataReaderFactory().getDataReader(createGcResource(sample.file), new ByteArrayInputStream(sample.content));
+        long threadId = Thread.currentThread().getId();
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        reader.read();
+        return threadMXBean.getThreadAllocatedBytes(threadId) - start;
+    }
+
+    private static class Sample {
+        private final File file;
+        private final byte[] content;
+        private final String readerName;
+        private final long lineCount;
+
+        public Sample(File file, byte[] content, String readerName) {
+            this.file = file;
+            this.content = content;
+            this.readerName = readerName;
+
+            long lines = 0;
+            for (byte b : content) {
+                if (b == '\n') {
+                    ++lines;
+                }
+            }
+            if (content.length > 0 && content[content.length - 1] != '\n') {
+                ++lines;
+            }
+            this.lineCount = Math.max(lines, 1);
+        }
+    }
+}
@@ -1,26 +1,50 @@
 package com.tagtraum.perf.gcviewer.imp;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.FileWriter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.net.MalformedURLException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import com.tagtraum.perf.gcviewer.UnittestHelper;
 import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
 import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCModelCache;
+import com.tagtraum.perf.gcviewer.model.GCModelCacheKey;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
 import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
+import com.tagtraum.perf.gcviewer.model.TimeRange;
+import com.tagtraum.perf.gcviewer.model.TimestampOffsetIndex;
+import com.tagtraum.perf.gcviewer.util.DateHelper;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics;
+import com.tagtraum.perf.gcviewer.util.LoadStatistics.Phase;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Tests the implementation of {@link DataReaderFacade}.
@@ -34,6 +58,9 @@ public class TestDataReaderFacade {
     
     private static final String PARENT_PATH = "src/test/resources/" + FOLDER.OPENJDK.getFolderName() + "/";
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private DataReaderFacade dataReaderFacade;
     
     @Before
@@ -164,4 +191,245 @@ public class TestDataReaderFacade {
         GCModel result = dataReaderFacade.loadModel(series);
         assertThat(result.toString(), is(expectedModel.toString()));
     }
+
+    private File createLargeLog(int eventCount) throws IOException {
+        File file = temporaryFolder.newFile("gc.log");
+        try (PrintWriter out = new PrintWriter(file, "US-ASCII")) {
+            for (int i = 0; i < eventCount; ++i) {
+                String timestamp = String.format(Locale.US, "%.3f", i * 0.5);
+                out.print(timestamp + ": [GC " + timestamp + ": [ParNew: 104960K->13042K(118016K), 0.0284337 secs] "
+                        + "104960K->34501K(249088K), 0.0285898 secs] [Times: user=0.01 sys=0.09, real=0.03 secs] \n");
+            }
+        }
+
+        return file;
+    }
+
+    @Test
+    public void loadModelTimeRange() throws Exception {
+        File file = createLargeLog(5000);
+        TimestampOffsetIndexStore store = new TimestampOffsetIndexStore(temporaryFolder.newFolder("index"));
+        dataReaderFacade.setTimestampOffsetIndexStore(store);
+        dataReaderFacade.setIndexBytesPerEntry(16 * 1024);
+
+        GCModel completeModel = dataReaderFacade.loadModel(new GcResourceFile(file));
+        assertThat("events", completeModel.size(), is(5000));
+
+        TimestampOffsetIndex index = store.load(file);
+        assertNotNull("index stored", index);
+        assertThat("index length", index.getLength(), is(file.length()));
+
+        TimeRange timeRange = TimeRange.ofTimestamps(1000, 1200);
+        long start = index.getStartOffset(timeRange);
+        long end = index.getEndOffset(timeRange, file.length());
+        assertThat("seeks to start (" + start + ")", start > 0, is(true));
+        assertThat("stops before end (" + end + ")", end < file.length(), is(true));
+
+        GcResourceFile gcResource = new GcResourceFile(file);
+        gcResource.setTimeRange(timeRange);
+        GCModel rangeModel = dataReaderFacade.loadModel(gcResource);
+
+        assertThat("events in range", rangeModel.size(), is(401));
+        assertThat("first event", rangeModel.get(0).getTimestamp(), is(1000.0));
+        assertThat("last event", rangeModel.get(rangeModel.size() - 1).getTimestamp(), is(1200.0));
+        assertNotNull("url", rangeModel.getURL());
+    }
+
+    @Test
+    public void loadModelTimeRangeDatestampsOnly() throws Exception {
+        File file = temporaryFolder.newFile("gc.log");
+        ZonedDateTime firstDatestamp = ZonedDateTime.of(2017, 5, 4, 10, 0, 0, 0, ZoneOffset.UTC);
+        try (PrintWriter out = new PrintWriter(file, "US-ASCII")) {
+            for (int i = 0; i < 5000; ++i) {
+                String datestamp = DateHelper.formatDate(firstDatestamp.plus(i * 500L, ChronoUnit.MILLIS));
+                out.print(datestamp + ": [GC " + datestamp + ": [ParNew: 104960K->13042K(118016K), 0.0284337 secs] "
+                        + "104960K->34501K(249088K), 0.0285898 secs] [Times: user=0.01 sys=0.09, real=0.03 secs] \n");
+            }
+        }
+        TimestampOffsetIndexStore store = new TimestampOffsetIndexStore(temporaryFolder.newFolder("index"));
+        dataReaderFacade.setTimestampOffsetIndexStore(store);
+        dataReaderFacade.setIndexBytesPerEntry(16 * 1024);
+        dataReaderFacade.loadModel(new GcResourceFile(file));
+        assertNotNull("index stored", store.load(file));
+
+        TimeRange timeRange = TimeRange.ofTimestamps(1000, 1200);
+        GcResourceFile gcResource = new GcResourceFile(file);
+        gcResource.setTimeRange(timeRange);
+        GCModel indexedModel = dataReaderFacade.loadModel(gcResource);
+
+        DataReaderFacade facadeWithoutIndex = new DataReaderFacade();
+        facadeWithoutIndex.setTimestampOffsetIndexStore(new TimestampOffsetIndexStore(temporaryFolder.newFolder("noindex")));
+        gcResource = new GcResourceFile(file);
+        gcResource.setTimeRange(timeRange);
+        GCModel completeModel = facadeWithoutIndex.loadModel(gcResource);
+
+        assertThat("events in range", indexedModel.size(), is(401));
+        assertThat("events in range without index", completeModel.size(), is(401));
+        for (int i = 0; i < indexedModel.size(); ++i) {
+            assertThat("timestamp of event " + i, indexedModel.get(i).getTimestamp(), is(completeModel.get(i).getTimestamp()));
+        }
+        assertThat("first event", indexedModel.get(0).getTimestamp(), is(1000.0));
+    }
+
+    @Test
+    public void validIndexIsNotRebuilt() throws Exception {
+        File file = createLargeLog(5000);
+        AtomicInteger storeCount = new AtomicInteger();
+        dataReaderFacade.setTimestampOffsetIndexStore(new TimestampOffsetIndexStore(temporaryFolder.newFolder("index")) {
+            @Override
+            public void store(File logFile, TimestampOffsetIndex index) {
+                storeCount.incrementAndGet();
+                super.store(logFile, index);
+            }
+        });
+        dataReaderFacade.setIndexBytesPerEntry(16 * 1024);
+
+        dataReaderFacade.loadModel(new GcResourceFile(file));
+        dataReaderFacade.loadModel(new GcResourceFile(file));
+        assertThat("stored once", storeCount.get(), is(1));
+
+        try (FileWriter out = new FileWriter(file, true)) {
+            out.write("2500.000: [GC 2500.000: [ParNew: 104960K->13042K(118016K), 0.0284337 secs] "
+                    + "104960K->34501K(249088K), 0.0285898 secs] [Times: user=0.01 sys=0.09, real=0.03 secs] \n");
+        }
+        dataReaderFacade.loadModel(new GcResourceFile(file));
+        assertThat("stored again after file grew", storeCount.get(), is(2));
+    }
+
+    @Test
+    public void loadModelTimeRangeWithoutIndex() throws Exception {
+        File file = createLargeLog(100);
+        dataReaderFacade.setTimestampOffsetIndexStore(new TimestampOffsetIndexStore(temporaryFolder.newFolder("index")));
+
+        GcResourceFile gcResource = new GcResourceFile(file);
+        gcResource.setTimeRange(TimeRange.ofTimestamps(10, 20));
+        GCModel rangeModel = dataReaderFacade.loadModel(gcResource);
+
+        assertThat("events in range", rangeModel.size(), is(21));
+    }
+
+    @Test
+    public void loadModelLoadStatistics() throws Exception {
+        File file = new File(PARENT_PATH + SAMPLE_GCLOG_SUN1_6_0);
+        long loadCount = LoadStatisticsRegistry.getInstance().getLoadCount();
+        GCModel model = dataReaderFacade.loadModel(new GcResourceFile(file));
+
+        LoadStatistics statistics = dataReaderFacade.getLoadStatistics();
+        assertThat("no current load", LoadStatistics.current(), nullValue());
+        assertThat("bytes read", statistics.getBytes(Phase.FILE_READ), is(file.length()));
+        assertThat("format detection", statistics.getCount(Phase.FORMAT_DETECTION), is(1L));
+        assertThat("parse", statistics.getCount(Phase.PARSE), is(1L));
+        assertThat("parse time", statistics.getWallNanos(Phase.PARSE), greaterThan(0L));
+        assertThat("events", statistics.getEvents(), is((long) model.size()));
+        assertThat("model add", statistics.getCount(Phase.MODEL_ADD), is((long) model.size()));
+        assertThat("lines", statistics.getLines(), greaterThan(0L));
+        assertThat("total time", statistics.getTotalWallNanos(), greaterThanOrEqualTo(statistics.getWallNanos(Phase.PARSE)));
+        assertThat("decompress", statistics.getCount(Phase.DECOMPRESS), is(0L));
+        assertThat("registry", LoadStatisticsRegistry.getInstance().getLoadCount(), is(loadCount + 1));
+        assertThat("registry json", LoadStatisticsRegistry.getInstance().getLastLoadJson(), is(statistics.toJson()));
+    }
+
+    @Test
+    public void loadModelLoadStatisticsGzip() throws Exception {
+        File file = new File(PARENT_PATH + SAMPLE_GCLOG_SUN1_6_0 + ".gz");
+        GCModel model = dataReaderFacade.loadModel(new GcResourceFile(file));
+
+        LoadStatistics statistics = dataReaderFacade.getLoadStatistics();
+        assertThat("bytes read", statistics.getBytes(Phase.FILE_READ), is(file.length()));
+        assertThat("bytes decompressed", statistics.getBytes(Phase.DECOMPRESS), greaterThan(file.length()));
+        assertThat("decompress time", statistics.getWallNanos(Phase.DECOMPRESS), greaterThan(0L));
+        assertThat("events", statistics.getEvents(), is((long) model.size()));
+    }
+
+    @Test
+    public void loadModelLoadStatisticsSeries() throws Exception {
+        List<GCResource> resources = new ArrayList<>();
+        resources.add(new GcResourceFile(PARENT_PATH + SAMPLE_GCLOG_SUN1_6_0));
+        resources.add(new GcResourceFile(PARENT_PATH + SAMPLE_GCLOG_SUN1_6_0 + ".gz"));
+        dataReaderFacade.loadModel(new GcResourceSeries(resources));
+
+        LoadStatistics statistics = dataReaderFacade.getLoadStatistics();
+        assertThat("one statistics for the whole series", statistics.getCount(Phase.PARSE), is(2L));
+        assertThat("log lines of both files", statistics.getLines(), greaterThan(0L));
+    }
+
+    @Test
+    public void loadModelFromModelCache() throws Exception {
+        File file = createLargeLog(100);
+        GCModelCache<GCModelCacheKey> modelCache = new GCModelCache<>(10);
+        dataReaderFacade.setModelCache(modelCache);
+        GCModel model = dataReaderFacade.loadModel(new GcResourceFile(file));
+
+        DataReaderFacade otherFacade = new DataReaderFacade();
+        otherFacade.setModelCache(modelCache);
+        assertThat("unchanged file", otherFacade.loadModel(new GcResourceFile(file)), sameInstance(model));
+
+        try (FileWriter out = new FileWriter(file, true)) {
+            out.write("50.000: [GC 50.000: [ParNew: 104960K->13042K(118016K), 0.0284337 secs] "
+                    + "104960K->34501K(249088K), 0.0285898 secs] [Times: user=0.01 sys=0.09, real=0.03 secs] \n");
+        }
+        GCModel changedModel = otherFacade.loadModel(new GcResourceFile(file));
+        assertThat("changed file", changedModel, not(sameInstance(model)));
+        assertThat("events of changed file", changedModel.size(), is(101));
+        assertThat("model of unchanged file replaced", modelCache.size(), is(1));
+    }
+
+    @Test
+    public void loadModelWaitsForLoadInProgress() throws Exception {
+        File file = createLargeLog(100);
+        GCModelCache<GCModelCacheKey> modelCache = new GCModelCache<>(10);
+        dataReaderFacade.setModelCache(modelCache);
+        GCModelCacheKey cacheKey = GCModelCacheKey.of(new GcResourceFile(file));
+        CompletableFuture<GCModel> load = new CompletableFuture<>();
+        assertThat("load registered", modelCache.startLoad(cacheKey, load), nullValue());
+
+        CompletableFuture<GCModel> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataReaderFacade.loadModel(new GcResourceFile(file));
+            }
+            catch (DataReaderException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertThat("waiting for load in progress", result.isDone(), is(false));
+
+        GCModel model = new GCModel();
+        modelCache.endLoad(cacheKey, load, model);
+        assertThat("model of load in progress", result.get(10, TimeUnit.SECONDS), sameInstance(model));
+    }
+
+    @Test
+    public void loadModelAfterFailedLoadInProgress() throws Exception {
+        File file = createLargeLog(100);
+        GCModelCache<GCModelCacheKey> modelCache = new GCModelCache<>(10);
+        dataReaderFacade.setModelCache(modelCache);
+        GCModelCacheKey cacheKey = GCModelCacheKey.of(new GcResourceFile(file));
+        CompletableFuture<GCModel> load = new CompletableFuture<>();
+        modelCache.startLoad(cacheKey, load);
+        load.complete(null);
+
+        assertThat("loaded on its own", dataReaderFacade.loadModel(new GcResourceFile(file)).size(), is(100));
+    }
+
+    @Test
+    public void loadModelFromModelCacheSeries() throws Exception {
+        GCModelCache<GCModelCacheKey> modelCache = new GCModelCache<>(10);
+        dataReaderFacade.setModelCache(modelCache);
+        List<GCResource> resources = new ArrayList<>();
+        resources.add(new GcResourceFile(PARENT_PATH + SAMPLE_GCLOG_SUN1_6_0));
+        resources.add(new GcResourceFile(PARENT_PATH + SAMPLE_GCLOG_SUN1_6_0 + ".gz"));
+        GCModel model = dataReaderFacade.loadModel(new GcResourceSeries(resources));
+
+        assertThat("files of series not cached on their own", modelCache.size(), is(1));
+        assertThat("same series", dataReaderFacade.loadModel(new GcResourceSeries(resources)), sameInstance(model));
+        assertThat("file of series", dataReaderFacade.loadModel(resources.get(0)), not(sameInstance(model)));
+    }
+
+    @Test
+    public void loadModelWithoutModelCache() throws Exception {
+        File file = new File(PARENT_PATH + SAMPLE_GCLOG_SUN1_6_0);
+        GCModel model = dataReaderFacade.loadModel(new GcResourceFile(file));
+        assertThat("loaded again", dataReaderFacade.loadModel(new GcResourceFile(file)), not(sameInstance(model)));
+    }
 }
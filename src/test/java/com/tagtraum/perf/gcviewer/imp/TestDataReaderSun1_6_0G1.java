@@ -6,12 +6,18 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import com.tagtraum.perf.gcviewer.UnittestHelper;
 import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
@@ -413,4 +419,57 @@ public class TestDataReaderSun1_6_0G1 {
 
         assertThat("number of errors", handler.getCount(), is(0));
     }
+
+    @Test
+    public void indexOfMixedLineTimestamp() throws Exception {
+        String line = "0.204: [GC pause (young) (initial-mark)0.207: [GC concurrent-mark-start]";
+        assertThat("concurrent", DataReaderSun1_6_0G1.indexOfMixedLineTimestamp(line), is(line.indexOf("0.207")));
+
+        line = "23.104: [Full GC23.104: [GC concurrent-mark-end, 0.0000400 sec], 0.1 secs]";
+        assertThat("full gc", DataReaderSun1_6_0G1.indexOfMixedLineTimestamp(line), is(line.indexOf("23.104:", 1)));
+
+        line = "0.1: [GC pause (young) (to-space overflow)0.2 (initial-mark)0.3: [GC concurrent-mark-start], 0.1 secs]";
+        assertThat("last parenthesis", DataReaderSun1_6_0G1.indexOfMixedLineTimestamp(line), is(line.indexOf("0.3")));
+
+        assertThat("not mixed", DataReaderSun1_6_0G1.indexOfMixedLineTimestamp("0.295: [GC pause (young), 0.00594747 secs]"), is(-1));
+        assertThat("empty", DataReaderSun1_6_0G1.indexOfMixedLineTimestamp(""), is(-1));
+    }
+
+    @Test
+    public void mixedLineAndGcPauseScanMatchPatterns() throws Exception {
+        // the patterns, which were used before the lines were scanned
+        Matcher linesMixedMatcher = Pattern.compile("(.*\\)|.*Full GC)([0-9.]+.*)").matcher("");
+        Matcher gcPauseMatcher = Pattern.compile("^([0-9-T:.+]{29})?[ ]?([0-9.,]+)?[: \\[]{2,3}([A-Z0-9a-z- ().]+)[, ]+([0-9.,]+)[ sec\\]]+$").matcher("");
+
+        File[] files = new File("src/test/resources", FOLDER.OPENJDK.getFolderName()).listFiles((dir, name) -> name.contains("G1"));
+        assertThat("G1 samples", files.length > 0, is(true));
+        int lineCount = 0;
+        for (File file : files) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(getInputStream(file.getName()), StandardCharsets.US_ASCII))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    ++lineCount;
+                    int expectedIndex = linesMixedMatcher.reset(line).matches() ? linesMixedMatcher.start(2) : -1;
+                    assertThat(file.getName() + ": " + line, DataReaderSun1_6_0G1.indexOfMixedLineTimestamp(line), is(expectedIndex));
+                    if (gcPauseMatcher.reset(line).matches()) {
+                        assertThat(file.getName() + ": " + line, DataReaderSun1_6_0G1.endsWithGcPause(line), is(true));
+                    }
+                }
+            }
+        }
+        assertThat("line count", lineCount > 1000, is(true));
+    }
+
+    @Test
+    public void mixedLineScanOfLongLine() throws Exception {
+        StringBuilder line = new StringBuilder("0.1: [GC pause (young)");
+        for (int i = 0; i < 100000; ++i) {
+            line.append(") ");
+        }
+        assertThat("long line", DataReaderSun1_6_0G1.indexOfMixedLineTimestamp(line.toString()), is(-1));
+        assertThat("long line with timestamp",
+                DataReaderSun1_6_0G1.indexOfMixedLineTimestamp(line.append(")1.5: [GC remark]").toString()),
+                is(line.length() - "1.5: [GC remark]".length()));
+        assertThat("pause of long line", DataReaderSun1_6_0G1.endsWithGcPause(line.toString()), is(false));
+    }
 }
@@ -0,0 +1,249 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests reloading remote logs with {@link HttpAppendedLinesReader} (through {@link DataReaderFacade})
+ * against a local {@link HttpServer} supporting conditional range requests.
+ */
+public class TestHttpAppendedLinesReader {
+
+    private static final String PATH = "/gc.log";
+
+    private HttpServer server;
+    private volatile byte[] content = new byte[0];
+    private volatile boolean supportsRanges = true;
+    private final AtomicLong bytesSent = new AtomicLong();
+    private volatile String lastRange;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(PATH, this::handle);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Serves {@link #content} with an <code>ETag</code> depending on its length; supports
+     * <code>If-None-Match</code> and <code>Range: bytes=&lt;start&gt;-[&lt;end&gt;]</code> for GET
+     * requests (HEAD requests get the headers only).
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = content;
+        String eTag = "\"" + body.length + "\"";
+        exchange.getResponseHeaders().set("ETag", eTag);
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+
+        lastRange = exchange.getRequestHeaders().getFirst("Range");
+        if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        int start = 0;
+        int end = body.length;
+        int status = 200;
+        if (supportsRanges && lastRange != null && lastRange.startsWith("bytes=")) {
+            String[] range = lastRange.substring("bytes=".length()).split("-", -1);
+            start = Integer.parseInt(range[0]);
+            end = range[1].isEmpty() ? body.length : Math.min(Integer.parseInt(range[1]) + 1, body.length);
+            if (start >= body.length) {
+                exchange.getResponseHeaders().set("Content-Range", "bytes */" + body.length);
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + (end - 1) + "/" + body.length);
+            status = 206;
+        }
+
+        exchange.sendResponseHeaders(status, end - start);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body, start, end - start);
+        }
+        bytesSent.addAndGet(end - start);
+    }
+
+    private String url() {
+        return "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getAddress().getPort() + PATH;
+    }
+
+    private void append(int firstLine, int lineCount, String partialLine) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(content);
+        for (int i = firstLine; i < firstLine + lineCount; ++i) {
+            out.write((i + ".000: [GC 1000K->500K(8192K), 0.0100000 secs]\n").getBytes(StandardCharsets.US_ASCII));
+        }
+        out.write(partialLine.getBytes(StandardCharsets.US_ASCII));
+        content = out.toByteArray();
+    }
+
+    private void removePartialLine() {
+        int end = content.length;
+        while (end > 0 && content[end - 1] != '\n') {
+            --end;
+        }
+        byte[] complete = new byte[end];
+        System.arraycopy(content, 0, complete, 0, end);
+        content = complete;
+    }
+
+    private GCModel reload(GcResourceFile gcResource) throws Exception {
+        gcResource.setIsReload(true);
+        GCModel model = new DataReaderFacade().loadModel(gcResource);
+        gcResource.setModel(model);
+        return model;
+    }
+
+    @Test
+    public void reloadReadsOnlyAppendedLines() throws Exception {
+        append(1, 1000, "");
+        GcResourceFile gcResource = new GcResourceFile(url());
+        GCModel model = new DataReaderFacade().loadModel(gcResource);
+        gcResource.setModel(model);
+        assertThat("events of complete log", model.size(), is(1000));
+        assertThat("resume point", model.getHttpResumePoint(), notNullValue());
+        assertThat("offset", model.getHttpResumePoint().getOffset(), is((long) content.length));
+
+        long completeLength = content.length;
+        append(1001, 10, "1011.000: [GC 1000K->5");
+        bytesSent.set(0);
+        model = reload(gcResource);
+        assertThat("events after first reload", model.size(), is(1010));
+        assertThat("range requested", lastRange, is("bytes=" + (completeLength - 1) + "-"));
+        assertThat("bytes sent (format sample + appended lines)", bytesSent.get(), lessThan((long) DataReaderFactory.FORMAT_SAMPLE_SIZE + 1024));
+
+        removePartialLine();
+        append(1011, 5, "");
+        bytesSent.set(0);
+        model = reload(gcResource);
+        assertThat("events after second reload", model.size(), is(1015));
+        assertThat("appended bytes sent only", bytesSent.get(), lessThan(1024L));
+        assertThat("first timestamp", model.get(0).getTimestamp(), is(1.0));
+        assertThat("last timestamp", model.get(model.size() - 1).getTimestamp(), is(1015.0));
+    }
+
+    @Test
+    public void reloadKeepsPreviousModel() throws Exception {
+        append(1, 100, "");
+        GcResourceFile gcResource = new GcResourceFile(url());
+        GCModel previousModel = new DataReaderFacade().loadModel(gcResource);
+        gcResource.setModel(previousModel);
+
+        append(101, 10, "");
+        GCModel model = reload(gcResource);
+        assertThat("events after reload", model.size(), is(110));
+        assertThat("events of previous model", previousModel.size(), is(100));
+        assertThat("previous offset", previousModel.getHttpResumePoint().getOffset(), lessThan((long) content.length));
+        for (int i = 0; i < previousModel.size(); ++i) {
+            assertThat("event " + i + " not parsed again", model.get(i), sameInstance(previousModel.get(i)));
+        }
+    }
+
+    @Test
+    public void reloadDatestampsOnly() throws Exception {
+        content = ("2017-05-04T10:00:00.000+0000: [GC 1000K->500K(8192K), 0.0100000 secs]\n"
+                + "2017-05-04T10:00:02.000+0000: [GC 1000K->500K(8192K), 0.0100000 secs]\n").getBytes(StandardCharsets.US_ASCII);
+        GcResourceFile gcResource = new GcResourceFile(url());
+        gcResource.setModel(new DataReaderFacade().loadModel(gcResource));
+
+        String appended = "2017-05-04T10:01:00.000+0000: [GC 1000K->500K(8192K), 0.0100000 secs]\n"
+                + "2017-05-04T10:01:00.500+0000: [GC 1000K->500K(8192K), 0.0100000 secs]\n";
+        content = (new String(content, StandardCharsets.US_ASCII) + appended).getBytes(StandardCharsets.US_ASCII);
+        bytesSent.set(0);
+        GCModel model = reload(gcResource);
+        assertThat("appended bytes sent only", bytesSent.get(), lessThan((long) DataReaderFactory.FORMAT_SAMPLE_SIZE + 1024));
+        assertThat("events after reload", model.size(), is(4));
+        assertThat("timestamp of second event", model.get(1).getTimestamp(), is(2.0));
+        assertThat("timestamp of first appended event", model.get(2).getTimestamp(), is(60.0));
+        assertThat("timestamp of last appended event", model.get(3).getTimestamp(), is(60.5));
+    }
+
+    @Test
+    public void reloadNotModified() throws Exception {
+        append(1, 100, "");
+        GcResourceFile gcResource = new GcResourceFile(url());
+        GCModel model = new DataReaderFacade().loadModel(gcResource);
+        gcResource.setModel(model);
+
+        bytesSent.set(0);
+        assertThat("same model", reload(gcResource), sameInstance(model));
+        assertThat("format sample read once", model.getHttpResumePoint().getFormatSample(), notNullValue());
+
+        bytesSent.set(0);
+        assertThat("same model again", reload(gcResource), sameInstance(model));
+        assertThat("nothing sent", bytesSent.get(), is(0L));
+    }
+
+    @Test
+    public void reloadReplacedLog() throws Exception {
+        append(1, 100, "");
+        GcResourceFile gcResource = new GcResourceFile(url());
+        gcResource.setModel(new DataReaderFacade().loadModel(gcResource));
+
+        // rotated: the new log is longer, but the byte before the old offset is no line separator
+        content = new byte[0];
+        append(10, 120, "");
+        GCModel model = reload(gcResource);
+        assertThat("events of new log", model.size(), is(120));
+        assertThat("first timestamp", model.get(0).getTimestamp(), is(10.0));
+
+        // truncated: shorter than the old offset
+        content = new byte[0];
+        append(20, 5, "");
+        model = reload(gcResource);
+        assertThat("events of truncated log", model.size(), is(5));
+    }
+
+    @Test
+    public void reloadWithoutRangeSupport() throws Exception {
+        supportsRanges = false;
+        append(1, 100, "");
+        GcResourceFile gcResource = new GcResourceFile(url());
+        gcResource.setModel(new DataReaderFacade().loadModel(gcResource));
+
+        append(101, 10, "");
+        GCModel model = reload(gcResource);
+        assertThat("events of complete log", model.size(), is(110));
+    }
+
+    @Test
+    public void noResumePointForFiles() throws Exception {
+        GCModel model = new DataReaderFacade().loadModel(new GcResourceFile(
+                UnittestHelper.getResource(FOLDER.OPENJDK, "SampleSun1_6_0CMS.txt").getFile()));
+        assertThat("resume point", model.getHttpResumePoint(), nullValue());
+    }
+}
@@ -0,0 +1,135 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link MonitoredBufferedInputStream}.
+ */
+public class TestMonitoredBufferedInputStream {
+
+    private final List<Integer> percentages = new CopyOnWriteArrayList<>();
+    private final List<Long> rates = new CopyOnWriteArrayList<>();
+    private final List<Long> remainingMillis = new CopyOnWriteArrayList<>();
+
+    private MonitoredBufferedInputStream createStream(InputStream in, long contentLength) {
+        MonitoredBufferedInputStream monitoredIn = new MonitoredBufferedInputStream(in, 16, contentLength);
+        monitoredIn.addPropertyChangeListener(evt -> {
+            if (MonitoredBufferedInputStream.PROGRESS.equals(evt.getPropertyName())) {
+                percentages.add((Integer) evt.getNewValue());
+            }
+            else if (MonitoredBufferedInputStream.BYTES_PER_SECOND.equals(evt.getPropertyName())) {
+                rates.add((Long) evt.getNewValue());
+            }
+            else if (MonitoredBufferedInputStream.REMAINING_MILLIS.equals(evt.getPropertyName())) {
+                remainingMillis.add((Long) evt.getNewValue());
+            }
+        });
+
+        return monitoredIn;
+    }
+
+    /**
+     * Waits until the final sample published after the end of the stream has been delivered.
+     */
+    private void awaitSampler() throws IOException, InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (MonitoredBufferedInputStream in = new MonitoredBufferedInputStream(new ByteArrayInputStream(new byte[0]), 0)) {
+            in.addPropertyChangeListener(evt -> latch.countDown());
+            assertThat("sampler running", latch.await(10, TimeUnit.SECONDS), is(true));
+        }
+    }
+
+    @Test
+    public void singleByteReadsCountBytes() throws Exception {
+        byte[] data = new byte[100];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (byte) 200;
+        }
+
+        try (MonitoredBufferedInputStream in = new MonitoredBufferedInputStream(new ByteArrayInputStream(data), 16, data.length)) {
+            for (int i = 0; i < 10; ++i) {
+                in.read();
+            }
+            assertThat("bytes read", in.getBytesRead(), is(10L));
+            assertThat("percentage read", in.getPercentageRead(), is(10));
+
+            in.read(new byte[40]);
+            assertThat("bytes read after read(byte[])", in.getBytesRead(), is(50L));
+
+            in.skip(20);
+            while (in.read() >= 0) {
+                // read to the end
+            }
+            assertThat("bytes read at end", in.getBytesRead(), is(100L));
+            assertThat("percentage read at end", in.getPercentageRead(), is(100));
+        }
+    }
+
+    @Test
+    public void unknownContentLength() throws Exception {
+        try (MonitoredBufferedInputStream in = new MonitoredBufferedInputStream(new ByteArrayInputStream(new byte[10]), 16, 0)) {
+            in.read(new byte[10]);
+            assertThat("percentage read", in.getPercentageRead(), is(-1));
+        }
+    }
+
+    @Test
+    public void progressIsSampled() throws Exception {
+        int length = 100000;
+        InputStream slowIn = new ByteArrayInputStream(new byte[length]) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                try {
+                    Thread.sleep(1);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.read(b, off, Math.min(len, 200));
+            }
+        };
+
+        try (MonitoredBufferedInputStream in = createStream(slowIn, length)) {
+            byte[] buffer = new byte[200];
+            while (in.read(buffer) >= 0) {
+                // read to the end
+            }
+        }
+        awaitSampler();
+
+        assertThat("percentages published", percentages.size(), greaterThan(1));
+        assertThat("at most one event per percentage", percentages.size(), lessThanOrEqualTo(101));
+        assertThat("last percentage", percentages.get(percentages.size() - 1), is(100));
+        for (int i = 1; i < percentages.size(); ++i) {
+            assertThat("increasing percentage", percentages.get(i), greaterThan(percentages.get(i - 1)));
+        }
+        assertThat("throughput measured", rates.get(0), greaterThan(0L));
+        assertThat("remaining time at the end", remainingMillis.get(remainingMillis.size() - 1), is(0L));
+    }
+
+    @Test
+    public void noEventsAfterClose() throws Exception {
+        MonitoredBufferedInputStream in = createStream(new ByteArrayInputStream(new byte[1000]), 1000);
+        in.read(new byte[500]);
+        in.close();
+        awaitSampler();
+        int eventCount = rates.size();
+
+        Thread.sleep(3 * MonitoredBufferedInputStream.SAMPLE_INTERVAL_MS);
+        assertThat("sampler stopped", rates.size(), is(eventCount));
+        assertThat("last percentage", percentages.get(percentages.size() - 1), is(50));
+    }
+}
@@ -0,0 +1,195 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link ParallelGZIPInputStream}: the result must be the same as the one of
+ * {@link GZIPInputStream}.
+ */
+public class TestParallelGZIPInputStream {
+
+    private static final int SMALL_WINDOW = 4096;
+
+    private byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(data);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * @return member with file name, comment, extra field and header crc (not written by <code>GZIPOutputStream</code>)
+     */
+    private byte[] gzipWithAllHeaderFields(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[] {0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, 0});
+        out.write(new byte[] {3, 0, 'a', 'b', 'c'});
+        out.write("gc.log\0".getBytes(StandardCharsets.US_ASCII));
+        out.write("rotated\0".getBytes(StandardCharsets.US_ASCII));
+        CRC32 headerCrc = new CRC32();
+        headerCrc.update(out.toByteArray());
+        out.write((int) headerCrc.getValue());
+        out.write((int) headerCrc.getValue() >> 8);
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] buffer = new byte[1024];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        writeInt(out, (int) crc.getValue());
+        writeInt(out, data.length);
+        return out.toByteArray();
+    }
+
+    private void writeInt(ByteArrayOutputStream out, int value) {
+        for (int i = 0; i < 4; ++i) {
+            out.write(value >> (8 * i));
+        }
+    }
+
+    private byte[] logLines(int count, int offset) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            sb.append(offset + i).append(".123: [GC 1234K->567K(8192K), 0.0012345 secs]\n");
+        }
+
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream input = in) {
+            byte[] buffer = new byte[777];
+            int count;
+            while ((count = input.read(buffer)) >= 0) {
+                out.write(buffer, 0, count);
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    private void assertSameAsGZIPInputStream(String message, byte[] compressed, int windowSize) throws IOException {
+        byte[] expected = readAll(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+        byte[] actual = readAll(new ParallelGZIPInputStream(new ByteArrayInputStream(compressed), windowSize));
+        assertThat(message + " length", actual.length, is(expected.length));
+        assertThat(message, actual, is(expected));
+    }
+
+    private byte[] concat(byte[]... members) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] member : members) {
+            out.write(member);
+        }
+
+        return out.toByteArray();
+    }
+
+    @Test
+    public void singleMember() throws Exception {
+        byte[] compressed = gzip(logLines(10000, 0));
+        assertSameAsGZIPInputStream("default window", compressed, ParallelGZIPInputStream.DEFAULT_WINDOW_SIZE);
+        assertSameAsGZIPInputStream("member larger than window", compressed, SMALL_WINDOW);
+    }
+
+    @Test
+    public void manyMembers() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < 200; ++i) {
+            out.write(gzip(logLines(i % 17 * 10, i * 1000)));
+        }
+
+        assertSameAsGZIPInputStream("default window", out.toByteArray(), ParallelGZIPInputStream.DEFAULT_WINDOW_SIZE);
+        assertSameAsGZIPInputStream("small window", out.toByteArray(), SMALL_WINDOW);
+        assertSameAsGZIPInputStream("tiny window", out.toByteArray(), 64);
+    }
+
+    @Test
+    public void membersLargerAndSmallerThanWindow() throws Exception {
+        byte[] compressed = concat(gzip(logLines(10, 0)),
+                gzip(logLines(5000, 10)),
+                gzip(logLines(10, 5010)),
+                gzip(new byte[0]),
+                gzip(logLines(5000, 5020)));
+
+        assertSameAsGZIPInputStream("small window", compressed, SMALL_WINDOW);
+    }
+
+    @Test
+    public void falseCandidates() throws Exception {
+        // random data contains the gzip magic bytes in the compressed data
+        byte[] data = new byte[3 * SMALL_WINDOW];
+        new Random(42).nextBytes(data);
+        for (int i = 0; i < data.length - 3; i += 97) {
+            data[i] = 0x1f;
+            data[i + 1] = (byte) 0x8b;
+            data[i + 2] = 8;
+        }
+
+        byte[] compressed = concat(gzip(data), gzip(logLines(100, 0)), gzip(data));
+        assertSameAsGZIPInputStream("small window", compressed, SMALL_WINDOW);
+        assertSameAsGZIPInputStream("default window", compressed, ParallelGZIPInputStream.DEFAULT_WINDOW_SIZE);
+    }
+
+    @Test
+    public void allHeaderFields() throws Exception {
+        byte[] compressed = concat(gzipWithAllHeaderFields(logLines(100, 0)), gzip(logLines(100, 100)));
+        assertSameAsGZIPInputStream("all header fields", compressed, SMALL_WINDOW);
+    }
+
+    @Test
+    public void trailingGarbageIsIgnored() throws Exception {
+        byte[] compressed = concat(gzip(logLines(100, 0)), "garbage".getBytes(StandardCharsets.US_ASCII));
+        assertSameAsGZIPInputStream("garbage", compressed, SMALL_WINDOW);
+    }
+
+    @Test(expected = ZipException.class)
+    public void corruptTrailer() throws Exception {
+        byte[] compressed = concat(gzip(logLines(100, 0)), gzip(logLines(100, 100)));
+        compressed[compressed.length - 6] ^= 1;
+        readAll(new ParallelGZIPInputStream(new ByteArrayInputStream(compressed), SMALL_WINDOW));
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncated() throws Exception {
+        byte[] compressed = gzip(logLines(1000, 0));
+        byte[] truncated = new byte[compressed.length - 100];
+        System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+        readAll(new ParallelGZIPInputStream(new ByteArrayInputStream(truncated), SMALL_WINDOW));
+    }
+
+    @Test
+    public void readSingleBytes() throws Exception {
+        byte[] data = logLines(100, 0);
+        try (InputStream in = new ParallelGZIPInputStream(new ByteArrayInputStream(concat(gzip(data), gzip(data))))) {
+            for (int i = 0; i < 2 * data.length; ++i) {
+                assertThat("byte " + i, in.read(), is(data[i % data.length] & 0xff));
+            }
+            assertThat("end", in.read(), is(-1));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.TimestampOffsetIndex;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the class {@link TimestampOffsetIndexStore}.
+ */
+public class TestTimestampOffsetIndexStore {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File logFile;
+    private TimestampOffsetIndexStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        logFile = temporaryFolder.newFile("gc.log");
+        try (PrintWriter out = new PrintWriter(logFile, "US-ASCII")) {
+            for (int i = 0; i < 2000; ++i) {
+                String timestamp = String.format(Locale.US, "%.3f", i * 0.5);
+                out.print(timestamp + ": [GC " + timestamp + ": [ParNew: 104960K->13042K(118016K), 0.0284337 secs] "
+                        + "104960K->34501K(249088K), 0.0285898 secs] [Times: user=0.01 sys=0.09, real=0.03 secs] \n");
+            }
+        }
+
+        store = new TimestampOffsetIndexStore(new File(temporaryFolder.getRoot(), "index"));
+        DataReaderFacade dataReaderFacade = new DataReaderFacade();
+        dataReaderFacade.setTimestampOffsetIndexStore(store);
+        dataReaderFacade.setIndexBytesPerEntry(16 * 1024);
+        dataReaderFacade.loadModel(new GcResourceFile(logFile));
+    }
+
+    @Test
+    public void storeAndLoad() throws Exception {
+        TimestampOffsetIndex index = store.load(logFile);
+        assertThat("index", index, notNullValue());
+        assertThat("entries", index.getEntryCount(), greaterThan(1));
+        assertThat("length", index.getLength(), is(logFile.length()));
+        assertThat("first offset", index.getOffset(0), is(0L));
+        assertThat("second offset", index.getOffset(1), greaterThan(16L * 1024 - 1));
+        assertThat("first datestamp", index.getFirstDatestamp(), nullValue());
+    }
+
+    @Test
+    public void changedFile() throws Exception {
+        try (FileWriter out = new FileWriter(logFile)) {
+            out.write("1.000: [GC 1000K->500K(8192K), 0.0100000 secs]\n");
+        }
+
+        assertThat("index of replaced file", store.load(logFile), nullValue());
+    }
+
+    @Test
+    public void illegalIndexFiles() throws Exception {
+        File indexFile = store.getIndexFile(logFile);
+        Files.write(indexFile.toPath(), new byte[] {0, 0, 0, 1, 0, 0});
+        assertThat("truncated", store.load(logFile), nullValue());
+
+        try (OutputStream out = Files.newOutputStream(indexFile.toPath());
+             ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+
+            objectOut.writeObject("serialized object");
+        }
+        assertThat("java serialization", store.load(logFile), nullValue());
+    }
+
+    @Test
+    public void directoryNotCreatedByStore() throws IOException {
+        File directory = temporaryFolder.newFolder("existing");
+        TimestampOffsetIndexStore existingDirectoryStore = new TimestampOffsetIndexStore(directory);
+        existingDirectoryStore.store(logFile, store.load(logFile));
+        assertThat("stored in existing directory owned by the user", existingDirectoryStore.load(logFile), notNullValue());
+    }
+}
@@ -0,0 +1,110 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the class {@link ZipArchive} and loading zip archives with {@link DataReaderFacade}.
+ */
+public class TestZipArchive {
+
+    private static final String[] SERIES = {"SampleSun1_8_0Series-Part3.txt",
+            "SampleSun1_8_0Series-Part1.txt",
+            "SampleSun1_8_0Series-Part7.txt",
+            "SampleSun1_8_0Series-Part2.txt",
+            "SampleSun1_8_0Series-Part5.txt",
+            "SampleSun1_8_0Series-Part4.txt",
+            "SampleSun1_8_0Series-Part6.txt"};
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File createZipArchive(String... names) throws IOException {
+        File file = temporaryFolder.newFile("gc.zip");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.putNextEntry(new ZipEntry("logs/"));
+            out.closeEntry();
+            for (String name : names) {
+                out.putNextEntry(new ZipEntry("logs/" + name));
+                try (InputStream in = UnittestHelper.getResourceAsStream(FOLDER.OPENJDK, name)) {
+                    byte[] buffer = new byte[4096];
+                    int count;
+                    while ((count = in.read(buffer)) >= 0) {
+                        out.write(buffer, 0, count);
+                    }
+                }
+                out.closeEntry();
+            }
+        }
+
+        return file;
+    }
+
+    @Test
+    public void isZipArchive() throws Exception {
+        assertThat("zip", ZipArchive.isZipArchive(createZipArchive(SERIES[0])), is(true));
+        assertThat("text", ZipArchive.isZipArchive(new File(UnittestHelper.getResource(FOLDER.OPENJDK, SERIES[0]).getFile())), is(false));
+        assertThat("missing", ZipArchive.isZipArchive(new File(temporaryFolder.getRoot(), "missing.zip")), is(false));
+    }
+
+    @Test
+    public void entries() throws Exception {
+        File file = createZipArchive(SERIES);
+        try (ZipArchive archive = new ZipArchive(file)) {
+            GcResourceSeries series = archive.createSeries(new GcResourceFile(file).getLogger());
+            assertThat("number of entries without directory", series.getResourcesInOrder().size(), is(SERIES.length));
+
+            URL url = ((GcResourceFile) series.getResourcesInOrder().get(1)).getResourceNameAsUrl();
+            assertThat("protocol", url.getProtocol(), is("jar"));
+            byte[] expected = Files.readAllBytes(new File(UnittestHelper.getResource(FOLDER.OPENJDK, SERIES[1]).getFile()).toPath());
+            assertThat("size", archive.getSize(url), is((long) expected.length));
+            try (InputStream in = archive.getInputStream(url)) {
+                byte[] actual = new byte[expected.length];
+                new DataInputStream(in).readFully(actual);
+                assertThat("content", actual, is(expected));
+                assertThat("end of entry", in.read(), is(-1));
+            }
+
+            assertThat("not an entry", archive.getInputStream(new URL("file:/tmp/gc.log")), nullValue());
+        }
+    }
+
+    @Test
+    public void loadZipArchiveAsSeries() throws Exception {
+        List<GCResource> files = new ArrayList<>();
+        for (String name : SERIES) {
+            files.add(new GcResourceFile(UnittestHelper.getResource(FOLDER.OPENJDK, name).getFile()));
+        }
+        GCModel expectedModel = new DataReaderFacade().loadModel(new GcResourceSeries(files));
+
+        GCModel model = new DataReaderFacade().loadModel(new GcResourceFile(createZipArchive(SERIES)));
+        assertThat("model", model, notNullValue());
+        assertThat("number of events", model.size(), is(expectedModel.size()));
+        assertThat("first pause", model.get(0).getPause(), is(expectedModel.get(0).getPause()));
+        assertThat("last timestamp", model.get(model.size() - 1).getTimestamp(), is(expectedModel.get(expectedModel.size() - 1).getTimestamp()));
+    }
+}
@@ -0,0 +1,158 @@
+package com.tagtraum.perf.gcviewer.log;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the class {@link RingBufferLogHandler}.
+ */
+public class RingBufferLogHandlerTest {
+
+    private RingBufferLogHandler handler;
+
+    @Before
+    public void setUp() {
+        handler = new RingBufferLogHandler(10);
+    }
+
+    @Test
+    public void getTemplate() {
+        assertThat("line number + line",
+                RingBufferLogHandler.getTemplate(new LogRecord(Level.WARNING, "Malformed line (12345). Missing 'sec': 1.234: [GC 1K->2K(3K)]")),
+                is("Malformed line (#). Missing 'sec'"));
+        assertThat("exception",
+                RingBufferLogHandler.getTemplate(new LogRecord(Level.WARNING, "java.text.ParseException: Unexpected memory format found: 123K Line 42: 123K")),
+                is("java.text.ParseException: Unexpected memory format found"));
+
+        LogRecord record = new LogRecord(Level.INFO, "line {0} ignored");
+        record.setParameters(new Object[] {42});
+        assertThat("parameters", RingBufferLogHandler.getTemplate(record), is("line {0} ignored"));
+    }
+
+    @Test
+    public void recordsAreBounded() {
+        for (int i = 0; i < 25; ++i) {
+            handler.publish(new LogRecord(Level.INFO, "message " + (char) ('a' + i)));
+        }
+
+        List<LogRecord> records = handler.getRecords();
+        assertThat("size", records.size(), is(10));
+        assertThat("oldest", records.get(0).getMessage(), is("message p"));
+        assertThat("newest", records.get(9).getMessage(), is("message y"));
+        assertThat("published", handler.getPublishedCount(), is(25L));
+        assertThat("errors", handler.getErrorCount(), is(0));
+    }
+
+    @Test
+    public void similarRecordsAreCounted() {
+        handler = new RingBufferLogHandler();
+        for (int i = 0; i < 1000; ++i) {
+            handler.publish(new LogRecord(Level.WARNING, "Malformed line (" + i + "): some line " + i));
+        }
+        handler.publish(new LogRecord(Level.WARNING, "other problem"));
+
+        assertThat("records stored", handler.getRecords().size(), is(RingBufferLogHandler.MAX_RECORDS_PER_TEMPLATE + 1));
+        assertThat("errors", handler.getErrorCount(), is(1001));
+        assertThat("suppressed templates", handler.getSuppressedTemplateCounts().size(), is(1));
+        assertThat("template", handler.getSuppressedTemplateCounts().get(0).getTemplate(), is("WARNING Malformed line (#)"));
+        assertThat("count", handler.getSuppressedTemplateCounts().get(0).getCount(), is(1000L));
+    }
+
+    @Test
+    public void parameterizedRecordsAreCountedPerLevelAndPattern() {
+        handler = new RingBufferLogHandler();
+        for (int i = 0; i < 100; ++i) {
+            LogRecord record = new LogRecord(Level.WARNING, "line {0} ignored");
+            record.setParameters(new Object[] {i});
+            handler.publish(record);
+        }
+        LogRecord infoRecord = new LogRecord(Level.INFO, "line {0} ignored");
+        infoRecord.setParameters(new Object[] {100});
+        handler.publish(infoRecord);
+
+        List<LogRecord> records = handler.getRecords();
+        assertThat("records stored", records.size(), is(RingBufferLogHandler.MAX_RECORDS_PER_TEMPLATE + 1));
+        assertThat("first record kept", records.get(0).getParameters()[0], is(0));
+        assertThat("suppressed templates", handler.getSuppressedTemplateCounts().size(), is(1));
+        assertThat("template", handler.getSuppressedTemplateCounts().get(0).getTemplate(), is("WARNING line {0} ignored"));
+        assertThat("count", handler.getSuppressedTemplateCounts().get(0).getCount(), is(100L));
+    }
+
+    @Test
+    public void floodOfSimilarRecordsIsOnlyCounted() {
+        ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        assumeTrue("allocated bytes per thread not supported by jvm",
+                mxBean instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) mxBean).isThreadAllocatedMemorySupported()
+                        && ((com.sun.management.ThreadMXBean) mxBean).isThreadAllocatedMemoryEnabled());
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) mxBean;
+
+        handler = new RingBufferLogHandler();
+        int recordCount = 20000;
+        List<LogRecord> records = new ArrayList<>();
+        for (int i = 0; i < recordCount; ++i) {
+            records.add(new LogRecord(Level.WARNING, "java.text.ParseException: Malformed line (" + i + "): some line " + i));
+        }
+        // first records are stored and warm up the handler
+        for (int i = 0; i < recordCount / 2; ++i) {
+            handler.publish(records.get(i));
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = recordCount / 2; i < recordCount; ++i) {
+            handler.publish(records.get(i));
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+
+        assertThat("count", handler.getSuppressedTemplateCounts().get(0).getCount(), is((long) recordCount));
+        assertThat("bytes allocated for " + recordCount / 2 + " records", allocated, lessThan((long) recordCount / 2));
+    }
+
+    @Test
+    public void publishInParallel() throws InterruptedException {
+        handler = new RingBufferLogHandler();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            final char threadName = (char) ('a' + t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; ++i) {
+                    handler.publish(new LogRecord(Level.WARNING, "thread " + threadName + ": " + i));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat("errors", handler.getErrorCount(), is(40000));
+        assertThat("records stored", handler.getRecords().size(), is(4 * RingBufferLogHandler.MAX_RECORDS_PER_TEMPLATE));
+        assertThat("suppressed templates", handler.getSuppressedTemplateCounts().size(), is(4));
+    }
+
+    @Test
+    public void reset() {
+        handler.publish(new LogRecord(Level.SEVERE, "problem"));
+        handler.reset();
+
+        assertThat("records", handler.getRecords().size(), is(0));
+        assertThat("errors", handler.hasErrors(), is(false));
+        assertThat("published", handler.getPublishedCount(), is(0L));
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.tagtraum.perf.gcviewer.math;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link RollingWindowStatistics}.
+ */
+public class RollingWindowStatisticsTest {
+
+    @Test
+    public void pauseQuantile() {
+        RollingWindowStatistics statistics = new RollingWindowStatistics();
+        for (int i = 1; i <= 100; ++i) {
+            // 99 pauses of 10ms, 1 of 1s
+            statistics.addPause(i, i == 50 ? 1.0 : 0.01);
+        }
+
+        assertThat("count", statistics.getPauseCount(100, 900), is(100));
+        assertThat("p99", statistics.getPauseQuantile(100, 900, 0.99), closeTo(0.01, 0.0013));
+        assertThat("p100", statistics.getPauseQuantile(100, 900, 1.0), closeTo(1.0, 0.0001));
+        assertThat("max", statistics.getPauseMax(100, 900), closeTo(1.0, 0.0001));
+        assertThat("no pauses", Double.isNaN(new RollingWindowStatistics().getPauseQuantile(0, 60, 0.99)), is(true));
+    }
+
+    @Test
+    public void windows() {
+        RollingWindowStatistics statistics = new RollingWindowStatistics();
+        for (int i = 0; i < 900; ++i) {
+            // one pause of 0.1s and 1000K allocation per second
+            statistics.addPause(i, 0.1);
+            statistics.addAllocation(i, 1000);
+        }
+
+        assertThat("pauses 1m", statistics.getPauseCount(899.5, 60), is(60));
+        assertThat("pauses 5m", statistics.getPauseCount(899.5, 300), is(300));
+        assertThat("throughput 1m", statistics.getThroughput(899.5, 60), closeTo(90, 1));
+        assertThat("allocation rate 15m", statistics.getAllocationRate(899.5, 900), closeTo(1000, 20));
+
+        // 5 minutes later nothing happened
+        assertThat("pauses 1m later", statistics.getPauseCount(1199.5, 60), is(0));
+        assertThat("throughput 1m later", statistics.getThroughput(1199.5, 60), closeTo(100, 0.0001));
+        assertThat("pauses 15m later", statistics.getPauseCount(1199.5, 900), is(600));
+    }
+
+    @Test
+    public void oldValuesAreDiscarded() {
+        RollingWindowStatistics statistics = new RollingWindowStatistics(10, 6);
+        statistics.addPause(0, 0.5);
+        statistics.addPause(100, 0.1);
+        statistics.addPause(1, 0.5);
+
+        assertThat("max window", statistics.getMaxWindowSeconds(), is(60));
+        assertThat("count", statistics.getPauseCount(100, 60), is(1));
+        assertThat("max", statistics.getPauseMax(100, 60), closeTo(0.1, 0.0001));
+
+        statistics.reset();
+        assertThat("count after reset", statistics.getPauseCount(100, 60), is(0));
+        assertThat("throughput after reset", Double.isNaN(statistics.getThroughput(100, 60)), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void windowTooLong() {
+        new RollingWindowStatistics(10, 6).getPauseCount(0, 61);
+    }
+
+    @Test
+    public void bins() {
+        assertThat("zero", RollingWindowStatistics.getBin(0), is(0));
+        assertThat("1 second is upper bound of its bin",
+                RollingWindowStatistics.getUpperBound(RollingWindowStatistics.getBin(0.999)), closeTo(1.0, 0.0001));
+        assertThat("overflow", RollingWindowStatistics.getBin(1e6), is(RollingWindowStatistics.getBin(1e9)));
+    }
+}
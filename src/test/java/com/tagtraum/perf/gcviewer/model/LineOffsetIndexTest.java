@@ -0,0 +1,76 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link LineOffsetIndex}.
+ */
+public class LineOffsetIndexTest {
+
+    private LineOffsetIndex createIndex(String text) {
+        LineOffsetIndex index = new LineOffsetIndex();
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        index.update(bytes, 0, bytes.length);
+        return index;
+    }
+
+    private String createLines(int count, String lineSeparator) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= count; ++i) {
+            sb.append("line ").append(i).append(lineSeparator);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void lineCount() {
+        assertThat("empty", createIndex("").getLineCount(), is(0));
+        assertThat("one line without separator", createIndex("a").getLineCount(), is(1));
+        assertThat("one line with separator", createIndex("a\n").getLineCount(), is(1));
+        assertThat("two lines", createIndex("a\r\nb").getLineCount(), is(2));
+        assertThat("empty lines", createIndex("\n\n\n").getLineCount(), is(3));
+    }
+
+    @Test
+    public void indexedLines() {
+        String text = createLines(1000, "\r\n");
+        LineOffsetIndex index = createIndex(text);
+
+        assertThat("line count", index.getLineCount(), is(1000));
+        assertThat("length", index.getLength(), is((long) text.length()));
+        assertThat("first line", index.getIndexedLineNumber(1), is(1));
+        assertThat("first line offset", index.getIndexedLineOffset(1), is(0L));
+        assertThat("line 256", index.getIndexedLineNumber(256), is(1));
+        assertThat("line 257", index.getIndexedLineNumber(257), is(257));
+        assertThat("line 257 offset", index.getIndexedLineOffset(257), is((long) text.indexOf("line 257\r\n")));
+        assertThat("line 999", index.getIndexedLineNumber(999), is(769));
+        assertThat("line 999 offset", index.getIndexedLineOffset(999), is((long) text.indexOf("line 769\r\n")));
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        LineOffsetIndex index = createIndex(createLines(300, "\n"));
+        LineOffsetIndex copy = new LineOffsetIndex(index);
+        byte[] bytes = createLines(300, "\n").getBytes(StandardCharsets.US_ASCII);
+        copy.update(bytes, 0, bytes.length);
+
+        assertThat("original line count", index.getLineCount(), is(300));
+        assertThat("copy line count", copy.getLineCount(), is(600));
+        assertThat("copy line 600", copy.getIndexedLineNumber(600), is(513));
+    }
+
+    @Test
+    public void compressed() {
+        assertThat("gzip", createIndex("\u001f\u008babc").isCompressed(), is(false));
+        LineOffsetIndex index = new LineOffsetIndex();
+        index.update(new byte[] { 0x1f, (byte) 0x8b, 0x08 }, 0, 3);
+        assertThat("gzip magic", index.isCompressed(), is(true));
+        assertThat("text", createIndex("0.123: [GC").isCompressed(), is(false));
+    }
+
+}
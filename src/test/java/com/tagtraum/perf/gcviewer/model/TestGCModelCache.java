@@ -0,0 +1,110 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the classes {@link GCModelCache} and {@link GCModelCacheKey}.
+ */
+public class TestGCModelCache {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void leastRecentlyUsedIsRemoved() {
+        GCModelCache<String> cache = new GCModelCache<>(2);
+        GCModel a = new GCModel();
+        GCModel b = new GCModel();
+        cache.put("a", a);
+        cache.put("b", b);
+        assertThat("a", cache.get("a"), sameInstance(a));
+
+        cache.put("c", new GCModel());
+        assertThat("size", cache.size(), is(2));
+        assertThat("a used recently", cache.get("a"), sameInstance(a));
+        assertThat("b removed", cache.get("b"), nullValue());
+    }
+
+    @Test
+    public void removeIf() {
+        GCModelCache<String> cache = new GCModelCache<>(10);
+        cache.put("a1", new GCModel());
+        cache.put("a2", new GCModel());
+        cache.put("b", new GCModel());
+        cache.removeIf(key -> key.startsWith("a"));
+        assertThat("size", cache.size(), is(1));
+        assertThat("b", cache.get("b"), notNullValue());
+    }
+
+    @Test
+    public void loadInProgress() throws Exception {
+        GCModelCache<String> cache = new GCModelCache<>(10);
+        CompletableFuture<GCModel> load = new CompletableFuture<>();
+        assertThat("first load", cache.startLoad("a", load), nullValue());
+        assertThat("second load", cache.startLoad("a", new CompletableFuture<>()), sameInstance(load));
+
+        GCModel model = new GCModel();
+        cache.endLoad("a", load, model);
+        assertThat("load completed", load.get(), sameInstance(model));
+        assertThat("model stored", cache.get("a"), sameInstance(model));
+        assertThat("load ended", cache.startLoad("a", new CompletableFuture<>()), nullValue());
+    }
+
+    @Test
+    public void failedLoad() throws Exception {
+        GCModelCache<String> cache = new GCModelCache<>(10);
+        CompletableFuture<GCModel> load = new CompletableFuture<>();
+        cache.startLoad("a", load);
+        cache.endLoad("a", load, null);
+        assertThat("load completed", load.get(), nullValue());
+        assertThat("nothing stored", cache.size(), is(0));
+    }
+
+    @Test
+    public void keyOfFile() throws Exception {
+        File file = temporaryFolder.newFile("gc.log");
+        Files.write(file.toPath(), "0.123: [GC 1000K->500K(8192K), 0.0100000 secs]\n".getBytes("US-ASCII"));
+        GCModelCacheKey key = GCModelCacheKey.of(new GcResourceFile(file));
+        assertThat("key", key, notNullValue());
+        assertThat("same state", GCModelCacheKey.of(new GcResourceFile(file.getAbsolutePath())), is(key));
+
+        Files.write(file.toPath(), "0.123: [GC 1000K->500K(8192K), 0.0100000 secs]\n\n".getBytes("US-ASCII"));
+        GCModelCacheKey changedKey = GCModelCacheKey.of(new GcResourceFile(file));
+        assertThat("changed file", changedKey, not(key));
+        assertThat("same resource", changedKey.isSameResource(key), is(true));
+    }
+
+    @Test
+    public void keyOfSeries() throws Exception {
+        GcResourceFile first = new GcResourceFile(temporaryFolder.newFile("gc.log.0"));
+        GcResourceFile second = new GcResourceFile(temporaryFolder.newFile("gc.log.1"));
+        GCModelCacheKey key = GCModelCacheKey.of(new GcResourceSeries(Arrays.asList(first, second)));
+        assertThat("key", key, notNullValue());
+        assertThat("other order", GCModelCacheKey.of(new GcResourceSeries(Arrays.asList(second, first))), not(key));
+        assertThat("single file", key.isSameResource(GCModelCacheKey.of(first)), is(false));
+    }
+
+    @Test
+    public void noKey() throws Exception {
+        assertThat("missing file", GCModelCacheKey.of(new GcResourceFile(new File(temporaryFolder.getRoot(), "missing.log"))), nullValue());
+        assertThat("remote log", GCModelCacheKey.of(new GcResourceFile("http://localhost/gc.log")), nullValue());
+
+        GcResourceFile timeRange = new GcResourceFile(temporaryFolder.newFile("gc.log"));
+        timeRange.setTimeRange(TimeRange.ofTimestamps(10, 20));
+        assertThat("time range", GCModelCacheKey.of(timeRange), nullValue());
+    }
+}
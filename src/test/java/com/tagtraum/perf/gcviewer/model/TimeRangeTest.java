@@ -0,0 +1,78 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.time.ZonedDateTime;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link TimeRange}.
+ */
+public class TimeRangeTest {
+
+    private GCEvent createEvent(double timestamp, ZonedDateTime datestamp) {
+        GCEvent event = new GCEvent(timestamp, 100, 50, 1000, 0.1, AbstractGCEvent.Type.GC);
+        event.setDateStamp(datestamp);
+        return event;
+    }
+
+    @Test
+    public void parseEmpty() {
+        assertThat("null", TimeRange.parse(null, null), nullValue());
+        assertThat("empty", TimeRange.parse("", " "), nullValue());
+    }
+
+    @Test
+    public void parseSeconds() {
+        TimeRange timeRange = TimeRange.parse("10", "20.5");
+
+        assertThat("is datestamp range", timeRange.isDatestampRange(), is(false));
+        assertThat("before", timeRange.contains(createEvent(9.9, null)), is(false));
+        assertThat("from", timeRange.contains(createEvent(10, null)), is(true));
+        assertThat("to", timeRange.contains(createEvent(20.5, null)), is(true));
+        assertThat("after", timeRange.contains(createEvent(20.6, null)), is(false));
+    }
+
+    @Test
+    public void parseSecondsOpenEnd() {
+        TimeRange timeRange = TimeRange.parse("10", null);
+
+        assertThat("from", timeRange.contains(createEvent(10, null)), is(true));
+        assertThat("far after", timeRange.contains(createEvent(1e9, null)), is(true));
+    }
+
+    @Test
+    public void parseDates() {
+        TimeRange timeRange = TimeRange.parse("2017-05-04T10:00:00+02:00", "2017-05-04T11:00:00+02:00");
+
+        assertThat("is datestamp range", timeRange.isDatestampRange(), is(true));
+        assertThat("no datestamp", timeRange.contains(createEvent(1, null)), is(false));
+        assertThat("within", timeRange.contains(createEvent(1, ZonedDateTime.parse("2017-05-04T08:30:00Z"))), is(true));
+        assertThat("after", timeRange.contains(createEvent(1, ZonedDateTime.parse("2017-05-04T11:30:00+02:00"))), is(false));
+    }
+
+    @Test
+    public void parseDatesOpenStart() {
+        TimeRange timeRange = TimeRange.parse(null, "2017-05-04T11:00:00+02:00");
+
+        assertThat("far before", timeRange.contains(createEvent(1, ZonedDateTime.parse("1990-01-01T00:00:00Z"))), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseMixed() {
+        TimeRange.parse("10", "2017-05-04T11:00:00+02:00");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseIllegal() {
+        TimeRange.parse("ten", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseFromAfterTo() {
+        TimeRange.parse("20", "10");
+    }
+}
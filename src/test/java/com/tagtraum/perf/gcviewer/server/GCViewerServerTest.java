@@ -0,0 +1,156 @@
+package com.tagtraum.perf.gcviewer.server;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the class {@link GCViewerServer} using a server bound to localhost.
+ */
+public class GCViewerServerTest {
+
+    private static final String SAMPLE = "SampleSun1_6_0CMS.txt";
+
+    private GCViewerServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new GCViewerServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, 0, 4);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpURLConnection post(String query) throws IOException {
+        URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), server.getAddress().getPort(),
+                GCViewerServer.CONTEXT_ANALYSE + (query != null ? "?" + query : ""));
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        return connection;
+    }
+
+    private HttpURLConnection post(String query, byte[] content) throws IOException {
+        HttpURLConnection connection = post(query);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(content);
+        }
+        return connection;
+    }
+
+    private byte[] getSample() throws IOException {
+        try (InputStream in = UnittestHelper.getResourceAsStream(FOLDER.OPENJDK, SAMPLE)) {
+            return readAll(in);
+        }
+    }
+
+    private byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, length);
+        }
+        return out.toByteArray();
+    }
+
+    private String getResponse(HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new String(readAll(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void summaryAndCache() throws Exception {
+        HttpURLConnection connection = post("name=" + SAMPLE, getSample());
+        assertThat("response code", connection.getResponseCode(), is(200));
+        assertThat("cache", connection.getHeaderField(GCViewerServer.HEADER_CACHE), is("miss"));
+        assertThat("summary", getResponse(connection), startsWith("gcLogFile; " + SAMPLE));
+
+        connection = post("type=JSON", getSample());
+        assertThat("response code 2nd request", connection.getResponseCode(), is(200));
+        assertThat("cache 2nd request", connection.getHeaderField(GCViewerServer.HEADER_CACHE), is("hit"));
+        assertThat("content type", connection.getContentType(), is("application/json"));
+        assertThat("json", getResponse(connection), containsString("\"footprint\": {\"value\": "));
+        assertThat("cache size", server.getModelCache().size(), is(1));
+    }
+
+    @Test
+    public void gzipUpload() throws Exception {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(getSample());
+        }
+
+        HttpURLConnection connection = post("type=PNG", gzipped.toByteArray());
+        assertThat("response code", connection.getResponseCode(), is(200));
+        assertThat("content type", connection.getContentType(), is("image/png"));
+        try (InputStream in = connection.getInputStream()) {
+            byte[] png = readAll(in);
+            assertThat("png signature", png[1] == 'P' && png[2] == 'N' && png[3] == 'G', is(true));
+        }
+    }
+
+    @Test
+    public void illegalRequests() throws Exception {
+        HttpURLConnection connection = post("type=UNKNOWN", getSample());
+        assertThat("unknown type", connection.getResponseCode(), is(400));
+        assertThat("unknown type message", getResponse(connection), startsWith("unknown type UNKNOWN"));
+
+        connection = post(null, "no gc log\n".getBytes(StandardCharsets.US_ASCII));
+        assertThat("no gc log", connection.getResponseCode(), is(422));
+        assertThat("no gc log message", getResponse(connection), startsWith("failed to parse gc log"));
+
+        URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), server.getAddress().getPort(), GCViewerServer.CONTEXT_ANALYSE);
+        connection = (HttpURLConnection) url.openConnection();
+        assertThat("GET", connection.getResponseCode(), is(405));
+        assertThat("GET message", getResponse(connection), startsWith("only POST"));
+    }
+
+    @Test
+    public void backPressure() throws Exception {
+        // first request occupies the only thread, as long as its upload isn't complete
+        HttpURLConnection slowConnection = post(null);
+        slowConnection.setChunkedStreamingMode(1024);
+        OutputStream slowOut = slowConnection.getOutputStream();
+        byte[] sample = getSample();
+        slowOut.write(sample, 0, 1024);
+        slowOut.flush();
+        for (int i = 0; i < 500 && server.getAvailablePermits() > 0; ++i) {
+            Thread.sleep(10);
+        }
+        assertThat("first request admitted", server.getAvailablePermits(), is(0));
+
+        HttpURLConnection rejectedConnection = post(null, sample);
+        assertThat("second request rejected", rejectedConnection.getResponseCode(), is(503));
+        assertThat("retry after", rejectedConnection.getHeaderField("Retry-After"), is("1"));
+        getResponse(rejectedConnection);
+
+        slowOut.write(sample, 1024, sample.length - 1024);
+        slowOut.close();
+        assertThat("first request", slowConnection.getResponseCode(), is(200));
+        assertThat("first request summary", getResponse(slowConnection), startsWith("gcLogFile; upload.log"));
+    }
+
+}
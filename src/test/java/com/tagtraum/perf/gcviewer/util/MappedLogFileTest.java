@@ -0,0 +1,100 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.LineOffsetIndex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the class {@link MappedLogFile}.
+ */
+public class MappedLogFileTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File createFile(int lineCount) throws IOException {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), createLines(1, lineCount).getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private String createLines(int first, int last) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = first; i <= last; ++i) {
+            sb.append("line ").append(i).append("\r\n");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void getLineWithoutIndex() throws IOException {
+        try (MappedLogFile logFile = new MappedLogFile(createFile(1000), null)) {
+            assertThat("line count", logFile.getLineCount(), is(1000));
+            assertThat("line 1", logFile.getLine(1), is("line 1"));
+            assertThat("line 1000", logFile.getLine(1000), is("line 1000"));
+            assertThat("line 600", logFile.getLine(600), is("line 600"));
+            assertThat("line 601", logFile.getLine(601), is("line 601"));
+            assertThat("line 5", logFile.getLine(5), is("line 5"));
+        }
+    }
+
+    @Test
+    public void getLineOfGrownFile() throws IOException {
+        File file = createFile(500);
+        LineOffsetIndex index = new LineOffsetIndex();
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        index.update(bytes, 0, bytes.length);
+
+        Files.write(file.toPath(), createLines(501, 800).getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        try (MappedLogFile logFile = new MappedLogFile(file, index)) {
+            assertThat("line count", logFile.getLineCount(), is(800));
+            assertThat("line 700", logFile.getLine(700), is("line 700"));
+            assertThat("index unchanged", index.getLineCount(), is(500));
+        }
+    }
+
+    @Test
+    public void lineNumbersOfEvents() throws Exception {
+        File file = new File(UnittestHelper.getResource(FOLDER.OPENJDK, "SampleSun1_6_0CMS.txt").toURI());
+        GCModel model = new DataReaderFacade().loadModel(new GcResourceFile(file));
+
+        assertThat("line offset index", model.getLineOffsetIndex(), notNullValue());
+        try (MappedLogFile logFile = new MappedLogFile(file, model.getLineOffsetIndex())) {
+            int lastLineNumber = 0;
+            for (int i = 0; i < model.size(); ++i) {
+                int lineNumber = model.getLineNumber(i);
+                assertThat("line number of event " + i, lineNumber, greaterThanOrEqualTo(Math.max(1, lastLineNumber)));
+                assertThat("line number of event " + i, lineNumber, lessThanOrEqualTo(logFile.getLineCount()));
+
+                String line = logFile.getLine(lineNumber);
+                if (line.matches("^\\d+\\.\\d+: .*")) {
+                    // events spanning several lines are associated with their last line
+                    assertThat("line " + lineNumber + " contains timestamp of event " + i,
+                            line.contains(Double.toString(model.get(i).getTimestamp())),
+                            is(true));
+                }
+                lastLineNumber = lineNumber;
+            }
+        }
+    }
+
+}
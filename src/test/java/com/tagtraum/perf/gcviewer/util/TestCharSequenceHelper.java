@@ -0,0 +1,86 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link CharSequenceHelper} with a {@link SlicedLine}; the results must be the
+ * same as the ones of the methods of {@link String}.
+ */
+public class TestCharSequenceHelper {
+
+    private static final String LINE = "0.5: [GC 0.5: [ParNew: 1234K->56K(789K), 0.0012 secs] 1234K->56K(3456K), 0.0013 secs]";
+    private static final String[] SEARCHED = {"", "0", "[", "]", "secs]", "[ParNew", "0.5: [GC", "K)", "x", LINE, LINE + " "};
+
+    /**
+     * @return <code>line</code> in slices of 3 characters (copied, so they are not merged)
+     */
+    private SlicedLine slicesOf(String line) {
+        SlicedLine slicedLine = new SlicedLine();
+        for (int start = 0; start < line.length(); start += 3) {
+            slicedLine.append(new StringBuilder(line.substring(start, Math.min(start + 3, line.length()))));
+        }
+
+        return slicedLine;
+    }
+
+    @Test
+    public void indexOf() {
+        SlicedLine line = slicesOf(LINE);
+        for (String searched : SEARCHED) {
+            assertThat("indexOf '" + searched + "'", CharSequenceHelper.indexOf(line, searched), is(LINE.indexOf(searched)));
+            for (int from = -1; from <= LINE.length() + 1; ++from) {
+                assertThat("indexOf '" + searched + "' from " + from,
+                        CharSequenceHelper.indexOf(line, searched, from),
+                        is(LINE.indexOf(searched, from)));
+            }
+        }
+    }
+
+    @Test
+    public void indexOfChar() {
+        SlicedLine line = slicesOf(LINE);
+        for (char c : new char[] {'0', '[', ']', 'x'}) {
+            for (int from = -1; from <= LINE.length() + 1; ++from) {
+                assertThat("indexOf '" + c + "' from " + from, CharSequenceHelper.indexOf(line, c, from), is(LINE.indexOf(c, from)));
+                assertThat("lastIndexOf '" + c + "' from " + from, CharSequenceHelper.lastIndexOf(line, c, from), is(LINE.lastIndexOf(c, from)));
+            }
+        }
+    }
+
+    @Test
+    public void lastIndexOf() {
+        SlicedLine line = slicesOf(LINE);
+        for (String searched : SEARCHED) {
+            assertThat("lastIndexOf '" + searched + "'", CharSequenceHelper.lastIndexOf(line, searched), is(LINE.lastIndexOf(searched)));
+        }
+    }
+
+    @Test
+    public void startsWithEndsWithContains() {
+        SlicedLine line = slicesOf(LINE);
+        for (String searched : SEARCHED) {
+            assertThat("startsWith '" + searched + "'", CharSequenceHelper.startsWith(line, searched), is(LINE.startsWith(searched)));
+            assertThat("startsWith '" + searched + "' at 5", CharSequenceHelper.startsWith(line, searched, 5), is(LINE.startsWith(searched, 5)));
+            assertThat("endsWith '" + searched + "'", CharSequenceHelper.endsWith(line, searched), is(LINE.endsWith(searched)));
+            assertThat("contains '" + searched + "'", CharSequenceHelper.contains(line, searched), is(LINE.contains(searched)));
+        }
+    }
+
+    @Test
+    public void containsIgnoreCase() {
+        SlicedLine line = slicesOf("[INFO ][memory ] Heap Size: 8388608KB, maximal heap size: 8388608KB");
+        assertThat("mixed case", CharSequenceHelper.containsIgnoreCase(line, "heap size:"), is(true));
+        assertThat("upper case", CharSequenceHelper.containsIgnoreCase(line, "MAXIMAL HEAP"), is(true));
+        assertThat("not contained", CharSequenceHelper.containsIgnoreCase(line, "nursery size:"), is(false));
+        assertThat("string", CharSequenceHelper.containsIgnoreCase(line.toString(), "HEAP SIZE:"), is(true));
+    }
+
+    @Test
+    public void string() {
+        assertThat("indexOf", CharSequenceHelper.indexOf(LINE, "secs]"), is(LINE.indexOf("secs]")));
+        assertThat("endsWith", CharSequenceHelper.endsWith(LINE, "secs]"), is(true));
+    }
+}
@@ -0,0 +1,97 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.StringTokenizer;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link FieldTokenizer}.
+ */
+public class TestFieldTokenizer {
+
+    private static final String HP_UX_LINE = "<GC: -1  1.234 1 2048 32 1048576 0 2097152 4096 8192 65536 0 0 4194304 1024 1024 8388608 0.0123 >";
+
+    private void assertSameAsStringTokenizer(FieldTokenizer tokenizer, String line, String delimiters) {
+        tokenizer.reset(line);
+        StringTokenizer st = new StringTokenizer(line, delimiters);
+        assertThat("field count of '" + line + "'", tokenizer.getFieldCount(), is(st.countTokens()));
+        assertThat("countFields of '" + line + "'", FieldTokenizer.countFields(line, 0, line.length(), delimiters), is(st.countTokens()));
+        for (int field = 0; st.hasMoreTokens(); ++field) {
+            String token = st.nextToken();
+            assertThat("field " + field + " of '" + line + "'", tokenizer.getField(field), is(token));
+            assertThat("fieldEquals " + field + " of '" + line + "'", tokenizer.fieldEquals(field, token), is(true));
+            assertThat("start " + field + " of '" + line + "'", line.startsWith(token, tokenizer.getStart(field)), is(true));
+            assertThat("length " + field + " of '" + line + "'", tokenizer.getLength(field), is(token.length()));
+        }
+    }
+
+    @Test
+    public void sameAsStringTokenizer() {
+        FieldTokenizer spaces = new FieldTokenizer(" ");
+        assertSameAsStringTokenizer(spaces, HP_UX_LINE, " ");
+        assertSameAsStringTokenizer(spaces, "", " ");
+        assertSameAsStringTokenizer(spaces, "   ", " ");
+        assertSameAsStringTokenizer(spaces, "a", " ");
+        assertSameAsStringTokenizer(spaces, "  leading and trailing  ", " ");
+
+        FieldTokenizer sun131 = new FieldTokenizer(" ,->()K\r\n");
+        assertSameAsStringTokenizer(sun131, "Full GC 2003K->1941K(2280K), 0.1234 ms", " ,->()K\r\n");
+        assertSameAsStringTokenizer(sun131, "GC 131K->67K(1984K), 0.0092345 secs", " ,->()K\r\n");
+    }
+
+    @Test
+    public void reuseForShorterLine() {
+        FieldTokenizer tokenizer = new FieldTokenizer(" ");
+        tokenizer.reset(HP_UX_LINE);
+        tokenizer.reset("<GC: 1");
+
+        assertThat("field count", tokenizer.getFieldCount(), is(2));
+        assertThat("field 1", tokenizer.parseInt(1), is(1));
+    }
+
+    @Test
+    public void manyFields() {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            line.append(i).append(' ');
+        }
+
+        FieldTokenizer tokenizer = new FieldTokenizer(" ").reset(line);
+        assertThat("field count", tokenizer.getFieldCount(), is(100));
+        assertThat("last field", tokenizer.parseInt(99), is(99));
+    }
+
+    @Test
+    public void rangeOfLine() {
+        FieldTokenizer tokenizer = new FieldTokenizer(" ").reset(HP_UX_LINE, 5, 16);
+
+        assertThat("field count", tokenizer.getFieldCount(), is(3));
+        assertThat("start is relative to line", tokenizer.getStart(0), is(5));
+        assertThat("countFields", FieldTokenizer.countFields(HP_UX_LINE, 5, 16, " "), is(3));
+    }
+
+    @Test
+    public void parseNumbers() {
+        FieldTokenizer tokenizer = new FieldTokenizer(" ").reset(HP_UX_LINE);
+
+        assertThat("int", tokenizer.parseInt(1), is(-1));
+        assertThat("double", tokenizer.parseDouble(2), is(1.234));
+        assertThat("long", tokenizer.parseLong(17), is(8388608L));
+        assertThat("pause", tokenizer.parseDouble(18), is(0.0123));
+        assertThat("fieldEquals", tokenizer.fieldEquals(0, "<GC:"), is(true));
+        assertThat("fieldEquals other", tokenizer.fieldEquals(0, "<GC"), is(false));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseNoNumber() {
+        new FieldTokenizer(" ").reset(HP_UX_LINE).parseLong(0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void fieldOutOfBounds() {
+        new FieldTokenizer(" ").reset("GC 1.0").fieldEquals(2, "GC");
+    }
+}
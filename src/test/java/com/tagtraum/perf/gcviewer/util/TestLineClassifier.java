@@ -0,0 +1,114 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.tagtraum.perf.gcviewer.util.LineClassifier.Classification;
+import org.junit.Test;
+
+/**
+ * Tests the class {@link LineClassifier}.
+ */
+public class TestLineClassifier {
+
+    private enum Category { EXCLUDE, INFO }
+
+    private static final List<String> EXCLUDE = Arrays.asList("Desired survivor", "- age", " [Times", "free", " free", "to");
+    private static final List<String> INFO = Arrays.asList("Java HotSpot", "Memory:", "tota", "free list");
+    private static final String[] SUBSTRINGS = {"Application time:", "he", "she", "his", "hers", "GC", "GC pause", "secs]", "s"};
+
+    private LineClassifier<Category> createClassifier() {
+        return new LineClassifier.Builder<Category>()
+                .addPrefixes(Category.EXCLUDE, EXCLUDE)
+                .addPrefixes(Category.INFO, INFO)
+                .addSubstrings(SUBSTRINGS)
+                .build();
+    }
+
+    private Category expectedCategory(String line) {
+        for (String prefix : EXCLUDE) {
+            if (line.startsWith(prefix)) {
+                return Category.EXCLUDE;
+            }
+        }
+        for (String prefix : INFO) {
+            if (line.startsWith(prefix)) {
+                return Category.INFO;
+            }
+        }
+
+        return null;
+    }
+
+    private void assertClassification(LineClassifier<Category> classifier, Classification<Category> classification, String line) {
+        classifier.classify(line, classification);
+        assertThat("category of '" + line + "'", classification.getPrefixCategory(), is(expectedCategory(line)));
+        assertThat("trimmed category of '" + line + "'", classifier.getPrefixCategory(line, true), is(expectedCategory(line.trim())));
+        for (String substring : SUBSTRINGS) {
+            assertThat("index of '" + substring + "' in '" + line + "'", classification.indexOf(substring), is(line.indexOf(substring)));
+        }
+    }
+
+    @Test
+    public void gcLogLines() {
+        LineClassifier<Category> classifier = createClassifier();
+        Classification<Category> classification = classifier.newClassification();
+
+        assertClassification(classifier, classification, "0.295: [GC pause (young), 0.00594747 secs]");
+        assertClassification(classifier, classification, "Desired survivor size 3342336 bytes, new threshold 1 (max 15)");
+        assertClassification(classifier, classification, " [Times: user=0.01 sys=0.00, real=0.01 secs]");
+        assertClassification(classifier, classification, "  total 1234K");
+        assertClassification(classifier, classification, "free list statistics");
+        assertClassification(classifier, classification, "2.1: Application time: 0.5 seconds");
+        assertClassification(classifier, classification, "ushers");
+        assertClassification(classifier, classification, "t");
+        assertClassification(classifier, classification, "");
+        assertClassification(classifier, classification, "Java HotSpotä (TM) secs]");
+    }
+
+    @Test
+    public void prefixOfSeveralCategories() {
+        LineClassifier<Category> classifier = createClassifier();
+
+        // "free" is excluded, "free list" is information; the category added first wins
+        assertThat("free list", classifier.getPrefixCategory("free list", false), is(Category.EXCLUDE));
+        assertThat("not trimmed", classifier.getPrefixCategory("   Memory: 4k", false), nullValue());
+        assertThat("trimmed", classifier.getPrefixCategory("   Memory: 4k", true), is(Category.INFO));
+        assertThat("trailing blanks", classifier.getPrefixCategory("  to ", true), is(Category.EXCLUDE));
+    }
+
+    @Test
+    public void randomLines() {
+        LineClassifier<Category> classifier = createClassifier();
+        Classification<Category> classification = classifier.newClassification();
+        Random random = new Random(42);
+        String alphabet = "hersiGC pausecs]to-ag ";
+        for (int i = 0; i < 10000; ++i) {
+            StringBuilder line = new StringBuilder();
+            int length = random.nextInt(30);
+            for (int j = 0; j < length; ++j) {
+                line.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            assertClassification(classifier, classification, line.toString());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownSubstring() {
+        LineClassifier<Category> classifier = createClassifier();
+        classifier.classify("GC", classifier.newClassification()).indexOf("unknown");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void builderUsedAfterBuild() {
+        LineClassifier.Builder<Category> builder = new LineClassifier.Builder<Category>().addSubstrings("GC");
+        builder.build();
+        builder.addSubstrings("secs]");
+    }
+}
@@ -0,0 +1,150 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import com.tagtraum.perf.gcviewer.util.LoadStatistics.Phase;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the class {@link LoadStatistics}.
+ */
+public class TestLoadStatistics {
+
+    @After
+    public void tearDown() {
+        LoadStatistics statistics = LoadStatistics.current();
+        if (statistics != null) {
+            statistics.end();
+        }
+    }
+
+    private void busyWait(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            // spin
+        }
+    }
+
+    @Test
+    public void beginNested() {
+        LoadStatistics statistics = LoadStatistics.begin("outer");
+        assertThat("current", LoadStatistics.current(), sameInstance(statistics));
+        assertThat("nested begin", LoadStatistics.begin("inner"), nullValue());
+
+        statistics.end();
+        assertThat("current after end", LoadStatistics.current(), nullValue());
+    }
+
+    @Test
+    public void noLoadGoingOn() {
+        InputStream in = new ByteArrayInputStream(new byte[1]);
+        assertThat("stream not instrumented", LoadStatistics.instrument(in, Phase.FILE_READ), sameInstance(in));
+        assertThat("enter", LoadStatistics.enterPhase(Phase.PARSE), nullValue());
+        LoadStatistics.exitPhase(null);
+        assertThat("model add", LoadStatistics.enterModelAdd(), nullValue());
+    }
+
+    @Test
+    public void exclusiveTime() {
+        LoadStatistics statistics = LoadStatistics.begin("exclusive");
+        Phase outer = LoadStatistics.enterPhase(Phase.PARSE);
+        busyWait(2000000);
+        Phase inner = LoadStatistics.enterPhase(Phase.FILE_READ);
+        busyWait(20000000);
+        LoadStatistics.exitPhase(inner);
+        LoadStatistics.exitPhase(outer);
+        statistics.end();
+
+        assertThat("outer phase left", inner, is(Phase.PARSE));
+        assertThat("parse", statistics.getWallNanos(Phase.PARSE), greaterThanOrEqualTo(2000000L));
+        assertThat("parse without file read", statistics.getWallNanos(Phase.PARSE), not(greaterThan(10000000L)));
+        assertThat("file read", statistics.getWallNanos(Phase.FILE_READ), greaterThanOrEqualTo(20000000L));
+        assertThat("total", statistics.getTotalWallNanos(),
+                greaterThanOrEqualTo(statistics.getWallNanos(Phase.PARSE) + statistics.getWallNanos(Phase.FILE_READ)));
+        if (statistics.isCpuTimeSupported()) {
+            assertThat("cpu file read", statistics.getCpuNanos(Phase.FILE_READ), greaterThan(0L));
+        }
+    }
+
+    @Test
+    public void allocatedBytes() {
+        LoadStatistics statistics = LoadStatistics.begin("allocation");
+        Phase previous = LoadStatistics.enterPhase(Phase.PARSE);
+        byte[][] garbage = new byte[16][];
+        for (int i = 0; i < garbage.length; ++i) {
+            garbage[i] = new byte[64 * 1024];
+        }
+        LoadStatistics.exitPhase(previous);
+        statistics.end();
+
+        assertThat("garbage", garbage[15].length, is(64 * 1024));
+        if (statistics.isAllocatedBytesSupported()) {
+            assertThat("allocated", statistics.getAllocatedBytes(Phase.PARSE), greaterThanOrEqualTo(16L * 64 * 1024));
+        }
+    }
+
+    @Test
+    public void modelAdd() {
+        LoadStatistics statistics = LoadStatistics.begin("model");
+        Phase previous = LoadStatistics.enterPhase(Phase.PARSE);
+        for (int i = 0; i < 3; ++i) {
+            LoadStatistics.enterModelAdd().exitModelAdd();
+        }
+        LoadStatistics.exitPhase(previous);
+        statistics.end();
+
+        assertThat("events", statistics.getEvents(), is(3L));
+        assertThat("model add", statistics.getCount(Phase.MODEL_ADD), is(3L));
+        assertThat("no cpu time for model add", statistics.getCpuNanos(Phase.MODEL_ADD), is(0L));
+    }
+
+    @Test
+    public void instrumentedStreams() throws Exception {
+        byte[] log = "line 1\nline 2\nline 3\n".getBytes(StandardCharsets.US_ASCII);
+        LoadStatistics statistics = LoadStatistics.begin("streams");
+        InputStream in = LoadStatistics.instrument(new ByteArrayInputStream(log), Phase.FILE_READ);
+        Reader reader = LoadStatistics.instrument(new InputStreamReader(in, StandardCharsets.US_ASCII), Phase.READ_LINES);
+        LineNumberReader lineReader = new LineNumberReader(reader);
+        LoadStatistics.setLineSource(lineReader::getLineNumber);
+        while (lineReader.readLine() != null) {
+            // read all
+        }
+        statistics.end();
+
+        assertThat("bytes", statistics.getBytes(Phase.FILE_READ), is((long) log.length));
+        assertThat("chars", statistics.getBytes(Phase.READ_LINES), is((long) log.length));
+        assertThat("lines", statistics.getLines(), is(3L));
+    }
+
+    @Test
+    public void toJsonAndToString() {
+        LoadStatistics statistics = LoadStatistics.begin("c:\\logs\\\"gc\".log");
+        Phase previous = LoadStatistics.enterPhase(Phase.DECOMPRESS);
+        statistics.addBytes(Phase.DECOMPRESS, 42);
+        LoadStatistics.exitPhase(previous);
+        statistics.end();
+
+        String json = statistics.toJson();
+        assertThat("resource", json, containsString("\"resource\":\"c:\\\\logs\\\\\\\"gc\\\".log\""));
+        assertThat("phase", json, containsString("\"DECOMPRESS\":{\"count\":1,"));
+        assertThat("bytes", json, containsString("\"bytes\":42}"));
+        assertThat("all phases", json, containsString("\"RENDER\":{\"count\":0,"));
+        assertThat("table", statistics.toString(), containsString("DECOMPRESS"));
+        assertThat("only phases entered", statistics.toString(), not(containsString("RENDER")));
+    }
+}
@@ -1,5 +1,7 @@
 package com.tagtraum.perf.gcviewer.util;
 
+import java.util.Random;
+
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
@@ -63,4 +65,36 @@ public class TestNumberParser {
         Assert.assertThat("char negative long", result, Matchers.is(-6442450944L));
     }
 
+    @Test
+    public void testParseDoubleRange() throws Exception {
+        String line = "0.5: [GC 1234K->56K(789K), 0,0013 secs]";
+        Assert.assertThat("double in line", NumberParser.parseDouble(line, 0, 3), Matchers.is(0.5));
+        Assert.assertThat("comma", NumberParser.parseDouble(line, 27, 6), Matchers.is(0.0013));
+    }
+
+    @Test
+    public void testParseDoubleSameAsDouble() throws Exception {
+        String[] doubles = {"0", "-0", "1", "-1", "0.1", "0.0012345", "1.", ".5", "-.5", "123456.789012",
+                "9007199254740993", "0.30000000000000004", "1.0000000000000000000000001", "1e-3", " 1.5", "Infinity"};
+        for (String s : doubles) {
+            Assert.assertThat(s, NumberParser.parseDouble(s, 0, s.length()), Matchers.is(Double.parseDouble(s)));
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; ++i) {
+            String s = random.nextInt(100000) + "." + String.format("%07d", random.nextInt(10000000));
+            Assert.assertThat(s, NumberParser.parseDouble(s, 0, s.length()), Matchers.is(Double.parseDouble(s)));
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseDoubleNoNumber() throws Exception {
+        NumberParser.parseDouble("0.1.2", 0, 5);
+    }
+
+    @Test
+    public void testParseLongRange() throws Exception {
+        Assert.assertThat("long in line", NumberParser.parseLong(new StringBuilder("x 6442450944 y"), 2, 10), Matchers.is(6442450944L));
+    }
+
 }
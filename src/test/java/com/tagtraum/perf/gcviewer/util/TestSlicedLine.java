@@ -0,0 +1,106 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link SlicedLine}.
+ */
+public class TestSlicedLine {
+
+    @Test
+    public void appendSlicesOfLines() {
+        String first = "0.5: [GC 0.5: [ParNew";
+        String second = "Desired survivor size 1 bytes: 1234K->56K(789K), 0.0012 secs] 1234K->56K(3456K), 0.0013 secs]";
+        SlicedLine line = new SlicedLine()
+                .append(first)
+                .append(second, second.indexOf(':'), second.length());
+
+        String expected = first + second.substring(second.indexOf(':'));
+        assertThat("length", line.length(), is(expected.length()));
+        assertThat("toString", line.toString(), is(expected));
+        assertThat("slices", line.getSliceCount(), is(2));
+        for (int i = 0; i < expected.length(); ++i) {
+            assertThat("charAt " + i, line.charAt(i), is(expected.charAt(i)));
+        }
+    }
+
+    @Test
+    public void contiguousSlicesAreMerged() {
+        String source = "0.5: [GC 1234K->56K(789K), 0.0012 secs]";
+        SlicedLine line = new SlicedLine()
+                .append(source, 0, 5)
+                .append(source, 5, 12)
+                .append(source, 12, source.length());
+
+        assertThat("slices", line.getSliceCount(), is(1));
+        assertThat("toString", line.toString(), is(source));
+    }
+
+    @Test
+    public void appendSlicedLine() {
+        SlicedLine beginning = new SlicedLine().append("abc").append("def");
+        SlicedLine line = new SlicedLine().append("x").append(beginning, 2, 5).append("y");
+
+        assertThat("toString", line.toString(), is("xcdey"));
+        assertThat("slices", line.getSliceCount(), is(4));
+
+        // changing beginning later must not change line
+        beginning.append("ghi");
+        assertThat("toString after change", line.toString(), is("xcdey"));
+        assertThat("beginning", beginning.toString(), is("abcdefghi"));
+    }
+
+    @Test
+    public void subSequence() {
+        SlicedLine line = new SlicedLine().append("0.5: [GC").append(" 1234K->56K(789K)").append(", 0.0012 secs]");
+
+        assertThat("subSequence", line.subSequence(6, 15).toString(), is("GC 1234K-"));
+        assertThat("empty", line.subSequence(3, 3).length(), is(0));
+    }
+
+    @Test
+    public void emptyLine() {
+        SlicedLine line = new SlicedLine().append("").append("abc", 1, 1);
+
+        assertThat("length", line.length(), is(0));
+        assertThat("toString", line.toString(), is(""));
+    }
+
+    @Test
+    public void randomSlices() {
+        Random random = new Random(42);
+        String source = "2015-05-14T18:55:12.588+0200: 1.157: [GC (CMS Final Remark) [YG occupancy: 10451 K (47936 K)]";
+        for (int i = 0; i < 1000; ++i) {
+            SlicedLine line = new SlicedLine();
+            StringBuilder expected = new StringBuilder();
+            for (int slice = random.nextInt(10); slice > 0; --slice) {
+                int start = random.nextInt(source.length());
+                int end = start + random.nextInt(source.length() - start + 1);
+                line.append(source, start, end);
+                expected.append(source, start, end);
+            }
+
+            // read in random order to use the binary search as well as the cached slice
+            for (int j = 0; j < expected.length(); ++j) {
+                int index = random.nextInt(expected.length());
+                assertThat("charAt " + index, line.charAt(index), is(expected.charAt(index)));
+            }
+            assertThat("toString", line.toString(), is(expected.toString()));
+        }
+    }
+
+    @Test(expected = StringIndexOutOfBoundsException.class)
+    public void charAtOutOfBounds() {
+        new SlicedLine().append("abc").append("def").charAt(6);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void appendOutOfBounds() {
+        new SlicedLine().append("abc", 2, 4);
+    }
+}
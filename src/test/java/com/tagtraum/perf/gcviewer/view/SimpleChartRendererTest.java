@@ -0,0 +1,102 @@
+package com.tagtraum.perf.gcviewer.view;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.imp.DataReaderSun1_6_0;
+import com.tagtraum.perf.gcviewer.imp.DataReaderSun1_6_0G1;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.view.model.GCPreferences;
+import org.junit.Test;
+
+/**
+ * Tests the headless chart rendering of {@link SimpleChartRenderer}.
+ */
+public class SimpleChartRendererTest {
+
+    private static final Dimension SIZE = new Dimension(800, 600);
+
+    @Test
+    public void renderImage() throws Exception {
+        GCModel model = UnittestHelper.getGCModelFromLogFile("SampleSun1_6_0CMS.txt", FOLDER.OPENJDK, DataReaderSun1_6_0.class);
+
+        BufferedImage image = new SimpleChartRenderer().renderImage(model, new GCPreferences(), SIZE);
+
+        assertThat("width", image.getWidth(), is(SIZE.width));
+        assertThat("height", image.getHeight(), is(SIZE.height));
+        assertThat("number of non white pixels", countNonWhitePixels(image), greaterThan(1000));
+    }
+
+    @Test
+    public void renderPng() throws Exception {
+        GCModel model = UnittestHelper.getGCModelFromLogFile("SampleSun1_7_0-01_G1_young.txt", FOLDER.OPENJDK, DataReaderSun1_6_0G1.class);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SimpleChartRenderer().render(model, new GCPreferences(), SIZE, out);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertThat("png image", image, notNullValue());
+        assertThat("width", image.getWidth(), is(SIZE.width));
+    }
+
+    @Test
+    public void renderInParallel() throws Exception {
+        GCModel model = UnittestHelper.getGCModelFromLogFile("SampleSun1_6_0CMS.txt", FOLDER.OPENJDK, DataReaderSun1_6_0.class);
+        SimpleChartRenderer renderer = new SimpleChartRenderer();
+        BufferedImage expectedImage = renderer.renderImage(model, new GCPreferences(), SIZE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<BufferedImage>> images = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                images.add(executor.submit(() -> renderer.renderImage(model, new GCPreferences(), SIZE)));
+            }
+
+            for (Future<BufferedImage> image : images) {
+                assertThat("same image when rendered in parallel", isSameImage(expectedImage, image.get()), is(true));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int countNonWhitePixels(BufferedImage image) {
+        int count = 0;
+        for (int x = 0; x < image.getWidth(); ++x) {
+            for (int y = 0; y < image.getHeight(); ++y) {
+                if (image.getRGB(x, y) != Color.WHITE.getRGB()) {
+                    ++count;
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean isSameImage(BufferedImage expected, BufferedImage actual) {
+        for (int x = 0; x < expected.getWidth(); ++x) {
+            for (int y = 0; y < expected.getHeight(); ++y) {
+                if (expected.getRGB(x, y) != actual.getRGB(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
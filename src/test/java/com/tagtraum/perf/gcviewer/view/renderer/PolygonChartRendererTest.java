@@ -0,0 +1,127 @@
+package com.tagtraum.perf.gcviewer.view.renderer;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.awt.Polygon;
+import java.util.Arrays;
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.imp.DataReaderSun1_6_0;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.view.HeadlessModelChart;
+import com.tagtraum.perf.gcviewer.view.model.GCPreferences;
+import com.tagtraum.perf.gcviewer.view.renderer.PolygonChartRenderer.ScaledPolygon;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the incremental update of the polygons in {@link PolygonChartRenderer}: the result must
+ * always be the same as computing the polygon from scratch.
+ */
+public class PolygonChartRendererTest {
+
+    private HeadlessModelChart chart;
+    private GCModel model;
+    private List<PolygonChartRenderer> renderers;
+
+    @Before
+    public void setUp() throws Exception {
+        model = UnittestHelper.getGCModelFromLogFile("SampleSun1_6_0CMS.txt", FOLDER.OPENJDK, DataReaderSun1_6_0.class);
+        chart = new HeadlessModelChart();
+        chart.setModel(model, new GCPreferences());
+        chart.setScaleFactor(800 / model.getRunningTime());
+
+        renderers = Arrays.asList(new GCTimesRenderer(chart),
+                new InitialMarkLevelRenderer(chart),
+                new TotalHeapRenderer(chart),
+                new TotalTenuredRenderer(chart),
+                new TotalYoungRenderer(chart),
+                new UsedHeapRenderer(chart),
+                new UsedTenuredRenderer(chart),
+                new UsedYoungRenderer(chart));
+        for (PolygonChartRenderer renderer : renderers) {
+            renderer.setBounds(0, 0, 800, 600);
+        }
+    }
+
+    @Test
+    public void appendEventsOfGrowingModel() {
+        for (PolygonChartRenderer renderer : renderers) {
+            renderer.updatePolygon(chart, createModel(model.size() / 3));
+            renderer.updatePolygon(chart, createModel(model.size() * 2 / 3));
+            Polygon polygon = renderer.updatePolygon(chart, model);
+
+            assertSamePolygon(renderer, renderer.computePolygon(chart, model), polygon);
+        }
+    }
+
+    @Test
+    public void rescaleWithoutNewEvents() {
+        for (PolygonChartRenderer renderer : renderers) {
+            renderer.updatePolygon(chart, model);
+        }
+
+        chart.setFootprint(model.getFootprint() * 2);
+        chart.setMaxPause(model.getPause().getMax() * 2);
+        chart.setScaleFactor(chart.getScaleFactor() * 3);
+        for (PolygonChartRenderer renderer : renderers) {
+            Polygon polygon = renderer.updatePolygon(chart, model);
+
+            assertSamePolygon(renderer, renderer.computePolygon(chart, model), polygon);
+        }
+    }
+
+    @Test
+    public void rebuildForDifferentModel() {
+        GCModel otherModel = new GCModel();
+        for (int i = model.size() / 2; i < model.size(); ++i) {
+            otherModel.add(model.get(i));
+        }
+
+        for (PolygonChartRenderer renderer : renderers) {
+            renderer.updatePolygon(chart, createModel(model.size() / 2));
+            Polygon polygon = renderer.updatePolygon(chart, otherModel);
+
+            assertSamePolygon(renderer, renderer.computePolygon(chart, otherModel), polygon);
+        }
+    }
+
+    @Test
+    public void resetToMark() {
+        ScaledPolygon polygon = new ScaledPolygon(1, 1, 100);
+        polygon.addPoint(0, 10);
+        polygon.addPoint(10, 10);
+        polygon.addPoint(20, 10);
+        polygon.mark();
+        polygon.addPoint(30, 10);
+        polygon.addPoint(30, 0);
+
+        polygon.resetToMark();
+
+        ScaledPolygon expectedPolygon = new ScaledPolygon(1, 1, 100);
+        expectedPolygon.addPoint(0, 10);
+        expectedPolygon.addPoint(10, 10);
+        expectedPolygon.addPoint(20, 10);
+        assertSamePolygon(null, expectedPolygon, polygon);
+    }
+
+    private GCModel createModel(int size) {
+        GCModel partialModel = new GCModel();
+        for (int i = 0; i < size; ++i) {
+            partialModel.add(model.get(i));
+        }
+
+        return partialModel;
+    }
+
+    private void assertSamePolygon(PolygonChartRenderer renderer, Polygon expected, Polygon actual) {
+        String name = renderer != null ? renderer.getClass().getSimpleName() : "polygon";
+        assertThat(name + " npoints", actual.npoints, is(expected.npoints));
+        assertThat(name + " xpoints", Arrays.copyOf(actual.xpoints, actual.npoints), is(Arrays.copyOf(expected.xpoints, expected.npoints)));
+        assertThat(name + " ypoints", Arrays.copyOf(actual.ypoints, actual.npoints), is(Arrays.copyOf(expected.ypoints, expected.npoints)));
+    }
+
+}